@@ -337,9 +337,7 @@ public class AnnotationApiController {
 
         try {
             final List<String> deleted = annotService.deleteAnnotationsById(annotationList.getIds(), authUser.getUserInfo());
-            for (final String annotationId : deleted) {
-                messageBroker.publish(annotationId, MessageBroker.ACTION.DELETE, request.getHeader(CLIENT_HEADER));
-            }
+            messageBroker.publish(deleted, MessageBroker.ACTION.DELETE, request.getHeader(CLIENT_HEADER));
 
             LOG.info("Annotations deleted, return Http status 200 and success");
             return new ResponseEntity<Object>(new JsonBulkDeleteSuccessResponse(), HttpStatus.OK);
@@ -15,6 +15,7 @@ package eu.europa.ec.leos.annotate.repository;
 
 import eu.europa.ec.leos.annotate.model.AnnotationStatus;
 import eu.europa.ec.leos.annotate.model.entity.Annotation;
+import eu.europa.ec.leos.annotate.model.entity.Metadata;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
@@ -22,9 +23,11 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -125,4 +128,107 @@ public interface AnnotationRepository extends PagingAndSortingRepository<Annotat
      * @return
      */
     List<Annotation> findByMetadataIdIsInAndStatusIsInAndSentDeletedIsTrue(List<Long> metadataIds, List<AnnotationStatus> status);
+
+    /**
+     * find annotations with given IDs and having a specific status
+     * 
+     * @param annotIds
+     *        the annotations' IDs
+     * @param status
+     *        the desired {@link AnnotationStatus} of the annotations
+     * @return found annotations
+     */
+    List<Annotation> findByIdIsInAndStatus(List<String> annotIds, AnnotationStatus status);
+
+    /**
+     * set the status of the annotations with given IDs, as long as they still have the expected status
+     * note: the replies are not updated, see {@link #updateStatusOfReplies}
+     * 
+     * @param annotIds
+     *        the IDs of the annotations to be updated
+     * @param oldStatus
+     *        the status the annotations are expected to have
+     * @param newStatus
+     *        the new status to be applied
+     * @param statusUpdated
+     *        timestamp of the status change
+     * @param userId
+     *        internal DB id of the user requesting the status change
+     * @return number of annotations updated
+     */
+    @Modifying
+    @Query("update Annotation a set a.status = :newStatus, a.statusUpdated = :statusUpdated, a.statusUpdatedBy = :userId " +
+            "where a.id in :annotIds and a.status = :oldStatus")
+    int updateStatus(@Param("annotIds") List<String> annotIds, @Param("oldStatus") AnnotationStatus oldStatus,
+            @Param("newStatus") AnnotationStatus newStatus, @Param("statusUpdated") LocalDateTime statusUpdated, @Param("userId") long userId);
+
+    /**
+     * set the status of all replies to the annotations with given IDs, as long as they still have the expected status
+     * note: replies always reference the thread's root, so only replies of root annotations are concerned
+     * 
+     * @param annotIds
+     *        the IDs of the annotations whose replies are to be updated
+     * @param oldStatus
+     *        the status the replies are expected to have
+     * @param newStatus
+     *        the new status to be applied
+     * @param statusUpdated
+     *        timestamp of the status change
+     * @param userId
+     *        internal DB id of the user requesting the status change
+     * @return number of replies updated
+     */
+    @Modifying
+    @Query("update Annotation a set a.status = :newStatus, a.statusUpdated = :statusUpdated, a.statusUpdatedBy = :userId " +
+            "where a.rootAnnotationId in :annotIds and a.status = :oldStatus")
+    int updateStatusOfReplies(@Param("annotIds") List<String> annotIds, @Param("oldStatus") AnnotationStatus oldStatus,
+            @Param("newStatus") AnnotationStatus newStatus, @Param("statusUpdated") LocalDateTime statusUpdated, @Param("userId") long userId);
+
+    /**
+     * make the private annotations with given IDs become shared
+     * 
+     * @param annotIds
+     *        the IDs of the annotations to be updated
+     * @return number of annotations updated
+     */
+    @Modifying
+    @Query("update Annotation a set a.shared = true where a.id in :annotIds and a.shared = false")
+    int updateShared(@Param("annotIds") List<String> annotIds);
+
+    /**
+     * set the "updated" timestamp of the annotations with given IDs
+     * 
+     * @param annotIds
+     *        the IDs of the annotations to be updated
+     * @param updated
+     *        the new timestamp to be applied
+     * @return number of annotations updated
+     */
+    @Modifying
+    @Query("update Annotation a set a.updated = :updated where a.id in :annotIds")
+    int updateUpdated(@Param("annotIds") List<String> annotIds, @Param("updated") LocalDateTime updated);
+
+    /**
+     * remove the link to another annotation from the annotations with given IDs
+     * 
+     * @param annotIds
+     *        the IDs of the annotations to be updated
+     * @return number of annotations updated
+     */
+    @Modifying
+    @Query("update Annotation a set a.linkedAnnotationId = null where a.id in :annotIds")
+    int removeLinkedAnnotation(@Param("annotIds") List<String> annotIds);
+
+    /**
+     * assign the annotations with given IDs to another metadata set
+     * 
+     * @param annotIds
+     *        the IDs of the annotations to be updated
+     * @param metadata
+     *        the (persisted) {@link Metadata} to be assigned
+     * @return number of annotations updated
+     */
+    @Modifying
+    @Query("update Annotation a set a.metadata = :metadata where a.id in :annotIds")
+    int updateMetadata(@Param("annotIds") List<String> annotIds, @Param("metadata") Metadata metadata);
 }
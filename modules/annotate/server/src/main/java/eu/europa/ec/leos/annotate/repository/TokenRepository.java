@@ -15,7 +15,11 @@ package eu.europa.ec.leos.annotate.repository;
 
 import eu.europa.ec.leos.annotate.model.entity.Token;
 import eu.europa.ec.leos.annotate.model.entity.User;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -64,4 +68,16 @@ public interface TokenRepository extends CrudRepository<Token, Long> {
     List<Token> findByUserAndAccessTokenExpiresLessThanEqualAndRefreshTokenExpiresLessThanEqual(User user, 
             LocalDateTime accessTokenExpiration,
             LocalDateTime refreshTokenExpiration);
+
+    /**
+     * delete all {@link Token} objects whose access and refresh tokens expired before a certain time, in a single statement
+     * 
+     * @param expiration the expiration date/time for the access and refresh tokens
+     * 
+     * @return number of deleted tokens
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from Token t where t.refreshTokenExpires <= :expiration and t.accessTokenExpires <= :expiration")
+    int deleteExpired(@Param("expiration") LocalDateTime expiration);
 }
@@ -23,6 +23,7 @@ import eu.europa.ec.leos.annotate.services.exceptions.*;
 import javax.annotation.Nonnull;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface AnnotationService {
@@ -77,6 +78,17 @@ public interface AnnotationService {
      */
     Annotation findAnnotationById(String annotId);
 
+    /**
+     * look up several annotations based on their IDs, without considering permissions
+     * 
+     * @param annotIds
+     *        the IDs of the wanted annotations
+     *        
+     * @return returns the found annotation objects; note: only non-deleted annotations are returned
+     */
+    @Nonnull
+    List<Annotation> findAnnotationsById(List<String> annotIds);
+
     /**
      * look up an annotation based on its ID, taking permissions into account
      * 
@@ -127,6 +139,15 @@ public interface AnnotationService {
      */
     @Nonnull
     List<Annotation> findByMetadata(final List<Long> metadataIds);
+
+    /**
+     * count the annotations having a certain metadata ID, whatever their status
+     * 
+     * @param metadataId
+     *        the {@link Metadata} ID to match
+     * @return number of annotations
+     */
+    long countByMetadata(final long metadataId);
     
     /**
      * save a given list of {@link Annotation}s
@@ -179,13 +200,47 @@ public interface AnnotationService {
     void softDeleteAnnotation(final Annotation annot, final long userId)
             throws CannotDeleteAnnotationException;
 
+    /**
+     * soft deletion of a set of annotations in bulk statements
+     * (the replies of root annotations are deleted as well)
+     * note: only annotations having status NORMAL are deleted
+     * 
+     * @param annotIds
+     *        the IDs of the annotations to be deleted
+     * @param userId
+     *        ID of the user requesting deletion
+     * @return number of deleted annotations, without the deleted replies
+     */
+    int softDeleteAnnotations(final Collection<String> annotIds, final long userId);
+
     /**
      * change a given set of annotations to become public and save them
      * 
      * @param annots
      *        list of {@link Annotation}s to be made public
+     * @return number of annotations that were private and have been made public
+     */
+    int makeShared(final List<Annotation> annots);
+
+    /**
+     * remove the link to another annotation from a given set of annotations
+     * 
+     * @param annotIds
+     *        the IDs of the annotations to be updated
+     * @return number of updated annotations
+     */
+    int removeLinkedAnnotations(final List<String> annotIds);
+
+    /**
+     * assign a given set of annotations to another metadata set
+     * 
+     * @param annotIds
+     *        the IDs of the annotations to be updated
+     * @param metadata
+     *        the persisted {@link Metadata} to be assigned
+     * @return number of updated annotations
      */
-    void makeShared(final List<Annotation> annots);
+    int reassignMetadata(final List<String> annotIds, final Metadata metadata);
 
     /**
      * method for updating the status of an annotation (recursive, if needed, e.g. for root annotations)
@@ -209,6 +264,7 @@ public interface AnnotationService {
      *        list of {@link Annotation}s to be updated
      * @param timestamp
      *        the new timestamp to be applied
+     * @return number of updated annotations
      */
-    void saveWithUpdatedTimestamp(final List<Annotation> annots, final LocalDateTime timestamp);
+    int saveWithUpdatedTimestamp(final List<Annotation> annots, final LocalDateTime timestamp);
 }
@@ -85,4 +85,12 @@ public interface AuthenticationService {
      * @return {@literal true} if something was cleaned; {@literal false} if there was nothing to clean or an error occured 
      */
     boolean cleanupExpiredUserTokens(User user);
+
+    /**
+     * cleanup procedure for removing the tokens of all users whose access and refresh tokens have already expired;
+     * run periodically, see token.cleanup.interval
+     * 
+     * @return number of removed tokens
+     */
+    int cleanupExpiredTokens();
 }
@@ -32,6 +32,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
@@ -42,8 +43,14 @@ import java.rmi.activation.UnknownGroupException;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
 /**
@@ -56,6 +63,7 @@ public class AnnotationServiceImpl implements AnnotationService {
     private static final String ERROR_USERINFO_MISSING = "Required user information missing.";
     private static final int PRECEDING_AND_SUCCEEDING_MAX_LENGTH = 300;
     private static final int MAX_REPLIES_SUGGESTION_JUSTIFICATION = 1;
+    private static final int MAX_IDS_PER_STATEMENT = 1000; // Oracle does not accept more items in an IN list
 
     // -------------------------------------
     // Required services and repositories
@@ -115,6 +123,18 @@ public class AnnotationServiceImpl implements AnnotationService {
         return annotRepos.findByIdAndStatus(annotId, AnnotationStatus.NORMAL);
     }
 
+    @Override
+    @Nonnull
+    public List<Annotation> findAnnotationsById(final List<String> annotIds) {
+
+        final List<Annotation> found = new ArrayList<>();
+        if (!CollectionUtils.isEmpty(annotIds)) {
+            partition(new ArrayList<>(new LinkedHashSet<>(annotIds)))
+                    .forEach(ids -> found.addAll(annotRepos.findByIdIsInAndStatus(ids, AnnotationStatus.NORMAL)));
+        }
+        return found;
+    }
+
     @Override
     public Annotation findAnnotationById(final String annotId, final String userlogin, final String userContext) throws MissingPermissionException {
 
@@ -163,6 +183,12 @@ public class AnnotationServiceImpl implements AnnotationService {
         return annotRepos.findByMetadataIdIsIn(metadataIds);
     }
 
+    @Override
+    public long countByMetadata(final long metadataId) {
+
+        return annotRepos.countByMetadataId(metadataId);
+    }
+
     @Override
     public List<Annotation> saveAll(final List<Annotation> annots) {
 
@@ -722,6 +748,7 @@ public class AnnotationServiceImpl implements AnnotationService {
     }
 
     @Override
+    @Transactional
     public List<String> deleteAnnotationsById(final List<String> annotationIds, final UserInformation userInfo) {
 
         Assert.notNull(userInfo, ERROR_USERINFO_MISSING);
@@ -731,26 +758,69 @@ public class AnnotationServiceImpl implements AnnotationService {
             LOG.warn("No annotations for bulk deletion received.");
             return deleted;
         }
+        annotationIds.forEach(annotationId -> Assert.isTrue(!StringUtils.isEmpty(annotationId), "Required annotation ID missing."));
 
         final List<String> errors = new ArrayList<>();
 
-        // simply call the method for deleting a single annotation and keep track of success and errors
-        for (final String annotationId : annotationIds) {
-            try {
-                deleteAnnotationById(annotationId, userInfo);
-                deleted.add(annotationId);
-            } catch (RuntimeException e) {
-                LOG.warn("Error while deleting one of several annotations", e);
-                throw e;
-            } catch (Exception e) {
+        // read all annotations at once; those having response status SENT require individual checks, all others are deleted together
+        final List<String> distinctIds = new ArrayList<>(new LinkedHashSet<>(annotationIds));
+        final Map<String, Annotation> foundById = findAnnotationsById(distinctIds).stream()
+                .collect(Collectors.toMap(Annotation::getId, ann -> ann));
+
+        final List<String> toDelete = new ArrayList<>();
+        final Set<String> deletedRoots = new HashSet<>();
+        for (final String annotationId : distinctIds) {
+            final Annotation ann = foundById.get(annotationId);
+
+            // a reply is already deleted together with its root annotation
+            if (ann == null || deletedRoots.contains(ann.getRootAnnotationId())) {
                 errors.add(annotationId);
+            } else if (AnnotationChecker.isResponseStatusSent(ann)) {
+                try {
+                    deleteAnnotationById(annotationId, userInfo);
+                    deleted.add(annotationId);
+                } catch (CannotDeleteAnnotationException | CannotDeleteSentAnnotationException e) {
+                    errors.add(annotationId);
+                }
+            } else {
+                toDelete.add(annotationId);
+                deleted.add(annotationId);
+                if (StringUtils.isEmpty(ann.getRootAnnotationId())) {
+                    deletedRoots.add(annotationId);
+                }
             }
         }
+
+        if (!toDelete.isEmpty()) {
+            final User user = userService.findByLoginAndContext(userInfo.getLogin(), userInfo.getContext());
+            softDeleteAnnotations(toDelete, user.getId());
+        }
         LOG.info("Annotation bulk deletion: {} annotations deleted successfully, {} errors", deleted.size(), errors.size());
 
         return deleted;
     }
 
+    @Override
+    @Transactional
+    public int softDeleteAnnotations(final Collection<String> annotIds, final long userId) {
+
+        if (CollectionUtils.isEmpty(annotIds)) {
+            return 0;
+        }
+
+        final List<String> distinctIds = new ArrayList<>(new LinkedHashSet<>(annotIds));
+        final LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+
+        // as in updateAnnotationStatus: the annotations themselves, then all replies of those being thread roots
+        final int deleted = updateInPartitions(distinctIds,
+                ids -> annotRepos.updateStatus(ids, AnnotationStatus.NORMAL, AnnotationStatus.DELETED, now, userId));
+        final int deletedReplies = updateInPartitions(distinctIds,
+                ids -> annotRepos.updateStatusOfReplies(ids, AnnotationStatus.NORMAL, AnnotationStatus.DELETED, now, userId));
+        LOG.debug("{} annotations and {} replies soft-deleted", deleted, deletedReplies);
+
+        return deleted;
+    }
+
     @Override
     public void softDeleteAnnotation(final Annotation annot, final long userId) throws CannotDeleteAnnotationException {
 
@@ -809,27 +879,79 @@ public class AnnotationServiceImpl implements AnnotationService {
     }
 
     @Override
-    public void makeShared(final List<Annotation> items) {
+    @Transactional
+    public int makeShared(final List<Annotation> items) {
 
         if (CollectionUtils.isEmpty(items)) {
             LOG.debug("No annotations received for making them shared");
-            return;
+            return 0;
         }
 
-        items.stream().forEach(annot -> annot.setShared(true));
-        annotRepos.save(items);
+        return updateInPartitions(extractDistinctIds(items), annotRepos::updateShared);
     }
 
     @Override
-    public void saveWithUpdatedTimestamp(final List<Annotation> annots, final LocalDateTime timestamp) {
+    @Transactional
+    public int saveWithUpdatedTimestamp(final List<Annotation> annots, final LocalDateTime timestamp) {
         
         if (CollectionUtils.isEmpty(annots)) {
             LOG.debug("No annotations received for updating the 'updated' property");
-            return;
+            return 0;
         }
         
-        annots.stream().forEach(annot -> annot.setUpdated(timestamp));
-        annotRepos.save(annots);
+        return updateInPartitions(extractDistinctIds(annots), ids -> annotRepos.updateUpdated(ids, timestamp));
+    }
+
+    @Override
+    @Transactional
+    public int removeLinkedAnnotations(final List<String> annotIds) {
+
+        if (CollectionUtils.isEmpty(annotIds)) {
+            return 0;
+        }
+        return updateInPartitions(new ArrayList<>(new LinkedHashSet<>(annotIds)), annotRepos::removeLinkedAnnotation);
+    }
+
+    @Override
+    @Transactional
+    public int reassignMetadata(final List<String> annotIds, final Metadata metadata) {
+
+        Assert.notNull(metadata, "Metadata to be assigned missing");
+        if (CollectionUtils.isEmpty(annotIds)) {
+            return 0;
+        }
+        return updateInPartitions(new ArrayList<>(new LinkedHashSet<>(annotIds)), ids -> annotRepos.updateMetadata(ids, metadata));
+    }
+
+    private static List<String> extractDistinctIds(final List<Annotation> annots) {
+        return annots.stream().map(Annotation::getId).distinct().collect(Collectors.toList());
+    }
+
+    /**
+     * run a bulk statement for a list of IDs, split into several statements if the list is too long for a single one
+     * 
+     * @param ids
+     *        the IDs to be passed to the statement
+     * @param update
+     *        the statement to run, returning the number of changed rows
+     * @return total number of changed rows
+     */
+    private static int updateInPartitions(final List<String> ids, final ToIntFunction<List<String>> update) {
+
+        int updated = 0;
+        for (final List<String> partition : partition(ids)) {
+            updated += update.applyAsInt(partition);
+        }
+        return updated;
+    }
+
+    private static List<List<String>> partition(final List<String> ids) {
+
+        final List<List<String>> partitions = new ArrayList<>();
+        for (int start = 0; start < ids.size(); start += MAX_IDS_PER_STATEMENT) {
+            partitions.add(ids.subList(start, Math.min(start + MAX_IDS_PER_STATEMENT, ids.size())));
+        }
+        return partitions;
     }
     
 }
\ No newline at end of file
@@ -30,11 +30,13 @@ import eu.europa.ec.leos.annotate.repository.TokenRepository;
 import eu.europa.ec.leos.annotate.services.AuthenticationServiceWithTestFunctions;
 import eu.europa.ec.leos.annotate.services.UUIDGeneratorService;
 import eu.europa.ec.leos.annotate.services.exceptions.*;
+import eu.europa.ec.leos.annotate.services.impl.util.AccessTokenCache;
 import eu.europa.ec.leos.annotate.services.impl.util.RegisteredClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
@@ -89,6 +91,9 @@ public class AuthenticationServiceImpl implements AuthenticationServiceWithTestF
     @Autowired
     private AuthenticatedUserStore authUserStore;
 
+    @Autowired
+    private AccessTokenCache accessTokenCache;
+
     // -------------------------------------
     // Constructor
     // -------------------------------------
@@ -222,7 +227,11 @@ public class AuthenticationServiceImpl implements AuthenticationServiceWithTestF
         final Token newUserToken = storeTokensForUser(userInfo.getUser(), userInfo.getAuthority(), uuidService.generateUrlSafeUUID(),
                 uuidService.generateUrlSafeUUID());
 
-        cleanupExpiredUserTokens(userInfo.getUser());
+        // the token used for refreshing is replaced by the new one
+        // note: expired tokens are removed periodically, see cleanupExpiredTokens
+        if (userInfo.getCurrentToken() != null) {
+            accessTokenCache.invalidate(userInfo.getCurrentToken().getAccessToken());
+        }
         return newUserToken;
     }
 
@@ -258,6 +267,12 @@ public class AuthenticationServiceImpl implements AuthenticationServiceWithTestF
             return null;
         }
 
+        final Token cachedToken = accessTokenCache.getCachedToken(accessToken);
+        if (cachedToken != null) {
+            // a new object is returned on each call, as callers complete it with request specific information
+            return new UserInformation(cachedToken);
+        }
+
         final Token foundToken = tokenRepository.findByAccessToken(accessToken);
         final UserInformation result = new UserInformation(foundToken);
         if (foundToken == null) {
@@ -270,6 +285,8 @@ public class AuthenticationServiceImpl implements AuthenticationServiceWithTestF
 
         if (TokenHandler.isAccessTokenExpired(foundToken)) {
             LOG.debug("Found access token '{}' is already expired", accessToken);
+        } else {
+            accessTokenCache.cache(foundToken);
         }
         return result;
     }
@@ -340,6 +357,22 @@ public class AuthenticationServiceImpl implements AuthenticationServiceWithTestF
         return cleanedSomething;
     }
 
+    @Override
+    @Scheduled(fixedDelayString = "${token.cleanup.interval}", initialDelayString = "${token.cleanup.interval}")
+    public int cleanupExpiredTokens() {
+
+        int deleted = 0;
+        try {
+            deleted = tokenRepository.deleteExpired(LocalDateTime.now());
+            LOG.debug("Deleted {} expired tokens", deleted);
+        } catch (Exception e) {
+            LOG.error("Unexpected error upon cleaning expired tokens", e);
+        }
+        accessTokenCache.removeExpired();
+
+        return deleted;
+    }
+
     /**
      * read the database content and (re)initialise the internal list of clients
      * @throws NoClientsAvailableException 
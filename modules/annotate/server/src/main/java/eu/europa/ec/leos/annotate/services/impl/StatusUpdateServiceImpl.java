@@ -31,6 +31,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
@@ -39,7 +40,7 @@ import javax.annotation.Nonnull;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -78,6 +79,7 @@ public class StatusUpdateServiceImpl implements StatusUpdateService {
     @Override
     @Nonnull
     @SuppressWarnings("PMD.ConfusingTernary")
+    @Transactional(rollbackFor = Exception.class)
     public ResponseStatusUpdateResult updateAnnotationResponseStatus(final StatusUpdateRequest updateRequest, final UserInformation userInfo)
             throws CannotUpdateAnnotationStatusException, MissingPermissionException {
 
@@ -98,11 +100,11 @@ public class StatusUpdateServiceImpl implements StatusUpdateService {
         // if they are linked to another annotation, we have to
         // - soft-delete the linked annotation
         // - remove the link from the updated annotation to the linked annotation (other link direction is kept)
-        final List<Annotation> annotsToSave = new ArrayList<>();
+        final List<String> annotIdsToUnlink = new ArrayList<>();
         final List<String> annotIdsToDelete = new ArrayList<>();
 
         if (!updateRequest.isMigrateVersion()) {
-            checkLinkedAnnotations(annots, annotsToSave, annotIdsToDelete);
+            checkLinkedAnnotations(annots, annotIdsToUnlink, annotIdsToDelete);
 
             // if no items were found for updating, we create an artificial item in order to evaluate the "sentDeleted" items
             if (metadataUpdated.isEmpty()) {
@@ -147,22 +149,22 @@ public class StatusUpdateServiceImpl implements StatusUpdateService {
                 throw new CannotUpdateAnnotationStatusException("No data to update");
             }
 
-            // persist the changes
-            try {
-                annotService.saveAll(annotsToSave);
+            // persist the changes; as all changes are done in one transaction, they are rolled back
+            // if any annotation to be deleted was modified meanwhile (i.e. is not in NORMAL status any more)
+            annotService.removeLinkedAnnotations(annotIdsToUnlink);
 
-                for (final String annId : annotIdsToDelete) {
-                    final Annotation ann = annotService.findAnnotationById(annId);
-                    annotService.softDeleteAnnotation(ann, userInfo.getUser().getId());
-                }
-            } catch (IllegalArgumentException | CannotDeleteAnnotationException e) {
-                throw new CannotUpdateAnnotationStatusException("Error updating dependent annotations", e);
+            final int deletedCount = annotService.softDeleteAnnotations(annotIdsToDelete, userInfo.getUser().getId());
+            if (deletedCount != new HashSet<>(annotIdsToDelete).size()) {
+                throw new CannotUpdateAnnotationStatusException(String.format("Error updating dependent annotations: %d of %d annotations could be deleted",
+                        deletedCount, new HashSet<>(annotIdsToDelete).size()));
             }
         }
 
-        // we update the "updated" timestamp of all the affected annotations; could be that some items are
-        // saved again although already saved above, but keeps the logic clearer
-        annotService.saveWithUpdatedTimestamp(annots, updateTimestamp);
+        // we update the "updated" timestamp of all the affected annotations
+        final int updatedCount = annotService.saveWithUpdatedTimestamp(annots, updateTimestamp);
+        if (updatedCount != annots.size()) {
+            throw new CannotUpdateAnnotationStatusException(String.format("%d of %d annotations could be updated", updatedCount, annots.size()));
+        }
         
         // we return the list of annotation IDs affected by the response status transition
         // (in order to be able to publish updates via websockets)
@@ -177,13 +179,13 @@ public class StatusUpdateServiceImpl implements StatusUpdateService {
      * 
      * @param annots
      *        list of {@link Annotation}s to be checked
-     * @param annotsToSave
-     *        returned list of {@link Annotation}s modified and requiring to be saved
+     * @param annotsToUnlink
+     *        returned list of IDs of the {@link Annotation}s whose link must be broken
      * @param annotsToDelete
-     *        returned list of {@link Annotation}s to be deleted
+     *        returned list of IDs of the {@link Annotation}s to be deleted
      */
     private void checkLinkedAnnotations(final List<Annotation> annots,
-            final List<Annotation> annotsToSave,
+            final List<String> annotsToUnlink,
             final List<String> annotsToDelete) {
 
         for (final Annotation annCheck : annots) {
@@ -193,14 +195,14 @@ public class StatusUpdateServiceImpl implements StatusUpdateService {
                 // soft-delete the linked item
                 annotsToDelete.add(annCheck.getLinkedAnnotationId());
 
-                // break the link and save
-                annCheck.setLinkedAnnotationId(null);
-                annotsToSave.add(annCheck);
+                // break the link
+                annotsToUnlink.add(annCheck.getId());
             }
         }
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public PublishContributionsResult publishContributions(final PublishContributionsRequest publishRequest, final UserInformation userInfo)
             throws CannotPublishContributionsException, MissingPermissionException, CannotCreateMetadataException {
 
@@ -253,8 +255,11 @@ public class StatusUpdateServiceImpl implements StatusUpdateService {
         // filter for private items
         AnnotationSearchResultHandler.removeContainedPublicAnnotations(searchRes);
 
-        // make the annotations become publicly visible
-        annotService.makeShared(searchRes.getItems());
+        // make the annotations become publicly visible - unless one was modified meanwhile
+        final int sharedCount = annotService.makeShared(searchRes.getItems());
+        if (sharedCount != searchRes.getItems().size()) {
+            throw new CannotPublishContributionsException(String.format("%d of %d annotations could be published", sharedCount, searchRes.getItems().size()));
+        }
 
         final PublishContributionsResult publishResult = new PublishContributionsResult(AnnotationSearchResultHandler.extractIds(searchRes));
 
@@ -264,24 +269,23 @@ public class StatusUpdateServiceImpl implements StatusUpdateService {
 
         for (final Metadata meta : allMetadata) {
 
-            // retrieve all annotations assigned to this metadata item - considering all statuses!
-            final List<Annotation> linkedAnnots = annotService.findByMetadata(Collections.singletonList(meta.getId()));
-            final List<Annotation> assignedAnnots = linkedAnnots.stream()
-                    .filter(annot -> publishResult.getUpdatedAnnotIds().contains(annot.getId()))
+            // count all annotations assigned to this metadata item - considering all statuses!
+            final long linkedCount = annotService.countByMetadata(meta.getId());
+            final List<String> assignedAnnotIds = searchRes.getItems().stream()
+                    .filter(annot -> annot.getMetadata().getId() == meta.getId())
+                    .map(Annotation::getId)
                     .collect(Collectors.toList());
 
-            if (assignedAnnots.size() == linkedAnnots.size()) {
+            if (assignedAnnotIds.size() == linkedCount) {
 
                 // all linked annotations have been published - just add new metadata property and we are done
                 addOriginModeAndSave(meta);
             } else {
 
-                // not all of the linked annotations have been published - i.e. that those contained in assignedAnnots must be reassigned
-                final Metadata newMetadata = new Metadata(meta);
-                addOriginModeAndSave(newMetadata);
+                // not all of the linked annotations have been published - i.e. that those contained in assignedAnnotIds must be reassigned
+                final Metadata newMetadata = addOriginModeAndSave(new Metadata(meta));
 
-                assignedAnnots.forEach(annot -> annot.setMetadata(newMetadata));
-                annotService.saveAll(assignedAnnots);
+                annotService.reassignMetadata(assignedAnnotIds, newMetadata);
             }
         }
 
@@ -293,7 +297,7 @@ public class StatusUpdateServiceImpl implements StatusUpdateService {
      * 
      * @param meta
      *        {@link Metadata} to be changed
-     * @return changed {@link Metadata} item
+     * @return changed and persisted {@link Metadata} item
      * @throws CannotCreateMetadataException
      *         thrown when persisting the metadata fails
      */
@@ -303,8 +307,6 @@ public class StatusUpdateServiceImpl implements StatusUpdateService {
         keyvalues.put("originMode", "private");
         MetadataHandler.setKeyValuePropertyFromSimpleMetadata(meta, keyvalues);
 
-        metadataService.saveMetadata(meta);
-
-        return meta;
+        return metadataService.saveMetadata(meta);
     }
 }
\ No newline at end of file
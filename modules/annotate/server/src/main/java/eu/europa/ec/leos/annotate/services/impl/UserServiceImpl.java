@@ -29,6 +29,7 @@ import eu.europa.ec.leos.annotate.services.UserServiceWithTestFunctions;
 import eu.europa.ec.leos.annotate.services.exceptions.DefaultGroupNotFoundException;
 import eu.europa.ec.leos.annotate.services.exceptions.UserAlreadyExistingException;
 import eu.europa.ec.leos.annotate.services.exceptions.UserNotFoundException;
+import eu.europa.ec.leos.annotate.services.impl.util.AccessTokenCache;
 import eu.europa.ec.leos.annotate.services.impl.util.EntityChecker;
 import eu.europa.ec.leos.annotate.services.impl.util.InternalGroupName;
 import eu.europa.ec.leos.annotate.services.impl.util.UserDetailsCache;
@@ -91,6 +92,10 @@ public class UserServiceImpl implements UserService, UserServiceWithTestFunction
     @Autowired
     private UserDetailsCache userDetailsCache;
 
+    // cache for the access tokens, referencing the users
+    @Autowired
+    private AccessTokenCache accessTokenCache;
+
     // -------------------------------------
     // Constructors and other functions used for testing; these test functions are not part of the UserService interface
     // -------------------------------------
@@ -357,6 +362,11 @@ public class UserServiceImpl implements UserService, UserServiceWithTestFunction
         foundUser.setSidebarTutorialDismissed(!visible);
         userRepository.save(foundUser);
 
+        // the users referenced by cached access tokens are no longer up to date
+        if (accessTokenCache != null) {
+            accessTokenCache.invalidateUser(foundUser.getId());
+        }
+
         return foundUser;
     }
 
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.annotate.services.impl.util;
+
+import eu.europa.ec.leos.annotate.model.entity.Token;
+import eu.europa.ec.leos.annotate.model.helper.TokenHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache for the access tokens of authenticated users, avoids querying the database for the token (and its user)
+ *   on each request of a client
+ * An entry is only kept as long as its access token is valid, expired tokens are always looked up in the database
+ * The cache is bounded; when full, the least recently used token is dropped
+ */
+@Component
+public class AccessTokenCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AccessTokenCache.class);
+
+    private final int maxSize;
+    private final Map<String, Token> tokens;
+
+    // -------------------------------------
+    // Constructor
+    // -------------------------------------
+    @Autowired
+    public AccessTokenCache(@Value("${token.cache.size}") final int maxSize) {
+
+        this.maxSize = maxSize;
+        this.tokens = new LinkedHashMap<String, Token>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Token> eldest) {
+                return size() > AccessTokenCache.this.maxSize;
+            }
+        };
+    }
+
+    // -------------------------------------
+    // Service functionality
+    // -------------------------------------
+
+    /**
+     * retrieve a {@link Token} previously cached
+     * note: a token whose access token expired meanwhile is removed and not returned
+     * 
+     * @param accessToken the access token serving as cache key
+     * @return found Token object, or null
+     */
+    public synchronized Token getCachedToken(final String accessToken) {
+
+        if (StringUtils.isEmpty(accessToken)) {
+            return null;
+        }
+
+        final Token token = tokens.get(accessToken);
+        if (token != null && TokenHandler.isAccessTokenExpired(token)) {
+            LOG.debug("Cached access token '{}' expired, removed from cache", accessToken);
+            tokens.remove(accessToken);
+            return null;
+        }
+        return token;
+    }
+
+    /**
+     * add a given {@link Token} to the cache, if its access token is still valid
+     * 
+     * @param token the token found for an access token
+     */
+    public synchronized void cache(final Token token) {
+
+        if (maxSize <= 0 || token == null || StringUtils.isEmpty(token.getAccessToken()) || token.getAccessTokenExpires() == null) {
+            return;
+        }
+        if (TokenHandler.isAccessTokenExpired(token)) {
+            return;
+        }
+        tokens.put(token.getAccessToken(), token);
+    }
+
+    /**
+     * remove an access token from the cache, e.g. when it is replaced by a new one
+     * 
+     * @param accessToken the access token to be removed
+     */
+    public synchronized void invalidate(final String accessToken) {
+
+        if (!StringUtils.isEmpty(accessToken)) {
+            tokens.remove(accessToken);
+        }
+    }
+
+    /**
+     * remove all access tokens of a user from the cache, e.g. when the user was modified
+     * 
+     * @param userId the ID of the user whose tokens are to be removed
+     */
+    public synchronized void invalidateUser(final Long userId) {
+
+        if (userId != null) {
+            tokens.values().removeIf(token -> token.getUser() != null && userId.equals(token.getUser().getId()));
+        }
+    }
+
+    /**
+     * remove all tokens whose access token expired
+     */
+    public synchronized void removeExpired() {
+
+        tokens.values().removeIf(TokenHandler::isAccessTokenExpired);
+    }
+
+    /**
+     * clean the cache
+     */
+    public synchronized void clear() {
+        tokens.clear();
+    }
+
+    /**
+     * report the number of cached items
+     * 
+     * @return number of cached items
+     */
+    public synchronized int size() {
+        return tokens.size();
+    }
+}
@@ -87,7 +87,14 @@ public class MessageBroker {
 
     public void publish(final String annotationId, final ACTION action, final String sender) {
         if (action != null && annotationId != null) {
-            pendingMessages.add(new Message(action, annotationId, sender));
+            pendingMessages.add(new Message(action, Collections.singletonList(annotationId), sender));
+        }
+    }
+
+    // publish the same change of several annotations; subscribers receive a single notification containing all of them
+    public void publish(final List<String> annotationIds, final ACTION action, final String sender) {
+        if (action != null && annotationIds != null && !annotationIds.isEmpty()) {
+            pendingMessages.add(new Message(action, new ArrayList<>(annotationIds), sender));
         }
     }
 
@@ -97,29 +104,41 @@ public class MessageBroker {
             LOG.debug("updating clients for pending messages");
             pendingMessages.remove(message);
 
-            // Create the message in format
-            final JsonNotification notification = new JsonNotification(message.getAction().toString().toLowerCase(Locale.ENGLISH));
-            Annotation annotation = null;
-            if (message.getAction() == ACTION.DELETE) {
-                notification.addPayload(new JsonDeleteSuccessResponse(message.getId()));
-            } else {
-                annotation = annotationService.findAnnotationById(message.getId());
-            }
+            final String action = message.getAction().toString().toLowerCase(Locale.ENGLISH);
+            final List<Annotation> annotations = message.getAction() == ACTION.DELETE ? Collections.emptyList() : findAnnotations(message);
 
             for (final Subscription subs : subscriptions) {
-                if (checkSubscription(subs, message, annotation)) {
-                    if (annotation != null) {
-                        // the conversion of the annotation to JSON was moved here for two reasons:
-                        // a) we only do it when it is actually required
-                        // b) we need the subscriber's authority and user info
-                        notification.addPayload(conversionService.convertToJsonAnnotation(annotation, subs.getUser()));
+                // Create the message in format
+                final JsonNotification notification = new JsonNotification(action);
+                if (message.getAction() == ACTION.DELETE) {
+                    if (checkSubscription(subs, message, null)) {
+                        message.getIds().forEach(annotId -> notification.addPayload(new JsonDeleteSuccessResponse(annotId)));
+                    }
+                } else {
+                    for (final Annotation annotation : annotations) {
+                        if (checkSubscription(subs, message, annotation)) {
+                            // the conversion of the annotation to JSON was moved here for two reasons:
+                            // a) we only do it when it is actually required
+                            // b) we need the subscriber's authority and user info
+                            notification.addPayload(conversionService.convertToJsonAnnotation(annotation, subs.getUser()));
+                        }
                     }
+                }
+                if (!notification.getPayload().isEmpty()) {
                     threadPoolTaskExecutor.submit(new SendTask(notification, subs.getSubscriber()));
                 }
             }
         }
     }
 
+    private List<Annotation> findAnnotations(final Message message) {
+        if (message.getIds().size() == 1) {
+            final Annotation annotation = annotationService.findAnnotationById(message.getIds().get(0));
+            return annotation == null ? Collections.emptyList() : Collections.singletonList(annotation);
+        }
+        return annotationService.findAnnotationsById(message.getIds());
+    }
+
     // annotation would be null for delete case
     @SuppressWarnings("PMD.ConfusingTernary")
     private boolean checkSubscription(final Subscription subscription, final Message message, final Annotation annotation) {
@@ -196,13 +215,12 @@ public class MessageBroker {
     private static class Message {
         private final ACTION action;
         
-        @SuppressWarnings("PMD.ShortVariable")
-        private final String id;
+        private final List<String> ids;
         private final String clientId;
 
-        public Message(final ACTION action, final String msgId, final String clientId) {
+        public Message(final ACTION action, final List<String> msgIds, final String clientId) {
             this.action = action;
-            this.id = msgId;
+            this.ids = msgIds;
             this.clientId = clientId;
         }
 
@@ -212,8 +230,8 @@ public class MessageBroker {
         }
 
         @Generated
-        public String getId() {
-            return id;
+        public List<String> getIds() {
+            return ids;
         }
 
         @Generated
@@ -278,4 +278,6 @@ COMMENT ON COLUMN "TOKENS"."REFRESH_TOKEN" IS 'Refresh token granted to the user
 COMMENT ON COLUMN "TOKENS"."REFRESH_TOKEN_EXPIRES" IS 'Expiration timestamp of the refresh token';
 COMMENT ON COLUMN "TOKENS"."AUTHORITY" IS 'Authority for which the token is issued';
 
+CREATE INDEX IF NOT EXISTS "TOKENS_IX_EXPIRES" ON "TOKENS" ("REFRESH_TOKEN_EXPIRES", "ACCESS_TOKEN_EXPIRES");
+
 -- note: for Oracle, we have to create a trigger to update the ID using sequence; this is not needed for H2
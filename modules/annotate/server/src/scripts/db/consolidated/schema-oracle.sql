@@ -372,6 +372,8 @@ COMMENT ON COLUMN "TOKENS"."ACCESS_TOKEN_EXPIRES" IS 'Expiration timestamp of ac
 COMMENT ON COLUMN "TOKENS"."REFRESH_TOKEN" IS 'Refresh token granted to the user';
 COMMENT ON COLUMN "TOKENS"."REFRESH_TOKEN_EXPIRES" IS 'Expiration timestamp of the refresh token';
 
+CREATE INDEX "TOKENS_IX_EXPIRES" ON "TOKENS" ("REFRESH_TOKEN_EXPIRES", "ACCESS_TOKEN_EXPIRES");
+
 CREATE OR REPLACE TRIGGER "TOKENS_TRG" 
   BEFORE INSERT ON TOKENS 
   FOR EACH ROW 
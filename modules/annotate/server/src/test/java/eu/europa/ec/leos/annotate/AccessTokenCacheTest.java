@@ -0,0 +1,122 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.annotate;
+
+import eu.europa.ec.leos.annotate.model.entity.Token;
+import eu.europa.ec.leos.annotate.model.entity.User;
+import eu.europa.ec.leos.annotate.services.impl.util.AccessTokenCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+
+public class AccessTokenCacheTest {
+
+    /**
+     * tests for checking proper working of our cache of access tokens
+     */
+
+    private static final LocalDateTime EXPIRED = LocalDateTime.now().minusSeconds(30);
+    private static final LocalDateTime NOT_EXPIRED = LocalDateTime.now().plusMinutes(5);
+
+    /**
+     * test basic cache functionality
+     */
+    @Test
+    public void testAccessTokenCache() {
+
+        final AccessTokenCache cache = new AccessTokenCache(10);
+        final Token token = createToken(1L, "acc", NOT_EXPIRED);
+
+        Assert.assertNull(cache.getCachedToken("acc"));
+
+        cache.cache(token);
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals(token, cache.getCachedToken("acc"));
+
+        cache.invalidate("acc");
+        Assert.assertNull(cache.getCachedToken("acc"));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    /**
+     * test that expired access tokens are neither cached nor returned
+     */
+    @Test
+    public void testExpiredTokensAreNotCached() {
+
+        final AccessTokenCache cache = new AccessTokenCache(10);
+        final Token token = createToken(1L, "acc", NOT_EXPIRED);
+
+        cache.cache(createToken(1L, "expired", EXPIRED));
+        Assert.assertEquals(0, cache.size());
+
+        // token expires while being cached
+        cache.cache(token);
+        token.setAccessTokenExpires(EXPIRED);
+        Assert.assertNull(cache.getCachedToken("acc"));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    /**
+     * test that the least recently used token is dropped when the cache is full, and that a cache without size is disabled
+     */
+    @Test
+    public void testCacheIsBounded() {
+
+        final AccessTokenCache cache = new AccessTokenCache(2);
+        cache.cache(createToken(1L, "acc1", NOT_EXPIRED));
+        cache.cache(createToken(1L, "acc2", NOT_EXPIRED));
+        Assert.assertNotNull(cache.getCachedToken("acc1"));
+
+        cache.cache(createToken(1L, "acc3", NOT_EXPIRED));
+        Assert.assertEquals(2, cache.size());
+        Assert.assertNotNull(cache.getCachedToken("acc1"));
+        Assert.assertNull(cache.getCachedToken("acc2"));
+        Assert.assertNotNull(cache.getCachedToken("acc3"));
+
+        final AccessTokenCache disabledCache = new AccessTokenCache(0);
+        disabledCache.cache(createToken(1L, "acc", NOT_EXPIRED));
+        Assert.assertNull(disabledCache.getCachedToken("acc"));
+    }
+
+    /**
+     * test that all tokens of a user are removed when invalidating the user
+     */
+    @Test
+    public void testInvalidateUser() {
+
+        final AccessTokenCache cache = new AccessTokenCache(10);
+        cache.cache(createToken(1L, "acc1", NOT_EXPIRED));
+        cache.cache(createToken(1L, "acc11", NOT_EXPIRED));
+        cache.cache(createToken(2L, "acc2", NOT_EXPIRED));
+
+        cache.invalidateUser(1L);
+        Assert.assertEquals(1, cache.size());
+        Assert.assertNotNull(cache.getCachedToken("acc2"));
+
+        // verify that no exception is thrown for invalid values
+        cache.invalidateUser(null);
+        cache.invalidate("");
+        cache.cache(null);
+        Assert.assertNull(cache.getCachedToken(""));
+    }
+
+    private Token createToken(final long userId, final String accessToken, final LocalDateTime accessTokenExpires) {
+
+        final User user = new User("login" + userId);
+        user.setId(userId);
+        return new Token(user, "auth", accessToken, accessTokenExpires, "ref" + accessToken, NOT_EXPIRED);
+    }
+}
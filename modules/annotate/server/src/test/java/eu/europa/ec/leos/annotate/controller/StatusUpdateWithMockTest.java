@@ -0,0 +1,190 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.annotate.controller;
+
+import eu.europa.ec.leos.annotate.Authorities;
+import eu.europa.ec.leos.annotate.controllers.StatusApiController;
+import eu.europa.ec.leos.annotate.model.AnnotationStatus;
+import eu.europa.ec.leos.annotate.model.AuthenticatedUserStore;
+import eu.europa.ec.leos.annotate.model.ResponseStatus;
+import eu.europa.ec.leos.annotate.model.SimpleMetadata;
+import eu.europa.ec.leos.annotate.model.UserInformation;
+import eu.europa.ec.leos.annotate.model.entity.Annotation;
+import eu.europa.ec.leos.annotate.model.entity.Metadata;
+import eu.europa.ec.leos.annotate.model.entity.User;
+import eu.europa.ec.leos.annotate.model.web.StatusUpdateRequest;
+import eu.europa.ec.leos.annotate.services.*;
+import eu.europa.ec.leos.annotate.services.exceptions.CannotUpdateAnnotationStatusException;
+import eu.europa.ec.leos.annotate.services.impl.StatusUpdateServiceImpl;
+import eu.europa.ec.leos.annotate.websockets.MessageBroker;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * tests that a bulk response status update affecting fewer rows than expected fails without notifying the websocket subscribers
+ */
+public class StatusUpdateWithMockTest {
+
+    private static final long METADATA_ID = 5;
+
+    // -------------------------------------
+    // Required services and repositories
+    // -------------------------------------
+
+    // the status service is real, the services it uses are mocked
+    @InjectMocks
+    private StatusUpdateServiceImpl statusService;
+
+    @Mock
+    private AnnotationService annotService;
+
+    @Mock
+    private AnnotationSearchService annotSearchService;
+
+    @Mock
+    private AnnotationPermissionService annotPermService;
+
+    @Mock
+    private MetadataService metadataService;
+
+    @Mock
+    private MetadataMatchingService metadataMatchingService;
+
+    @Mock
+    private AuthenticatedUserStore authUser;
+
+    @Mock
+    private MessageBroker messageBroker;
+
+    private final StatusApiController statusController = new StatusApiController();
+
+    private UserInformation userInfo;
+
+    @Before
+    public void setupTests() {
+
+        MockitoAnnotations.initMocks(this);
+
+        ReflectionTestUtils.setField(statusController, "statusService", statusService);
+        ReflectionTestUtils.setField(statusController, "authUser", authUser);
+        ReflectionTestUtils.setField(statusController, "messageBroker", messageBroker);
+
+        final User user = new User("demo");
+        user.setId(Long.valueOf(8));
+        userInfo = new UserInformation(user, Authorities.ISC);
+        Mockito.when(authUser.getUserInfo()).thenReturn(userInfo);
+
+        final Metadata meta = new Metadata();
+        meta.setId(METADATA_ID);
+        Mockito.when(metadataService.updateMetadata(Mockito.any(StatusUpdateRequest.class), Mockito.any(UserInformation.class),
+                Mockito.any(LocalDateTime.class))).thenReturn(new ArrayList<>(Arrays.asList(meta)));
+    }
+
+    // -------------------------------------
+    // Tests
+    // -------------------------------------
+
+    /**
+     * the "updated" timestamp could not be set on all annotations, e.g. one was deleted meanwhile;
+     * the update must fail and no websocket notification may be sent
+     */
+    @Test
+    public void testResponseStatusUpdate_UpdatedCountMismatch() throws Exception {
+
+        final List<Annotation> annots = Arrays.asList(createAnnotation("id1", null), createAnnotation("id2", null));
+        Mockito.when(annotService.findByMetadataAndStatus(Arrays.asList(METADATA_ID), AnnotationStatus.NORMAL)).thenReturn(annots);
+        Mockito.when(annotService.saveWithUpdatedTimestamp(Mockito.eq(annots), Mockito.any(LocalDateTime.class))).thenReturn(1);
+
+        final StatusUpdateRequest updateRequest = createUpdateRequest();
+        updateRequest.setMigrateVersion(true);
+
+        try {
+            statusService.updateAnnotationResponseStatus(updateRequest, userInfo);
+            Assert.fail("Expected exception not thrown");
+        } catch (CannotUpdateAnnotationStatusException e) {
+            Assert.assertEquals("1 of 2 annotations could be updated", e.getMessage());
+        }
+
+        final ResponseEntity<Object> result = statusController.updateAnnotationStatus(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                updateRequest, new SimpleMetadata());
+        Assert.assertEquals(HttpStatus.NOT_FOUND, result.getStatusCode());
+
+        Mockito.verify(messageBroker, Mockito.never()).publish(Mockito.anyList(), Mockito.any(MessageBroker.ACTION.class), Mockito.any());
+        Mockito.verify(messageBroker, Mockito.never()).publish(Mockito.anyString(), Mockito.any(MessageBroker.ACTION.class), Mockito.any());
+    }
+
+    /**
+     * the linked annotation could not be deleted, e.g. as it was modified meanwhile;
+     * the update must fail before the remaining annotations are touched and no websocket notification may be sent
+     */
+    @Test
+    public void testResponseStatusUpdate_DeletedCountMismatch() throws Exception {
+
+        final List<Annotation> annots = Arrays.asList(createAnnotation("id1", "linked1"), createAnnotation("id2", null));
+        Mockito.when(annotService.findByMetadataAndStatus(Arrays.asList(METADATA_ID), AnnotationStatus.NORMAL)).thenReturn(annots);
+        Mockito.when(annotService.removeLinkedAnnotations(Arrays.asList("id1"))).thenReturn(1);
+        Mockito.when(annotService.softDeleteAnnotations(Arrays.asList("linked1"), userInfo.getUser().getId())).thenReturn(0);
+
+        final StatusUpdateRequest updateRequest = createUpdateRequest();
+
+        try {
+            statusService.updateAnnotationResponseStatus(updateRequest, userInfo);
+            Assert.fail("Expected exception not thrown");
+        } catch (CannotUpdateAnnotationStatusException e) {
+            Assert.assertEquals("Error updating dependent annotations: 0 of 1 annotations could be deleted", e.getMessage());
+        }
+
+        final ResponseEntity<Object> result = statusController.updateAnnotationStatus(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                updateRequest, new SimpleMetadata());
+        Assert.assertEquals(HttpStatus.NOT_FOUND, result.getStatusCode());
+
+        Mockito.verify(annotService, Mockito.never()).saveWithUpdatedTimestamp(Mockito.anyList(), Mockito.any(LocalDateTime.class));
+        Mockito.verify(messageBroker, Mockito.never()).publish(Mockito.anyList(), Mockito.any(MessageBroker.ACTION.class), Mockito.any());
+        Mockito.verify(messageBroker, Mockito.never()).publish(Mockito.anyString(), Mockito.any(MessageBroker.ACTION.class), Mockito.any());
+    }
+
+    // -------------------------------------
+    // Helper functions
+    // -------------------------------------
+
+    private StatusUpdateRequest createUpdateRequest() {
+
+        final StatusUpdateRequest updateRequest = new StatusUpdateRequest("group", "http://dummy", ResponseStatus.SENT);
+        updateRequest.setMetadataToMatch(new SimpleMetadata());
+        return updateRequest;
+    }
+
+    private Annotation createAnnotation(final String annotId, final String linkedAnnotId) {
+
+        final Annotation annot = new Annotation();
+        annot.setId(annotId);
+        annot.setLinkedAnnotationId(linkedAnnotId);
+        return annot;
+    }
+}
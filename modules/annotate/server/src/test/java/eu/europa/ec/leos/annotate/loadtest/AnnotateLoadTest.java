@@ -0,0 +1,422 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.annotate.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import eu.europa.ec.leos.annotate.Authorities;
+import eu.europa.ec.leos.annotate.helper.SerialisationHelper;
+import eu.europa.ec.leos.annotate.helper.TestData;
+import eu.europa.ec.leos.annotate.helper.TestDbHelper;
+import eu.europa.ec.leos.annotate.helper.TestHelper;
+import eu.europa.ec.leos.annotate.model.ResponseStatus;
+import eu.europa.ec.leos.annotate.model.SimpleMetadata;
+import eu.europa.ec.leos.annotate.model.UserDetails;
+import eu.europa.ec.leos.annotate.model.UserEntity;
+import eu.europa.ec.leos.annotate.model.entity.Group;
+import eu.europa.ec.leos.annotate.model.entity.Metadata;
+import eu.europa.ec.leos.annotate.model.entity.Token;
+import eu.europa.ec.leos.annotate.model.entity.User;
+import eu.europa.ec.leos.annotate.model.entity.UserGroup;
+import eu.europa.ec.leos.annotate.model.web.annotation.JsonAnnotation;
+import eu.europa.ec.leos.annotate.model.web.annotation.JsonAnnotationDocumentLink;
+import eu.europa.ec.leos.annotate.repository.AnnotationRepository;
+import eu.europa.ec.leos.annotate.repository.DocumentRepository;
+import eu.europa.ec.leos.annotate.repository.GroupRepository;
+import eu.europa.ec.leos.annotate.repository.MetadataRepository;
+import eu.europa.ec.leos.annotate.repository.TokenRepository;
+import eu.europa.ec.leos.annotate.repository.UserGroupRepository;
+import eu.europa.ec.leos.annotate.repository.UserRepository;
+import eu.europa.ec.leos.annotate.services.impl.util.UserDetailsCache;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "spring.config.name=anot")
+@WebAppConfiguration
+@ActiveProfiles("test")
+@SuppressWarnings({"PMD.TooManyMethods", "PMD.AvoidDuplicateLiterals"})
+public class AnnotateLoadTest {
+
+    /**
+     * Load test of the annotate API on the embedded H2 database, replacing the JMeter test plan in src/etc/load-testing
+     * that needed an Oracle database seeded by a PL/SQL script.
+     * 
+     * A synthetic dataset is seeded (see {@link LoadTestDataSeeder}), then each operation is run at the configured
+     * concurrency (see {@link LoadTestSettings}); latency percentiles and throughput are logged and written as a CSV
+     * baseline, which is compared to a previous baseline when one is given. 
+     * The test only runs when enabled: -Danot.loadtest=true
+     */
+
+    private static final Logger LOG = LoggerFactory.getLogger(AnnotateLoadTest.class);
+
+    private static final String ISC_GROUP = "DIGIT";
+    private static final String API_ANNOTATIONS = "/api/annotations/";
+
+    // -------------------------------------
+    // Required services and repositories
+    // -------------------------------------
+
+    @Autowired
+    @Qualifier("annotationTestRepos")
+    private AnnotationRepository annotRepos;
+
+    @Autowired
+    private DocumentRepository documentRepos;
+
+    @Autowired
+    private MetadataRepository metadataRepos;
+
+    @Autowired
+    private GroupRepository groupRepos;
+
+    @Autowired
+    private UserGroupRepository userGroupRepos;
+
+    @Autowired
+    private UserRepository userRepos;
+
+    @Autowired
+    private TokenRepository tokenRepos;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private WebApplicationContext wac;
+
+    private MockMvc mockMvc;
+    private LoadTestSettings settings;
+    private final List<User> users = new ArrayList<User>();
+    private final List<String> editTokens = new ArrayList<String>();
+    private final List<String> iscTokens = new ArrayList<String>();
+
+    // -------------------------------------
+    // Setup and cleanup of database content
+    // -------------------------------------
+    @Before
+    public void setupTests() {
+
+        Assume.assumeTrue("Load test disabled, enable it with -Danot.loadtest=true", LoadTestSettings.isEnabled());
+        settings = new LoadTestSettings();
+
+        TestDbHelper.cleanupRepositories(this);
+        final Group publicGroup = TestDbHelper.insertDefaultGroup(groupRepos);
+        final Group iscGroup = groupRepos.save(new Group(ISC_GROUP, ISC_GROUP, ISC_GROUP, true));
+        createUsers(publicGroup, iscGroup);
+
+        final long start = System.currentTimeMillis();
+        final int annotations = new LoadTestDataSeeder(documentRepos, metadataRepos, annotRepos).seed(settings, publicGroup, iscGroup, users);
+        LOG.info("Load test dataset seeded in {} ms: {} documents, {} annotations (replies included)", System.currentTimeMillis() - start,
+                settings.getDocuments(), annotations);
+
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+    }
+
+    @After
+    public void cleanDatabaseAfterTests() {
+
+        if (settings != null) {
+            TestDbHelper.cleanupRepositories(this);
+        }
+    }
+
+    private void createUsers(final Group publicGroup, final Group iscGroup) {
+
+        final List<UserEntity> entities = Arrays.asList(new UserEntity("2", ISC_GROUP, ISC_GROUP));
+        for (int i = 0; i < settings.getUsers(); i++) {
+            final User user = userRepos.save(new User("loadtest" + i));
+            users.add(user);
+            userGroupRepos.save(new UserGroup(user.getId(), publicGroup.getId()));
+            userGroupRepos.save(new UserGroup(user.getId(), iscGroup.getId()));
+
+            final LocalDateTime expires = LocalDateTime.now().plusDays(1);
+            tokenRepos.save(new Token(user, Authorities.EdiT, "ltEdit" + i, expires, "ltEditRefresh" + i, expires));
+            tokenRepos.save(new Token(user, Authorities.ISC, "ltIsc" + i, expires, "ltIscRefresh" + i, expires));
+            editTokens.add("ltEdit" + i);
+            iscTokens.add("ltIsc" + i);
+
+            // user details are normally retrieved from the user repository
+            userDetailsCache.cache(user.getLogin(), null, new UserDetails(user.getLogin(), user.getId(), "first_" + i, "last_" + i,
+                    entities, user.getLogin() + "@ec.europa.eu", null));
+        }
+    }
+
+    // -------------------------------------
+    // Tests
+    // -------------------------------------
+    @Test
+    @SuppressWarnings("PMD.SignatureDeclareThrowsException")
+    public void runLoadTest() throws Exception {
+
+        final int requests = settings.getRequests();
+        final List<LatencyRecorder> results = new ArrayList<LatencyRecorder>();
+
+        results.add(run("search", requests, index -> get("/api/search?_separate_replies=false&sort=updated&order=desc&limit=" +
+                settings.getPageSize() + "&uri=" + documentUri(index) + "&group=" + TestDbHelper.DEFAULT_GROUP_INTERNALNAME, editToken(index))));
+        results.add(run("searchIsc", requests, index -> get("/api/search?_separate_replies=false&sort=created&order=asc&limit=" +
+                settings.getPageSize() + "&uri=" + documentUri(index) + "&group=" + ISC_GROUP + "&metadatasets=" + iscMetadataSets(index),
+                iscToken(index))));
+        results.add(run("count", requests, index -> get("/api/count?uri=" + documentUri(index) + "&group=" +
+                TestDbHelper.DEFAULT_GROUP_INTERNALNAME, editToken(index))));
+        results.add(run("countIsc", requests, index -> get("/api/count?uri=" + documentUri(index) + "&group=" + ISC_GROUP +
+                "&metadatasets=" + iscMetadataSets(index), iscToken(index))));
+
+        // annotations created are then updated and deleted, each by its creator
+        final JsonAnnotation[] created = new JsonAnnotation[requests];
+        results.add(run("create", requests, this::createRequest, 0,
+                (index, response) -> created[index] = SerialisationHelper.deserializeJsonAnnotation(response)));
+        results.add(run("update", requests, index -> updateRequest(created[index], index), 0, null));
+        results.add(run("delete", requests, index -> created[index] == null ? null
+                : withToken(MockMvcRequestBuilders.delete(API_ANNOTATIONS + created[index].getId()), editToken(index)), 0, null));
+
+        // each response in preparation can only be sent once
+        final int statusChanges = Math.min(requests, settings.getDocuments() * settings.getResponses());
+        results.add(run("changeStatus", statusChanges, this::changeStatusRequest, 0, null));
+
+        report(results);
+        for (final LatencyRecorder result : results) {
+            Assert.assertEquals("Failed requests for " + result.getOperation(), 0, result.getErrors());
+        }
+    }
+
+    // -------------------------------------
+    // Requests
+    // -------------------------------------
+
+    private String documentUri(final int index) {
+        return LoadTestDataSeeder.getDocumentUri(index % settings.getDocuments());
+    }
+
+    private String editToken(final int index) {
+        return editTokens.get(index % editTokens.size());
+    }
+
+    private String iscToken(final int index) {
+        return iscTokens.get(index % iscTokens.size());
+    }
+
+    private String iscMetadataSets(final int index) {
+        return "[%7B\"" + Metadata.PROP_ISC_REF + "\":\"" + LoadTestDataSeeder.getIscReference(index % settings.getDocuments()) + "\"%7D]";
+    }
+
+    private MockHttpServletRequestBuilder get(final String url, final String token) {
+        return withToken(MockMvcRequestBuilders.get(url), token);
+    }
+
+    private MockHttpServletRequestBuilder withToken(final MockHttpServletRequestBuilder builder, final String token) {
+        return builder.header(TestHelper.AUTH_HEADER, TestHelper.AUTH_BEARER + token);
+    }
+
+    private MockHttpServletRequestBuilder createRequest(final int index) {
+
+        final User user = users.get(index % users.size());
+        final URI uri = URI.create(documentUri(index));
+
+        final JsonAnnotation jsAnnot = TestData.getTestAnnotationObject("acct:" + user.getLogin() + "@" + Authorities.EdiT);
+        final JsonAnnotationDocumentLink link = new JsonAnnotationDocumentLink();
+        link.setHref(uri);
+        jsAnnot.getDocument().setLink(Arrays.asList(link));
+        jsAnnot.setUri(uri);
+        jsAnnot.setText("load test annotation " + index);
+
+        return withToken(MockMvcRequestBuilders.post(API_ANNOTATIONS), editToken(index))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(serialize(jsAnnot));
+    }
+
+    private MockHttpServletRequestBuilder updateRequest(final JsonAnnotation jsAnnot, final int index) {
+
+        if (jsAnnot == null) {
+            return null;
+        }
+        jsAnnot.setText("updated load test annotation " + index);
+        return withToken(MockMvcRequestBuilders.patch(API_ANNOTATIONS + jsAnnot.getId()), editToken(index))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(serialize(jsAnnot));
+    }
+
+    private MockHttpServletRequestBuilder changeStatusRequest(final int index) {
+
+        final int docIndex = index % settings.getDocuments();
+        final SimpleMetadata metaToMatch = new SimpleMetadata(Metadata.PROP_ISC_REF, LoadTestDataSeeder.getIscReference(docIndex));
+        metaToMatch.put(Metadata.PROP_RESPONSE_ID, LoadTestDataSeeder.getResponseId(index / settings.getDocuments()));
+        metaToMatch.put(Metadata.PROP_RESPONSE_VERSION, Integer.toString(settings.getResponseVersions()));
+        metaToMatch.put(Metadata.PROP_RESPONSE_STATUS, ResponseStatus.IN_PREPARATION.toString());
+
+        return withToken(MockMvcRequestBuilders.post("/api/changeStatus?group=" + ISC_GROUP + "&uri=" + documentUri(docIndex) +
+                "&responseStatus=" + ResponseStatus.SENT), iscToken(index))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(serialize(metaToMatch));
+    }
+
+    private static String serialize(final JsonAnnotation jsAnnot) {
+        try {
+            return SerialisationHelper.serialize(jsAnnot);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialise load test annotation", e);
+        }
+    }
+
+    private static String serialize(final SimpleMetadata metadata) {
+        try {
+            return SerialisationHelper.serialize(metadata);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialise load test metadata", e);
+        }
+    }
+
+    // handles the response of a successful request
+    @FunctionalInterface
+    private interface ResponseHandler {
+        void handle(int index, String response) throws IOException;
+    }
+
+    // -------------------------------------
+    // Execution and reporting
+    // -------------------------------------
+
+    private LatencyRecorder run(final String operation, final int requests, final IntFunction<MockHttpServletRequestBuilder> request)
+            throws InterruptedException {
+        return run(operation, requests, request, settings.getWarmUpRequests(), null);
+    }
+
+    /**
+     * Runs the requests of one operation with the configured number of threads, after unrecorded warm-up requests
+     * (only for operations that can be repeated); {@code onSuccess} receives the index and response body of each
+     * successful request.
+     */
+    private LatencyRecorder run(final String operation, final int requests, final IntFunction<MockHttpServletRequestBuilder> request,
+            final int warmUpRequests, final ResponseHandler onSuccess) throws InterruptedException {
+
+        if (warmUpRequests > 0) {
+            execute(new LatencyRecorder(operation), warmUpRequests, request, null);
+        }
+        final LatencyRecorder recorder = new LatencyRecorder(operation);
+        final long start = System.nanoTime();
+        execute(recorder, requests, request, onSuccess);
+        recorder.setElapsedNanos(System.nanoTime() - start);
+        return recorder;
+    }
+
+    private void execute(final LatencyRecorder recorder, final int requests, final IntFunction<MockHttpServletRequestBuilder> request,
+            final ResponseHandler onSuccess) throws InterruptedException {
+
+        final AtomicInteger next = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(settings.getThreads());
+        for (int thread = 0; thread < settings.getThreads(); thread++) {
+            executor.execute(() -> {
+                int index;
+                while ((index = next.getAndIncrement()) < requests) {
+                    final long start = System.nanoTime();
+                    boolean success = false;
+                    try {
+                        final MockHttpServletRequestBuilder builder = request.apply(index);
+                        if (builder != null) {
+                            final MvcResult result = mockMvc.perform(builder).andReturn();
+                            success = result.getResponse().getStatus() == 200;
+                            if (success && onSuccess != null) {
+                                onSuccess.handle(index, result.getResponse().getContentAsString());
+                            }
+                        }
+                    } catch (Exception e) {
+                        LOG.error("Load test request {} #{} failed", recorder.getOperation(), index, e);
+                    }
+                    recorder.record(System.nanoTime() - start, success);
+                }
+            });
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(1, TimeUnit.HOURS)) {
+            executor.shutdownNow();
+            Assert.fail("Load test of " + recorder.getOperation() + " did not finish within one hour");
+        }
+    }
+
+    @SuppressWarnings("PMD.SignatureDeclareThrowsException")
+    private void report(final List<LatencyRecorder> results) throws Exception {
+
+        LOG.info("Load test results ({})", settings.asMap());
+        LOG.info(LatencyRecorder.CSV_HEADER);
+        results.forEach(result -> LOG.info(result.toCsv()));
+
+        final File output = new File(settings.getOutput());
+        LatencyRecorder.writeBaseline(output, settings.asMap(), results);
+        LOG.info("Load test baseline written to {}", output.getAbsolutePath());
+
+        if (settings.getBaseline() != null) {
+            compareWithBaseline(new File(settings.getBaseline()), results);
+        }
+    }
+
+    // logs the relative change of throughput and 95th percentile to a previous baseline
+    private void compareWithBaseline(final File file, final List<LatencyRecorder> results) throws IOException {
+
+        final Map<String, String> baselineSettings = new HashMap<String, String>();
+        final Map<String, String[]> baseline = LatencyRecorder.readBaseline(file, baselineSettings);
+        if (!baselineSettings.equals(settings.asMap())) {
+            LOG.warn("Baseline {} was measured with other settings ({}), results are not comparable", file, baselineSettings);
+        }
+        for (final LatencyRecorder result : results) {
+            final String[] row = baseline.get(result.getOperation());
+            if (row == null) {
+                LOG.info("{}: not in baseline", result.getOperation());
+                continue;
+            }
+            final double throughput = Double.parseDouble(row[3]);
+            final double p95 = Double.parseDouble(row[7]);
+            LOG.info("{}: throughput {}/s (baseline {}/s, {}), p95 {} ms (baseline {} ms, {})", result.getOperation(),
+                    String.format(Locale.ROOT, "%.1f", result.getThroughput()), row[3], change(result.getThroughput(), throughput),
+                    String.format(Locale.ROOT, "%.2f", result.getPercentiles(95)[0]), row[7], change(result.getPercentiles(95)[0], p95));
+        }
+    }
+
+    private static String change(final double value, final double baseline) {
+        return baseline == 0 ? "n/a" : String.format(Locale.ROOT, "%+.1f%%", (value - baseline) * 100 / baseline);
+    }
+}
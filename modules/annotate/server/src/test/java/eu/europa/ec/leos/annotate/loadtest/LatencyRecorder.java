@@ -0,0 +1,146 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.annotate.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects the latencies of the requests of one operation and computes the statistics written to the baseline:
+ * throughput over the wall-clock time of the run, mean and percentiles (nearest rank) of the latencies.
+ */
+class LatencyRecorder {
+
+    static final String CSV_HEADER = "operation,requests,errors,throughputPerSecond,meanMs,p50Ms,p90Ms,p95Ms,p99Ms,maxMs";
+    private static final String COMMENT = "#";
+
+    private final String operation;
+    private final List<Long> latencies = new ArrayList<Long>();
+    private final AtomicInteger errors = new AtomicInteger();
+    private long elapsedNanos;
+
+    LatencyRecorder(final String operation) {
+        this.operation = operation;
+    }
+
+    String getOperation() {
+        return operation;
+    }
+
+    void record(final long latencyNanos, final boolean success) {
+        synchronized (latencies) {
+            latencies.add(latencyNanos);
+        }
+        if (!success) {
+            errors.incrementAndGet();
+        }
+    }
+
+    void setElapsedNanos(final long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    int getRequests() {
+        synchronized (latencies) {
+            return latencies.size();
+        }
+    }
+
+    int getErrors() {
+        return errors.get();
+    }
+
+    double getThroughput() {
+        return elapsedNanos == 0 ? 0 : getRequests() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    // percentiles are given in ms
+    double[] getPercentiles(final double... percentiles) {
+
+        final long[] sorted;
+        synchronized (latencies) {
+            sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+        }
+        Arrays.sort(sorted);
+
+        final double[] result = new double[percentiles.length];
+        for (int i = 0; i < percentiles.length && sorted.length > 0; i++) {
+            final int rank = (int) Math.ceil(percentiles[i] / 100 * sorted.length);
+            result[i] = toMillis(sorted[Math.max(rank, 1) - 1]);
+        }
+        return result;
+    }
+
+    double getMean() {
+        synchronized (latencies) {
+            return toMillis((long) latencies.stream().mapToLong(Long::longValue).average().orElse(0));
+        }
+    }
+
+    String toCsv() {
+        final double[] percentiles = getPercentiles(50, 90, 95, 99, 100);
+        return String.format(Locale.ROOT, "%s,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f", operation, getRequests(), getErrors(), getThroughput(),
+                getMean(), percentiles[0], percentiles[1], percentiles[2], percentiles[3], percentiles[4]);
+    }
+
+    private static double toMillis(final long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    // -------------------------------------
+    // Baseline
+    // -------------------------------------
+
+    static void writeBaseline(final File file, final Map<String, String> settings, final List<LatencyRecorder> recorders) throws IOException {
+
+        final List<String> lines = new ArrayList<String>();
+        settings.forEach((key, value) -> lines.add(COMMENT + " " + key + "=" + value));
+        lines.add(CSV_HEADER);
+        recorders.forEach(recorder -> lines.add(recorder.toCsv()));
+
+        final File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Cannot create directory " + parent);
+        }
+        Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the settings ("# key=value" lines) and the rows, by operation, of a baseline written by {@link #writeBaseline}
+     */
+    static Map<String, String[]> readBaseline(final File file, final Map<String, String> settings) throws IOException {
+
+        final Map<String, String[]> rows = new HashMap<String, String[]>();
+        for (final String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+            if (line.startsWith(COMMENT)) {
+                final String[] setting = line.substring(COMMENT.length()).trim().split("=", 2);
+                settings.put(setting[0], setting.length > 1 ? setting[1] : "");
+            } else if (!line.isEmpty() && !line.equals(CSV_HEADER)) {
+                final String[] row = line.split(",");
+                rows.put(row[0], row);
+            }
+        }
+        return rows;
+    }
+}
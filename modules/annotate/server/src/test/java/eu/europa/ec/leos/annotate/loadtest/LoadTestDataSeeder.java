@@ -0,0 +1,164 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.annotate.loadtest;
+
+import eu.europa.ec.leos.annotate.Authorities;
+import eu.europa.ec.leos.annotate.model.ResponseStatus;
+import eu.europa.ec.leos.annotate.model.SimpleMetadata;
+import eu.europa.ec.leos.annotate.model.entity.Annotation;
+import eu.europa.ec.leos.annotate.model.entity.Document;
+import eu.europa.ec.leos.annotate.model.entity.Group;
+import eu.europa.ec.leos.annotate.model.entity.Metadata;
+import eu.europa.ec.leos.annotate.model.entity.User;
+import eu.europa.ec.leos.annotate.model.helper.AnnotationReferencesHandler;
+import eu.europa.ec.leos.annotate.model.helper.MetadataHandler;
+import eu.europa.ec.leos.annotate.repository.AnnotationRepository;
+import eu.europa.ec.leos.annotate.repository.DocumentRepository;
+import eu.europa.ec.leos.annotate.repository.MetadataRepository;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds the synthetic dataset of the load test: documents, each having an EdiT metadata set in the public group and
+ * ISC metadata sets for several responses and response versions, and annotations with replies spread over them.
+ * <p>
+ * For each response, the previous versions are SENT and the last version is IN_PREPARATION, so that every response
+ * can be sent once by a status change request.
+ */
+class LoadTestDataSeeder {
+
+    private static final int BATCH_SIZE = 500;
+    private static final String DOCUMENT_URI = "uri://LEOS/load_test_";
+    private static final String ISC_REFERENCE = "ISC/2020/";
+    private static final String RESPONSE_ID = "resp";
+
+    private final DocumentRepository documentRepos;
+    private final MetadataRepository metadataRepos;
+    private final AnnotationRepository annotRepos;
+
+    // fixed seed, the same settings always produce the same dataset
+    private final Random random = new Random(42);
+
+    LoadTestDataSeeder(final DocumentRepository documentRepos, final MetadataRepository metadataRepos, final AnnotationRepository annotRepos) {
+        this.documentRepos = documentRepos;
+        this.metadataRepos = metadataRepos;
+        this.annotRepos = annotRepos;
+    }
+
+    static String getDocumentUri(final int docIndex) {
+        return DOCUMENT_URI + docIndex;
+    }
+
+    static String getIscReference(final int docIndex) {
+        return ISC_REFERENCE + docIndex;
+    }
+
+    static String getResponseId(final int responseIndex) {
+        return RESPONSE_ID + responseIndex;
+    }
+
+    /**
+     * @return the number of annotations created, replies included
+     */
+    @SuppressWarnings("PMD.ExcessiveParameterList")
+    int seed(final LoadTestSettings settings, final Group publicGroup, final Group iscGroup, final List<User> users) {
+
+        int created = 0;
+        for (int docIndex = 0; docIndex < settings.getDocuments(); docIndex++) {
+            final Document document = documentRepos.save(new Document(URI.create(getDocumentUri(docIndex)), "load test " + docIndex));
+
+            final List<Metadata> metadataSets = new ArrayList<Metadata>();
+            metadataSets.add(metadataRepos.save(new Metadata(document, publicGroup, Authorities.EdiT)));
+            for (int responseIndex = 0; responseIndex < settings.getResponses(); responseIndex++) {
+                for (int version = 1; version <= settings.getResponseVersions(); version++) {
+                    final ResponseStatus status = version == settings.getResponseVersions() ? ResponseStatus.IN_PREPARATION : ResponseStatus.SENT;
+                    metadataSets.add(metadataRepos.save(createIscMetadata(document, iscGroup, docIndex, responseIndex, version, status)));
+                }
+            }
+            created += createAnnotations(settings, docIndex, metadataSets, users);
+        }
+        return created;
+    }
+
+    private Metadata createIscMetadata(final Document document, final Group iscGroup, final int docIndex, final int responseIndex,
+            final int version, final ResponseStatus status) {
+
+        final SimpleMetadata keyValues = new SimpleMetadata(Metadata.PROP_ISC_REF, getIscReference(docIndex));
+        keyValues.put(Metadata.PROP_RESPONSE_ID, getResponseId(responseIndex));
+        keyValues.put(Metadata.PROP_RESPONSE_VERSION, Integer.toString(version));
+        keyValues.put(Metadata.PROP_RESPONSE_STATUS, status.toString());
+
+        final Metadata meta = new Metadata(document, iscGroup, Authorities.ISC);
+        MetadataHandler.setKeyValuePropertyFromSimpleMetadata(meta, keyValues);
+        return meta;
+    }
+
+    private int createAnnotations(final LoadTestSettings settings, final int docIndex, final List<Metadata> metadataSets, final List<User> users) {
+
+        final String selector = "[{\"selector\":null,\"source\":\"" + getDocumentUri(docIndex) + "\"}]";
+        final LocalDateTime now = LocalDateTime.now(java.time.ZoneOffset.UTC);
+
+        final List<Annotation> batch = new ArrayList<Annotation>();
+        int created = 0;
+        for (int annotIndex = 0; annotIndex < settings.getAnnotationsPerDocument(); annotIndex++) {
+            final Metadata meta = metadataSets.get(annotIndex % metadataSets.size());
+            final String rootId = "lt" + docIndex + "-" + annotIndex;
+            batch.add(createAnnotation(rootId, null, users.get(annotIndex % users.size()), meta, selector, now));
+
+            if (random.nextDouble() < settings.getReplyRatio()) {
+                final String replyId = rootId + "r";
+                batch.add(createAnnotation(replyId, rootId, users.get((annotIndex + 1) % users.size()), meta, selector, now));
+            }
+            if (batch.size() >= BATCH_SIZE) {
+                created += save(batch);
+            }
+        }
+        return created + save(batch);
+    }
+
+    @SuppressWarnings("PMD.ExcessiveParameterList")
+    private Annotation createAnnotation(final String annotId, final String rootId, final User user, final Metadata meta, final String selector,
+            final LocalDateTime now) {
+
+        final Annotation annot = new Annotation();
+        annot.setId(annotId);
+        annot.setUser(user);
+        annot.setMetadata(meta);
+        annot.setText("load test annotation " + annotId);
+
+        // spread creation and update dates over the last year to give the sorting some work
+        final LocalDateTime created = now.minusMinutes(random.nextInt(525_600));
+        annot.setCreated(created);
+        annot.setUpdated(created.plusMinutes(random.nextInt(1440)));
+        annot.setTargetSelectors(selector);
+        annot.setShared(true);
+        if (rootId != null) {
+            AnnotationReferencesHandler.setReferences(annot, Arrays.asList(rootId));
+        }
+        return annot;
+    }
+
+    private int save(final List<Annotation> batch) {
+
+        final int size = batch.size();
+        annotRepos.save(batch);
+        batch.clear();
+        return size;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.annotate.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings of the load test, read from system properties prefixed with {@code anot.loadtest.}, e.g.
+ * {@code -Danot.loadtest=true -Danot.loadtest.threads=16 -Danot.loadtest.annotationsPerDocument=5000}
+ */
+class LoadTestSettings {
+
+    private static final String PREFIX = "anot.loadtest.";
+
+    private final int documents = getInt("documents", 5);
+    private final int annotationsPerDocument = getInt("annotationsPerDocument", 2000);
+    private final double replyRatio = Double.parseDouble(System.getProperty(PREFIX + "replyRatio", "0.2"));
+    private final int responses = getInt("responses", 20);
+    private final int responseVersions = getInt("responseVersions", 3);
+    private final int users = getInt("users", 10);
+    private final int threads = getInt("threads", 8);
+    private final int requests = getInt("requests", 500);
+    private final int warmUpRequests = getInt("warmUpRequests", 50);
+    private final int pageSize = getInt("pageSize", 200);
+    private final String output = System.getProperty(PREFIX + "output", "target/annotate-load-test-baseline.csv");
+    private final String baseline = System.getProperty(PREFIX + "baseline");
+
+    static boolean isEnabled() {
+        return Boolean.getBoolean("anot.loadtest");
+    }
+
+    private static int getInt(final String name, final int defaultValue) {
+        return Integer.getInteger(PREFIX + name, defaultValue);
+    }
+
+    // settings written with the results, a baseline is only comparable to a run with the same settings
+    Map<String, String> asMap() {
+
+        final Map<String, String> settings = new LinkedHashMap<String, String>();
+        settings.put("documents", Integer.toString(documents));
+        settings.put("annotationsPerDocument", Integer.toString(annotationsPerDocument));
+        settings.put("replyRatio", Double.toString(replyRatio));
+        settings.put("responses", Integer.toString(responses));
+        settings.put("responseVersions", Integer.toString(responseVersions));
+        settings.put("users", Integer.toString(users));
+        settings.put("threads", Integer.toString(threads));
+        settings.put("requests", Integer.toString(requests));
+        settings.put("warmUpRequests", Integer.toString(warmUpRequests));
+        settings.put("pageSize", Integer.toString(pageSize));
+        return settings;
+    }
+
+    int getDocuments() {
+        return documents;
+    }
+
+    int getAnnotationsPerDocument() {
+        return annotationsPerDocument;
+    }
+
+    double getReplyRatio() {
+        return replyRatio;
+    }
+
+    int getResponses() {
+        return responses;
+    }
+
+    int getResponseVersions() {
+        return responseVersions;
+    }
+
+    int getUsers() {
+        return users;
+    }
+
+    int getThreads() {
+        return threads;
+    }
+
+    int getRequests() {
+        return requests;
+    }
+
+    int getWarmUpRequests() {
+        return warmUpRequests;
+    }
+
+    int getPageSize() {
+        return pageSize;
+    }
+
+    String getOutput() {
+        return output;
+    }
+
+    String getBaseline() {
+        return baseline;
+    }
+}
@@ -398,4 +398,33 @@ public class AuthenticationServiceTest {
         Assert.assertTrue(authService.cleanupExpiredUserTokens(user3));
         Assert.assertEquals(0, tokenRepos.count());
     }
+
+    // test that the periodic cleanup removes the expired tokens of all users, and keeps the others
+    @Test
+    public void testCleaningExpiredTokensOfAllUsers() {
+
+        final LocalDateTime expired = LocalDateTime.now().minusSeconds(30);
+        final LocalDateTime notExpired = LocalDateTime.now().plusSeconds(30);
+
+        User user1 = new User("login1");
+        user1 = userRepos.save(user1);
+        User user2 = new User("login2");
+        user2 = userRepos.save(user2);
+
+        tokenRepos.save(new Token(user1, "auth", "acc1", expired, "ref1", expired));
+        tokenRepos.save(new Token(user1, "auth", "acc11", expired, "ref11", notExpired));
+        tokenRepos.save(new Token(user2, "auth", "acc2", expired, "ref2", expired));
+        tokenRepos.save(new Token(user2, "otherauth", "acc22", notExpired, "ref22", notExpired));
+        Assert.assertEquals(4, tokenRepos.count());
+
+        // the fully expired tokens of both users vanish
+        Assert.assertEquals(2, authService.cleanupExpiredTokens());
+        Assert.assertEquals(2, tokenRepos.count());
+        Assert.assertNotNull(tokenRepos.findByAccessToken("acc11"));
+        Assert.assertNotNull(tokenRepos.findByAccessToken("acc22"));
+
+        // nothing left to clean
+        Assert.assertEquals(0, authService.cleanupExpiredTokens());
+        Assert.assertEquals(2, tokenRepos.count());
+    }
 }
@@ -306,6 +306,49 @@ public class MessageBrokerTest {
         assertEquals(ANN1, getId(argument2.getValue()));
     }
 
+    @Test
+    public void testBroadcast_single_notification_for_several_annotations() throws Exception {
+        // setup
+        final SubscriptionRequest subscriptionRequest = Mockito.mock(SubscriptionRequest.class);
+        final Clause clause = new Clause(URI, ONEOF, Collections.singleton(TESTURI), false, Collections.emptyList());
+        final Filter filter = new Filter(INCL_ANY, Collections.singletonMap(CREATE, Boolean.TRUE), Collections.singletonList(clause));
+        Mockito.when(subscriptionRequest.getFilter()).thenReturn(filter);
+
+        final WebSocketSession subscriber = Mockito.mock(WebSocketSession.class);
+        Mockito.when(subscriber.getId()).thenReturn("s1");
+        final UserInformation userInformation = Mockito.mock(UserInformation.class);
+        Mockito.when(userInformation.getClientId()).thenReturn("x1");
+
+        final Document doc = new Document(new URI(TESTURI), TITLE);
+        final Annotation annotation1 = Mockito.mock(Annotation.class);
+        Mockito.when(annotation1.getDocument()).thenReturn(doc);
+        Mockito.when(annotation1.isShared()).thenReturn(true);
+        final Annotation annotation2 = Mockito.mock(Annotation.class);
+        Mockito.when(annotation2.getDocument()).thenReturn(doc);
+        Mockito.when(annotation2.isShared()).thenReturn(true);
+        Mockito.when(anotService.findAnnotationsById(Arrays.asList(ANN1, ANN2))).thenReturn(Arrays.asList(annotation1, annotation2));
+
+        final JsonAnnotation jsonAnnotation1 = new JsonAnnotation();
+        jsonAnnotation1.setId(ANN1);
+        Mockito.when(conversionService.convertToJsonAnnotation(Mockito.eq(annotation1), Mockito.any(UserInformation.class))).thenReturn(jsonAnnotation1);
+        final JsonAnnotation jsonAnnotation2 = new JsonAnnotation();
+        jsonAnnotation2.setId(ANN2);
+        Mockito.when(conversionService.convertToJsonAnnotation(Mockito.eq(annotation2), Mockito.any(UserInformation.class))).thenReturn(jsonAnnotation2);
+
+        messageBroker.subscribe(subscriptionRequest, subscriber, userInformation);
+        messageBroker.publish(Arrays.asList(ANN1, ANN2), MessageBroker.ACTION.UPDATE, "x2");
+
+        // call
+        messageBroker.updateSubscribers();
+        Thread.sleep(1000);
+
+        // verify: both annotations are sent within a single notification
+        final ArgumentCaptor<TextMessage> argument = ArgumentCaptor.forClass(TextMessage.class);
+        Mockito.verify(subscriber, Mockito.times(1)).sendMessage(argument.capture());
+        assertEquals(Arrays.asList(ANN1, ANN2), getIds(argument.getValue()));
+        Mockito.verify(anotService, Mockito.never()).findAnnotationById(Mockito.anyString());
+    }
+
     @Test
     public void testBroadcast_No_notification_if_different_urls() throws Exception {
         // setup
@@ -467,6 +510,17 @@ public class MessageBrokerTest {
         return (String) annotation.get("id");
     }
     
+    @SuppressWarnings("unchecked")
+    private List<String> getIds(final TextMessage textMessage) throws JsonParseException, JsonMappingException, IOException {
+        final ObjectMapper objMapper = new ObjectMapper();
+        final Map<String, Object> message = objMapper.readValue(textMessage.getPayload(), Map.class);
+        final List<String> ids = new ArrayList<>();
+        for (final Map<String, Object> annotation : (ArrayList<Map<String, Object>>) message.get("payload")) {
+            ids.add((String) annotation.get("id"));
+        }
+        return ids;
+    }
+    
     @SuppressWarnings("unchecked")
     private Map<String, String> getUserInfo(final TextMessage textMessage) throws JsonParseException, JsonMappingException, IOException {
         final ObjectMapper objMapper = new ObjectMapper();
@@ -26,6 +26,8 @@ import eu.europa.ec.leos.domain.common.ProcedureType;
 import eu.europa.ec.leos.model.user.Collaborator;
 
 import java.util.*;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 public class DocumentVO {
     private String id;
@@ -38,6 +40,7 @@ public class DocumentVO {
     private String template;
     private int docNumber;// optional
     private byte[] source;
+    private Supplier<byte[]> sourceLoader;
     private boolean uploaded;
     private String versionSeriesId;
     private String ref;
@@ -255,12 +258,44 @@ public class DocumentVO {
         this.childDocuments = childDocuments;
     }
 
+    /**
+     * Returns the source of the document. A source loaded on demand is read again on each call.
+     */
     public byte[] getSource() {
-        return source;
+        return source == null && sourceLoader != null ? sourceLoader.get() : source;
     }
 
     public void setSource(byte[] source) {
         this.source = source;
+        this.sourceLoader = null;
+    }
+
+    public Supplier<byte[]> getSourceLoader() {
+        return sourceLoader;
+    }
+
+    /**
+     * Loads the source on demand: it is read through the loader whenever it is requested and is not kept by this object.
+     */
+    public void setSourceLoader(Supplier<byte[]> sourceLoader) {
+        this.source = null;
+        this.sourceLoader = sourceLoader;
+    }
+
+    /**
+     * Updates the source, a missing source is left as is. When the source is loaded on demand the update is applied
+     * each time it is read.
+     */
+    public void updateSource(UnaryOperator<byte[]> update) {
+        if (source == null && sourceLoader != null) {
+            final Supplier<byte[]> loader = sourceLoader;
+            sourceLoader = () -> {
+                byte[] loadedSource = loader.get();
+                return loadedSource != null ? update.apply(loadedSource) : null;
+            };
+        } else if (source != null) {
+            source = update.apply(source);
+        }
     }
 
     public boolean isUploaded() {
@@ -14,6 +14,7 @@
 package eu.europa.ec.leos.model.filter;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -26,6 +27,17 @@ public class QueryFilter {
     private final List<Filter> filters = new ArrayList<>();
     private final List<SortOrder> sortOrders = new ArrayList<>();
 
+    public QueryFilter() {
+    }
+
+    /**
+     * Creates a copy of the given filter, later changes of one filter are not visible in the other.
+     */
+    public QueryFilter(QueryFilter queryFilter) {
+        filters.addAll(queryFilter.filters);
+        sortOrders.addAll(queryFilter.sortOrders);
+    }
+
     public List<Filter> getFilters() {
         return Collections.unmodifiableList(filters);
     }
@@ -54,6 +66,19 @@ public class QueryFilter {
         return sortOrders.removeIf(sortOrder -> Objects.equals(sortOrder.key, key));
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        QueryFilter that = (QueryFilter) o;
+        return filters.equals(that.filters) && sortOrders.equals(that.sortOrders);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(filters, sortOrders);
+    }
+
     public enum FilterType {
         Root("root"),//NO CMIS COLUMN
         actType("metadata:actType"),
@@ -73,7 +98,8 @@ public class QueryFilter {
         
         cmisVersionLabel("cmis:versionLabel"),
         creationDate("cmis:creationDate"),
-        lastModificationDate("cmis:lastModificationDate");
+        lastModificationDate("cmis:lastModificationDate"),
+        objectId("cmis:objectId");
 
         private String cmisColumnName;
         private String multiColumnType;
@@ -126,6 +152,22 @@ public class QueryFilter {
         public String getValue() {
             return value[0];
         }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Filter filter = (Filter) o;
+            return nullCheck == filter.nullCheck &&
+                    Objects.equals(key, filter.key) &&
+                    Arrays.equals(value, filter.value) &&
+                    Objects.equals(operator, filter.operator);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hash(key, operator, nullCheck) + Arrays.hashCode(value);
+        }
     }
 
     public static class SortOrder {
@@ -136,6 +178,19 @@ public class QueryFilter {
             this.key = key;
             this.direction = direction;
         }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            SortOrder sortOrder = (SortOrder) o;
+            return Objects.equals(key, sortOrder.key) && Objects.equals(direction, sortOrder.direction);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(key, direction);
+        }
     }
 }
 
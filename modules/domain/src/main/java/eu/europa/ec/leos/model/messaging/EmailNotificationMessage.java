@@ -0,0 +1,58 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.model.messaging;
+
+public class EmailNotificationMessage {
+
+    private String notification;
+    private int attempt;
+
+    public EmailNotificationMessage() {//json deserialized need the empty constructor
+    }
+
+    public EmailNotificationMessage(String notification, int attempt) {
+        this.notification = notification;
+        this.attempt = attempt;
+    }
+
+    /**
+     * @return the notification, java serialized and base64 encoded as its implementations are not json mappable
+     */
+    public String getNotification() {
+        return notification;
+    }
+
+    public void setNotification(String notification) {
+        this.notification = notification;
+    }
+
+    /**
+     * @return the number of failed attempts to send the notification
+     */
+    public int getAttempt() {
+        return attempt;
+    }
+
+    public void setAttempt(int attempt) {
+        this.attempt = attempt;
+    }
+
+    @Override
+    public String toString() {
+        return "EmailNotificationMessage{" +
+                "attempt=" + attempt +
+                '}';
+    }
+
+}
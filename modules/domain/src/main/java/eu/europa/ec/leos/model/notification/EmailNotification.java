@@ -13,9 +13,13 @@
  */
 package eu.europa.ec.leos.model.notification;
 
+import java.io.Serializable;
 import java.util.List;
 
-public interface EmailNotification {
+/**
+ * Notifications are serialized to be sent asynchronously, implementations must only hold serializable state.
+ */
+public interface EmailNotification extends Serializable {
     List<String> getRecipients();
 
     String getNotificationName();
@@ -19,6 +19,7 @@ public class RenderedDocument {
 
     private String styleSheetName;
     private InputStream content;
+    private String versionId;
 
     public String getStyleSheetName() {
         return styleSheetName;
@@ -35,4 +36,16 @@ public class RenderedDocument {
     public void setContent(InputStream content) {
         this.content = content;
     }
+
+    /**
+     * Id of the stored version the content comes from, or null when the content is not the one of a stored version.
+     * Only documents with a version id are served from the rendition cache.
+     */
+    public String getVersionId() {
+        return versionId;
+    }
+
+    public void setVersionId(String versionId) {
+        this.versionId = versionId;
+    }
 }
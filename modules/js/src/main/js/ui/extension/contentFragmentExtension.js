@@ -0,0 +1,79 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+; // jshint ignore:line
+define(function contentFragmentExtensionModule(require) {
+    "use strict";
+
+    // load module dependencies
+    var $ = require("jquery");
+    var log = require("logger");
+    var MathJax = require("mathjax");
+    var UTILS = require("core/leosUtils");
+
+    function _initContentFragment(connector) {
+        log.debug("Initializing content fragment extension...");
+
+        // restrict scope to the extended target
+        connector.target = UTILS.getParentElement(connector);
+        connector.replaceFragments = _replaceFragments;
+
+        log.debug("Registering content fragment extension unregistration listener...");
+        connector.onUnregister = _connectorUnregistrationListener;
+    }
+
+    // handle connector unregistration on client-side
+    function _connectorUnregistrationListener() {
+        var connector = this;
+        log.debug("Unregistering content fragment extension...");
+        // clean connector
+        connector.target = null;
+    }
+
+    function _replaceFragments(fragments) {
+        var connector = this;
+        var targets = {};
+        var missing = Object.keys(fragments).some(function(id) {
+            targets[id] = _findTarget(connector.target, id);
+            return !targets[id];
+        });
+        if (missing) {
+            // the displayed content is not the one the fragments were computed from
+            log.debug("Content fragment target not found, requesting a full refresh...");
+            connector.requestFullRefresh();
+            return;
+        }
+        Object.keys(fragments).forEach(function(id) {
+            var $fragment = $(fragments[id]);
+            $(targets[id]).replaceWith($fragment);
+            $fragment.each(function(idx, element) {
+                MathJax.Hub.Queue(["Typeset", MathJax.Hub, element]);
+            });
+        });
+        // the other extensions of the target process the new elements once the server is notified
+        connector.fragmentsReplaced();
+    }
+
+    // an element under edition is wrapped in a placeholder, which is the one to replace
+    function _findTarget(scope, id) {
+        var $placeholder = $(scope).find(".leos-placeholder[data-wrapped-id='" + id + "']");
+        if ($placeholder.length) {
+            return $placeholder[0];
+        }
+        return $(scope).find("[id='" + id + "']")[0];
+    }
+
+    return {
+        init: _initContentFragment
+    };
+});
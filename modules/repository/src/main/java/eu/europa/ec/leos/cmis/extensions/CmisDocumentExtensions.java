@@ -285,12 +285,16 @@ public class CmisDocumentExtensions {
         return Option.option(content);
     }
 
-    static List<Collaborator> getCollaborators(Document document) {
+    public static List<Collaborator> getCollaborators(Document document) {
 
         Property<String> collaboratorsProperty = document.getProperty(CmisProperties.COLLABORATORS.getId());
+        List<Collaborator> collaborators = new ArrayList<>();
+        if (collaboratorsProperty == null) {
+            // not selected by the query, e.g. summaries of the workspace
+            return collaborators;
+        }
         List<String> collaboratorsPropertyValues = collaboratorsProperty.getValues();
 
-        List<Collaborator> collaborators = new ArrayList<>();
         collaboratorsPropertyValues.forEach(value -> {
             try {
                 String[] values = value.split("::");
@@ -317,7 +321,7 @@ public class CmisDocumentExtensions {
 
     private static List<String> getMilestoneComments(Document document) {
         Property<String> milestoneComments = document.getProperty(CmisProperties.MILESTONE_COMMENTS.getId());
-        return milestoneComments.getValues();
+        return milestoneComments != null ? milestoneComments.getValues() : new ArrayList<>();
     }
 
     private static String getJobId(Document document) {
@@ -15,6 +15,7 @@ package eu.europa.ec.leos.cmis.mapping;
 
 import eu.europa.ec.leos.domain.cmis.LeosCategory;
 import eu.europa.ec.leos.domain.cmis.document.*;
+import org.apache.chemistry.opencmis.commons.PropertyIds;
 
 import java.util.*;
 
@@ -25,6 +26,7 @@ public class CmisMapper {
 
     private static final Map<Class<? extends LeosDocument>, Set<LeosCategory>> documentCategoryMap;
     private static final Map<Class<? extends LeosDocument>, String> documentPrimaryTypeMap;
+    private static final Map<Class<? extends LeosDocument>, String> documentSummaryPropertiesMap;
 
     static {
         documentCategoryMap = new HashMap<>();
@@ -55,6 +57,23 @@ public class CmisMapper {
         documentPrimaryTypeMap.put(ConfigDocument.class, "leos:config");
         documentPrimaryTypeMap.put(LegDocument.class, "leos:leg");
         documentPrimaryTypeMap.put(ExportDocument.class, "leos:export");
+
+        // properties needed to list the documents without content and collaborators; the major version flag and the
+        // milestone comments are kept as the version type of the documents without leos:versionType is derived from them
+        documentSummaryPropertiesMap = new HashMap<>();
+        documentSummaryPropertiesMap.put(Proposal.class, String.join(",",
+                PropertyIds.OBJECT_ID, PropertyIds.OBJECT_TYPE_ID, PropertyIds.BASE_TYPE_ID, PropertyIds.SECONDARY_OBJECT_TYPE_IDS,
+                PropertyIds.NAME, PropertyIds.CREATED_BY, PropertyIds.CREATION_DATE, PropertyIds.LAST_MODIFIED_BY,
+                PropertyIds.LAST_MODIFICATION_DATE, PropertyIds.VERSION_SERIES_ID, PropertyIds.VERSION_LABEL,
+                PropertyIds.IS_LATEST_VERSION, PropertyIds.IS_MAJOR_VERSION, PropertyIds.CHECKIN_COMMENT,
+                CmisProperties.DOCUMENT_CATEGORY.getId(), CmisProperties.DOCUMENT_TITLE.getId(),
+                CmisProperties.DOCUMENT_TEMPLATE.getId(), CmisProperties.DOCUMENT_LANGUAGE.getId(),
+                CmisProperties.METADATA_REF.getId(), CmisProperties.METADATA_STAGE.getId(), CmisProperties.METADATA_TYPE.getId(),
+                CmisProperties.METADATA_PURPOSE.getId(), CmisProperties.METADATA_DOCTEMPLATE.getId(),
+                CmisProperties.INITIAL_CREATED_BY.getId(), CmisProperties.INITIAL_CREATION_DATE.getId(),
+                CmisProperties.VERSION_LABEL.getId(), CmisProperties.VERSION_TYPE.getId(), CmisProperties.MILESTONE_COMMENTS.getId(),
+                CmisProperties.CLONED_PROPOSAL.getId(), CmisProperties.ORIGIN_REF.getId(),
+                CmisProperties.CLONED_FROM.getId(), CmisProperties.REVISION_STATUS.getId()));
     }
 
     // FIXME move this mapping somewhere else or implement in better way?!!!
@@ -70,4 +89,12 @@ public class CmisMapper {
     public static Set<LeosCategory> cmisCategories(Class<? extends LeosDocument> type) {
         return documentCategoryMap.getOrDefault(type, Collections.emptySet());
     }
+
+    /**
+     * Returns the CMIS property filter to list documents of the given type without their heavy properties,
+     * or null to select all the properties when the type has no summary.
+     */
+    public static String cmisSummaryProperties(Class<? extends LeosDocument> type) {
+        return documentSummaryPropertiesMap.get(type);
+    }
 }
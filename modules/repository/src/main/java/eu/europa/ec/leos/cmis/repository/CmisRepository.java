@@ -14,6 +14,8 @@
 package eu.europa.ec.leos.cmis.repository;
 
 import com.google.common.base.Stopwatch;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import eu.europa.ec.leos.cmis.extensions.CmisDocumentExtensions;
 import eu.europa.ec.leos.cmis.mapping.CmisProperties;
 import eu.europa.ec.leos.cmis.search.SearchStrategy;
@@ -37,13 +39,18 @@ import org.apache.chemistry.opencmis.commons.enums.UnfileObject;
 import org.apache.chemistry.opencmis.commons.enums.Updatability;
 import org.apache.chemistry.opencmis.commons.enums.VersioningState;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisBaseException;
+import org.apache.chemistry.opencmis.commons.exceptions.CmisObjectNotFoundException;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import javax.inject.Provider;
 import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -51,6 +58,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static eu.europa.ec.leos.cmis.support.OperationContextProvider.getMinimalContext;
@@ -63,10 +71,24 @@ public class CmisRepository {
     private final Session cmisSession;
     private final Provider<RepositoryContext> repositoryContextProvider;
     private static final Map<String, Long> synchronizedKeys = new ConcurrentHashMap<>();
+    private static final int MAX_CACHED_FOLDER_PATHS = 10_000;
+    private static final int COLLABORATOR_INDEX_PAGE_SIZE = 1_000;
+    private static final String COLLABORATOR_INDEX_PROPERTIES = String.join(",", PropertyIds.OBJECT_ID, PropertyIds.OBJECT_TYPE_ID,
+            PropertyIds.VERSION_SERIES_ID, PropertyIds.IS_LATEST_VERSION, CmisProperties.DOCUMENT_CATEGORY.getId(), CmisProperties.COLLABORATORS.getId());
+    private static final int ORPHAN_CLONES_PAGE_SIZE = 1_000;
 
-    CmisRepository(Session cmisSession, Provider<RepositoryContext> repositoryContextProvider) {
+    // folder ids never change, a path is resolved once and the folder is then fetched by id
+    private final Cache<String, String> folderIdsByPath = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_FOLDER_PATHS)
+            .build();
+
+    private final CollaboratorIndex collaboratorIndex;
+
+    CmisRepository(Session cmisSession, Provider<RepositoryContext> repositoryContextProvider,
+                   @Value("${leos.cmis.collaborator.index.reload:10}") long collaboratorIndexReloadMinutes) {
         this.cmisSession = cmisSession;
         this.repositoryContextProvider = repositoryContextProvider;
+        this.collaboratorIndex = new CollaboratorIndex(TimeUnit.MINUTES.toMillis(collaboratorIndexReloadMinutes));
     }
 
     private SearchStrategy getSearchStrategy() {
@@ -82,7 +104,9 @@ public class CmisRepository {
         properties.put(PropertyIds.OBJECT_TYPE_ID, BaseTypeId.CMIS_FOLDER.value());
         properties.put(PropertyIds.NAME, name);
 
-        return parentFolder.createFolder(properties, null, null, null, context);
+        Folder folder = parentFolder.createFolder(properties, null, null, null, context);
+        folderIdsByPath.put(childPath(path, name), folder.getId());
+        return folder;
     }
 
     void deleteFolder(final String path) {
@@ -90,6 +114,8 @@ public class CmisRepository {
         OperationContext context = getMinimalContext(cmisSession);
         Folder folder = findFolderByPath(path, context);
         folder.deleteTree(true, UnfileObject.DELETE, true);
+        evictFolderPaths(path);
+        // the proposals of the deleted tree are dropped from the collaborator index when next looked up
     }
 
     Document createDocumentFromContent(final String path, final String name, Map<String, ?> properties, final String mimeType, byte[] contentBytes) {
@@ -105,7 +131,7 @@ public class CmisRepository {
         updatedProperties.put(CmisProperties.VERSION_TYPE.getId(), VersionType.MINOR.value());
         updatedProperties.put(CmisProperties.VERSION_LABEL.getId(), getNextVersionLabel(VersionType.MINOR, null));
 
-        return targetFolder.createDocument(updatedProperties, contentStream, VersioningState.MINOR);
+        return indexCollaborators(targetFolder.createDocument(updatedProperties, contentStream, VersioningState.MINOR));
     }
 
     Document createDocumentFromSource(final String sourceId, String path, Map<String, ?> properties) {
@@ -120,7 +146,7 @@ public class CmisRepository {
         updatedProperties.put(CmisProperties.VERSION_TYPE.getId(), VersionType.MINOR.value());
         updatedProperties.put(CmisProperties.VERSION_LABEL.getId(), getNextVersionLabel(VersionType.MINOR, null));
 
-        return sourceDoc.copy(targetFolder, updatedProperties, VersioningState.MINOR, null, null, null, context);
+        return indexCollaborators(sourceDoc.copy(targetFolder, updatedProperties, VersioningState.MINOR, null, null, null, context));
     }
 
     void deleteDocumentById(final String id) {
@@ -129,6 +155,7 @@ public class CmisRepository {
         CmisObject cmisObject = cmisSession.getObject(id, context);
         require(cmisObject instanceof Document, "CMIS object referenced by id [" + id + "] is not a Document!");
         cmisObject.delete(true);
+        collaboratorIndex.remove(((Document) cmisObject).getVersionSeriesId());
     }
 
     Document updateDocument(final String id, Map<String, ?> properties) {
@@ -139,9 +166,20 @@ public class CmisRepository {
         logger.trace("Updating document properties... [id=" + id + "]");
         OperationContext context = getMinimalContext(cmisSession);
         Document document = findDocumentById(id, latest, context);
-        return (Document) document.updateProperties(properties);
+        return indexCollaborators((Document) document.updateProperties(properties));
     }
 
+    /**
+     * Checks in a new version of the document with the content of its current version. The content is neither
+     * downloaded nor uploaded again, the repository copies it on its side when the document is checked out.
+     */
+    Document createVersion(final String id, Map<String, ?> properties, VersionType versionType, String comment) {
+        return updateDocument(id, properties, null, versionType, comment);
+    }
+
+    /**
+     * @param updatedDocumentBytes the new content, or null to keep the content of the current version
+     */
     public Document updateDocument(String id, Map<String, ?> properties, byte[] updatedDocumentBytes, VersionType versionType, String comment) {
         Stopwatch stopwatch = Stopwatch.createStarted();
         logger.trace("Updating document properties and content... [id={}]", id);
@@ -167,7 +205,7 @@ public class CmisRepository {
                 if (updatedDocument == null) {
                     throw new IllegalStateException("Update not successful for document:" + id);
                 } else {
-                    return updatedDocument;
+                    return indexCollaborators(updatedDocument);
                 }
             }
         } finally {
@@ -192,13 +230,17 @@ public class CmisRepository {
         updatedProperties.put(CmisProperties.VERSION_LABEL.getId(), nextVersionLabel);
         final boolean isMajor = versionType.equals(VersionType.MAJOR) || versionType.equals(VersionType.INTERMEDIATE);
         
-        try (ByteArrayInputStream byteStream = new ByteArrayInputStream(updatedDocumentBytes)) {
+        try (ByteArrayInputStream byteStream = updatedDocumentBytes != null ? new ByteArrayInputStream(updatedDocumentBytes) : null) {
             OperationContext context = getMinimalContext(cmisSession);
             ObjectId updatedDocId;
             try {
-                ContentStream pwcContentStream = pwc.getContentStream();
-                ContentStream contentStream = cmisSession.getObjectFactory().createContentStream(pwcContentStream.getFileName(),
-                        updatedDocumentBytes.length, pwcContentStream.getMimeType(), byteStream);
+                // without new content the working copy keeps the content copied from the checked out version
+                ContentStream contentStream = null;
+                if (updatedDocumentBytes != null) {
+                    ContentStream pwcContentStream = pwc.getContentStream();
+                    contentStream = cmisSession.getObjectFactory().createContentStream(pwcContentStream.getFileName(),
+                            updatedDocumentBytes.length, pwcContentStream.getMimeType(), byteStream);
+                }
 
                 updatedDocId = pwc.checkIn(isMajor, updatedProperties, contentStream, comment);
                 logger.trace("Document checked-in successfully...[updated document id: {}]");
@@ -262,6 +304,17 @@ public class CmisRepository {
         return getSearchStrategy().findDocumentsByStatus(status, primaryType, context);
     }
 
+    /**
+     * Returns the ids of the cloned proposals without reference to their origin, only the ids are fetched.
+     */
+    List<String> findOrphanClonedProposalIds(String primaryType) {
+        OperationContext context = OperationContextProvider.getOperationContext(cmisSession, ORPHAN_CLONES_PAGE_SIZE);
+        context.setFilterString(String.join(",", PropertyIds.OBJECT_ID, PropertyIds.OBJECT_TYPE_ID));
+        return getSearchStrategy().findOrphanClonedProposals(primaryType, context)
+                .map(Document::getId)
+                .collect(Collectors.toList());
+    }
+
     @Deprecated //shouldn't be used. Check time difference between document.getAllVersions() VS queryFindAllVersions()
     List<Document> findAllVersions(final String id) {
         logger.trace("Finding all document versions... [id=" + id + ']');
@@ -284,20 +337,85 @@ public class CmisRepository {
     }
 
     private List<Document> findDocumentsForUser(final String userId, String primaryType, String leosAuthority) {
-        OperationContext context = OperationContextProvider.getOperationContext(cmisSession, "cmis:lastModificationDate DESC");
-        final List<Document> documents = getSearchStrategy().findDocumentsForUser(userId, primaryType, leosAuthority, context);
+        final Map<String, String> documentIds = collaboratorIndex.findDocumentIds(userId, leosAuthority, primaryType, () -> findProposals(primaryType));
+        OperationContext context = getMinimalContext(cmisSession);
+        final List<Document> documents = new ArrayList<>(documentIds.size());
+        documentIds.forEach((versionSeriesId, documentId) -> {
+            try {
+                // the indexed version may have been superseded by another node, the latest one is fetched
+                Document document = findDocumentById(documentId, true, context);
+                if (CollaboratorIndex.isCollaborator(document, userId, leosAuthority)) {
+                    documents.add(document);
+                } else {
+                    // the collaborators changed since the proposal was indexed
+                    logger.trace("User " + userId + " is no longer " + leosAuthority + " of the indexed proposal [id=" + documentId + "]");
+                    collaboratorIndex.update(document);
+                }
+            } catch (CmisObjectNotFoundException e) {
+                logger.trace("Indexed proposal [id=" + documentId + "] no longer exists");
+                collaboratorIndex.remove(versionSeriesId);
+            }
+        });
+        documents.sort(Comparator.comparing(Document::getLastModificationDate, Comparator.nullsLast(Comparator.<Calendar>reverseOrder())));
         logger.trace("Found " + documents.size() + " docuemnts for " + userId);
         return documents;
     }
 
+    private Stream<Document> findProposals(String primaryType) {
+        OperationContext context = OperationContextProvider.getOperationContext(cmisSession, COLLABORATOR_INDEX_PAGE_SIZE);
+        context.setFilterString(COLLABORATOR_INDEX_PROPERTIES);
+        return getSearchStrategy().findProposals(primaryType, context);
+    }
+
+    private Document indexCollaborators(Document document) {
+        if (document != null) {
+            collaboratorIndex.update(document);
+        }
+        return document;
+    }
+
     private Folder findFolderByPath(String path, OperationContext context) {
-        boolean pathAvailable = cmisSession.existsPath(path);
-        require(pathAvailable, "Path [" + path + "] is not available in CMIS repository!");
-        CmisObject cmisObject = cmisSession.getObjectByPath(path, context);
+        final String normalizedPath = normalizePath(path);
+        final String folderId = folderIdsByPath.getIfPresent(normalizedPath);
+        if (folderId != null) {
+            try {
+                CmisObject cmisObject = cmisSession.getObject(folderId, context);
+                if (cmisObject instanceof Folder) {
+                    return (Folder) cmisObject;
+                }
+            } catch (CmisObjectNotFoundException e) {
+                logger.trace("Cached folder [id=" + folderId + "] of path [" + path + "] no longer exists");
+            }
+            folderIdsByPath.invalidate(normalizedPath);
+        }
+
+        CmisObject cmisObject;
+        try {
+            cmisObject = cmisSession.getObjectByPath(normalizedPath, context);
+        } catch (CmisObjectNotFoundException e) {
+            cmisObject = null;
+        }
+        require(cmisObject != null, "Path [" + path + "] is not available in CMIS repository!");
         require(cmisObject instanceof Folder, "CMIS object referenced by path [" + path + "] is not a Folder!");
+        folderIdsByPath.put(normalizedPath, cmisObject.getId());
         return (Folder) cmisObject;
     }
 
+    private void evictFolderPaths(String path) {
+        final String normalizedPath = normalizePath(path);
+        final String descendantsPrefix = normalizedPath.endsWith("/") ? normalizedPath : normalizedPath + "/";
+        folderIdsByPath.asMap().keySet().removeIf(cachedPath -> cachedPath.equals(normalizedPath) || cachedPath.startsWith(descendantsPrefix));
+    }
+
+    private static String childPath(String parentPath, String name) {
+        final String normalizedPath = normalizePath(parentPath);
+        return normalizedPath.endsWith("/") ? normalizedPath + name : normalizedPath + "/" + name;
+    }
+
+    private static String normalizePath(String path) {
+        return path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
     private Folder findFolderById(String id, OperationContext context) {
         boolean idAvailable = cmisSession.exists(id);
         require(idAvailable, "Id [" + id + "] is not available in CMIS repository!");
@@ -351,8 +469,19 @@ public class CmisRepository {
 
     // Pagination changes
     Stream<Document> findPagedDocumentsByParentPath(String path, String primaryType, Set<LeosCategory> categories, boolean descendants, int startIndex, int maxResults, QueryFilter workspaceFilter) {
+        return findPagedDocumentsByParentPath(path, primaryType, categories, descendants, startIndex, maxResults, workspaceFilter, null);
+    }
+
+    /**
+     * @param propertyFilter comma separated properties to select, or null to select all of them
+     */
+    Stream<Document> findPagedDocumentsByParentPath(String path, String primaryType, Set<LeosCategory> categories, boolean descendants, int startIndex, int maxResults,
+                                                    QueryFilter workspaceFilter, String propertyFilter) {
         logger.trace("Finding documents by parent path... [path=$path, primaryType=$primaryType, categories=$categories, descendants=$descendants]");
         OperationContext context = OperationContextProvider.getOperationContext(cmisSession, maxResults);
+        if (propertyFilter != null) {
+            context.setFilterString(propertyFilter);
+        }
 
         Folder folder = findFolderByPath(path, context);
         Stream<Document> documents = getSearchStrategy().findDocumentPage(folder, primaryType, categories, descendants, false, context, startIndex, workspaceFilter);
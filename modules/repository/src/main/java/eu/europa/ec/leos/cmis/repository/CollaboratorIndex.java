@@ -0,0 +1,202 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.cmis.repository;
+
+import eu.europa.ec.leos.cmis.extensions.CmisDocumentExtensions;
+import eu.europa.ec.leos.cmis.mapping.CmisProperties;
+import eu.europa.ec.leos.domain.cmis.LeosCategory;
+import eu.europa.ec.leos.model.user.Collaborator;
+import org.apache.chemistry.opencmis.client.api.Document;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Proposals of each collaborator, so the proposals of a user are resolved from the index instead of a
+ * {@code LIKE 'login::authority%'} query scanning the collaborators of every proposal.
+ * <p>
+ * The index is loaded with a single query on first use and is kept up to date with the proposals written through
+ * {@link CmisRepository}. As other nodes write to the same repository, it is reloaded once older than the reload interval.
+ * The index may therefore be stale: callers must check the collaborators of the documents they fetch, see
+ * {@link #isCollaborator(Document, String, String)}.
+ * <p>
+ * A reload queries the repository without holding the monitor of the index, the new entries are swapped in once built.
+ * The updates done meanwhile are applied to both the current entries and the ones being built.
+ */
+class CollaboratorIndex {
+
+    private final long reloadIntervalMillis;
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    // guarded by this
+    private Entries entries = new Entries();
+    private String primaryType;
+    private long loadedAt;
+    private List<Consumer<Entries>> changesDuringLoad;
+
+    CollaboratorIndex(long reloadIntervalMillis) {
+        this.reloadIntervalMillis = reloadIntervalMillis;
+    }
+
+    /**
+     * Returns the ids of the last known versions, by version series id, of the proposals the user collaborates on with
+     * the given authority. The index is (re)loaded from the proposals supplied if it is not loaded for this type or is too old.
+     * While another thread reloads an index loaded for this type, the current entries are used.
+     */
+    Map<String, String> findDocumentIds(String login, String authority, String primaryType, Supplier<Stream<Document>> proposals) {
+        boolean loaded;
+        synchronized (this) {
+            loaded = primaryType.equals(this.primaryType);
+            if (loaded && System.currentTimeMillis() - loadedAt <= reloadIntervalMillis) {
+                return entries.find(login, authority);
+            }
+        }
+        if (loaded) {
+            if (loadLock.tryLock()) {
+                try {
+                    reloadIfNeeded(primaryType, proposals);
+                } finally {
+                    loadLock.unlock();
+                }
+            }
+        } else {
+            loadLock.lock();
+            try {
+                reloadIfNeeded(primaryType, proposals);
+            } finally {
+                loadLock.unlock();
+            }
+        }
+        synchronized (this) {
+            return entries.find(login, authority);
+        }
+    }
+
+    /**
+     * Indexes the collaborators of the document if it is the latest version of a proposal.
+     * Documents of other categories and older versions are ignored.
+     */
+    synchronized void update(Document document) {
+        if ((primaryType == null && changesDuringLoad == null) || !isLatestProposal(document)) {
+            return;
+        }
+        apply(current -> current.index(document));
+    }
+
+    synchronized void remove(String versionSeriesId) {
+        apply(current -> current.remove(versionSeriesId));
+    }
+
+    /**
+     * Returns true if the given user is currently a collaborator of the document with the given authority.
+     */
+    static boolean isCollaborator(Document document, String login, String authority) {
+        return CmisDocumentExtensions.getCollaborators(document).stream()
+                .anyMatch(collaborator -> login.equals(collaborator.getLogin()) && authority.equals(collaborator.getRole()));
+    }
+
+    private void apply(Consumer<Entries> change) {
+        change.accept(entries);
+        if (changesDuringLoad != null) {
+            changesDuringLoad.add(change);
+        }
+    }
+
+    private void reloadIfNeeded(String primaryType, Supplier<Stream<Document>> proposals) {
+        synchronized (this) {
+            if (primaryType.equals(this.primaryType) && System.currentTimeMillis() - loadedAt <= reloadIntervalMillis) {
+                // reloaded by another thread meanwhile
+                return;
+            }
+            changesDuringLoad = new ArrayList<>();
+        }
+        Entries loadedEntries = new Entries();
+        try (Stream<Document> documents = proposals.get()) {
+            documents.filter(CollaboratorIndex::isLatestProposal).forEach(loadedEntries::index);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changesDuringLoad = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            if (changesDuringLoad != null) {
+                changesDuringLoad.forEach(change -> change.accept(loadedEntries));
+                changesDuringLoad = null;
+            }
+            entries = loadedEntries;
+            this.primaryType = primaryType;
+            loadedAt = System.currentTimeMillis();
+        }
+    }
+
+    private static boolean isLatestProposal(Document document) {
+        String category = document.getPropertyValue(CmisProperties.DOCUMENT_CATEGORY.getId());
+        return LeosCategory.PROPOSAL.name().equals(category) && !Boolean.FALSE.equals(document.isLatestVersion());
+    }
+
+    private static class Entries {
+        // login -> proposal version series id -> authority
+        private final Map<String, Map<String, String>> authoritiesByLogin = new HashMap<>();
+        // proposal version series id -> logins
+        private final Map<String, Set<String>> loginsBySeries = new HashMap<>();
+        // proposal version series id -> id of the last known version
+        private final Map<String, String> documentIdsBySeries = new HashMap<>();
+
+        private Map<String, String> find(String login, String authority) {
+            Map<String, String> documentIds = new HashMap<>();
+            authoritiesByLogin.getOrDefault(login, Collections.emptyMap()).forEach((seriesId, seriesAuthority) -> {
+                if (seriesAuthority.equals(authority)) {
+                    documentIds.put(seriesId, documentIdsBySeries.get(seriesId));
+                }
+            });
+            return documentIds;
+        }
+
+        private void index(Document document) {
+            String seriesId = document.getVersionSeriesId();
+            remove(seriesId);
+            documentIdsBySeries.put(seriesId, document.getId());
+            Set<String> logins = new HashSet<>();
+            for (Collaborator collaborator : CmisDocumentExtensions.getCollaborators(document)) {
+                authoritiesByLogin.computeIfAbsent(collaborator.getLogin(), login -> new HashMap<>()).put(seriesId, collaborator.getRole());
+                logins.add(collaborator.getLogin());
+            }
+            loginsBySeries.put(seriesId, logins);
+        }
+
+        private void remove(String versionSeriesId) {
+            documentIdsBySeries.remove(versionSeriesId);
+            Set<String> logins = loginsBySeries.remove(versionSeriesId);
+            if (logins != null) {
+                logins.forEach(login -> {
+                    Map<String, String> authorities = authoritiesByLogin.get(login);
+                    authorities.remove(versionSeriesId);
+                    if (authorities.isEmpty()) {
+                        authoritiesByLogin.remove(login);
+                    }
+                });
+            }
+        }
+    }
+}
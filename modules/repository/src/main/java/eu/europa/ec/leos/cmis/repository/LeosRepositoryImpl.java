@@ -58,6 +58,7 @@ import java.util.stream.Stream;
 
 import static eu.europa.ec.leos.cmis.support.RepositoryUtil.updateDocumentProperties;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.toList;
 import static org.springframework.util.StringUtils.isEmpty;
@@ -264,6 +265,20 @@ public class LeosRepositoryImpl implements LeosRepository {
                 .orElseThrow(() -> new IllegalStateException("Unable to update document! [id=" + id + ", comment=" + comment + ']'));
     }
 
+    @Override
+    public <D extends LeosDocument> D createVersion(String id, VersionType versionType, String comment, Class<? extends D> type) {
+        logger.trace("Creating document version... [id=" + id + ", comment=" + comment + ']');
+
+        long startTimeNanos = System.nanoTime();
+
+        Document doc = cmisRepository.createVersion(id, emptyMap(), versionType, comment);
+        long time = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTimeNanos);
+        logger.trace("CMIS Repository version creation took " + time + " milliseconds.");
+
+        return toLeosDocument(doc, type, true)
+                .orElseThrow(() -> new IllegalStateException("Unable to create version! [id=" + id + ", comment=" + comment + ']'));
+    }
+
     @Override
     public <D extends LeosDocument> D updateDocument(String id, byte[] content, VersionType versionType, String comment, Class<? extends D> type) {
         logger.trace("Updating document content... [id=" + id + ", comment=" + comment + ']');
@@ -491,6 +506,19 @@ public class LeosRepositoryImpl implements LeosRepository {
         return toLeosDocuments(docs, type, false);
     }
 
+    @Override
+    public <D extends LeosDocument> List<String> findOrphanClonedProposalIds(Class<? extends D> type) {
+        logger.trace("Finding orphan cloned proposals... [type=" + type.getSimpleName() + ']');
+
+        long startTimeNanos = System.nanoTime();
+        String primaryType = CmisMapper.cmisPrimaryType(type);
+        List<String> ids = cmisRepository.findOrphanClonedProposalIds(primaryType);
+        long time = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTimeNanos);
+        logger.trace("CMIS Repository document search took " + time + " milliseconds.");
+
+        return ids;
+    }
+
     private String getAccessRecord(String userLogin, String authority, String userEntity) {
         return userLogin + "::" + authority + (userEntity != null ? "::" + userEntity : "");
     }
@@ -521,7 +549,10 @@ public class LeosRepositoryImpl implements LeosRepository {
         logger.trace("Finding documents by parent path... [path=$path, type=${type.simpleName}]");
         String primaryType = CmisMapper.cmisPrimaryType(type);
         Set<LeosCategory> categories = CmisMapper.cmisCategories(type);
-        Stream<Document> docs = cmisRepository.findPagedDocumentsByParentPath(path, primaryType, categories, descendants, startIndex, maxResults, workspaceFilter);
+        // listings without content only select the summary properties of the documents
+        String propertyFilter = fetchContent ? null : CmisMapper.cmisSummaryProperties(type);
+        Stream<Document> docs = cmisRepository.findPagedDocumentsByParentPath(path, primaryType, categories, descendants, startIndex, maxResults,
+                workspaceFilter, propertyFilter);
         logger.trace("CMIS Repository document search took $time milliseconds.");
         
         Map<String, String> oldVersions = repositoryContextProvider.get().getVersionsWithoutVersionLabel();
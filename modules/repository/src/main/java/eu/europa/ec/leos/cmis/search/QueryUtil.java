@@ -24,6 +24,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
@@ -34,6 +35,10 @@ class QueryUtil {
 
     private static final Logger LOG = LoggerFactory.getLogger(QueryUtil.class);
 
+    // values of these columns are compared as CMIS timestamps (TIMESTAMP 'YYYY-MM-DDThh:mm:ss.sssZ')
+    private static final Set<String> DATE_TIME_FILTERS = new HashSet<>(Arrays.asList(
+            FilterType.creationDate.name(), FilterType.lastModificationDate.name()));
+
     static String formFilterClause(QueryFilter workspaceFilter) {
         LOG.trace("Form where clause for filter...");
         StringBuilder whereClauseFilter = new StringBuilder();
@@ -46,8 +51,9 @@ class QueryUtil {
                 whereClauseFilter.append(FilterType.getColumnName(filter.key) );
                 whereClauseFilter.append(" IS NULL OR ");
             }
-            StringBuilder value = new StringBuilder("'");
-            value.append(StringUtils.join(filter.value, "', '"));
+            String literalPrefix = DATE_TIME_FILTERS.contains(filter.key) ? "TIMESTAMP '" : "'";
+            StringBuilder value = new StringBuilder(literalPrefix);
+            value.append(StringUtils.join(filter.value, "', " + literalPrefix));
             value.append("'");
 
             String operation;
@@ -64,9 +70,10 @@ class QueryUtil {
                     );
                 }
             } else {
-                if ("IN".equalsIgnoreCase(filter.operator)) {
-                    operation = String.format("%s IN (%s)",
+                if ("IN".equalsIgnoreCase(filter.operator) || "NOT IN".equalsIgnoreCase(filter.operator)) {
+                    operation = String.format("%s %s (%s)",
                             FilterType.getColumnName(filter.key),
+                            filter.operator.toUpperCase(),
                             value);
                 } else {
                     operation = String.format("%s %s %s",
@@ -27,10 +27,12 @@ import java.util.stream.Stream;
 public interface SearchStrategy {
     List<Document> findDocuments(Folder folder, String primaryType, Set<LeosCategory> categories, boolean descendants, boolean allVersion, OperationContext context);
 
-    List<Document> findDocumentsForUser(String userId, String primaryType, String leosAuthority, OperationContext context);
-
     List<Document> findDocumentsByStatus(LeosLegStatus status, String primaryType, OperationContext context);
 
+    Stream<Document> findProposals(String primaryType, OperationContext context);
+
+    Stream<Document> findOrphanClonedProposals(String primaryType, OperationContext context);
+
     Stream<Document> findDocumentPage(Folder folder, String primaryType, Set<LeosCategory> categories, boolean descendants, boolean allVersion, OperationContext context, int startIndex, QueryFilter workspaceFilter);
 
     int findDocumentCount(Folder folder, String primaryType, Set<LeosCategory> categories, boolean descendants, boolean allVersion, OperationContext context, QueryFilter workspaceFilter);
@@ -44,12 +44,8 @@ abstract public class SearchStrategyImpl implements SearchStrategy {
     }
     
     @Override
-    public List<Document> findDocumentsForUser(String userId, String primaryType, String leosAuthority, OperationContext context) {
-        logger.trace("Finding documents...");
-
-        String whereClause = CmisProperties.DOCUMENT_CATEGORY.getId() + " IN ('PROPOSAL') AND " + CmisProperties.COLLABORATORS.getId() + " LIKE '" + userId +
-                "::" + leosAuthority + "%'" ;
-        logger.trace("Ordering by ....." + context.getOrderBy());
+    public List<Document> findDocumentsByStatus(LeosLegStatus status, String primaryType, OperationContext context) {
+        String whereClause = CmisProperties.STATUS.getId() + " IN ('" + status + "')";
         ItemIterable<CmisObject> cmisObjects = cmisSession.queryObjects(primaryType, whereClause, false, context);
         return StreamSupport.stream(cmisObjects.spliterator(), false)
                 .map(cmisObject -> (Document) cmisObject)
@@ -57,14 +53,23 @@ abstract public class SearchStrategyImpl implements SearchStrategy {
     }
     
     @Override
-    public List<Document> findDocumentsByStatus(LeosLegStatus status, String primaryType, OperationContext context) {
-        String whereClause = CmisProperties.STATUS.getId() + " IN ('" + status + "')";
+    public Stream<Document> findProposals(String primaryType, OperationContext context) {
+        String whereClause = CmisProperties.DOCUMENT_CATEGORY.getId() + " IN ('" + LeosCategory.PROPOSAL + "')";
         ItemIterable<CmisObject> cmisObjects = cmisSession.queryObjects(primaryType, whereClause, false, context);
         return StreamSupport.stream(cmisObjects.spliterator(), false)
-                .map(cmisObject -> (Document) cmisObject)
-                .collect(Collectors.toList());
+                .map(cmisObject -> (Document) cmisObject);
     }
-    
+
+    @Override
+    public Stream<Document> findOrphanClonedProposals(String primaryType, OperationContext context) {
+        String whereClause = CmisProperties.DOCUMENT_CATEGORY.getId() + " IN ('" + LeosCategory.PROPOSAL + "') AND " +
+                CmisProperties.CLONED_PROPOSAL.getId() + " = TRUE AND (" +
+                CmisProperties.CLONED_FROM.getId() + " IS NULL OR " + CmisProperties.CLONED_FROM.getId() + " = '')";
+        ItemIterable<CmisObject> cmisObjects = cmisSession.queryObjects(primaryType, whereClause, false, context);
+        return StreamSupport.stream(cmisObjects.spliterator(), false)
+                .map(cmisObject -> (Document) cmisObject);
+    }
+
     @Override
     public Stream<Document> findDocumentPage(Folder folder, String primaryType, Set<LeosCategory> categories,
                                              boolean descendants, boolean allVersion, OperationContext context, int startIndex, QueryFilter workspaceFilter) {
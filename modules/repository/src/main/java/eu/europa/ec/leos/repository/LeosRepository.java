@@ -151,6 +151,18 @@ public interface LeosRepository {
      */
     <D extends LeosDocument, M extends LeosMetadata> D updateDocument(String id, M metadata, byte[] content, VersionType versionType, String comment, Class<? extends D> type);
 
+    /**
+     * Creates a new version of a document with the content and metadata of its latest version.
+     * The content is copied by the repository, it is neither downloaded nor uploaded.
+     *
+     * @param id       the ID of the document.
+     * @param versionType  the version type to be created
+     * @param comment  the comment of the version, optional.
+     * @param type     the type class of the document.
+     * @return the new version of the document.
+     */
+    <D extends LeosDocument> D createVersion(String id, VersionType versionType, String comment, Class<? extends D> type);
+
     /**
      * Updates a document with the given collaborators.
      *
@@ -248,6 +260,14 @@ public interface LeosRepository {
      */
     <D extends LeosDocument> List<D> findDocumentsByStatus(LeosLegStatus status, Class<? extends D> type);
 
+    /**
+     * Finds the cloned proposals which have no reference to the proposal they were cloned from.
+     *
+     * @param type the type class of the document.
+     * @return the ids of the found proposals or empty.
+     */
+    <D extends LeosDocument> List<String> findOrphanClonedProposalIds(Class<? extends D> type);
+
     /**
      * Finds a document with the specified characteristics.
      *
@@ -81,6 +81,17 @@ public interface AnnexRepository {
      */
     Annex updateAnnex(String id, AnnexMetadata metadata, byte[] content, VersionType versionType, String comment);
 
+    /**
+     * Creates a new version of a [Annex] document with the content and metadata of its latest version,
+     * without transferring the content.
+     *
+     * @param id      the ID of the annex document.
+     * @param versionType  the version type to be created
+     * @param comment the comment of the version, optional.
+     * @return the new version of the annex document.
+     */
+    Annex createVersion(String id, VersionType versionType, String comment);
+
     Annex updateMilestoneComments(String id, List<String> milestoneComments, byte[] content, VersionType versionType, String comment);
 
     Annex updateMilestoneComments(String id, List<String> milestoneComments);
@@ -73,6 +73,12 @@ public class AnnexRepositoryImpl implements AnnexRepository {
         return leosRepository.updateDocument(id, metadata, content, versionType, comment, Annex.class);
     }
 
+    @Override
+    public Annex createVersion(String id, VersionType versionType, String comment) {
+        logger.debug("Creating Annex version... [id=" + id + "]");
+        return leosRepository.createVersion(id, versionType, comment, Annex.class);
+    }
+
     @Override
     public Annex updateMilestoneComments(String id, List<String> milestoneComments, byte[] content, VersionType versionType, String comment) {
         logger.debug("Updating Annex milestoneComments and content... [id=" + id + "]");
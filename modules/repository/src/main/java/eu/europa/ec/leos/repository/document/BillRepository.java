@@ -64,6 +64,17 @@ public interface BillRepository {
      */
     Bill updateBill(String id, BillMetadata metadata, byte[] content, VersionType versionType, String comment);
 
+    /**
+     * Creates a new version of a [Bill] document with the content and metadata of its latest version,
+     * without transferring the content.
+     *
+     * @param id      the ID of the bill document.
+     * @param versionType  the version type to be created
+     * @param comment the comment of the version, optional.
+     * @return the new version of the bill document.
+     */
+    Bill createVersion(String id, VersionType versionType, String comment);
+
     /**
      * Updates a [Bill] document with the given metadata.
      *
@@ -59,6 +59,12 @@ public class BillRepositoryImpl implements BillRepository {
         return leosRepository.updateDocument(id, metadata, content, versionType, comment, Bill.class);
     }
 
+    @Override
+    public Bill createVersion(String id, VersionType versionType, String comment) {
+        logger.debug("Creating Bill version... [id=" + id + "]");
+        return leosRepository.createVersion(id, versionType, comment, Bill.class);
+    }
+
     @Override
     public Bill updateBill(String id, BillMetadata metadata) {
         logger.debug("Updating Bill metadata... [id=" + id + "]");
@@ -75,6 +75,17 @@ public interface ExplanatoryRepository {
      */
     Explanatory updateExplanatory(String id, ExplanatoryMetadata metadata, byte[] content, VersionType versionType, String comment);
 
+    /**
+     * Creates a new version of a [Explanatory] document with the content and metadata of its latest version,
+     * without transferring the content.
+     *
+     * @param id      the ID of the explanatory document.
+     * @param versionType  the version type to be created
+     * @param comment the comment of the version, optional.
+     * @return the new version of the explanatory document.
+     */
+    Explanatory createVersion(String id, VersionType versionType, String comment);
+
     Explanatory updateMilestoneComments(String id, List<String> milestoneComments, byte[] content, VersionType versionType, String comment);
 
     Explanatory updateMilestoneComments(String id, List<String> milestoneComments);
@@ -68,6 +68,12 @@ public class ExplanatoryRepositoryImpl implements ExplanatoryRepository {
         return leosRepository.updateDocument(id, metadata, content, versionType, comment, Explanatory.class);
     }
 
+    @Override
+    public Explanatory createVersion(String id, VersionType versionType, String comment) {
+        logger.debug("Creating Explanatory version... [id=" + id + "]");
+        return leosRepository.createVersion(id, versionType, comment, Explanatory.class);
+    }
+
     @Override
     public Explanatory updateMilestoneComments(String id, List<String> milestoneComments, byte[] content, VersionType versionType, String comment) {
         logger.debug("Updating Explanatory milestoneComments and content... [id=" + id + "]");
@@ -85,6 +85,17 @@ public interface MemorandumRepository {
      */
     Memorandum updateMemorandum(String id, MemorandumMetadata metadata, byte[] content, VersionType versionType, String comment);
 
+    /**
+     * Creates a new version of a [Memorandum] document with the content and metadata of its latest version,
+     * without transferring the content.
+     *
+     * @param id      the ID of the memorandum document.
+     * @param versionType  the version type to be created
+     * @param comment the comment of the version, optional.
+     * @return the new version of the memorandum document.
+     */
+    Memorandum createVersion(String id, VersionType versionType, String comment);
+
     Memorandum updateMilestoneComments(String id, List<String> milestoneComments, byte[] content, VersionType versionType, String comment);
 
     Memorandum updateMilestoneComments(String id, List<String> milestoneComments);
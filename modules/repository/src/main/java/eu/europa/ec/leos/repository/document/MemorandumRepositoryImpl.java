@@ -72,6 +72,12 @@ public class MemorandumRepositoryImpl implements MemorandumRepository {
         return leosRepository.updateDocument(id, metadata, content, versionType, comment, Memorandum.class);
     }
 
+    @Override
+    public Memorandum createVersion(String id, VersionType versionType, String comment) {
+        logger.debug("Creating Memorandum version... [id=" + id + "]");
+        return leosRepository.createVersion(id, versionType, comment, Memorandum.class);
+    }
+
     @Override
     public Memorandum updateMilestoneComments(String id, List<String> milestoneComments, byte[] content, VersionType versionType, String comment) {
         logger.debug("Updating Memorandum milestoneComments... [id=" + id + "]");
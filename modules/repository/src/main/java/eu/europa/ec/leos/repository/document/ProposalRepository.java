@@ -99,6 +99,17 @@ public interface ProposalRepository {
      */
     Proposal updateProposal(String id, ProposalMetadata metadata, byte[] content, VersionType versionType, String comment);
 
+    /**
+     * Creates a new version of a [Proposal] document with the content and metadata of its latest version,
+     * without transferring the content.
+     *
+     * @param id      the ID of the proposal document.
+     * @param versionType  the version type to be created
+     * @param comment the comment of the version, optional.
+     * @return the new version of the proposal document.
+     */
+    Proposal createVersion(String id, VersionType versionType, String comment);
+
     /**
      * Finds a [Proposal] document with the specified characteristics.
      *
@@ -108,6 +119,13 @@ public interface ProposalRepository {
      */
     Proposal findProposalById(String id, boolean latest);
 
+    /**
+     * Finds the cloned [Proposal] documents which have no reference to the proposal they were cloned from.
+     *
+     * @return the ids of the found proposal documents or empty.
+     */
+    List<String> findOrphanClonedProposalIds();
+
     /**
      * Finds a [Proposal] document with the specified characteristics.
      *
@@ -101,12 +101,24 @@ public class ProposalRepositoryImpl implements ProposalRepository {
         return leosRepository.updateDocument(id, metadata, content, versionType, comment, Proposal.class);
     }
 
+    @Override
+    public Proposal createVersion(String id, VersionType versionType, String comment) {
+        logger.debug("Creating Proposal version... [id=" + id + "]");
+        return leosRepository.createVersion(id, versionType, comment, Proposal.class);
+    }
+
     @Override
     public Proposal findProposalById(String id, boolean latest) {
         logger.debug("Finding Proposal by ID... [id=" + id + ", latest=" + latest + "]");
         return leosRepository.findDocumentById(id, Proposal.class, latest);
     }
 
+    @Override
+    public List<String> findOrphanClonedProposalIds() {
+        logger.debug("Finding orphan cloned Proposals...");
+        return leosRepository.findOrphanClonedProposalIds(Proposal.class);
+    }
+
     @Override
     public Proposal findProposalByRef(String ref) {
         logger.debug("Finding Proposal by ref... [ref=" + ref + "]");
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.cmis.repository;
+
+import eu.europa.ec.leos.cmis.mapping.CmisProperties;
+import eu.europa.ec.leos.domain.cmis.common.VersionType;
+import eu.europa.ec.leos.repository.RepositoryContext;
+import org.apache.chemistry.opencmis.client.api.Document;
+import org.apache.chemistry.opencmis.client.api.ObjectFactory;
+import org.apache.chemistry.opencmis.client.api.ObjectId;
+import org.apache.chemistry.opencmis.client.api.OperationContext;
+import org.apache.chemistry.opencmis.client.api.Property;
+import org.apache.chemistry.opencmis.client.api.Session;
+import org.apache.chemistry.opencmis.commons.definitions.PropertyDefinition;
+import org.apache.chemistry.opencmis.commons.enums.Updatability;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CmisRepositoryTest {
+
+    private static final String DOCUMENT_ID = "doc_1";
+    private static final String PWC_ID = "doc_1_pwc";
+    private static final String NEW_VERSION_ID = "doc_1_v2";
+
+    private Session session;
+    private ObjectFactory objectFactory;
+    private Document actualVersion;
+    private Document pwc;
+    private Document newVersion;
+    private CmisRepository cmisRepository;
+
+    @Before
+    public void setUp() {
+        session = mock(Session.class);
+        objectFactory = mock(ObjectFactory.class);
+        when(session.createOperationContext()).thenReturn(mock(OperationContext.class));
+        when(session.getObjectFactory()).thenReturn(objectFactory);
+
+        actualVersion = mock(Document.class);
+        when(actualVersion.getId()).thenReturn(DOCUMENT_ID);
+        when(actualVersion.isVersionSeriesCheckedOut()).thenReturn(true);
+        when(actualVersion.getVersionSeriesCheckedOutId()).thenReturn(PWC_ID);
+        when(actualVersion.getPropertyValue(CmisProperties.VERSION_LABEL.getId())).thenReturn("0.1.0");
+
+        pwc = mock(Document.class);
+        when(pwc.getId()).thenReturn(PWC_ID);
+        when(pwc.getProperties()).thenReturn(Arrays.<Property<?>>asList(
+                property("leos:title", "Proposal title", Updatability.READWRITE),
+                property("leos:collaborators", "user1::OWNER", Updatability.READWRITE),
+                property("cmis:objectId", PWC_ID, Updatability.READONLY)));
+
+        newVersion = mock(Document.class);
+        when(newVersion.getId()).thenReturn(NEW_VERSION_ID);
+        ObjectId newVersionId = mock(ObjectId.class);
+        when(newVersionId.getId()).thenReturn(NEW_VERSION_ID);
+        when(pwc.checkIn(anyBoolean(), any(), any(), any())).thenReturn(newVersionId);
+
+        when(session.getLatestDocumentVersion(eq(DOCUMENT_ID), any(OperationContext.class))).thenReturn(actualVersion);
+        when(session.getObject(eq(PWC_ID), any(OperationContext.class))).thenReturn(pwc);
+        when(session.getLatestDocumentVersion(eq(NEW_VERSION_ID), any(OperationContext.class))).thenReturn(newVersion);
+
+        RepositoryContext repositoryContext = mock(RepositoryContext.class);
+        when(repositoryContext.getVersionsWithoutVersionLabel()).thenReturn(Collections.emptyMap());
+        cmisRepository = new CmisRepository(session, () -> repositoryContext, 10);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void test_createVersion_checksInWithoutContentAndKeepsPwcProperties() {
+        Document result = cmisRepository.createVersion(DOCUMENT_ID, Collections.singletonMap("leos:title", "New title"),
+                VersionType.INTERMEDIATE, "comment");
+
+        assertSame(newVersion, result);
+        ArgumentCaptor<Map<String, ?>> properties = ArgumentCaptor.forClass(Map.class);
+        verify(pwc).checkIn(eq(true), properties.capture(), isNull(), eq("comment"));
+        verify(pwc, never()).getContentStream();
+        verify(objectFactory, never()).createContentStream(anyString(), anyLong(), anyString(), any());
+
+        Map<String, ?> checkedInProperties = properties.getValue();
+        assertEquals("New title", checkedInProperties.get("leos:title"));
+        assertEquals("user1::OWNER", checkedInProperties.get("leos:collaborators"));
+        assertFalse(checkedInProperties.containsKey("cmis:objectId"));
+        assertEquals(VersionType.INTERMEDIATE.value(), checkedInProperties.get(CmisProperties.VERSION_TYPE.getId()));
+        assertEquals("0.2.0", checkedInProperties.get(CmisProperties.VERSION_LABEL.getId()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Property<Object> property(String id, Object value, Updatability updatability) {
+        PropertyDefinition<Object> definition = mock(PropertyDefinition.class);
+        when(definition.getUpdatability()).thenReturn(updatability);
+        Property<Object> property = mock(Property.class);
+        when(property.getId()).thenReturn(id);
+        when(property.getValue()).thenReturn(value);
+        when(property.getDefinition()).thenReturn(definition);
+        return property;
+    }
+}
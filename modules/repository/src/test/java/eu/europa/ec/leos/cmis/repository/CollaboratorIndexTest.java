@@ -0,0 +1,163 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.cmis.repository;
+
+import eu.europa.ec.leos.cmis.mapping.CmisProperties;
+import org.apache.chemistry.opencmis.client.api.Document;
+import org.apache.chemistry.opencmis.client.api.Property;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CollaboratorIndexTest {
+
+    private static final String PRIMARY_TYPE = "leos:xml";
+    private static final long NEVER = Long.MAX_VALUE;
+
+    @Test
+    public void test_findDocumentIds_byLoginAndAuthority() {
+        CollaboratorIndex index = new CollaboratorIndex(NEVER);
+        Supplier<Stream<Document>> proposals = () -> Stream.of(
+                proposal("series_1", "doc_1", "user1::OWNER::SG", "user2::CONTRIBUTOR::SJ"),
+                proposal("series_2", "doc_2", "user1::CONTRIBUTOR"),
+                document("series_3", "doc_3", "BILL", true, "user1::OWNER::SG"),
+                document("series_4", "doc_4", "PROPOSAL", false, "user1::OWNER::SG"));
+
+        assertEquals(Collections.singletonMap("series_1", "doc_1"), index.findDocumentIds("user1", "OWNER", PRIMARY_TYPE, proposals));
+        assertEquals(Collections.singletonMap("series_2", "doc_2"), index.findDocumentIds("user1", "CONTRIBUTOR", PRIMARY_TYPE, proposals));
+        assertEquals(Collections.singletonMap("series_1", "doc_1"), index.findDocumentIds("user2", "CONTRIBUTOR", PRIMARY_TYPE, proposals));
+        assertTrue(index.findDocumentIds("user3", "OWNER", PRIMARY_TYPE, proposals).isEmpty());
+    }
+
+    @Test
+    public void test_findDocumentIds_loadsOnceUntilReloadInterval() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<Stream<Document>> proposals = () -> {
+            loads.incrementAndGet();
+            return Stream.of(proposal("series_1", "doc_1", "user1::OWNER::SG"));
+        };
+
+        CollaboratorIndex index = new CollaboratorIndex(NEVER);
+        index.findDocumentIds("user1", "OWNER", PRIMARY_TYPE, proposals);
+        index.findDocumentIds("user2", "OWNER", PRIMARY_TYPE, proposals);
+        assertEquals(1, loads.get());
+
+        CollaboratorIndex expiredIndex = new CollaboratorIndex(-1);
+        expiredIndex.findDocumentIds("user1", "OWNER", PRIMARY_TYPE, proposals);
+        expiredIndex.findDocumentIds("user1", "OWNER", PRIMARY_TYPE, proposals);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void test_update_replacesCollaboratorsOfSeries() {
+        CollaboratorIndex index = new CollaboratorIndex(NEVER);
+        Supplier<Stream<Document>> proposals = () -> Stream.of(proposal("series_1", "doc_1", "user1::OWNER::SG"));
+        index.findDocumentIds("user1", "OWNER", PRIMARY_TYPE, proposals);
+
+        index.update(proposal("series_1", "doc_1_v2", "user2::OWNER::SG"));
+        index.update(proposal("series_2", "doc_2", "user2::OWNER::SG"));
+        index.update(document("series_3", "doc_3", "ANNEX", true, "user2::OWNER::SG"));
+
+        assertTrue(index.findDocumentIds("user1", "OWNER", PRIMARY_TYPE, proposals).isEmpty());
+        Map<String, String> documentIds = index.findDocumentIds("user2", "OWNER", PRIMARY_TYPE, proposals);
+        assertEquals(2, documentIds.size());
+        assertEquals("doc_1_v2", documentIds.get("series_1"));
+        assertEquals("doc_2", documentIds.get("series_2"));
+    }
+
+    @Test
+    public void test_remove_dropsSeries() {
+        CollaboratorIndex index = new CollaboratorIndex(NEVER);
+        Supplier<Stream<Document>> proposals = () -> Stream.of(
+                proposal("series_1", "doc_1", "user1::OWNER::SG"),
+                proposal("series_2", "doc_2", "user1::OWNER::SG"));
+        index.findDocumentIds("user1", "OWNER", PRIMARY_TYPE, proposals);
+
+        index.remove("series_1");
+
+        assertEquals(Collections.singletonMap("series_2", "doc_2"), index.findDocumentIds("user1", "OWNER", PRIMARY_TYPE, proposals));
+    }
+
+    @Test
+    public void test_reload_doesNotBlockUpdatesAndKeepsThem() throws Exception {
+        CollaboratorIndex index = new CollaboratorIndex(-1);
+        index.findDocumentIds("user1", "OWNER", PRIMARY_TYPE, () -> Stream.of(proposal("series_1", "doc_1", "user1::OWNER::SG")));
+
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<Stream<Document>> slowProposals = () -> {
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Stream.of(proposal("series_1", "doc_1", "user1::OWNER::SG"));
+        };
+        CompletableFuture<Map<String, String>> reload = CompletableFuture.supplyAsync(
+                () -> index.findDocumentIds("user1", "OWNER", PRIMARY_TYPE, slowProposals));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // neither blocked by the reload in progress
+        index.update(proposal("series_2", "doc_2", "user1::OWNER::SG"));
+        assertEquals(2, index.findDocumentIds("user1", "OWNER", PRIMARY_TYPE, slowProposals).size());
+
+        release.countDown();
+        Map<String, String> documentIds = reload.get(5, TimeUnit.SECONDS);
+        assertEquals(2, documentIds.size());
+        assertEquals("doc_2", documentIds.get("series_2"));
+    }
+
+    @Test
+    public void test_isCollaborator() {
+        Document document = proposal("series_1", "doc_1", "user1::OWNER::SG", "user2::CONTRIBUTOR");
+
+        assertTrue(CollaboratorIndex.isCollaborator(document, "user1", "OWNER"));
+        assertTrue(CollaboratorIndex.isCollaborator(document, "user2", "CONTRIBUTOR"));
+        assertFalse(CollaboratorIndex.isCollaborator(document, "user1", "CONTRIBUTOR"));
+        assertFalse(CollaboratorIndex.isCollaborator(document, "user3", "OWNER"));
+    }
+
+    private static Document proposal(String versionSeriesId, String id, String... collaborators) {
+        return document(versionSeriesId, id, "PROPOSAL", true, collaborators);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Document document(String versionSeriesId, String id, String category, boolean latest, String... collaborators) {
+        Property<String> property = mock(Property.class);
+        when(property.getValues()).thenReturn(Arrays.asList(collaborators));
+        Document document = mock(Document.class);
+        when(document.getId()).thenReturn(id);
+        when(document.getVersionSeriesId()).thenReturn(versionSeriesId);
+        when(document.isLatestVersion()).thenReturn(latest);
+        when(document.getPropertyValue(CmisProperties.DOCUMENT_CATEGORY.getId())).thenReturn(category);
+        when(document.getProperty(eq(CmisProperties.COLLABORATORS.getId()))).thenReturn(property);
+        return document;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.cmis.repository;
+
+import eu.europa.ec.leos.cmis.mapping.CmisMapper;
+import eu.europa.ec.leos.cmis.mapping.CmisProperties;
+import eu.europa.ec.leos.domain.cmis.LeosCategory;
+import eu.europa.ec.leos.domain.cmis.common.VersionType;
+import eu.europa.ec.leos.domain.cmis.document.Proposal;
+import eu.europa.ec.leos.repository.RepositoryContext;
+import eu.europa.ec.leos.security.LeosPermissionAuthorityMapHelper;
+import eu.europa.ec.leos.security.SecurityContext;
+import org.apache.chemistry.opencmis.client.api.Document;
+import org.apache.chemistry.opencmis.client.api.Property;
+import org.apache.chemistry.opencmis.commons.PropertyIds;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LeosRepositoryImplTest {
+
+    private CmisRepository cmisRepository;
+    private LeosRepositoryImpl leosRepository;
+
+    @Before
+    public void setUp() {
+        cmisRepository = mock(CmisRepository.class);
+        RepositoryContext repositoryContext = mock(RepositoryContext.class);
+        when(repositoryContext.getVersionsWithoutVersionLabel()).thenReturn(Collections.emptyMap());
+        leosRepository = new LeosRepositoryImpl(cmisRepository, mock(SecurityContext.class), mock(LeosPermissionAuthorityMapHelper.class),
+                () -> repositoryContext);
+    }
+
+    @Test
+    public void test_findPagedDocumentsByParentPath_summaryOfProposalsWithoutVersionType() {
+        String summaryProperties = CmisMapper.cmisSummaryProperties(Proposal.class);
+        Document majorVersion = summaryDocument(summaryProperties, "proposal_1", true, Arrays.asList("Commission proposal"));
+        Document intermediateVersion = summaryDocument(summaryProperties, "proposal_2", true, Collections.emptyList());
+        Document minorVersion = summaryDocument(summaryProperties, "proposal_3", false, Collections.emptyList());
+        when(cmisRepository.findPagedDocumentsByParentPath(eq("/workspace"), eq("leos:xml"), any(), anyBoolean(), anyInt(), anyInt(),
+                any(), eq(summaryProperties))).thenReturn(Stream.of(majorVersion, intermediateVersion, minorVersion));
+
+        List<Proposal> proposals = leosRepository.<Proposal>findPagedDocumentsByParentPath("/workspace", Proposal.class, true, false,
+                0, 10, null).collect(Collectors.toList());
+
+        assertEquals(3, proposals.size());
+        assertEquals(VersionType.MAJOR, proposals.get(0).getVersionType());
+        assertEquals(Arrays.asList("Commission proposal"), proposals.get(0).getMilestoneComments());
+        assertEquals(VersionType.INTERMEDIATE, proposals.get(1).getVersionType());
+        assertEquals(VersionType.MINOR, proposals.get(2).getVersionType());
+        assertTrue(proposals.get(0).getCollaborators().isEmpty());
+    }
+
+    /**
+     * Mocks a proposal stored without leos:versionType, as returned by a query selecting only the given properties.
+     */
+    private Document summaryDocument(String propertyFilter, String id, boolean majorVersion, List<String> milestoneComments) {
+        Map<String, Object> stored = new HashMap<>();
+        stored.put(PropertyIds.OBJECT_ID, id);
+        stored.put(PropertyIds.NAME, id + ".xml");
+        stored.put(PropertyIds.VERSION_SERIES_ID, id + "_series");
+        stored.put(PropertyIds.VERSION_LABEL, "1.0");
+        stored.put(PropertyIds.IS_LATEST_VERSION, Boolean.TRUE);
+        stored.put(PropertyIds.IS_MAJOR_VERSION, majorVersion);
+        stored.put(CmisProperties.DOCUMENT_CATEGORY.getId(), LeosCategory.PROPOSAL.name());
+        stored.put(CmisProperties.DOCUMENT_TITLE.getId(), "Proposal " + id);
+        stored.put(CmisProperties.MILESTONE_COMMENTS.getId(), milestoneComments);
+        stored.put(CmisProperties.COLLABORATORS.getId(), Arrays.asList("user1::OWNER::DIGIT"));
+
+        Set<String> selected = Arrays.stream(propertyFilter.split(",")).collect(Collectors.toSet());
+        Map<String, Object> values = stored.entrySet().stream()
+                .filter(entry -> selected.contains(entry.getKey()))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+        Document document = mock(Document.class);
+        when(document.getPropertyValue(anyString())).thenAnswer(invocation -> values.get(invocation.<String>getArgument(0)));
+        when(document.getProperty(anyString())).thenAnswer(invocation -> {
+            Object value = values.get(invocation.<String>getArgument(0));
+            if (value == null) {
+                return null;
+            }
+            Property<Object> property = mock(Property.class);
+            when(property.getValues()).thenReturn(value instanceof List ? (List<Object>) value : Collections.singletonList(value));
+            return property;
+        });
+        when(document.getId()).thenAnswer(invocation -> values.get(PropertyIds.OBJECT_ID));
+        when(document.getName()).thenAnswer(invocation -> values.get(PropertyIds.NAME));
+        when(document.getVersionSeriesId()).thenAnswer(invocation -> values.get(PropertyIds.VERSION_SERIES_ID));
+        when(document.getVersionLabel()).thenAnswer(invocation -> values.get(PropertyIds.VERSION_LABEL));
+        when(document.isLatestVersion()).thenAnswer(invocation -> values.get(PropertyIds.IS_LATEST_VERSION));
+        when(document.isMajorVersion()).thenAnswer(invocation -> values.get(PropertyIds.IS_MAJOR_VERSION));
+        return document;
+    }
+}
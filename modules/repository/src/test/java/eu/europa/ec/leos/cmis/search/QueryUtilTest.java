@@ -79,6 +79,25 @@ public class QueryUtilTest {
         Assert.assertEquals(expected, QueryUtil.formFilterClause(createFilter));
     }
 
+    @Test
+    public void createQueryNotInTest() {
+        String expected = "cmis:objectId NOT IN ('id1', 'id2')";
+        QueryFilter filter = new QueryFilter();
+        filter.addFilter(new Filter("objectId", "NOT IN", false, "id1", "id2"));
+
+        Assert.assertEquals(expected, QueryUtil.formFilterClause(filter));
+    }
+
+    @Test
+    public void createQueryTimestampTest() {
+        String expected = "cmis:lastModificationDate <= TIMESTAMP '2021-03-01T09:00:00.000Z' AND leos:category = 'PROPOSAL'";
+        QueryFilter filter = new QueryFilter();
+        filter.addFilter(new Filter("lastModificationDate", "<=", false, "2021-03-01T09:00:00.000Z"));
+        filter.addFilter(new Filter("category", "=", false, "PROPOSAL"));
+
+        Assert.assertEquals(expected, QueryUtil.formFilterClause(filter));
+    }
+
     private QueryFilter createMultiFilter() {
         QueryFilter filter = new QueryFilter();
         Filter f1 = new Filter("docType", "=", false, "REGULATION");
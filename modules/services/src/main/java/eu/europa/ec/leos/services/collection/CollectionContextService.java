@@ -48,6 +48,8 @@ import javax.inject.Provider;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static eu.europa.ec.leos.domain.cmis.LeosCategory.BILL;
 import static eu.europa.ec.leos.domain.cmis.LeosCategory.MEMORANDUM;
@@ -66,6 +68,7 @@ public class CollectionContextService {
 
     private final Provider<MemorandumContextService> memorandumContextProvider;
     private final Provider<BillContextService> billContextProvider;
+    private final ProposalMetadataUpdateService metadataUpdateService;
     private SecurityContext securityContext;
 
     private final Map<LeosCategory, XmlDocument> categoryTemplateMap;
@@ -91,6 +94,7 @@ public class CollectionContextService {
                              ProposalService proposalService,
                              CollectionUrlBuilder urlBuilder, Provider<MemorandumContextService> memorandumContextProvider,
                              Provider<BillContextService> billContextProvider,
+                             ProposalMetadataUpdateService metadataUpdateService,
                              SecurityContext securityContext) {
         this.templateService = templateService;
         this.packageService = packageService;
@@ -98,6 +102,7 @@ public class CollectionContextService {
         this.urlBuilder = urlBuilder;
         this.memorandumContextProvider = memorandumContextProvider;
         this.billContextProvider = billContextProvider;
+        this.metadataUpdateService = metadataUpdateService;
         this.securityContext = securityContext;
         this.categoryTemplateMap = new HashMap<>();
         this.actionMsgMap = new HashMap<>();
@@ -206,13 +211,14 @@ public class CollectionContextService {
         purpose = propMeta.getDocPurpose();
         Validate.notNull(purpose, "Proposal purpose is required!");
         ProposalMetadata metadata = metadataOption.get().withPurpose(purpose);
+        final byte[] proposalSource = propDocument.getSource();
         if(cloneProposal) {
             setConnectedEntity();
             proposal = proposalService.createClonedProposalFromContent(leosPackage.getPath(), metadata, cloneProposalMetadataVO,
-                    propDocument.getSource());
+                    proposalSource);
         } else {
-            Validate.notNull(propDocument.getSource(), "Proposal xml is required!");
-            proposal = proposalService.createProposalFromContent(leosPackage.getPath(), metadata, propDocument.getSource());
+            Validate.notNull(proposalSource, "Proposal xml is required!");
+            proposal = proposalService.createProposalFromContent(leosPackage.getPath(), metadata, proposalSource);
         }
 
         // create child element
@@ -299,31 +305,27 @@ public class CollectionContextService {
 
     public void executeUpdateProposal() {
         LOG.trace("Executing 'Update Proposal' use case...");
+        try {
+            proposal = executeUpdateProposalMetadata(null).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Updates the purpose of the proposal and of all the documents of its package in the background.
+     * The documents already updated are restored if the update of one of them fails.
+     */
+    public CompletableFuture<Proposal> executeUpdateProposalMetadata(ProposalMetadataUpdateService.ProgressListener listener) {
+        LOG.trace("Executing 'Update Proposal Metadata' use case...");
 
         Validate.notNull(proposal, "Proposal is required!");
         Validate.notNull(proposalComment, "Proposal comment is required!");
-
-        Option<ProposalMetadata> metadataOption = proposal.getMetadata();
-        Validate.isTrue(metadataOption.isDefined(), "Proposal metadata is required!");
-
+        Validate.isTrue(proposal.getMetadata().isDefined(), "Proposal metadata is required!");
         Validate.notNull(purpose, "Proposal purpose is required!");
-        ProposalMetadata metadata = metadataOption.get().withPurpose(purpose);
 
-        proposal = proposalService.updateProposal(proposal, metadata, VersionType.MINOR, proposalComment);
-
-        LeosPackage leosPackage = packageService.findPackageByDocumentId(proposal.getId());
-
-        MemorandumContextService memorandumContext = memorandumContextProvider.get();
-        memorandumContext.usePackage(leosPackage);
-        memorandumContext.usePurpose(purpose);
-        memorandumContext.useActionMessageMap(actionMsgMap);
-        memorandumContext.executeUpdateMemorandum();
-
-        BillContextService billContext = billContextProvider.get();
-        billContext.usePackage(leosPackage);
-        billContext.usePurpose(purpose);
-        billContext.useActionMessageMap(actionMsgMap);
-        billContext.executeUpdateBill();
+        return metadataUpdateService.updatePurpose(proposal, purpose, proposalComment,
+                actionMsgMap.get(ContextActionService.METADATA_UPDATED), actionMsgMap.get(ContextActionService.METADATA_RESTORED), listener);
     }
 
     public void executeDeleteProposal() {
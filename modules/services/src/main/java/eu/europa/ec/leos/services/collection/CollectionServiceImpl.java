@@ -78,7 +78,8 @@ public class CollectionServiceImpl implements CollectionService {
     private DocumentVO createDocumentVOFromLegfile(File legDocument) {
         Validate.notNull(legDocument, "Leg document is required");
 
-        DocumentVO propDocument = proposalConverterService.createProposalFromLegFile(legDocument, new DocumentVO(PROPOSAL), true);
+        // the sources are read from the leg file one document at a time while importing, the file is deleted afterwards
+        DocumentVO propDocument = proposalConverterService.openProposalFromLegFile(legDocument, new DocumentVO(PROPOSAL), true);
 
         CollectionContextService context = proposalContextProvider.get();
         context.useTemplate(propDocument.getMetadata().getDocTemplate());
@@ -94,9 +95,22 @@ public class CollectionServiceImpl implements CollectionService {
         }
     }
     
+    private void deleteLegFile(File legDocument) {
+        if (!legDocument.delete()) {
+            LOG.info("File not deleted {}", legDocument.getPath());
+        }
+    }
+
     @Override
     public CreateCollectionResult createCollection(File legDocument) throws CreateCollectionException {
+        try {
+            return importCollection(legDocument);
+        } finally {
+            deleteLegFile(legDocument);
+        }
+    }
 
+    private CreateCollectionResult importCollection(File legDocument) {
         String proposalUrl;
         String proposalId;
 
@@ -120,11 +134,22 @@ public class CollectionServiceImpl implements CollectionService {
     
     @Override
     public CreateCollectionResult cloneCollection(File legDocument, String iscRef, String targetUser, String connectedEntity) throws CreateCollectionException {
+        try {
+            return importClonedCollection(legDocument, iscRef, targetUser, connectedEntity);
+        } finally {
+            deleteLegFile(legDocument);
+        }
+    }
+
+    private CreateCollectionResult importClonedCollection(File legDocument, String iscRef, String targetUser, String connectedEntity) {
         String proposalUrl;
         String proposalId;
         String cmisObjectId;
 
         CollectionIdsAndUrlsHolder idsAndUrlsHolder = new CollectionIdsAndUrlsHolder();
+        // The documents are created from the leg file content even though the original proposal is in this repository:
+        // each document gets new refs and metadata written into its XML, so a server-side copy would be uploaded again
+        // anyway. Media entries of the leg file are not imported.
         DocumentVO propDocument = createDocumentVOFromLegfile(legDocument);
 
         //set metadata to cloned proposal
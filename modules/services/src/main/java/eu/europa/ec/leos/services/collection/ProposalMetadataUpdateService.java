@@ -0,0 +1,42 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.services.collection;
+
+import eu.europa.ec.leos.domain.cmis.document.Proposal;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface ProposalMetadataUpdateService {
+
+    /**
+     * Updates the purpose of the proposal and of all the documents of its package (memorandum, bill and annexes).
+     * <p>
+     * All the documents are first loaded and their new metadata computed, then they are checked in concurrently.
+     * If one of the check-ins fails, the documents already updated are restored to their previous metadata and
+     * the returned future completes exceptionally with the cause of the failure.
+     *
+     * @param proposalComment the version comment of the proposal
+     * @param documentComment the version comment of the other documents
+     * @param restoreComment the version comment of the documents restored after a failure
+     * @param listener notified, from the worker threads, each time a document has been checked in, can be null
+     * @return the future of the updated proposal
+     */
+    CompletableFuture<Proposal> updatePurpose(Proposal proposal, String purpose, String proposalComment, String documentComment,
+                                              String restoreComment, ProgressListener listener);
+
+    @FunctionalInterface
+    interface ProgressListener {
+        void progress(int completed, int total);
+    }
+}
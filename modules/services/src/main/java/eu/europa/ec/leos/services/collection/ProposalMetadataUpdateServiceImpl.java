@@ -0,0 +1,270 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.services.collection;
+
+import eu.europa.ec.leos.domain.cmis.LeosPackage;
+import eu.europa.ec.leos.domain.cmis.common.VersionType;
+import eu.europa.ec.leos.domain.cmis.document.Annex;
+import eu.europa.ec.leos.domain.cmis.document.Bill;
+import eu.europa.ec.leos.domain.cmis.document.Memorandum;
+import eu.europa.ec.leos.domain.cmis.document.Proposal;
+import eu.europa.ec.leos.domain.cmis.document.XmlDocument;
+import eu.europa.ec.leos.services.document.AnnexService;
+import eu.europa.ec.leos.services.document.BillService;
+import eu.europa.ec.leos.services.document.MemorandumService;
+import eu.europa.ec.leos.services.document.ProposalService;
+import eu.europa.ec.leos.services.store.PackageService;
+import io.atlassian.fugue.Option;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+@Service
+public class ProposalMetadataUpdateServiceImpl implements ProposalMetadataUpdateService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProposalMetadataUpdateServiceImpl.class);
+
+    private final PackageService packageService;
+    private final ProposalService proposalService;
+    private final MemorandumService memorandumService;
+    private final BillService billService;
+    private final AnnexService annexService;
+    private final Executor executor;
+    private final int parallelism;
+
+    @Autowired
+    public ProposalMetadataUpdateServiceImpl(PackageService packageService, ProposalService proposalService,
+                                             MemorandumService memorandumService, BillService billService, AnnexService annexService,
+                                             @Qualifier("delegatingSecurityContextAsyncTaskExecutor") Executor executor,
+                                             @Value("${leos.metadata.update.parallelism:4}") int parallelism) {
+        this.packageService = packageService;
+        this.proposalService = proposalService;
+        this.memorandumService = memorandumService;
+        this.billService = billService;
+        this.annexService = annexService;
+        this.executor = executor;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    @Override
+    public CompletableFuture<Proposal> updatePurpose(Proposal proposal, String purpose, String proposalComment, String documentComment,
+                                                     String restoreComment, ProgressListener listener) {
+        Validate.notNull(proposal, "Proposal is required!");
+        Validate.notNull(purpose, "Proposal purpose is required!");
+        Validate.notNull(proposalComment, "Proposal comment is required!");
+
+        final LeosPackage leosPackage = packageService.findPackageByDocumentId(proposal.getId());
+        final List<DocumentUpdate<?, ?>> updates = new ArrayList<>();
+        final DocumentUpdate<Proposal, ?> proposalUpdate = new DocumentUpdate<>("proposal", () -> proposal,
+                Proposal::getMetadata, metadata -> metadata.withPurpose(purpose), proposalService::findProposal,
+                (document, metadata, comment) -> proposalService.updateProposal(document, metadata, VersionType.MINOR, comment), proposalComment);
+        updates.add(proposalUpdate);
+        updates.add(new DocumentUpdate<>("memorandum", () -> memorandumService.findMemorandumByPackagePath(leosPackage.getPath()),
+                Memorandum::getMetadata, metadata -> metadata.withPurpose(purpose), memorandumService::findMemorandum,
+                (document, metadata, comment) -> memorandumService.updateMemorandum(document, metadata, VersionType.MINOR, comment), documentComment)
+                .optional());
+        updates.add(new DocumentUpdate<>("bill", () -> billService.findBillByPackagePath(leosPackage.getPath()),
+                Bill::getMetadata, metadata -> metadata.withPurpose(purpose), billService::findBill,
+                (document, metadata, comment) -> billService.updateBill(document, metadata, VersionType.MINOR, comment), documentComment));
+        for (Annex annex : packageService.findDocumentsByPackagePath(leosPackage.getPath(), Annex.class, false)) {
+            // the annexes are listed without their content, the latest version is loaded with its content by id
+            updates.add(new DocumentUpdate<>("annex " + annex.getName(), () -> annexService.findAnnex(annex.getId()),
+                    Annex::getMetadata, metadata -> metadata.withPurpose(purpose), annexService::findAnnex,
+                    (document, metadata, comment) -> annexService.updateAnnex(document, metadata, VersionType.MINOR, comment), documentComment));
+        }
+
+        final Executor boundedExecutor = new BoundedExecutor(executor, parallelism);
+        final AtomicBoolean failed = new AtomicBoolean();
+        final AtomicInteger completed = new AtomicInteger();
+        LOG.debug("Updating purpose of {} documents of proposal {}...", updates.size(), proposal.getId());
+
+        // nothing is checked in before all the documents are loaded and their new metadata is computed
+        return allOf(updates, DocumentUpdate::prepare, boundedExecutor)
+                .thenCompose(prepared -> allOf(updates, update -> {
+                    if (!failed.get()) {
+                        try {
+                            update.apply();
+                        } catch (RuntimeException e) {
+                            failed.set(true);
+                            throw e;
+                        }
+                        if (listener != null) {
+                            listener.progress(completed.incrementAndGet(), updates.size());
+                        }
+                    }
+                }, boundedExecutor))
+                .handle((result, error) -> {
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                        LOG.error("Unable to update the purpose of proposal {}, restoring the updated documents", proposal.getId(), cause);
+                        restore(updates, restoreComment != null ? restoreComment : documentComment);
+                        throw cause instanceof RuntimeException ? (RuntimeException) cause : new CompletionException(cause);
+                    }
+                    return proposalUpdate.getUpdated();
+                });
+    }
+
+    private static CompletableFuture<Void> allOf(List<DocumentUpdate<?, ?>> updates, Consumer<DocumentUpdate<?, ?>> step, Executor executor) {
+        return CompletableFuture.allOf(updates.stream()
+                .map(update -> CompletableFuture.runAsync(() -> step.accept(update), executor))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    private static void restore(List<DocumentUpdate<?, ?>> updates, String comment) {
+        for (DocumentUpdate<?, ?> update : updates) {
+            if (update.isApplied()) {
+                try {
+                    update.restore(comment);
+                } catch (RuntimeException e) {
+                    LOG.error("Unable to restore the metadata of the {}", update.name, e);
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Updater<D, M> {
+        D update(D document, M metadata, String comment);
+    }
+
+    /**
+     * Update of the metadata of one document: loaded and prepared first, checked in afterwards and restored with
+     * its original metadata if the update of another document failed.
+     */
+    private static class DocumentUpdate<D extends XmlDocument, M> {
+        private final String name;
+        private final Supplier<D> loader;
+        private final Function<D, Option<M>> metadataGetter;
+        private final UnaryOperator<M> change;
+        private final Function<String, D> finder;
+        private final Updater<D, M> updater;
+        private final String comment;
+        private boolean optional;
+
+        private volatile D document;
+        private volatile M originalMetadata;
+        private volatile M updatedMetadata;
+        private volatile D updated;
+
+        DocumentUpdate(String name, Supplier<D> loader, Function<D, Option<M>> metadataGetter, UnaryOperator<M> change,
+                       Function<String, D> finder, Updater<D, M> updater, String comment) {
+            this.name = name;
+            this.loader = loader;
+            this.metadataGetter = metadataGetter;
+            this.change = change;
+            this.finder = finder;
+            this.updater = updater;
+            this.comment = comment;
+        }
+
+        DocumentUpdate<D, M> optional() {
+            this.optional = true;
+            return this;
+        }
+
+        void prepare() {
+            document = loader.get();
+            if (document == null) {
+                Validate.isTrue(optional, "The %s is required!", name);
+                return;
+            }
+            Option<M> metadataOption = metadataGetter.apply(document);
+            Validate.isTrue(metadataOption.isDefined(), "The metadata of the %s is required!", name);
+            originalMetadata = metadataOption.get();
+            updatedMetadata = change.apply(originalMetadata);
+        }
+
+        void apply() {
+            if (document != null) {
+                updated = updater.update(document, updatedMetadata, comment);
+            }
+        }
+
+        boolean isApplied() {
+            return updated != null;
+        }
+
+        D getUpdated() {
+            return updated;
+        }
+
+        void restore(String restoreComment) {
+            updater.update(finder.apply(updated.getId()), originalMetadata, restoreComment);
+        }
+    }
+
+    /**
+     * Runs at most the given number of tasks at the same time on the shared executor, the other tasks wait in a queue.
+     */
+    private static class BoundedExecutor implements Executor {
+        private final Executor delegate;
+        private final int limit;
+        private final Queue<Runnable> queue = new ArrayDeque<>();
+        private int running;
+
+        BoundedExecutor(Executor delegate, int limit) {
+            this.delegate = delegate;
+            this.limit = limit;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            synchronized (this) {
+                if (running >= limit) {
+                    queue.add(task);
+                    return;
+                }
+                running++;
+            }
+            submit(task);
+        }
+
+        private void submit(Runnable task) {
+            delegate.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    Runnable next;
+                    synchronized (this) {
+                        next = queue.poll();
+                        if (next == null) {
+                            running--;
+                        }
+                    }
+                    if (next != null) {
+                        submit(next);
+                    }
+                }
+            });
+        }
+    }
+}
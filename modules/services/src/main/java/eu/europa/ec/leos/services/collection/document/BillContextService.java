@@ -33,6 +33,7 @@ import eu.europa.ec.leos.services.support.url.CollectionIdsAndUrlsHolder;
 import eu.europa.ec.leos.services.support.url.CollectionUrlBuilder;
 import eu.europa.ec.leos.services.support.xml.XPathCatalog;
 import eu.europa.ec.leos.services.support.xml.XmlContentProcessor;
+import eu.europa.ec.leos.services.support.xml.XmlNodeConfig;
 import eu.europa.ec.leos.services.support.xml.XmlNodeConfigHelper;
 import eu.europa.ec.leos.services.support.xml.XmlNodeProcessor;
 import io.atlassian.fugue.Option;
@@ -45,10 +46,13 @@ import org.springframework.stereotype.Component;
 
 import javax.inject.Provider;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 import static eu.europa.ec.leos.domain.cmis.LeosCategory.ANNEX;
 import static eu.europa.ec.leos.services.document.AnnexServiceImpl.ANNEX_DOC_EXTENSION;
@@ -214,40 +218,45 @@ public class BillContextService {
         Validate.notNull(leosPackage, "Bill package is required!");
         Validate.notNull(bill, "Bill template is required!");
         Validate.notNull(purpose, "Bill purpose is required!");
-        Validate.notNull(billDocument.getSource(), "Bill xml is required!");
+        final byte[] billSource = billDocument.getSource();
+        Validate.notNull(billSource, "Bill xml is required!");
         Validate.isTrue(bill.getMetadata().isDefined(), "Bill metadata is required!");
-        Validate.notNull(billDocument.getSource(), "Bill xml is required!");
-    
-        final String billRefOrigin = xmlContentProcessor.getElementValue(billDocument.getSource(), xPathCatalog.getXPathRefOrigin(), true);
+        // the bill source is read once, its updates are then applied to the kept source
+        billDocument.setSource(billSource);
+
+        final String billRefOrigin = xmlContentProcessor.getElementValue(billSource, xPathCatalog.getXPathRefOrigin(), true);
         final String billRef = createRefForBill();
         
         BillMetadata metadata = getBillMetadata();
         createRefForAnnexes(metadata);
         
-        updateBillRefsWithRefOrigin(billRef, billRefOrigin);
-        updateAnnexesRefsWithRefOrigin();
+        updateRefsWithRefOrigin(billRef, billRefOrigin);
     
         final String updateComment = actionMsgMap.get(ContextActionService.METADATA_UPDATED);
         bill = billService.createBillFromContent(leosPackage.getPath(), metadata, updateComment, billDocument.getSource(), billDocument.getName());
-        List<Annex> annexes = new ArrayList<>();
+
+        final String updateRefsComment = messageHelper.getMessage("internal.ref.updatedOnImport");
+        // the annexes are imported one at a time: each source is read once for its creation and its post processing,
+        // and is not kept with the document afterwards when it is loaded on demand
         for (DocumentVO docChild : billDocument.getChildDocuments()) {
             if (docChild.getCategory() == ANNEX) {
+                final Supplier<byte[]> sourceLoader = docChild.getSourceLoader();
+                final byte[] annexSource = docChild.getSource();
+                docChild.setSource(annexSource);
                 useAnnexDocument(docChild);
-                Annex annex = executeImportBillAnnex();
-                annexes.add(annex);
+                final Annex annex = executeImportBillAnnex();
+                final byte[] updatedAnnexBytes = xmlContentProcessor.doXMLPostProcessing(annexSource);  //updateRefs
+                annexService.updateAnnex(annex, updatedAnnexBytes, annex.getMetadata().get(), VersionType.MINOR, updateRefsComment);
+                if (sourceLoader != null) {
+                    docChild.setSourceLoader(sourceLoader);
+                }
             }
         }
-    
-        final String updateRefsComment = messageHelper.getMessage("internal.ref.updatedOnImport");
-        final byte[] updatedBytes = xmlContentProcessor.doXMLPostProcessing(bill.getContent().get().getSource().getBytes()); //updateRefs
-        billService.updateBill(bill, updatedBytes, updateRefsComment);
-        for (Annex annex : annexes) {
-            DocumentVO docChild = billDocument.getChildDocuments().stream()
-                    .filter(p -> Integer.parseInt(p.getMetadata().getIndex()) == annex.getMetadata().get().getIndex())
-                    .findFirst()
-                    .orElseThrow(() -> new IllegalArgumentException("Annex not found index " + annex.getMetadata().get().getIndex()));
-            byte[] updatedAnnexBytes = xmlContentProcessor.doXMLPostProcessing(docChild.getSource());  //updateRefs
-            annexService.updateAnnex(annex, updatedAnnexBytes, annex.getMetadata().get(), VersionType.MINOR, updateRefsComment);
+
+        final byte[] importedBytes = bill.getContent().get().getSource().getBytes();
+        final byte[] updatedBytes = xmlContentProcessor.doXMLPostProcessing(importedBytes); //updateRefs
+        if (!Arrays.equals(importedBytes, updatedBytes)) {
+            billService.updateBill(bill, updatedBytes, updateRefsComment);
         }
     
         final String createComment = actionMsgMap.get(ContextActionService.DOCUMENT_CREATED);
@@ -258,37 +267,35 @@ public class BillContextService {
         return (BillMetadata) billDocument.getMetadataDocument();
     }
     
-    private void updateAnnexesRefsWithRefOrigin() {
+    /**
+     * Rewrites in every document the refs to the origin documents with the refs of the imported ones. The refs are
+     * rewritten when each source is read, so that the sources loaded on demand are not all kept in memory at once.
+     */
+    private void updateRefsWithRefOrigin(String billRef, String billRefOrigin) {
+        final Map<String, String> refOrigins = new LinkedHashMap<>();
+        refOrigins.put(billRef, billRefOrigin);
         for (DocumentVO docChild : billDocument.getChildDocuments()) {
             if (docChild.getCategory() == ANNEX) {
-                final byte[] updatedAnnexBytes = docChild.getSource();
-                final String refOrigin = xmlContentProcessor.getElementValue(updatedAnnexBytes, xPathCatalog.getXPathRefOrigin(), true);
-                final String ref = docChild.getMetadataDocument().getRef();
-                
-                updateBillRefsWithRefOrigin(ref, refOrigin);
-                docChild.setSource(xmlContentProcessor.updateRefsWithRefOrigin(updatedAnnexBytes, ref, refOrigin));
-                for (DocumentVO docChild_ : billDocument.getChildDocuments()) {
-                    if (docChild_.getCategory() == ANNEX) {
-                        if (!docChild_.getId().equals(docChild.getId())) {
-                            docChild_.setSource(xmlContentProcessor.updateRefsWithRefOrigin(docChild_.getSource(), ref, refOrigin));
-                        }
-                    }
-                }
+                final String refOrigin = xmlContentProcessor.getElementValue(docChild.getSource(), xPathCatalog.getXPathRefOrigin(), true);
+                refOrigins.put(docChild.getMetadataDocument().getRef(), refOrigin);
             }
         }
-    }
 
-    private void updateBillRefsWithRefOrigin(String ref, String refOrigin) {
-        billDocument.setSource(xmlContentProcessor.updateRefsWithRefOrigin(billDocument.getSource(), ref, refOrigin));
+        final UnaryOperator<byte[]> updateRefs = source -> {
+            for (Map.Entry<String, String> refOrigin : refOrigins.entrySet()) {
+                source = xmlContentProcessor.updateRefsWithRefOrigin(source, refOrigin.getKey(), refOrigin.getValue());
+            }
+            return source;
+        };
+        billDocument.updateSource(updateRefs);
         for (DocumentVO docChild : billDocument.getChildDocuments()) {
             if (docChild.getCategory() == ANNEX) {
-                docChild.setSource(xmlContentProcessor.updateRefsWithRefOrigin(docChild.getSource(), ref, refOrigin));
+                docChild.updateSource(updateRefs);
             }
         }
     }
 
     private String createRefForBill() {
-        Validate.notNull(billDocument.getSource(), "Bill xml is required!");
         Validate.isTrue(bill.getMetadata().isDefined(), "Bill metadata is required!");
         final String billUid = Cuid.createCuid();
         final String ref = BILL_NAME_PREFIX + billUid;
@@ -297,11 +304,12 @@ public class BillContextService {
         final BillMetadata updatedBillMetadata = bill.getMetadata().get()
                 .withPurpose(purpose)
                 .withRef(ref);
-        final byte[] updatedSource = xmlNodeProcessor.setValuesInXml(billDocument.getSource(), createValueMap(updatedBillMetadata), xmlNodeConfigHelper.getConfig(updatedBillMetadata.getCategory()));
+        final Map<String, String> values = createValueMap(updatedBillMetadata);
+        final Map<String, XmlNodeConfig> config = xmlNodeConfigHelper.getConfig(updatedBillMetadata.getCategory());
         
         billDocument.setName(fileName);
         billDocument.setMetadataDocument(updatedBillMetadata);
-        billDocument.setSource(updatedSource);
+        billDocument.updateSource(source -> xmlNodeProcessor.setValuesInXml(source, values, config));
         
         return ref;
     }
@@ -479,11 +487,12 @@ public class BillContextService {
                 .withType(billMetadata.getType())
                 .withTemplate(annexMetadataVO.getDocTemplate())
                 .withRef(ref);
-        final byte[] updatedSource = xmlNodeProcessor.setValuesInXml(annexDocument.getSource(), createValueMap(updatedAnnexMetadata), xmlNodeConfigHelper.getConfig(updatedAnnexMetadata.getCategory()));
+        final Map<String, String> values = createValueMap(updatedAnnexMetadata);
+        final Map<String, XmlNodeConfig> config = xmlNodeConfigHelper.getConfig(updatedAnnexMetadata.getCategory());
     
         annexDocument.setName(annexName);
         annexDocument.setMetadataDocument(updatedAnnexMetadata);
-        annexDocument.setSource(updatedSource);
+        annexDocument.updateSource(source -> xmlNodeProcessor.setValuesInXml(source, values, config));
     }
 
     public void executeMoveAnnex() {
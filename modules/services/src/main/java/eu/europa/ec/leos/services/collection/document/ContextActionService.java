@@ -16,6 +16,7 @@ package eu.europa.ec.leos.services.collection.document;
 public enum ContextActionService {
     DOCUMENT_CREATED,
     METADATA_UPDATED,
+    METADATA_RESTORED,
     ANNEX_BLOCK_UPDATED,
     ANNEX_STRUCTURE_UPDATED,
     ANNEX_ADDED,
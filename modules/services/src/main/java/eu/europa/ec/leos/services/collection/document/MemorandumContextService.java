@@ -147,9 +147,10 @@ public class MemorandumContextService {
 
         MemorandumMetadata metadata = metadataOption.get().withPurpose(purpose).withType(type).withTemplate(template);
 
-        Validate.notNull(memoDocument.getSource(), "Memorandum xml is required!");
+        final byte[] memorandumSource = memoDocument.getSource();
+        Validate.notNull(memorandumSource, "Memorandum xml is required!");
 
-        Memorandum memorandumCreated = memorandumService.createMemorandumFromContent(leosPackage.getPath(), metadata, actionMsgMap.get(ContextActionService.METADATA_UPDATED), memoDocument.getSource());
+        Memorandum memorandumCreated = memorandumService.createMemorandumFromContent(leosPackage.getPath(), metadata, actionMsgMap.get(ContextActionService.METADATA_UPDATED), memorandumSource);
         return memorandumService.createVersion(memorandumCreated.getId(), VersionType.INTERMEDIATE, actionMsgMap.get(ContextActionService.DOCUMENT_CREATED));
     }
 
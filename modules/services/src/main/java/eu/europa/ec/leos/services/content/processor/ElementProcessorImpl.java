@@ -20,6 +20,7 @@ import eu.europa.ec.leos.model.xml.Element;
 import eu.europa.ec.leos.services.CloneContext;
 import eu.europa.ec.leos.services.support.xml.XmlContentProcessor;
 import eu.europa.ec.leos.services.toc.StructureContext;
+import eu.europa.ec.leos.services.validation.ElementSaveValidator;
 import eu.europa.ec.leos.vo.toc.OptionsType;
 import eu.europa.ec.leos.vo.toc.TocItem;
 import eu.europa.ec.leos.vo.toc.TocItemUtils;
@@ -43,6 +44,8 @@ public class ElementProcessorImpl<T extends XmlDocument> implements ElementProce
     private Provider<StructureContext> structureContextProvider;
     @Autowired
     private CloneContext cloneContext;
+    @Autowired
+    private ElementSaveValidator elementSaveValidator;
 
     @Override
     public String getElement(XmlDocument document, String elementName, String elementId) {
@@ -90,7 +93,9 @@ public class ElementProcessorImpl<T extends XmlDocument> implements ElementProce
                 elementContent = result.right();
             }
         }
-        return xmlContentProcessor.replaceElementByTagNameAndId(contentBytes, elementContent, elementName, elementId);
+        byte[] updatedContent = xmlContentProcessor.replaceElementByTagNameAndId(contentBytes, elementContent, elementName, elementId);
+        elementSaveValidator.validate(updatedContent, elementId, elementContent != null ? elementContent.length() : 0);
+        return updatedContent;
     }
 
     @Override
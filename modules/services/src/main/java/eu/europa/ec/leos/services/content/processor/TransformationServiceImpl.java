@@ -17,6 +17,8 @@ import com.google.common.base.Stopwatch;
 import eu.europa.ec.leos.domain.cmis.LeosCategory;
 import eu.europa.ec.leos.domain.cmis.document.XmlDocument;
 import eu.europa.ec.leos.security.LeosPermission;
+import eu.europa.ec.leos.services.rendition.RenditionCache;
+import eu.europa.ec.leos.services.rendition.RenditionCache.RenditionKey;
 import eu.europa.ec.leos.services.support.xml.freemarker.XmlNodeModelHandler;
 import freemarker.ext.dom.NodeModel;
 import freemarker.template.Configuration;
@@ -52,14 +54,20 @@ public class TransformationServiceImpl implements TransformationService {
     @Value("${leos.freemarker.ftl.import}")
     private String importXHtmlTemplate;
 
+    @Value("${leos.transformation.stax:false}")
+    private boolean staxParser;
+
     private Configuration freemarkerConfiguration;
 
     private TemplateHashModel enumModels;
 
+    private RenditionCache renditionCache;
+
     @Autowired
-    public TransformationServiceImpl(Configuration freemarkerConfiguration, TemplateHashModel enumModels){
+    public TransformationServiceImpl(Configuration freemarkerConfiguration, TemplateHashModel enumModels, RenditionCache renditionCache){
         this.freemarkerConfiguration = freemarkerConfiguration;
         this.enumModels = enumModels;
+        this.renditionCache = renditionCache;
     }
     
     @Override
@@ -91,13 +99,16 @@ public class TransformationServiceImpl implements TransformationService {
     @Override
     public String formatToHtml(XmlDocument versionDocument, String contextPath, List<LeosPermission> permissions) {
         LOG.debug("formatToHtml service invoked for version id:{})", versionDocument.getId());
-        try (final ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream
-                (versionDocument.getContent().getOrError(() -> "Version document content is required!")
-                        .getSource().getBytes())) {
-            return transform(byteArrayInputStream, editableXHtmlTemplate, contextPath, permissions);
-        } catch (Exception e) {
-            throw new RuntimeException("Unable to format to HTML");
-        }
+        final RenditionKey key = RenditionKey.of(versionDocument.getId(), editableXHtmlTemplate, permissions, contextPath);
+        return renditionCache.get(key, () -> {
+            try (final ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream
+                    (versionDocument.getContent().getOrError(() -> "Version document content is required!")
+                            .getSource().getBytes())) {
+                return transform(byteArrayInputStream, editableXHtmlTemplate, contextPath, permissions);
+            } catch (Exception e) {
+                throw new RuntimeException("Unable to format to HTML");
+            }
+        });
     }
     
     @Override
@@ -124,7 +135,7 @@ public class TransformationServiceImpl implements TransformationService {
             StringWriter outputWriter = new StringWriter();
             Template template = freemarkerConfiguration.getTemplate(templateName);
 
-            NodeModel nodeModel = XmlNodeModelHandler.parseXmlStream(documentStream);
+            NodeModel nodeModel = XmlNodeModelHandler.parseXmlStream(documentStream, staxParser);
 
             Map headers = new HashMap<String, Object>();
             headers.put("contextPath", contextPath);
@@ -20,4 +20,9 @@ import eu.europa.ec.leos.domain.vo.DocumentVO;
 public interface ProposalConverterService {
 
     DocumentVO createProposalFromLegFile(File file, final DocumentVO document, boolean canUpdateSource);
+
+    /**
+     * Reads the sources from the leg file when they are requested, the caller deletes the file once done with the document.
+     */
+    DocumentVO openProposalFromLegFile(File file, final DocumentVO document, boolean canUpdateSource);
 }
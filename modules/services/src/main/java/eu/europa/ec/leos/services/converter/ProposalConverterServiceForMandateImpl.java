@@ -15,27 +15,22 @@ package eu.europa.ec.leos.services.converter;
 
 import eu.europa.ec.leos.domain.cmis.LeosCategory;
 import eu.europa.ec.leos.domain.common.InstanceType;
-import eu.europa.ec.leos.domain.vo.DocumentVO;
 import eu.europa.ec.leos.instance.Instance;
 import eu.europa.ec.leos.services.store.TemplateService;
 import eu.europa.ec.leos.services.support.xml.XmlContentProcessor;
 import eu.europa.ec.leos.services.support.xml.XmlNodeConfigHelper;
 import eu.europa.ec.leos.services.support.xml.XmlNodeProcessor;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.apache.commons.io.IOUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
 
 @Service
 @Instance(InstanceType.COUNCIL)
 class ProposalConverterServiceForMandateImpl extends ProposalConverterServiceImpl {
 
-    private static final Logger LOG = LoggerFactory.getLogger(ProposalConverterServiceForMandateImpl.class);
-
     @Autowired
     ProposalConverterServiceForMandateImpl(
             XmlNodeProcessor xmlNodeProcessor,
@@ -46,25 +41,19 @@ class ProposalConverterServiceForMandateImpl extends ProposalConverterServiceImp
     }
 
     @Override
-    protected void updateSource(final DocumentVO document, File documentFile, boolean canModifySource) {
-        try {
-            byte[] xmlBytes = Files.readAllBytes(documentFile.toPath());
-            if (canModifySource) {
-                if (document.getCategory() == LeosCategory.BILL) {
-                    xmlBytes = xmlContentProcessor.removeElements(xmlBytes, "//coverPage", 0);
-                    // We have to remove the references to the annexes, we will add them when importing
-                    xmlBytes = xmlContentProcessor.removeElements(xmlBytes, "//attachments", 0);
-                }
-                if (document.getCategory() == LeosCategory.ANNEX) {
-                    xmlBytes = xmlContentProcessor.removeElements(xmlBytes, "//coverPage", 0);
-                }
+    protected byte[] readSource(LeosCategory category, InputStream documentStream, boolean canModifySource) throws IOException {
+        byte[] xmlBytes = IOUtils.toByteArray(documentStream);
+        if (canModifySource) {
+            if (category == LeosCategory.BILL) {
+                xmlBytes = xmlContentProcessor.removeElements(xmlBytes, "//coverPage", 0);
+                // We have to remove the references to the annexes, we will add them when importing
+                xmlBytes = xmlContentProcessor.removeElements(xmlBytes, "//attachments", 0);
+            }
+            if (category == LeosCategory.ANNEX) {
+                xmlBytes = xmlContentProcessor.removeElements(xmlBytes, "//coverPage", 0);
             }
-            document.setSource(xmlBytes);
-        } catch (IOException e) {
-            LOG.error("Error updating the source of the document: {}", e);
-            // the post validation will take care to analyse wether the source is there or not
-            document.setSource(null);
         }
+        return xmlBytes;
     }
 
 }
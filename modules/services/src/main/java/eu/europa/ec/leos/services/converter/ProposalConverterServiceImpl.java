@@ -16,22 +16,26 @@ package eu.europa.ec.leos.services.converter;
 import eu.europa.ec.leos.domain.cmis.LeosCategory;
 import eu.europa.ec.leos.domain.vo.DocumentVO;
 import eu.europa.ec.leos.domain.vo.MetadataVO;
-import eu.europa.ec.leos.services.export.ZipPackageUtil;
 import eu.europa.ec.leos.services.store.TemplateService;
 import eu.europa.ec.leos.services.support.xml.XmlContentProcessor;
 import eu.europa.ec.leos.services.support.xml.XmlNodeConfigHelper;
 import eu.europa.ec.leos.services.support.xml.XmlNodeProcessor;
 import eu.europa.ec.leos.vo.catalog.CatalogItem;
-import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 public abstract class ProposalConverterServiceImpl implements ProposalConverterService {
 
@@ -70,6 +74,8 @@ public abstract class ProposalConverterServiceImpl implements ProposalConverterS
      * The xml files inside the leg/zip file are mapped into array source[] of DocumentVO.
      * When canModifySource is true, some tags are not included in the source[] field, otherwise when is false the
      * array source contains the xml as it is in the zip/leg file.
+     * The entries are read from the zip file: nothing is extracted to the filesystem and the entries which are not
+     * documents, e.g. media files other than xml, are never decompressed.
      *
      * @param file leg file from where to create the DocumentVO.
      * @param proposal DocumentVO with the data of the proposal. The same object will be enriched and returned by the method
@@ -77,23 +83,39 @@ public abstract class ProposalConverterServiceImpl implements ProposalConverterS
      * @return the enriched DocumentVO representing the proposal inside the leg file.
      */
     public DocumentVO createProposalFromLegFile(File file, final DocumentVO proposal, boolean canModifySource) {
+        try {
+            return readProposal(file, proposal, canModifySource, false);
+        } finally {
+            if (!file.delete()) {
+                LOG.info("File not deleted {}", file.getPath());
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #createProposalFromLegFile(File, DocumentVO, boolean)} but the sources are not kept in memory:
+     * each source is read again from its entry of the leg file whenever it is requested. The file is not deleted,
+     * the caller deletes it once the returned DocumentVO is not used anymore.
+     */
+    public DocumentVO openProposalFromLegFile(File file, final DocumentVO proposal, boolean canModifySource) {
+        return readProposal(file, proposal, canModifySource, true);
+    }
+
+    private DocumentVO readProposal(File file, final DocumentVO proposal, boolean canModifySource, boolean onDemand) {
         proposal.clean();
         proposal.setCategory(LeosCategory.PROPOSAL);
-        // unzip file
-        Map<String, Object> unzippedFiles = ZipPackageUtil.unzipFiles(file, "/unzip/");
         try {
             templatesCatalog = templateService.getTemplatesCatalog();
-            if (unzippedFiles.containsKey(PROPOSAL_FILE)) {
+            Map<String, String> entries = listEntries(file);
+            if (entries.containsKey(PROPOSAL_FILE)) {
                 List<DocumentVO> propChildDocs = new ArrayList<>();
-                File proposalFile = (File) unzippedFiles.get(PROPOSAL_FILE);
-                updateSource(proposal, proposalFile, canModifySource);
+                updateSource(proposal, file, entries.get(PROPOSAL_FILE), canModifySource, onDemand);
                 updateProposalIdFromXml(proposal);
                 updateMetadataVO(proposal);
                 List<DocumentVO> billChildDocs = new ArrayList<>();
                 DocumentVO billDoc = null;
-                for (String docName : unzippedFiles.keySet()) {
-                    File docFile = (File) unzippedFiles.get(docName);
-                    DocumentVO doc = createDocument(docName, docFile, canModifySource);
+                for (Map.Entry<String, String> entry : entries.entrySet()) {
+                    DocumentVO doc = createDocument(entry.getKey(), file, entry.getValue(), canModifySource, onDemand);
                     if (doc != null) {
                         if (doc.getCategory() == LeosCategory.ANNEX || doc.getCategory() == LeosCategory.MEDIA) {
                             billChildDocs.add(doc);
@@ -112,12 +134,27 @@ public abstract class ProposalConverterServiceImpl implements ProposalConverterS
             }
         } catch (Exception e) {
             LOG.error("Error generating the map of the document: {}", e);
-        } finally {
-            deleteFiles(file, unzippedFiles);
         }
         return proposal;
     }
 
+    /**
+     * Returns the names of the file entries of the zip by file name, without their folders, as they were named once extracted.
+     */
+    private Map<String, String> listEntries(File file) throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        try (ZipFile zipFile = new ZipFile(file)) {
+            Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+            while (zipEntries.hasMoreElements()) {
+                ZipEntry entry = zipEntries.nextElement();
+                if (!entry.isDirectory()) {
+                    entries.put(entry.getName().substring(entry.getName().lastIndexOf('/') + 1), entry.getName());
+                }
+            }
+        }
+        return entries;
+    }
+
     private void updateProposalIdFromXml(final DocumentVO proposal) {
         Map<String, String> metadataMap = xmlNodeProcessor.getValuesFromXml(proposal.getSource(), 
                 new String[]{XmlNodeConfigHelper.DOC_OBJECT_ID, XmlNodeConfigHelper.DOC_REF_META},
@@ -128,18 +165,39 @@ public abstract class ProposalConverterServiceImpl implements ProposalConverterS
         proposal.setRef(proposalRef != null ? proposalRef : PROPOSAL_FILE);
     }
 
-    private DocumentVO createDocument(String docName, File docFile, boolean canModifySource) {
+    private DocumentVO createDocument(String docName, File file, String entryName, boolean canModifySource, boolean onDemand) {
         DocumentVO doc = null;
         LeosCategory category = identifyCategory(docName);
         if (category != null) {
             doc = new DocumentVO(category);
             doc.setId(docName.replaceAll(XML_DOC_EXT + "$", ""));
-            updateSource(doc, docFile, canModifySource);
+            updateSource(doc, file, entryName, canModifySource, onDemand);
             updateMetadataVO(doc);
         }
         return doc;
     }
 
+    private void updateSource(final DocumentVO document, File file, String entryName, boolean canModifySource, boolean onDemand) {
+        final LeosCategory category = document.getCategory();
+        final Supplier<byte[]> sourceLoader = () -> readSource(category, file, entryName, canModifySource);
+        if (onDemand) {
+            document.setSourceLoader(sourceLoader);
+        } else {
+            document.setSource(sourceLoader.get());
+        }
+    }
+
+    private byte[] readSource(LeosCategory category, File file, String entryName, boolean canModifySource) {
+        try (ZipFile zipFile = new ZipFile(file);
+             InputStream documentStream = zipFile.getInputStream(zipFile.getEntry(entryName))) {
+            return readSource(category, documentStream, canModifySource);
+        } catch (IOException e) {
+            LOG.error("Error reading the entry {} of the leg file: {}", entryName, e);
+            // the post validation will take care to analyse wether the source is there or not
+            return null;
+        }
+    }
+
     private LeosCategory identifyCategory(String docName) {
         LeosCategory category = null;
         if (docName.endsWith(XML_DOC_EXT)) {
@@ -156,13 +214,14 @@ public abstract class ProposalConverterServiceImpl implements ProposalConverterS
         return category;
     }
 
-    protected abstract void updateSource(final DocumentVO document, File documentFile, boolean canModifySource);
+    protected abstract byte[] readSource(LeosCategory category, InputStream documentStream, boolean canModifySource) throws IOException;
 
     private void updateMetadataVO(final DocumentVO document) {
-        if (document.getSource() != null) {
+        final byte[] source = document.getSource();
+        if (source != null) {
             try {
                 MetadataVO metadata = document.getMetadata();
-                Map<String, String> metadataVOMap = xmlNodeProcessor.getValuesFromXml(document.getSource(), new String[]{
+                Map<String, String> metadataVOMap = xmlNodeProcessor.getValuesFromXml(source, new String[]{
                         XmlNodeConfigHelper.DOC_PURPOSE_META,
                         XmlNodeConfigHelper.DOC_STAGE_META,
                         XmlNodeConfigHelper.DOC_TYPE_META,
@@ -191,32 +250,4 @@ public abstract class ProposalConverterServiceImpl implements ProposalConverterS
             }
         }
     }
-
-    /**
-     * Will delete form the temporary folder the files uploaded and the unzipped files + parent folder.
-     * @param mainFile
-     * @param unzippedFiles
-     */
-    private void deleteFiles(File mainFile, Map<String, Object> unzippedFiles) {
-        mainFile.delete();
-        List<String> parentFolders = new ArrayList<>();
-        for (String docName : unzippedFiles.keySet()) {
-            File unzippedFile = (File) unzippedFiles.get(docName);
-            String parent = unzippedFile.getParent();
-            if (!parentFolders.contains(parent)) {
-                parentFolders.add(parent);
-            }
-            if (!unzippedFile.delete()) {
-                LOG.info("File not deleted {}", unzippedFile.getPath());
-            }
-        }
-        try {
-            // we must clean also the folder.
-            for (String parent : parentFolders) {
-                FileUtils.deleteDirectory(new File(parent));
-            }
-        } catch (IOException e) {
-            LOG.error("Error deleting the folder {}", e);
-        }
-    }
 }
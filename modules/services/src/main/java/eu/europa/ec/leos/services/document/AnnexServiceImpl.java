@@ -196,11 +196,8 @@ public class AnnexServiceImpl implements AnnexService {
     @Override
     public Annex createVersion(String id, VersionType versionType, String comment) {
         LOG.trace("Creating Annex version... [id={}, versionType={}, comment={}]", id, versionType, comment);
-        final Annex annex = findAnnex(id);
-        final AnnexMetadata metadata = annex.getMetadata().getOrError(() -> "Annex metadata is required!");
-        final Content content = annex.getContent().getOrError(() -> "Annex content is required!");
-        final byte[] contentBytes = content.getSource().getBytes();
-        return annexRepository.updateAnnex(id, metadata, contentBytes, versionType, comment);
+        // the content is not changed, the repository copies it into the new version
+        return annexRepository.createVersion(id, versionType, comment);
     }
     
     @Override
@@ -221,11 +221,8 @@ public class BillServiceImpl implements BillService {
     @Override
     public Bill createVersion(String id, VersionType versionType, String comment) {
         LOG.trace("Creating Bill version... [id={}, versionType={}, comment={}]", id, versionType, comment);
-        final Bill bill = findBill(id);
-        final BillMetadata metadata = bill.getMetadata().getOrError(() -> "Bill metadata is required!");
-        final Content content = bill.getContent().getOrError(() -> "Bill content is required!");
-        final byte[] contentBytes = content.getSource().getBytes();
-        return billRepository.updateBill(id, metadata, contentBytes, versionType, comment);
+        // the content is not changed, the repository copies it into the new version
+        return billRepository.createVersion(id, versionType, comment);
     }
 
     @Override
@@ -197,11 +197,8 @@ public class ExplanatoryServiceImpl implements ExplanatoryService {
     @Override
     public Explanatory createVersion(String id, VersionType versionType, String comment) {
         LOG.trace("Creating Explanatory version... [id={}, versionType={}, comment={}]", id, versionType, comment);
-        final Explanatory explanatory = findExplanatory(id);
-        final ExplanatoryMetadata metadata = explanatory.getMetadata().getOrError(() -> "Explanatory metadata is required!");
-        final Content content = explanatory.getContent().getOrError(() -> "Explanatory content is required!");
-        final byte[] contentBytes = content.getSource().getBytes();
-        return explanatoryRepository.updateExplanatory(id, metadata, contentBytes, versionType, comment);
+        // the content is not changed, the repository copies it into the new version
+        return explanatoryRepository.createVersion(id, versionType, comment);
     }
 
     @Override
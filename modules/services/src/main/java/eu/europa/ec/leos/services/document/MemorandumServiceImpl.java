@@ -217,11 +217,8 @@ public class MemorandumServiceImpl implements MemorandumService {
     @Override
     public Memorandum createVersion(String id, VersionType versionType, String comment) {
         LOG.trace("Creating Memorandum version... [id={}, versionType={}, comment={}]", id, versionType, comment);
-        final Memorandum memorandum = findMemorandum(id);
-        final MemorandumMetadata metadata = memorandum.getMetadata().getOrError(() -> "Memorandum metadata is required!");
-        final Content content = memorandum.getContent().getOrError(() -> "Memorandum content is required!");
-        final byte[] contentBytes = content.getSource().getBytes();
-        return memorandumRepository.updateMemorandum(id, metadata, contentBytes, versionType, comment);
+        // the content is not changed, the repository copies it into the new version
+        return memorandumRepository.createVersion(id, versionType, comment);
     }
 
     private byte[] getContent(Memorandum memorandum) {
@@ -107,27 +107,19 @@ public class PostProcessingProposalServiceImpl extends PostProcessingDocumentSer
     @Override
     public Result<?> saveOriginalProposalIdToClonedProposal(DocumentVO documentVO, String legFileName, String iscRef) {
         if (documentVO.getCategory().equals(LeosCategory.PROPOSAL)) {
-            byte[] updatedDocContent = preserveOriginalDocumentProperties(documentVO.getSource(), legFileName, iscRef);
-
-            documentVO.setSource(updatedDocContent);
+            // the sources read on demand are updated when they are read, so that they are not all kept in memory
+            documentVO.updateSource(source -> preserveOriginalDocumentProperties(source, legFileName, iscRef));
             for (DocumentVO doc : documentVO.getChildDocuments()) {
                 try {
                     if (!doc.getCategory().equals(LeosCategory.PROPOSAL)) {
-                        byte[] docContent = doc.getSource();
                         if (doc.getCategory().equals(LeosCategory.BILL)) {
-                            updatedDocContent = preserveOriginalDocumentProperties(docContent, legFileName, iscRef);
-                            updatedDocContent = xmlContentProcessor.setAttributeForAllChildren(updatedDocContent, BILL, Collections.emptyList(), LEOS_ORIGIN_ATTR, EC);
-                            doc.setSource(updatedDocContent);
+                            doc.updateSource(source -> setOriginAttribute(preserveOriginalDocumentProperties(source, legFileName, iscRef), BILL));
 
                             for (DocumentVO annex : doc.getChildDocuments()) {
-                                byte[] updatedDocContentAnnex = preserveOriginalDocumentProperties(annex.getSource(), legFileName, iscRef);
-                                updatedDocContentAnnex = xmlContentProcessor.setAttributeForAllChildren(updatedDocContentAnnex, DOC, Collections.emptyList(), LEOS_ORIGIN_ATTR, EC);
-                                annex.setSource(updatedDocContentAnnex);
+                                annex.updateSource(source -> setOriginAttribute(preserveOriginalDocumentProperties(source, legFileName, iscRef), DOC));
                             }
                         } else {
-                            updatedDocContent = preserveOriginalDocumentProperties(docContent, legFileName, iscRef);
-                            updatedDocContent = xmlContentProcessor.setAttributeForAllChildren(updatedDocContent, DOC, Collections.emptyList(), LEOS_ORIGIN_ATTR, EC);
-                            doc.setSource(updatedDocContent);
+                            doc.updateSource(source -> setOriginAttribute(preserveOriginalDocumentProperties(source, legFileName, iscRef), DOC));
                         }
                     }
                 } catch (Exception e) {
@@ -139,6 +131,14 @@ public class PostProcessingProposalServiceImpl extends PostProcessingDocumentSer
         return new Result<>("OK", null);
     }
 
+    private byte[] setOriginAttribute(byte[] xmlContent, String parentTag) {
+        try {
+            return xmlContentProcessor.setAttributeForAllChildren(xmlContent, parentTag, Collections.emptyList(), LEOS_ORIGIN_ATTR, EC);
+        } catch (Exception e) {
+            throw new IllegalStateException("Error occurred while saving metadata to cloned proposal", e);
+        }
+    }
+
     @Override
     public Result<?> saveClonedProposalIdToOriginalProposal(DocumentVO documentVO, CollectionIdsAndUrlsHolder
             idsAndUrlsHolder, CloneProposalMetadataVO cloneProposalMetadataVO) {
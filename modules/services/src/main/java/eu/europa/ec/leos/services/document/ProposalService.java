@@ -34,6 +34,8 @@ public interface ProposalService {
 
     Proposal findProposal(String id);
 
+    List<String> findOrphanClonedProposalIds();
+
     Proposal updateProposal(Proposal proposal, ProposalMetadata metadata, VersionType versionType, String comment);
 
     Proposal updateProposal(Proposal proposal, ProposalMetadata metadata);
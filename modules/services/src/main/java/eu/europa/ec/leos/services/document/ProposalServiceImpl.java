@@ -107,6 +107,12 @@ public class ProposalServiceImpl implements ProposalService {
         return proposalRepository.findProposalById(id, true);
     }
 
+    @Override
+    public List<String> findOrphanClonedProposalIds() {
+        LOG.trace("Finding orphan cloned Proposals...");
+        return proposalRepository.findOrphanClonedProposalIds();
+    }
+
     @Override
     public Proposal updateProposal(Proposal proposal, ProposalMetadata updatedMetadata, VersionType versionType, String comment) {
         LOG.trace("Updating Proposal... [id={}, metadata={}, versionType={}, comment={}]", proposal.getId(), updatedMetadata, versionType, comment);
@@ -252,11 +258,8 @@ public class ProposalServiceImpl implements ProposalService {
     @Override
     public Proposal createVersion(String id, VersionType versionType, String comment) {
         LOG.trace("Creating Proposal version... [id={}, versionType={}, comment={}]", id, versionType, comment);
-        final Proposal proposal = findProposal(id);
-        final ProposalMetadata metadata = proposal.getMetadata().getOrError(() -> "Proposal metadata is required!");
-        final Content content = proposal.getContent().getOrError(() -> "Proposal content is required!");
-        final byte[] contentBytes = content.getSource().getBytes();
-        return proposalRepository.updateProposal(id, metadata, contentBytes, versionType, comment);
+        // the content is not changed, the repository copies it into the new version
+        return proposalRepository.createVersion(id, versionType, comment);
     }
 
     @Override
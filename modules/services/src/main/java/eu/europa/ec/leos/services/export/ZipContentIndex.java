@@ -0,0 +1,238 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.services.export;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Random access to the entries of a zip package held in a buffer (a byte array or a mapped file).
+ * <p>
+ * Only the central directory at the end of the package is read when the index is created, the entries are then
+ * located through their offset and inflated on demand, so nothing is extracted that is not read.
+ * ZIP64 packages are not supported.
+ */
+public class ZipContentIndex {
+
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int CENTRAL_DIRECTORY_SIGNATURE = 0x02014b50;
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_LENGTH = 22;
+    private static final int CENTRAL_DIRECTORY_HEADER_LENGTH = 46;
+    private static final int LOCAL_HEADER_LENGTH = 30;
+    private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+    private static final long ZIP64_MARKER = 0xFFFFFFFFL;
+    private static final int INFLATER_BUFFER_SIZE = 8192;
+
+    private final ByteBuffer zip;
+    private final Map<String, EntryLocation> entries;
+
+    private ZipContentIndex(ByteBuffer zip, Map<String, EntryLocation> entries) {
+        this.zip = zip;
+        this.entries = entries;
+    }
+
+    public static ZipContentIndex of(byte[] zip) throws IOException {
+        return of(ByteBuffer.wrap(zip));
+    }
+
+    public static ZipContentIndex of(ByteBuffer zip) throws IOException {
+        ByteBuffer buffer = zip.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int endOfCentralDirectory = findEndOfCentralDirectory(buffer);
+        int entryCount = Short.toUnsignedInt(buffer.getShort(endOfCentralDirectory + 10));
+        long centralDirectoryOffset = Integer.toUnsignedLong(buffer.getInt(endOfCentralDirectory + 16));
+        if (entryCount == 0xFFFF || centralDirectoryOffset == ZIP64_MARKER) {
+            throw new IOException("ZIP64 packages are not supported");
+        }
+
+        Map<String, EntryLocation> entries = new LinkedHashMap<>();
+        int offset = (int) centralDirectoryOffset;
+        for (int i = 0; i < entryCount; i++) {
+            if (offset + CENTRAL_DIRECTORY_HEADER_LENGTH > buffer.limit() || buffer.getInt(offset) != CENTRAL_DIRECTORY_SIGNATURE) {
+                throw new IOException("Invalid zip central directory");
+            }
+            int method = Short.toUnsignedInt(buffer.getShort(offset + 10));
+            long compressedSize = Integer.toUnsignedLong(buffer.getInt(offset + 20));
+            long size = Integer.toUnsignedLong(buffer.getInt(offset + 24));
+            int nameLength = Short.toUnsignedInt(buffer.getShort(offset + 28));
+            int extraLength = Short.toUnsignedInt(buffer.getShort(offset + 30));
+            int commentLength = Short.toUnsignedInt(buffer.getShort(offset + 32));
+            long localHeaderOffset = Integer.toUnsignedLong(buffer.getInt(offset + 42));
+            if (compressedSize == ZIP64_MARKER || size == ZIP64_MARKER || localHeaderOffset == ZIP64_MARKER) {
+                throw new IOException("ZIP64 packages are not supported");
+            }
+            String name = readName(buffer, offset + CENTRAL_DIRECTORY_HEADER_LENGTH, nameLength);
+            if (!name.endsWith("/")) {
+                entries.put(name, new EntryLocation(method, (int) localHeaderOffset, (int) compressedSize, size));
+            }
+            offset += CENTRAL_DIRECTORY_HEADER_LENGTH + nameLength + extraLength + commentLength;
+        }
+        return new ZipContentIndex(buffer, Collections.unmodifiableMap(entries));
+    }
+
+    /**
+     * Returns the names of the file entries, in the order of the package.
+     */
+    public Set<String> getEntryNames() {
+        return entries.keySet();
+    }
+
+    public boolean contains(String entryName) {
+        return entries.containsKey(entryName);
+    }
+
+    /**
+     * Returns the uncompressed size of the entry or -1 if there is no such entry.
+     */
+    public long getSize(String entryName) {
+        EntryLocation location = entries.get(entryName);
+        return location == null ? -1 : location.size;
+    }
+
+    /**
+     * Returns a stream over the uncompressed content of the entry, read straight from the package.
+     *
+     * @throws IOException if there is no such entry or the entry cannot be read
+     */
+    public InputStream getInputStream(String entryName) throws IOException {
+        EntryLocation location = entries.get(entryName);
+        if (location == null) {
+            throw new IOException("No entry " + entryName + " in the zip package");
+        }
+        if (zip.getInt(location.localHeaderOffset) != LOCAL_HEADER_SIGNATURE) {
+            throw new IOException("Invalid local header for the entry " + entryName);
+        }
+        int nameLength = Short.toUnsignedInt(zip.getShort(location.localHeaderOffset + 26));
+        int extraLength = Short.toUnsignedInt(zip.getShort(location.localHeaderOffset + 28));
+        ByteBuffer data = zip.duplicate();
+        int dataOffset = location.localHeaderOffset + LOCAL_HEADER_LENGTH + nameLength + extraLength;
+        data.limit(dataOffset + location.compressedSize).position(dataOffset);
+
+        switch (location.method) {
+            case ZipEntry.STORED:
+                return new ByteBufferInputStream(data);
+            case ZipEntry.DEFLATED:
+                return new EntryInflaterInputStream(new ByteBufferInputStream(data));
+            default:
+                throw new IOException("Unsupported compression method " + location.method + " for the entry " + entryName);
+        }
+    }
+
+    private static int findEndOfCentralDirectory(ByteBuffer buffer) throws IOException {
+        int last = buffer.limit() - END_OF_CENTRAL_DIRECTORY_LENGTH;
+        int first = Math.max(0, last - MAX_COMMENT_LENGTH);
+        for (int offset = last; offset >= first; offset--) {
+            if (buffer.getInt(offset) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                return offset;
+            }
+        }
+        throw new IOException("Not a zip package");
+    }
+
+    private static String readName(ByteBuffer buffer, int offset, int length) {
+        byte[] name = new byte[length];
+        ByteBuffer source = buffer.duplicate();
+        source.position(offset);
+        source.get(name);
+        return new String(name, UTF_8);
+    }
+
+    private static class EntryLocation {
+        private final int method;
+        private final int localHeaderOffset;
+        private final int compressedSize;
+        private final long size;
+
+        private EntryLocation(int method, int localHeaderOffset, int compressedSize, long size) {
+            this.method = method;
+            this.localHeaderOffset = localHeaderOffset;
+            this.compressedSize = compressedSize;
+            this.size = size;
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(len, buffer.remaining());
+            buffer.get(bytes, off, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
+    /**
+     * Inflates raw deflate data, the inflater is released when the stream is closed.
+     */
+    private static class EntryInflaterInputStream extends InflaterInputStream {
+        private boolean eof;
+
+        private EntryInflaterInputStream(InputStream in) {
+            super(in, new Inflater(true), INFLATER_BUFFER_SIZE);
+        }
+
+        @Override
+        protected void fill() throws IOException {
+            if (eof) {
+                throw new IOException("Unexpected end of the zip entry");
+            }
+            len = in.read(buf, 0, buf.length);
+            if (len == -1) {
+                // the inflater may need one more byte after the raw data to detect the end of it
+                buf[0] = 0;
+                len = 1;
+                eof = true;
+            }
+            inf.setInput(buf, 0, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            super.close();
+            inf.end();
+        }
+    }
+}
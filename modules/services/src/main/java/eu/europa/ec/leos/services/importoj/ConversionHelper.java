@@ -13,40 +13,103 @@
  */
 package eu.europa.ec.leos.services.importoj;
 
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
 import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.TransformerFactoryConfigurationError;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.net.URL;
 
+/**
+ * Converts Formex documents to AKN with the fmx2akn stylesheet.
+ * <p>
+ * The stylesheet is compiled once into thread-safe {@link Templates}, each thread then uses its own {@link Transformer},
+ * as a transformer cannot be used by concurrent imports. The transformer factory is the one configured in
+ * {@code leos.import.xslt.transformerFactory} or, when empty, the one resolved by JAXP from the classpath. When the
+ * stylesheet cannot be compiled by that factory, the configured {@code xsltTransformer} is used, one conversion at a time.
+ */
 @Component
 public class ConversionHelper {
     private static final Logger LOG = LoggerFactory.getLogger(ConversionHelper.class);
 
+    private final Transformer configuredTransformer;
+    private final String stylesheet;
+    private final String transformerFactoryClass;
+
+    private Templates templates;
+
+    private final ThreadLocal<Transformer> transformers = ThreadLocal.withInitial(() -> {
+        try {
+            return templates.newTransformer();
+        } catch (TransformerConfigurationException e) {
+            throw new IllegalStateException("Unable to create the Formex to AKN transformer", e);
+        }
+    });
+
     @Autowired
-    @Qualifier("xsltTransformer")
-    private Transformer transformer;
-    
+    public ConversionHelper(@Qualifier("xsltTransformer") Transformer configuredTransformer,
+                            @Value("${leos.import.xslt:eu/europa/ec/leos/xslt/templates/fmx2akn-leos.xslt}") String stylesheet,
+                            @Value("${leos.import.xslt.transformerFactory:}") String transformerFactoryClass) {
+        this.configuredTransformer = configuredTransformer;
+        this.stylesheet = stylesheet;
+        this.transformerFactoryClass = transformerFactoryClass;
+    }
+
+    @PostConstruct
+    void compileStylesheet() {
+        URL stylesheetUrl = ConversionHelper.class.getClassLoader().getResource(stylesheet);
+        if (stylesheetUrl == null) {
+            throw new IllegalStateException("Formex to AKN stylesheet not found: " + stylesheet);
+        }
+        try {
+            TransformerFactory factory = StringUtils.isBlank(transformerFactoryClass)
+                    ? TransformerFactory.newInstance()
+                    : TransformerFactory.newInstance(transformerFactoryClass, ConversionHelper.class.getClassLoader());
+            templates = factory.newTemplates(new StreamSource(stylesheetUrl.toExternalForm()));
+            LOG.debug("Compiled Formex to AKN stylesheet {} with {}", stylesheet, factory.getClass().getName());
+        } catch (TransformerConfigurationException | TransformerFactoryConfigurationError e) {
+            LOG.warn("Unable to compile the Formex to AKN stylesheet {}, the configured transformer is used for the conversions", stylesheet, e);
+            templates = null;
+        }
+    }
+
     public String convertFormexToAKN(String formexDocument) {
         LOG.trace("Converting document from formex to akn...");
         if(formexDocument == null) {
             return null;
         }
-        try {                 
+        try {
             Source xmlSource = new StreamSource(new StringReader(formexDocument));
-            StringWriter outWriter = new StringWriter();
+            StringWriter outWriter = new StringWriter(formexDocument.length());
             StreamResult result = new StreamResult(outWriter);
-            transformer.transform(xmlSource, result);
-            StringBuffer sb = outWriter.getBuffer();
+            if (templates == null) {
+                synchronized (configuredTransformer) {
+                    configuredTransformer.transform(xmlSource, result);
+                }
+            } else {
+                Transformer transformer = transformers.get();
+                try {
+                    transformer.transform(xmlSource, result);
+                } finally {
+                    transformer.reset();
+                }
+            }
             LOG.trace("conversion finished");
-            return sb.toString();
+            return outWriter.toString();
         } catch (Exception e) {
             throw new RuntimeException("Unable to convert to AKN", e);
         }
@@ -17,7 +17,6 @@ import eu.europa.ec.leos.domain.cmis.Content;
 import eu.europa.ec.leos.domain.cmis.document.Bill;
 import eu.europa.ec.leos.i18n.MessageHelper;
 import eu.europa.ec.leos.integration.ExternalDocumentProvider;
-import eu.europa.ec.leos.model.xml.Element;
 import eu.europa.ec.leos.services.support.xml.NumberProcessor;
 import eu.europa.ec.leos.services.support.xml.XPathCatalog;
 import eu.europa.ec.leos.services.support.xml.XmlContentProcessor;
@@ -27,14 +26,31 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
 
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static eu.europa.ec.leos.services.support.xml.XmlHelper.ARTICLE;
 import static eu.europa.ec.leos.services.support.xml.XmlHelper.BODY;
+import static eu.europa.ec.leos.services.support.xml.XmlHelper.HEADING;
+import static eu.europa.ec.leos.services.support.xml.XmlHelper.ID;
 import static eu.europa.ec.leos.services.support.xml.XmlHelper.RECITAL;
 import static eu.europa.ec.leos.services.support.xml.XmlHelper.RECITALS;
+import static eu.europa.ec.leos.services.support.xml.XmlHelper.XMLID;
+import static eu.europa.ec.leos.services.support.xml.XmlUtils.addFirstChild;
+import static eu.europa.ec.leos.services.support.xml.XmlUtils.addSibling;
+import static eu.europa.ec.leos.services.support.xml.XmlUtils.createDocument;
+import static eu.europa.ec.leos.services.support.xml.XmlUtils.createNodeFromXmlFragment;
+import static eu.europa.ec.leos.services.support.xml.XmlUtils.getAttributeValue;
+import static eu.europa.ec.leos.services.support.xml.XmlUtils.getFirstElementByName;
+import static eu.europa.ec.leos.services.support.xml.XmlUtils.getFirstElementByXPath;
+import static eu.europa.ec.leos.services.support.xml.XmlUtils.nodeToByteArray;
+import static eu.europa.ec.leos.services.support.xml.XmlUtils.nodeToStringSimple;
 
 @Service
 public class ImportServiceImpl implements ImportService {
@@ -76,18 +92,35 @@ public class ImportServiceImpl implements ImportService {
         LOG.info("Importing {} elements...", elementIds.size());
         byte[] documentContent = getContent(bill);
         long startTime = System.currentTimeMillis();
+
+        // Both documents are parsed once, the selected elements are all inserted in the same tree
+        Document importedDocument = createDocument(importedContent);
+        Document document = createDocument(documentContent);
+        Map<String, Node> importedElements = indexElementsById(importedDocument);
+        long endTime = System.currentTimeMillis();
+        long parsingTime = endTime - startTime;
+        startTime = System.currentTimeMillis();
+
+        // Last element of each type, after which (or before which, for the entry into force article) the next one is inserted
+        Map<String, Node> lastElements = new HashMap<>();
+        Map<String, Boolean> lastElementsEIF = new HashMap<>();
         for (String id : elementIds) {
-            Element element = xmlContentProcessor.getElementById(importedContent, id);
-            if (element == null) {
+            Node importedNode = importedElements.get(id);
+            if (importedNode == null) {
                 throw new IllegalStateException("Strange situation! One of the IDs passed from FE is not present in the document. ID: " + id);
             }
-            // Get id of the last element in the document
-            String xPath = xPathCatalog.getXPathLastElement(element.getElementTagName());
-            String elementId = xmlContentProcessor.getElementIdByPath(documentContent, xPath);
-            String elementType = element.getElementTagName();
+            String elementType = importedNode.getNodeName();
+            Node lastElement = lastElements.get(elementType);
+            if (lastElement == null) {
+                lastElement = getLastElement(document, elementType);
+                if (lastElement != null) {
+                    lastElements.put(elementType, lastElement);
+                    lastElementsEIF.put(elementType, checkIfLastArticleIsEntryIntoForce(lastElement, language));
+                }
+            }
 
             // Do pre-processing on the selected elements
-            String updatedElement = xmlContentProcessor.doImportedElementPreProcessing(element.getElementFragment(), elementType);
+            String updatedElement = xmlContentProcessor.doImportedElementPreProcessing(nodeToStringSimple(importedNode), elementType);
             if (elementType.equalsIgnoreCase(ARTICLE)) {
                 updatedElement = this.numberProcessor.renumberImportedArticle(updatedElement, language);
             } else if (elementType.equalsIgnoreCase(RECITAL)) {
@@ -96,16 +129,23 @@ public class ImportServiceImpl implements ImportService {
             updatedElement = updatedElement.replaceFirst(">", " leos:editable=\"true\" leos:deletable=\"true\">");
 
             // Insert selected element to the document
-            if (elementId != null) {
-                documentContent = xmlContentProcessor.insertElementByTagNameAndId(documentContent, updatedElement,
-                        element.getElementTagName(), elementId, checkIfLastArticleIsEntryIntoForce(documentContent, element, elementId, language));
+            if (lastElement != null) {
+                Node newNode = createNodeFromXmlFragment(document, updatedElement.getBytes(StandardCharsets.UTF_8), false);
+                boolean before = lastElementsEIF.get(elementType);
+                addSibling(newNode, lastElement, before);
+                // elements imported before the entry into force article keep it as last element
+                if (!before) {
+                    lastElements.put(elementType, newNode);
+                    lastElementsEIF.put(elementType, checkIfLastArticleIsEntryIntoForce(newNode, language));
+                }
             } else if (elementType.equalsIgnoreCase(ARTICLE)) {
-                documentContent = xmlContentProcessor.appendElementToTag(documentContent, BODY, updatedElement, true);
+                appendElementToTag(document, BODY, updatedElement);
             } else if (elementType.equalsIgnoreCase(RECITAL)) {
-                documentContent = xmlContentProcessor.appendElementToTag(documentContent, RECITALS, updatedElement, true);
+                appendElementToTag(document, RECITALS, updatedElement);
             }
         }
-        long endTime = System.currentTimeMillis();
+        documentContent = nodeToByteArray(document);
+        endTime = System.currentTimeMillis();
         long insertTime = endTime - startTime;
         startTime = System.currentTimeMillis();
 
@@ -120,20 +160,56 @@ public class ImportServiceImpl implements ImportService {
         endTime = System.currentTimeMillis();
         long postProcessingTime = endTime - startTime;
 
-        LOG.info("Elements Imported. insertTime {} ms, numberingTime {} ms, postProcessingTime {} ms", insertTime, numberingTime, postProcessingTime);
+        LOG.info("Elements Imported. parsingTime {} ms, insertTime {} ms, numberingTime {} ms, postProcessingTime {} ms", parsingTime, insertTime,
+                numberingTime, postProcessingTime);
         return documentContent;
     }
 
-    // check if the last article in the document has heading Entry into force, if yes articles imported before EIF article
-    private boolean checkIfLastArticleIsEntryIntoForce(byte[] documentContent, Element element, String elementId, String language) {
-        boolean isLastElementEIF = false;
-        String lastElement = xmlContentProcessor.getElementByNameAndId(documentContent, element.getElementTagName(), elementId);
-        // Disable namespace parsing for VTD as xml fragment passed may not contain namespace information
-        String headingElementValue = xmlContentProcessor.getElementValue(lastElement.getBytes(StandardCharsets.UTF_8), xPathCatalog.getXPathHeading(), false);
-        if (checkIfHeadingIsEntryIntoForce(headingElementValue, language)) {
-            isLastElementEIF = true;
+    // Indexes the elements by xml:id, falling back on the id attribute as XmlUtils.getElementById() does
+    private Map<String, Node> indexElementsById(Document document) {
+        Map<String, Node> elementsByXmlId = new HashMap<>();
+        Map<String, Node> elementsById = new HashMap<>();
+        NodeList nodeList = document.getElementsByTagName("*");
+        for (int i = 0; i < nodeList.getLength(); i++) {
+            Node node = nodeList.item(i);
+            String xmlId = getAttributeValue(node, XMLID);
+            if (xmlId != null) {
+                elementsByXmlId.putIfAbsent(xmlId, node);
+            }
+            String id = getAttributeValue(node, ID);
+            if (id != null) {
+                elementsById.putIfAbsent(id, node);
+            }
         }
-        return isLastElementEIF;
+        elementsById.putAll(elementsByXmlId);
+        return elementsById;
+    }
+
+    // Gets the last element of the given type in the document, or null if it has no id
+    private Node getLastElement(Document document, String elementType) {
+        String xPath = xPathCatalog.getXPathLastElement(elementType);
+        Node node = getFirstElementByXPath(document, xPath);
+        if (node == null) {
+            throw new IllegalArgumentException("Didn't found a node in xpath: " + xPath + ", namespace: true");
+        }
+        return getAttributeValue(node, XMLID) != null ? node : null;
+    }
+
+    private void appendElementToTag(Document document, String tagName, String newContent) {
+        NodeList nodeList = document.getElementsByTagName(tagName);
+        if (nodeList.getLength() == 0) {
+            throw new IllegalArgumentException("No tag found with name " + tagName);
+        }
+        Node newNode = createNodeFromXmlFragment(document, newContent.getBytes(StandardCharsets.UTF_8));
+        for (int i = 0; i < nodeList.getLength(); i++) {
+            addFirstChild(newNode, nodeList.item(i));
+        }
+    }
+
+    // check if the last article in the document has heading Entry into force, if yes articles imported before EIF article
+    private boolean checkIfLastArticleIsEntryIntoForce(Node lastElement, String language) {
+        Node heading = getFirstElementByName(lastElement, HEADING);
+        return heading != null && checkIfHeadingIsEntryIntoForce(heading.getTextContent(), language);
     }
 
     // Gets the heading message from locale
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.services.messaging;
+
+import eu.europa.ec.leos.model.messaging.EmailNotificationMessage;
+import eu.europa.ec.leos.model.notification.EmailNotification;
+import eu.europa.ec.leos.services.messaging.conf.Base64Serializer;
+import eu.europa.ec.leos.services.notification.EmailNotificationDispatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jms.annotation.JmsListener;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import static eu.europa.ec.leos.services.messaging.conf.JmsDestinations.QUEUE_EMAIL_NOTIFICATION;
+
+@Component
+public class EmailNotificationConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailNotificationConsumer.class);
+    private final EmailNotificationDispatcher emailNotificationDispatcher;
+
+    public EmailNotificationConsumer(EmailNotificationDispatcher emailNotificationDispatcher) {
+        this.emailNotificationDispatcher = emailNotificationDispatcher;
+    }
+
+    @JmsListener(destination = QUEUE_EMAIL_NOTIFICATION, subscription = "emailNotifications", containerFactory = "jmsListenerContainerFactory")
+    public void dispatchNotification(@Payload EmailNotificationMessage message, @Header String authcontext) {
+        EmailNotification notification = (EmailNotification) Base64Serializer.deserialize(message.getNotification());
+        logger.debug("Processing {} notification, attempt {}", notification.getNotificationName(), message.getAttempt());
+        // the processors look up the proposal on behalf of the user who triggered the notification
+        SecurityContextHolder.getContext().setAuthentication((Authentication) Base64Serializer.deserialize(authcontext));
+        try {
+            emailNotificationDispatcher.dispatch(notification, message.getAttempt(), authcontext);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.services.messaging;
+
+import eu.europa.ec.leos.model.messaging.EmailNotificationMessage;
+import eu.europa.ec.leos.model.notification.EmailNotification;
+import eu.europa.ec.leos.services.messaging.conf.Base64Serializer;
+import org.apache.activemq.artemis.jms.client.ActiveMQQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import static eu.europa.ec.leos.services.messaging.conf.JmsDestinations.QUEUE_EMAIL_NOTIFICATION;
+import static eu.europa.ec.leos.services.messaging.conf.JmsDestinations.QUEUE_EMAIL_NOTIFICATION_DLQ;
+import static org.apache.activemq.artemis.api.core.Message.HDR_SCHEDULED_DELIVERY_TIME;
+
+@Component
+public class EmailNotificationProducer {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailNotificationProducer.class);
+    private static final ActiveMQQueue EMAIL_NOTIFICATION_QUEUE = new ActiveMQQueue(QUEUE_EMAIL_NOTIFICATION);
+    private static final ActiveMQQueue EMAIL_NOTIFICATION_DLQ = new ActiveMQQueue(QUEUE_EMAIL_NOTIFICATION_DLQ);
+    private final JmsTemplate jmsTemplate;
+
+    public EmailNotificationProducer(JmsTemplate jmsTemplate) {
+        this.jmsTemplate = jmsTemplate;
+    }
+
+    /**
+     * Enqueues the notification with the authentication context of the current user.
+     */
+    public void send(EmailNotification notification) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        send(notification, 0, 0, Base64Serializer.serialize(authentication));
+    }
+
+    /**
+     * Enqueues the notification again to be delivered after the given delay.
+     *
+     * @param authcontext the serialized authentication context the notification was first sent with
+     */
+    public void send(EmailNotification notification, int attempt, long delayMillis, String authcontext) {
+        logger.debug("Sending {} notification, attempt {}", notification.getNotificationName(), attempt);
+        EmailNotificationMessage message = new EmailNotificationMessage(Base64Serializer.serialize(notification), attempt);
+        jmsTemplate.convertAndSend(EMAIL_NOTIFICATION_QUEUE, message, jmsMessage -> {
+            jmsMessage.setStringProperty("authcontext", authcontext);
+            if (delayMillis > 0) {
+                jmsMessage.setLongProperty(HDR_SCHEDULED_DELIVERY_TIME.toString(), System.currentTimeMillis() + delayMillis);
+            }
+            return jmsMessage;
+        });
+    }
+
+    /**
+     * Moves a notification that could not be sent to the dead letter queue, where it is kept for inspection.
+     */
+    public void sendToDeadLetter(EmailNotification notification, int attempt, String authcontext) {
+        logger.error("{} notification to {} could not be sent after {} attempts, moving it to {}", notification.getNotificationName(),
+                notification.getRecipients(), attempt, QUEUE_EMAIL_NOTIFICATION_DLQ);
+        EmailNotificationMessage message = new EmailNotificationMessage(Base64Serializer.serialize(notification), attempt);
+        jmsTemplate.convertAndSend(EMAIL_NOTIFICATION_DLQ, message, jmsMessage -> {
+            jmsMessage.setStringProperty("authcontext", authcontext);
+            return jmsMessage;
+        });
+    }
+
+}
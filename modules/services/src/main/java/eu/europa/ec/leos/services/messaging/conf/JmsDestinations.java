@@ -16,6 +16,8 @@ package eu.europa.ec.leos.services.messaging.conf;
 public final class JmsDestinations {
 
     public static final String QUEUE_UPDATE_INTERNAL_REFERENCE = "queue/updateInternalReferences";
+    public static final String QUEUE_EMAIL_NOTIFICATION = "queue/emailNotifications";
+    public static final String QUEUE_EMAIL_NOTIFICATION_DLQ = "queue/emailNotifications.DLQ";
 
     private JmsDestinations() {
     }
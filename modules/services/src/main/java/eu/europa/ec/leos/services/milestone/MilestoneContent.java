@@ -0,0 +1,125 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.services.milestone;
+
+import eu.europa.ec.leos.services.export.ZipContentIndex;
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Files of a milestone (leg) package, read on demand from the package.
+ * <p>
+ * Files are identified by their name without the folders of the package, as they were once extracted. The version of
+ * each document is read from the beginning of its xml file when the content is created, the xml is not read further.
+ */
+public class MilestoneContent {
+
+    private static final String TOC_HTML = "_toc.html";
+    private static final String XML = ".xml";
+    private static final Pattern DOC_VERSION_START_TAG = Pattern.compile("<leos:docVersion\\b[^>]*>");
+    private static final String DOC_VERSION_END_TAG = "</leos:docVersion>";
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    private final ZipContentIndex zip;
+    private final long size;
+    private final Map<String, String> entryNames = new HashMap<>();
+    private final Map<String, String> docVersions = new HashMap<>();
+
+    MilestoneContent(byte[] leg) throws IOException {
+        this.zip = ZipContentIndex.of(leg);
+        this.size = leg.length;
+        for (String entryName : zip.getEntryNames()) {
+            entryNames.put(entryName.substring(entryName.lastIndexOf('/') + 1), entryName);
+        }
+        for (String fileName : getFileNames(XML)) {
+            String docVersion = readDocVersion(entryNames.get(fileName));
+            if (docVersion != null) {
+                docVersions.put(fileName.substring(0, fileName.indexOf(XML)), docVersion);
+            }
+        }
+    }
+
+    /**
+     * Returns the names of the files containing the given filter, except the html tables of content, in reverse order of name.
+     */
+    public List<String> getFileNames(String fileFilter) {
+        return entryNames.keySet().stream()
+                .filter(name -> !name.contains(TOC_HTML) && name.contains(fileFilter))
+                .sorted(Collections.reverseOrder())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param documentName name of the xml file of the document without extension
+     * @return the version of the document or null if it is not known
+     */
+    public String getDocVersion(String documentName) {
+        return docVersions.get(documentName);
+    }
+
+    public InputStream getInputStream(String fileName) throws IOException {
+        String entryName = entryNames.get(fileName);
+        if (entryName == null) {
+            throw new IOException("No file " + fileName + " in the milestone");
+        }
+        return zip.getInputStream(entryName);
+    }
+
+    public String getContentAsString(String fileName) throws IOException {
+        try (InputStream is = getInputStream(fileName)) {
+            return IOUtils.toString(is, UTF_8);
+        }
+    }
+
+    public byte[] getContentAsBytes(String fileName) throws IOException {
+        try (InputStream is = getInputStream(fileName)) {
+            return IOUtils.toByteArray(is);
+        }
+    }
+
+    long getSize() {
+        return size;
+    }
+
+    private String readDocVersion(String entryName) throws IOException {
+        StringBuilder xml = new StringBuilder();
+        char[] buffer = new char[READ_BUFFER_SIZE];
+        try (Reader reader = new InputStreamReader(zip.getInputStream(entryName), UTF_8)) {
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                int searchFrom = Math.max(0, xml.length() - DOC_VERSION_END_TAG.length());
+                xml.append(buffer, 0, read);
+                int endIndex = xml.indexOf(DOC_VERSION_END_TAG, searchFrom);
+                if (endIndex >= 0) {
+                    Matcher matcher = DOC_VERSION_START_TAG.matcher(xml);
+                    return matcher.find() && matcher.end() <= endIndex ? xml.substring(matcher.end(), endIndex) : null;
+                }
+            }
+        }
+        return null;
+    }
+}
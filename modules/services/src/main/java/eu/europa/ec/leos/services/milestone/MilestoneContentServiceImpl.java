@@ -0,0 +1,69 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.services.milestone;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import eu.europa.ec.leos.domain.cmis.Content;
+import eu.europa.ec.leos.domain.cmis.document.LegDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Keeps the indexes of the recently viewed milestone packages, least recently used packages are evicted first once
+ * the packages kept exceed the configured number of bytes.
+ */
+@Service
+public class MilestoneContentServiceImpl implements MilestoneContentService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MilestoneContentServiceImpl.class);
+
+    private final Cache<String, MilestoneContent> cache;
+
+    public MilestoneContentServiceImpl(@Value("${leos.milestone.content.cache.maxBytes:100000000}") long maxBytes) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, MilestoneContent content) -> (int) Math.min(Integer.MAX_VALUE, content.getSize()))
+                .build();
+    }
+
+    @Override
+    public MilestoneContent getMilestoneContent(LegDocument legDocument) throws IOException {
+        // the content of a stored version never changes
+        String key = legDocument.getId() + "|" + legDocument.getVersionLabel();
+        try {
+            return cache.get(key, () -> index(legDocument));
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        }
+    }
+
+    private MilestoneContent index(LegDocument legDocument) throws IOException {
+        long start = System.currentTimeMillis();
+        Content content = legDocument.getContent().getOrError(() -> "Document content is required!");
+        MilestoneContent milestoneContent = new MilestoneContent(content.getSource().getBytes());
+        LOG.debug("Milestone {} indexed in {} ms", legDocument.getName(), System.currentTimeMillis() - start);
+        return milestoneContent;
+    }
+
+    void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.services.notification;
+
+import eu.europa.ec.leos.integration.NotificationProvider;
+import eu.europa.ec.leos.model.notification.EmailNotification;
+import eu.europa.ec.leos.services.messaging.EmailNotificationProducer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Renders the notifications taken from the queue and sends them, grouped by recipients, once per batch window.
+ * <p>
+ * Identical mails to the same recipients within a window (e.g. the same collaborator edited several times) are sent once.
+ * A notification that cannot be rendered or sent is enqueued again with an exponential delay, and moved to the dead
+ * letter queue after the maximum number of attempts.
+ */
+@Component
+public class EmailNotificationDispatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EmailNotificationDispatcher.class);
+    private static final int MAX_RETRY_DELAY_SHIFT = 10;
+
+    private final NotificationProvider notificationProvider;
+    private final EmailNotificationProcessorFactory emailNotificationProcessorFactory;
+    private final EmailNotificationProducer emailNotificationProducer;
+    private final int maxAttempts;
+    private final long retryDelay;
+
+    // notifications rendered in the current window, by recipients
+    private Map<String, List<PendingNotification>> pendingNotifications = new LinkedHashMap<>();
+
+    public EmailNotificationDispatcher(NotificationProvider notificationProvider,
+                                       EmailNotificationProcessorFactory emailNotificationProcessorFactory,
+                                       EmailNotificationProducer emailNotificationProducer,
+                                       @Value("${leos.notification.retry.maxAttempts:5}") int maxAttempts,
+                                       @Value("${leos.notification.retry.delay:60000}") long retryDelay) {
+        this.notificationProvider = notificationProvider;
+        this.emailNotificationProcessorFactory = emailNotificationProcessorFactory;
+        this.emailNotificationProducer = emailNotificationProducer;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+    }
+
+    /**
+     * Renders the notification and adds it to the current batch.
+     *
+     * @param attempt the number of previous failed attempts
+     * @param authcontext the serialized authentication context the notification was sent with, kept for the retries
+     */
+    public void dispatch(EmailNotification notification, int attempt, String authcontext) {
+        try {
+            EmailNotificationProcessor emailNotificationProcessor = emailNotificationProcessorFactory.getEmailNotificationProcessor(notification);
+            if (emailNotificationProcessor == null) {
+                throw new IllegalStateException("No processor found for this notification!");
+            }
+            emailNotificationProcessor.process(notification);
+        } catch (RuntimeException e) {
+            retry(notification, attempt, authcontext, e);
+            return;
+        }
+        synchronized (this) {
+            pendingNotifications.computeIfAbsent(String.join(";", notification.getRecipients()), recipients -> new ArrayList<>())
+                    .add(new PendingNotification(notification, attempt, authcontext));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${leos.notification.batch.window:2000}")
+    @PreDestroy
+    public void flush() {
+        final Map<String, List<PendingNotification>> batch;
+        synchronized (this) {
+            if (pendingNotifications.isEmpty()) {
+                return;
+            }
+            batch = pendingNotifications;
+            pendingNotifications = new LinkedHashMap<>();
+        }
+        batch.forEach((recipients, notifications) -> {
+            Set<String> sentMails = new HashSet<>();
+            for (PendingNotification pending : notifications) {
+                EmailNotification notification = pending.notification;
+                if (!notification.withAttachment() && !sentMails.add(notification.getEmailSubject() + '\n' + notification.getEmailBody())) {
+                    LOG.debug("Skipping duplicate {} notification to {}", notification.getNotificationName(), recipients);
+                    continue;
+                }
+                try {
+                    notificationProvider.sendNotification(notification);
+                } catch (RuntimeException e) {
+                    retry(notification, pending.attempt, pending.authcontext, e);
+                }
+            }
+        });
+    }
+
+    private void retry(EmailNotification notification, int attempt, String authcontext, RuntimeException cause) {
+        int failedAttempts = attempt + 1;
+        if (failedAttempts < maxAttempts) {
+            long delay = retryDelay << Math.min(attempt, MAX_RETRY_DELAY_SHIFT);
+            LOG.warn("{} notification to {} failed (attempt {}), retrying in {} ms", notification.getNotificationName(),
+                    notification.getRecipients(), failedAttempts, delay, cause);
+            emailNotificationProducer.send(notification, failedAttempts, delay, authcontext);
+        } else {
+            LOG.error("{} notification to {} failed (attempt {})", notification.getNotificationName(), notification.getRecipients(), failedAttempts, cause);
+            emailNotificationProducer.sendToDeadLetter(notification, failedAttempts, authcontext);
+        }
+    }
+
+    private static class PendingNotification {
+        private final EmailNotification notification;
+        private final int attempt;
+        private final String authcontext;
+
+        private PendingNotification(EmailNotification notification, int attempt, String authcontext) {
+            this.notification = notification;
+            this.attempt = attempt;
+            this.authcontext = authcontext;
+        }
+    }
+}
@@ -13,6 +13,7 @@
  */
 package eu.europa.ec.leos.services.notification;
 
+import java.io.IOException;
 import java.io.StringWriter;
 import java.util.HashMap;
 import java.util.Map;
@@ -35,6 +36,8 @@ public class FreemarkerNotificationProcessor {
     private String notificationBodyTemplate;
     
     private final Configuration freemarkerConfiguration;
+    // the template is parsed once, a Template can be processed concurrently
+    private volatile Template template;
     
     public FreemarkerNotificationProcessor(Configuration freemarkerConfiguration) {
         this.freemarkerConfiguration = freemarkerConfiguration;
@@ -45,11 +48,10 @@ public class FreemarkerNotificationProcessor {
         String result = new String();
 
         try {
-            Template template = freemarkerConfiguration.getTemplate(notificationBodyTemplate);
             Map<String, Object> attributes = new HashMap<String, Object>();
             attributes.put("notification_name", notification.getNotificationName());
             attributes.put("notification", notification);
-            template.process(attributes, outputWriter);
+            getTemplate().process(attributes, outputWriter);
             result = outputWriter.getBuffer().toString();
         } catch (MalformedTemplateNameException malformedTemplateNameException) {
             throw new RuntimeException("Invalid Template", malformedTemplateNameException);
@@ -62,4 +64,13 @@ public class FreemarkerNotificationProcessor {
         }
         return result;
     }
+
+    private Template getTemplate() throws IOException {
+        Template cachedTemplate = template;
+        if (cachedTemplate == null) {
+            cachedTemplate = freemarkerConfiguration.getTemplate(notificationBodyTemplate);
+            template = cachedTemplate;
+        }
+        return cachedTemplate;
+    }
 }
\ No newline at end of file
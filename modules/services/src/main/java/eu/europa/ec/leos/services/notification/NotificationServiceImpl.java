@@ -15,6 +15,7 @@ package eu.europa.ec.leos.services.notification;
 
 import eu.europa.ec.leos.integration.NotificationProvider;
 import eu.europa.ec.leos.model.notification.EmailNotification;
+import eu.europa.ec.leos.services.messaging.EmailNotificationProducer;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -24,20 +25,22 @@ class NotificationServiceImpl implements NotificationService {
 
     private final NotificationProvider notificationProvider;
     private final EmailNotificationProcessorFactory emailNotificationProcessorFactory;
+    private final EmailNotificationProducer emailNotificationProducer;
 
     @Autowired
     public NotificationServiceImpl(NotificationProvider notificationProvider, 
-            EmailNotificationProcessorFactory emailNotificationProcessorFactory) {
+            EmailNotificationProcessorFactory emailNotificationProcessorFactory, EmailNotificationProducer emailNotificationProducer) {
         this.notificationProvider = notificationProvider;
         this.emailNotificationProcessorFactory = emailNotificationProcessorFactory;
+        this.emailNotificationProducer = emailNotificationProducer;
     }
     
     @Override
     public void sendNotification(EmailNotification emailNotification) {
         EmailNotificationProcessor emailNotificationProcessor = emailNotificationProcessorFactory.getEmailNotificationProcessor(emailNotification);
         if(emailNotificationProcessor != null) {
-            emailNotificationProcessor.process(emailNotification);
-            notificationProvider.sendNotification(emailNotification);    
+            // rendered and sent by the EmailNotificationDispatcher, outside of the user request
+            emailNotificationProducer.send(emailNotification);
         }else {
             throw new RuntimeException("No processor found for this notification!");
         }
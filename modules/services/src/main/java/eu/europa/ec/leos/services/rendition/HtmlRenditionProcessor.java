@@ -14,6 +14,7 @@
 package eu.europa.ec.leos.services.rendition;
 
 import eu.europa.ec.leos.model.rendition.RenderedDocument;
+import eu.europa.ec.leos.services.rendition.RenditionCache.RenditionKey;
 import eu.europa.ec.leos.services.support.xml.freemarker.XmlNodeModelHandler;
 import freemarker.ext.dom.NodeModel;
 import freemarker.template.Configuration;
@@ -37,9 +38,11 @@ public class HtmlRenditionProcessor {
     private String renditionJsTocTemplate;
 
     private final Configuration freemarkerConfiguration;
+    private final RenditionCache renditionCache;
 
-    public HtmlRenditionProcessor(Configuration freemarkerConfiguration) {
+    public HtmlRenditionProcessor(Configuration freemarkerConfiguration, RenditionCache renditionCache) {
         this.freemarkerConfiguration = freemarkerConfiguration;
+        this.renditionCache = renditionCache;
     }
 
     public String processTemplate(RenderedDocument document) {
@@ -47,6 +50,11 @@ public class HtmlRenditionProcessor {
     }
     
     public String processTocTemplate(RenderedDocument document, String tocFile) {
+        final RenditionKey key = RenditionKey.of(document.getVersionId(), renditionTemplate, null, document.getStyleSheetName(), tocFile);
+        return renditionCache.get(key, () -> renderTocTemplate(document, tocFile));
+    }
+
+    private String renderTocTemplate(RenderedDocument document, String tocFile) {
         try{
             final Template template = getTemplate(renditionTemplate);
             final NodeModel nodeModel = XmlNodeModelHandler.parseXmlStream(document.getContent());
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.services.rendition;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.hash.Hashing;
+import eu.europa.ec.leos.security.LeosPermission;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Keeps the HTML produced by the freemarker templates for stored document versions.
+ * The content of a checked-in version never changes, so the rendered output only depends on the version id,
+ * the template and the values passed to the template (context path, user permissions, style sheet...).
+ * The cache is bounded by the number of characters it holds; entries evicted for size are optionally written
+ * to a spill directory on disk and read back from there on the next miss.
+ */
+@Component
+public class RenditionCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RenditionCache.class);
+
+    private static final String SPILL_FILE_EXT = ".html";
+
+    private final Cache<RenditionKey, String> cache;
+    private final Path spillDirectory;
+
+    public RenditionCache(@Value("${leos.rendition.cache.maxChars:50000000}") long maxChars,
+                          @Value("${leos.rendition.cache.spill.path:}") String spillPath) {
+        this.spillDirectory = createSpillDirectory(spillPath);
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxChars)
+                .weigher((RenditionKey key, String html) -> html.length())
+                .removalListener(this::onRemoval)
+                .build();
+    }
+
+    /**
+     * Returns the rendition stored for the given key or computes it with the given loader.
+     * When the key is null the rendition is not cacheable and the loader is always called.
+     */
+    public String get(RenditionKey key, Callable<String> loader) {
+        if (key == null) {
+            return call(loader);
+        }
+        try {
+            return cache.get(key, () -> {
+                String spilled = readSpilled(key);
+                return spilled != null ? spilled : loader.call();
+            });
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Unable to render version " + key.getVersionId(), e.getCause());
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    long size() {
+        return cache.size();
+    }
+
+    private String call(Callable<String> loader) {
+        try {
+            return loader.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void onRemoval(RemovalNotification<RenditionKey, String> notification) {
+        if (spillDirectory != null && notification.getCause() == RemovalCause.SIZE) {
+            Path file = getSpillFile(notification.getKey());
+            try {
+                Files.write(file, notification.getValue().getBytes(UTF_8));
+                LOG.trace("Rendition for version {} spilled to {}", notification.getKey().getVersionId(), file);
+            } catch (IOException e) {
+                LOG.warn("Unable to spill rendition for version {} to disk", notification.getKey().getVersionId(), e);
+            }
+        }
+    }
+
+    private String readSpilled(RenditionKey key) {
+        if (spillDirectory == null) {
+            return null;
+        }
+        Path file = getSpillFile(key);
+        try {
+            if (Files.exists(file)) {
+                String html = new String(Files.readAllBytes(file), UTF_8);
+                Files.deleteIfExists(file);
+                return html;
+            }
+        } catch (IOException e) {
+            LOG.warn("Unable to read spilled rendition for version {}", key.getVersionId(), e);
+        }
+        return null;
+    }
+
+    private Path getSpillFile(RenditionKey key) {
+        return spillDirectory.resolve(Hashing.sha256().hashString(key.toString(), UTF_8).toString() + SPILL_FILE_EXT);
+    }
+
+    private static Path createSpillDirectory(String spillPath) {
+        if (spillPath == null || spillPath.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            Path directory = Files.createDirectories(Paths.get(spillPath.trim()));
+            // spilled renditions of a previous run are not trusted, the cache always starts empty
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(file -> file.toString().endsWith(SPILL_FILE_EXT)).forEach(file -> file.toFile().delete());
+            }
+            return directory;
+        } catch (IOException e) {
+            LOG.warn("Rendition cache spill directory {} is not usable, spilling to disk is disabled", spillPath, e);
+            return null;
+        }
+    }
+
+    public static class RenditionKey {
+        private final String versionId;
+        private final String templateName;
+        private final String fingerprint;
+
+        private RenditionKey(String versionId, String templateName, String fingerprint) {
+            this.versionId = versionId;
+            this.templateName = templateName;
+            this.fingerprint = fingerprint;
+        }
+
+        /**
+         * Builds the key of a rendition. The variant values are all the other inputs of the template
+         * (context path, style sheet name, toc file...), they are part of the fingerprint together with the permissions.
+         */
+        public static RenditionKey of(String versionId, String templateName, List<LeosPermission> permissions, String... variant) {
+            if (versionId == null || templateName == null) {
+                return null;
+            }
+            String permissionsFingerprint = permissions == null ? "" : permissions.stream()
+                    .map(Enum::name)
+                    .sorted()
+                    .distinct()
+                    .collect(Collectors.joining(","));
+            return new RenditionKey(versionId, templateName, permissionsFingerprint + "|" + String.join("|", Stream.of(variant)
+                    .map(value -> value == null ? "" : value)
+                    .collect(Collectors.toList())));
+        }
+
+        public String getVersionId() {
+            return versionId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            RenditionKey that = (RenditionKey) o;
+            return versionId.equals(that.versionId) &&
+                    templateName.equals(that.templateName) &&
+                    fingerprint.equals(that.fingerprint);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(versionId, templateName, fingerprint);
+        }
+
+        @Override
+        public String toString() {
+            return versionId + "|" + templateName + "|" + fingerprint;
+        }
+    }
+}
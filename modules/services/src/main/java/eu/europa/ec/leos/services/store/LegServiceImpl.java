@@ -739,6 +739,7 @@ public class LegServiceImpl implements LegService {
             RenderedDocument htmlDocument = new RenderedDocument();
             htmlDocument.setContent(new ByteArrayInputStream(getContent(xmlDocument)));
             htmlDocument.setStyleSheetName(styleSheetName);
+            htmlDocument.setVersionId(xmlDocument.getId());
             String htmlName = HTML_RENDITION + xmlDocument.getName().replaceAll(".xml", ".html");
             contentToZip.put(htmlName, htmlRenditionProcessor.processTemplate(htmlDocument).getBytes("UTF-8"));
         } catch (UnsupportedEncodingException exception) {
@@ -758,6 +759,7 @@ public class LegServiceImpl implements LegService {
             tocHtmlDocument = new RenderedDocument();
             tocHtmlDocument.setContent(new ByteArrayInputStream(getContent(xmlDocument)));
             tocHtmlDocument.setStyleSheetName(styleSheetName);
+            tocHtmlDocument.setVersionId(xmlDocument.getId());
             String tocHtmlFile = HTML_RENDITION + xmlDocument.getName();
             tocHtmlFile = tocHtmlFile.substring(0, tocHtmlFile.indexOf(".xml")) + "_toc" + ".html";
             contentToZip.put(tocHtmlFile, htmlRenditionProcessor.processTocTemplate(tocHtmlDocument, tocJsName).getBytes("UTF-8"));
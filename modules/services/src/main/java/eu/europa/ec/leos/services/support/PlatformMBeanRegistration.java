@@ -0,0 +1,65 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.services.support;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Registers a bean under its name on the platform MBean server, replacing the bean left by a previous deployment
+ * of the application. A bean that cannot be registered is only logged, the application works without it.
+ */
+public class PlatformMBeanRegistration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PlatformMBeanRegistration.class);
+
+    private final Object mbean;
+    private final String name;
+    private ObjectName objectName;
+
+    public PlatformMBeanRegistration(Object mbean, String name) {
+        this.mbean = mbean;
+        this.name = name;
+    }
+
+    public void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            objectName = new ObjectName(name);
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(mbean, objectName);
+        } catch (JMException e) {
+            LOG.warn("Unable to register the MBean {}", name, e);
+            objectName = null;
+        }
+    }
+
+    public void unregister() {
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (JMException e) {
+                LOG.debug("Unable to unregister the MBean {}", name, e);
+            }
+            objectName = null;
+        }
+    }
+}
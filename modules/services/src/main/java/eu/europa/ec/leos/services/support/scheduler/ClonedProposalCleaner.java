@@ -0,0 +1,163 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.services.support.scheduler;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import eu.europa.ec.leos.domain.cmis.LeosPackage;
+import eu.europa.ec.leos.services.store.PackageService;
+import eu.europa.ec.leos.services.support.PlatformMBeanRegistration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes the packages of the orphan cloned proposals in the background, on a bounded pool of workers.
+ * <p>
+ * The deletions are throttled to {@code leos.delete.clone.proposal.rate} per second so that removing a large backlog
+ * does not load the repository at the expense of the users. A proposal already waiting or being deleted is not
+ * submitted twice, and the proposals which do not fit in the queue are left for the next scan. The backlog, the
+ * counters and the durations are exposed under {@value #OBJECT_NAME}.
+ */
+@Component
+public class ClonedProposalCleaner implements ClonedProposalCleanerMBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClonedProposalCleaner.class);
+
+    static final String OBJECT_NAME = "eu.europa.ec.leos:type=ClonedProposalCleaner";
+
+    private final PackageService packageService;
+    private final ThreadPoolExecutor executor;
+    private final RateLimiter rateLimiter;
+
+    private final Set<String> pendingIds = ConcurrentHashMap.newKeySet();
+    private final AtomicLong deletedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong deletionNanos = new AtomicLong();
+    private volatile long lastScanMillis;
+    private volatile int lastScanCount;
+
+    private final PlatformMBeanRegistration registration = new PlatformMBeanRegistration(this, OBJECT_NAME);
+
+    @Autowired
+    public ClonedProposalCleaner(PackageService packageService,
+                                 @Value("${leos.delete.clone.proposal.workers:2}") int workers,
+                                 @Value("${leos.delete.clone.proposal.queue.capacity:1000}") int queueCapacity,
+                                 @Value("${leos.delete.clone.proposal.rate:2}") double deletionsPerSecond) {
+        this.packageService = packageService;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new ThreadFactoryBuilder().setNameFormat("leos-clone-cleaner-%d").setDaemon(true).build());
+        this.rateLimiter = RateLimiter.create(deletionsPerSecond);
+    }
+
+    @PostConstruct
+    public void register() {
+        registration.register();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        registration.unregister();
+    }
+
+    /**
+     * Queues the deletion of the given proposals.
+     *
+     * @param proposalIds the ids of the orphan cloned proposals found by the last scan
+     * @param scanMillis the duration of the scan
+     * @return the number of proposals queued, the others are already queued or did not fit in the queue
+     */
+    public int submit(Collection<String> proposalIds, long scanMillis) {
+        lastScanMillis = scanMillis;
+        lastScanCount = proposalIds.size();
+        int submitted = 0;
+        for (String proposalId : proposalIds) {
+            if (!pendingIds.add(proposalId)) {
+                continue;
+            }
+            try {
+                executor.execute(() -> delete(proposalId));
+                submitted++;
+            } catch (RejectedExecutionException e) {
+                pendingIds.remove(proposalId);
+                LOG.info("Cloned proposal deletion queue is full, {} proposals left for the next run", proposalIds.size() - submitted);
+                break;
+            }
+        }
+        return submitted;
+    }
+
+    private void delete(String proposalId) {
+        try {
+            rateLimiter.acquire();
+            long startNanos = System.nanoTime();
+            LeosPackage leosPackage = packageService.findPackageByDocumentId(proposalId);
+            packageService.deletePackage(leosPackage);
+            deletionNanos.addAndGet(System.nanoTime() - startNanos);
+            deletedCount.incrementAndGet();
+            LOG.debug("Deleted cloned proposal {}", proposalId);
+        } catch (Exception e) {
+            failedCount.incrementAndGet();
+            LOG.error("Error deleting the cloned proposal {} from the cron task", proposalId, e);
+        } finally {
+            pendingIds.remove(proposalId);
+        }
+    }
+
+    @Override
+    public int getBacklog() {
+        return pendingIds.size();
+    }
+
+    @Override
+    public long getDeletedCount() {
+        return deletedCount.get();
+    }
+
+    @Override
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    @Override
+    public long getAverageDeletionMillis() {
+        long deleted = deletedCount.get();
+        return deleted == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(deletionNanos.get() / deleted);
+    }
+
+    @Override
+    public long getLastScanMillis() {
+        return lastScanMillis;
+    }
+
+    @Override
+    public int getLastScanCount() {
+        return lastScanCount;
+    }
+}
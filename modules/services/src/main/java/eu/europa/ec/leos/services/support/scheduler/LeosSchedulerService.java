@@ -13,48 +13,39 @@
  */
 package eu.europa.ec.leos.services.support.scheduler;
 
-import eu.europa.ec.leos.domain.cmis.document.Proposal;
-import eu.europa.ec.leos.services.collection.CollectionContextService;
-import eu.europa.ec.leos.services.store.WorkspaceService;
-import org.apache.commons.lang.StringUtils;
+import com.google.common.base.Stopwatch;
+import eu.europa.ec.leos.services.document.ProposalService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import javax.inject.Provider;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class LeosSchedulerService {
     private static final Logger LOG = LoggerFactory.getLogger(LeosSchedulerService.class);
 
-    private final WorkspaceService workspaceService;
-    private final Provider<CollectionContextService> proposalContextProvider;
+    private final ProposalService proposalService;
+    private final ClonedProposalCleaner clonedProposalCleaner;
 
     @Autowired
-    public LeosSchedulerService(WorkspaceService workspaceService, Provider<CollectionContextService> proposalContextProvider) {
-        this.workspaceService = workspaceService;
-        this.proposalContextProvider = proposalContextProvider;
+    public LeosSchedulerService(ProposalService proposalService, ClonedProposalCleaner clonedProposalCleaner) {
+        this.proposalService = proposalService;
+        this.clonedProposalCleaner = clonedProposalCleaner;
     }
 
     @Scheduled(cron = "#{applicationProperties['leos.delete.clone.proposal.cron.schedule']}")
     public void deleteCloneCronTask() {
         try {
             LOG.info("Deleting cloned proposals using cron task....");
-            List<Proposal> proposals = workspaceService.browseWorkspace(Proposal.class, false);
-            CollectionContextService context = proposalContextProvider.get();
-            proposals.forEach(proposal -> {
-                if (proposal.isClonedProposal() && StringUtils.isEmpty(proposal.getClonedFrom())) {
-                    context.useProposal(proposal);
-                    try {
-                        context.executeDeleteProposal();
-                    } catch (Exception e) {
-                        LOG.error("Error deleting the cloned proposal from the cron task", e);
-                    }
-                }
-            });
+            Stopwatch stopwatch = Stopwatch.createStarted();
+            List<String> proposalIds = proposalService.findOrphanClonedProposalIds();
+            long scanMillis = stopwatch.elapsed(TimeUnit.MILLISECONDS);
+            int submitted = clonedProposalCleaner.submit(proposalIds, scanMillis);
+            LOG.info("Found {} cloned proposals to delete in {} ms, {} queued for deletion", proposalIds.size(), scanMillis, submitted);
         } catch (Exception ex) {
             LOG.error("Unable to connect to CMIS repo", ex);
         }
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.services.support.xml.freemarker;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import javax.annotation.Nonnull;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+
+/**
+ * Builds the complete DOM wrapped by the freemarker node model from a StAX reader.
+ * <p>
+ * The templates navigate the whole document, so the tree is still fully built in memory; what changes compared to
+ * {@link freemarker.ext.dom.NodeModel#parse(org.xml.sax.InputSource)} is how it is built. Comments and processing
+ * instructions are skipped and adjacent text and CDATA are merged into one text node while reading, so the tree is
+ * already simplified and no second pass over it is needed. The document is built without the deferred node expansion
+ * of the default DOM parser, which otherwise keeps both the deferred tables and the expanded nodes in memory once the
+ * templates have visited the whole document.
+ */
+class StaxNodeModelBuilder {
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+    private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY = DocumentBuilderFactory.newInstance();
+
+    static {
+        DOCUMENT_BUILDER_FACTORY.setNamespaceAware(true);
+    }
+
+    private StaxNodeModelBuilder() {
+    }
+
+    static @Nonnull Document build(@Nonnull InputStream inStream) throws XMLStreamException, ParserConfigurationException {
+        return build(INPUT_FACTORY.createXMLStreamReader(inStream));
+    }
+
+    private static Document build(XMLStreamReader reader) throws XMLStreamException, ParserConfigurationException {
+        final Document document;
+        synchronized (DOCUMENT_BUILDER_FACTORY) {
+            document = DOCUMENT_BUILDER_FACTORY.newDocumentBuilder().newDocument();
+        }
+        try {
+            Node current = document;
+            StringBuilder text = new StringBuilder();
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        flushText(document, current, text);
+                        current = current.appendChild(createElement(document, reader));
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        flushText(document, current, text);
+                        current = current.getParentNode();
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        if (current != document) {
+                            text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                        }
+                        break;
+                    default:
+                        // comments, processing instructions and the document type are dropped as NodeModel.simplify() does
+                        break;
+                }
+            }
+            return document;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static Element createElement(Document document, XMLStreamReader reader) {
+        final Element element = document.createElementNS(emptyToNull(reader.getNamespaceURI()), qualifiedName(reader.getPrefix(), reader.getLocalName()));
+        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+            String prefix = reader.getNamespacePrefix(i);
+            String name = prefix == null || prefix.isEmpty() ? XMLConstants.XMLNS_ATTRIBUTE : XMLConstants.XMLNS_ATTRIBUTE + ":" + prefix;
+            element.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, name, reader.getNamespaceURI(i));
+        }
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            element.setAttributeNS(emptyToNull(reader.getAttributeNamespace(i)),
+                    qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)),
+                    reader.getAttributeValue(i));
+        }
+        return element;
+    }
+
+    private static void flushText(Document document, Node current, StringBuilder text) {
+        if (text.length() > 0) {
+            current.appendChild(document.createTextNode(text.toString()));
+            text.setLength(0);
+        }
+    }
+
+    private static String qualifiedName(String prefix, String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        return factory;
+    }
+}
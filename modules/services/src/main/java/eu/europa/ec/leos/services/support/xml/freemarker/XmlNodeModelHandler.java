@@ -38,6 +38,24 @@ public class XmlNodeModelHandler {
         return parseInputSource(new InputSource(new StringReader(xml)));
     }
 
+    /**
+     * Same node model as {@link #parseXmlStream(InputStream)}, built from a StAX reader into a
+     * complete DOM without deferred node expansion and without the separate simplification pass.
+     */
+    public static @Nonnull NodeModel parseXmlStreamWithStax(@Nonnull final InputStream inStream) throws Exception {
+        LOG.trace("Reading XML with StAX into FreeMarker node model...");
+        try {
+            return NodeModel.wrap(StaxNodeModelBuilder.build(inStream));
+        } catch (Exception ex) {
+            LOG.error("Exception when reading XML with StAX into FreeMarker node model!", ex);
+            throw ex;
+        }
+    }
+
+    public static @Nonnull NodeModel parseXmlStream(@Nonnull final InputStream inStream, boolean stax) throws Exception {
+        return stax ? parseXmlStreamWithStax(inStream) : parseXmlStream(inStream);
+    }
+
     private static @Nonnull NodeModel parseInputSource(@Nonnull final InputSource inputSource) throws Exception {
         try {
             return NodeModel.parse(inputSource);
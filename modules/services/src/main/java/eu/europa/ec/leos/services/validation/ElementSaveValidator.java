@@ -0,0 +1,131 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.services.validation;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import eu.europa.ec.leos.domain.vo.ErrorVO;
+import eu.europa.ec.leos.services.validation.handlers.AkomantosoXsdValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Validates the element modified by a save against the Akoma Ntoso schema.
+ * <p>
+ * Only the subtree of the element is validated. The result is waited for at most the configured budget: large
+ * fragments, or validations not finished in time, go on in the background and their errors are only logged, the
+ * whole document being validated asynchronously after the save anyway.
+ * Depending on the mode, errors found in time are logged ({@code log}) or make the save fail ({@code reject}).
+ */
+@Component
+public class ElementSaveValidator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ElementSaveValidator.class);
+
+    static final String MODE_OFF = "off";
+    static final String MODE_LOG = "log";
+    static final String MODE_REJECT = "reject";
+
+    private final AkomantosoXsdValidator akomantosoXsdValidator;
+    private final String mode;
+    private final long budgetMillis;
+    private final int maxSyncFragmentLength;
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public ElementSaveValidator(AkomantosoXsdValidator akomantosoXsdValidator,
+                                @Value("${leos.validation.save.mode:off}") String mode,
+                                @Value("${leos.validation.save.budget.ms:150}") long budgetMillis,
+                                @Value("${leos.validation.save.maxSyncFragmentLength:200000}") int maxSyncFragmentLength) {
+        this.akomantosoXsdValidator = akomantosoXsdValidator;
+        this.mode = mode.trim().toLowerCase();
+        this.budgetMillis = budgetMillis;
+        this.maxSyncFragmentLength = maxSyncFragmentLength;
+        int threads = Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(threads * 16),
+                new ThreadFactoryBuilder().setNameFormat("element-xsd-validation-%d").setDaemon(true).build());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return !MODE_OFF.equals(mode);
+    }
+
+    /**
+     * @param xmlContent the document content after the update
+     * @param elementId the xml:id of the updated element
+     * @param fragmentLength the length of the updated element content, used to avoid waiting for big fragments
+     * @throws IllegalArgumentException in reject mode, when the element is not valid
+     */
+    public void validate(byte[] xmlContent, String elementId, int fragmentLength) {
+        if (!isEnabled() || xmlContent == null || elementId == null) {
+            return;
+        }
+        final Future<List<ErrorVO>> validation;
+        try {
+            validation = executor.submit(() -> validateElement(xmlContent, elementId));
+        } catch (RejectedExecutionException e) {
+            LOG.debug("Too many element validations pending, validation of element {} skipped", elementId);
+            return;
+        }
+        if (fragmentLength > maxSyncFragmentLength) {
+            LOG.debug("Element {} of {} characters validated in the background", elementId, fragmentLength);
+            return;
+        }
+        final List<ErrorVO> errors;
+        try {
+            errors = validation.get(budgetMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            LOG.debug("Validation of element {} not finished in {}ms, going on in the background", elementId, budgetMillis);
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            LOG.warn("Validation of element {} failed", elementId, e.getCause());
+            return;
+        }
+        if (!errors.isEmpty() && MODE_REJECT.equals(mode)) {
+            throw new IllegalArgumentException(errors.stream()
+                    .map(ErrorVO::toString)
+                    .collect(Collectors.joining("\n")));
+        }
+    }
+
+    private List<ErrorVO> validateElement(byte[] xmlContent, String elementId) {
+        final List<ErrorVO> errors = new ArrayList<>();
+        akomantosoXsdValidator.validateElement(xmlContent, elementId, errors);
+        errors.forEach(error -> LOG.warn("Validation issue found with element {} - {}", elementId, error));
+        return errors;
+    }
+}
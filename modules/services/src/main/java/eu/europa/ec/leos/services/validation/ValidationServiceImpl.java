@@ -13,6 +13,7 @@
  */
 package eu.europa.ec.leos.services.validation;
 
+import com.google.common.base.Stopwatch;
 import eu.europa.ec.leos.domain.common.ErrorCode;
 import eu.europa.ec.leos.domain.vo.DocumentVO;
 import eu.europa.ec.leos.domain.vo.ErrorVO;
@@ -29,6 +30,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Service
 class ValidationServiceImpl implements ValidationService {
@@ -50,6 +52,7 @@ class ValidationServiceImpl implements ValidationService {
         Validate.notNull(documentVO.getId(), "Document id is required!");
         Validate.notNull(documentVO.getDocumentType(), "Document type is required!");
         final List<ErrorVO> result = new ArrayList<>();
+        final Stopwatch stopwatch = Stopwatch.createStarted();
         try {
             validatorFactory
                     .getValidationChain(documentVO)
@@ -58,7 +61,7 @@ class ValidationServiceImpl implements ValidationService {
             LOG.error("Validation chain ended with error", ex);
             result.add(new ErrorVO(ErrorCode.EXCEPTION, documentVO.getId(), ex.getMessage()));
         }
-        LOG.debug("Validation found {} issues with document", result.size());
+        LOG.debug("Validation found {} issues with document in {}ms", result.size(), stopwatch.elapsed(TimeUnit.MILLISECONDS));
         return result;
     }
 
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.services.validation;
+
+import eu.europa.ec.leos.services.support.PlatformMBeanRegistration;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the time spent in each validation handler since the application started or the last reset. The
+ * statistics are exposed under {@value #OBJECT_NAME}.
+ */
+@Component
+public class ValidationStatistics implements ValidationStatisticsMBean {
+
+    static final String OBJECT_NAME = "eu.europa.ec.leos:type=ValidationStatistics";
+
+    private final Map<String, HandlerStatistics> handlers = new ConcurrentHashMap<>();
+
+    private final PlatformMBeanRegistration registration = new PlatformMBeanRegistration(this, OBJECT_NAME);
+
+    @PostConstruct
+    public void register() {
+        registration.register();
+    }
+
+    @PreDestroy
+    public void unregister() {
+        registration.unregister();
+    }
+
+    public void record(String handlerName, long elapsedNanos) {
+        handlers.computeIfAbsent(handlerName, name -> new HandlerStatistics()).add(elapsedNanos);
+    }
+
+    /**
+     * @return the statistics of every handler that ran at least once, by handler name
+     */
+    public Map<String, HandlerStatistics> getHandlerStatistics() {
+        return Collections.unmodifiableMap(new TreeMap<>(handlers));
+    }
+
+    @Override
+    public String[] getHandlers() {
+        return getHandlerStatistics().entrySet().stream()
+                .map(entry -> entry.getKey() + ": " + entry.getValue())
+                .toArray(String[]::new);
+    }
+
+    @Override
+    public void reset() {
+        handlers.clear();
+    }
+
+    public static class HandlerStatistics {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0L);
+
+        private void add(long elapsedNanos) {
+            count.increment();
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulate(elapsedNanos);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(totalNanos.sum());
+        }
+
+        public long getMaxMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+        }
+
+        public long getAverageMillis() {
+            long executions = count.sum();
+            return executions == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos.sum() / executions);
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + getCount() + ", total=" + getTotalMillis() + "ms, avg=" + getAverageMillis() + "ms, max=" + getMaxMillis() + "ms";
+        }
+    }
+}
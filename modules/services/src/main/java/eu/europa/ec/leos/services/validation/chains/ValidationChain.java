@@ -16,19 +16,26 @@ package eu.europa.ec.leos.services.validation.chains;
 import eu.europa.ec.leos.domain.common.ErrorCode;
 import eu.europa.ec.leos.domain.vo.DocumentVO;
 import eu.europa.ec.leos.domain.vo.ErrorVO;
+import eu.europa.ec.leos.services.validation.ValidationStatistics;
 import eu.europa.ec.leos.services.validation.handlers.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.util.ClassUtils;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.concurrent.TimeUnit;
 
 public abstract class ValidationChain implements Validator {
 
     private static final Logger LOG = LoggerFactory.getLogger(ValidationChain.class);
     protected final List<Validator> chain = new ArrayList<>();
 
+    @Autowired(required = false)
+    private ValidationStatistics validationStatistics;
+
     @Override
     public void validate(DocumentVO documentVO, List<ErrorVO> result) {
         final ListIterator<Validator> chainIterator = chain.listIterator();
@@ -38,12 +45,18 @@ public abstract class ValidationChain implements Validator {
 
         while (chainIterator.hasNext()) {
             Validator handler = chainIterator.next();
+            long start = System.nanoTime();
             try {
                 handler.validate(documentVO, result);
-                LOG.trace("Handler:{} finished for {} ", handler.getClass().getSimpleName(), documentVO.getDocumentType());
+                LOG.trace("Handler:{} finished for {} in {}ms", handler.getClass().getSimpleName(), documentVO.getDocumentType(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
             } catch (Exception ex) {
                 LOG.error("Handler:{} error for {}", handler.getClass(), documentVO.getDocumentType(), ex);
                 result.add(new ErrorVO(ErrorCode.EXCEPTION, documentVO.getId(), ex.getMessage()));
+            } finally {
+                if (validationStatistics != null) {
+                    validationStatistics.record(ClassUtils.getUserClass(handler).getSimpleName(), System.nanoTime() - start);
+                }
             }
         }
     }
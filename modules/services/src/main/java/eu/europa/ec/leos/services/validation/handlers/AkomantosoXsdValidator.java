@@ -32,13 +32,21 @@ import org.xml.sax.SAXParseException;
 
 import javax.annotation.PostConstruct;
 import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.stax.StAXSource;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
 import javax.xml.validation.SchemaFactory;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 @Component
@@ -51,7 +59,16 @@ public class AkomantosoXsdValidator implements Validator {
     @Value("${leos.schema.akomantoso.name:akomantoso30.xsd}")
     private String SCHEMA_NAME;
 
+    // error reported when the validated element has no global declaration in the schema
+    private static final String UNDECLARED_ROOT_ERROR = "cvc-elt.1";
+    private static final XMLInputFactory STAX_INPUT_FACTORY = createStaxInputFactory();
+
+    // javax.xml.validation.Validator is not thread safe, idle instances are kept here to be reused by the next validation
+    @Value("${leos.validation.xsd.pool.size:0}")
+    private int poolSize;
+
     private Schema schema;
+    private BlockingQueue<javax.xml.validation.Validator> validatorPool;
 
     @PostConstruct
     public void initXSD() throws Exception {
@@ -73,19 +90,22 @@ public class AkomantosoXsdValidator implements Validator {
             });
 
             schema = factory.newSchema(new StreamSource(resource.getInputStream()));
+            validatorPool = new ArrayBlockingQueue<>(poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors());
         } finally {
             LOG.trace("XSD loaded in {}ms", stopwatch.elapsed(TimeUnit.MILLISECONDS));
         }
     }
     
     public boolean validate(byte[] xmlContent) {
-        javax.xml.validation.Validator validator = schema.newValidator();
+        javax.xml.validation.Validator validator = borrowValidator();
         StreamSource source = new StreamSource(new ByteArrayInputStream(xmlContent));
         try {
             validator.validate(source);
         } catch (Exception e) {
             LOG.error("Validation failed for the given bytes! Exception: ", e);
             return false;
+        } finally {
+            releaseValidator(validator);
         }
         return true;
     }
@@ -93,9 +113,9 @@ public class AkomantosoXsdValidator implements Validator {
     @Override
     public void validate(DocumentVO documentVO, final List<ErrorVO> result) {
         Stopwatch stopwatch = Stopwatch.createStarted();
+        javax.xml.validation.Validator validator = borrowValidator();
         try {
             String key = documentVO.getId() != null ? documentVO.getId() : documentVO.getDocumentType().toString();
-            javax.xml.validation.Validator validator = schema.newValidator();
             validator.setErrorHandler(new XsdErrorHandler(result, key));
             StreamSource source = new StreamSource(new ByteArrayInputStream(documentVO.getSource()));
             validator.validate(source);
@@ -105,10 +125,90 @@ public class AkomantosoXsdValidator implements Validator {
             LOG.error("Exception occurred", e);
             result.add(new ErrorVO(ErrorCode.EXCEPTION, documentVO.getId(), e.getMessage()));
         } finally {
+            releaseValidator(validator);
             LOG.debug("xml validated with xsd in {}ms", stopwatch.elapsed(TimeUnit.MILLISECONDS));
         }
     }
 
+    /**
+     * Validates only the subtree of the element with the given xml:id, reading the document as a stream up to the end of the element.
+     * Elements only declared locally in the schema cannot be validated on their own, they are reported as not validated.
+     *
+     * @return false when the element was not found or cannot be validated on its own, true otherwise
+     */
+    public boolean validateElement(byte[] xmlContent, String elementId, final List<ErrorVO> result) {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        javax.xml.validation.Validator validator = borrowValidator();
+        XMLStreamReader reader = null;
+        final List<ErrorVO> elementErrors = new ArrayList<>();
+        try {
+            reader = STAX_INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(xmlContent));
+            if (!moveToElement(reader, elementId)) {
+                LOG.debug("Element {} not found, xsd validation skipped", elementId);
+                return false;
+            }
+            validator.setErrorHandler(new XsdErrorHandler(elementErrors, elementId));
+            validator.validate(new StAXSource(reader));
+        } catch (Exception e) {
+            // fatal errors are already added to the element errors by the error handler
+            LOG.trace("Xsd validation of element {} stopped", elementId, e);
+        } finally {
+            releaseValidator(validator);
+            closeQuietly(reader);
+            LOG.debug("Element {} validated with xsd in {}ms", elementId, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+        }
+        if (!elementErrors.isEmpty() && elementErrors.get(0).toString().contains(UNDECLARED_ROOT_ERROR)) {
+            LOG.debug("Element {} is not a global element of the schema, xsd validation skipped", elementId);
+            return false;
+        }
+        result.addAll(elementErrors);
+        return true;
+    }
+
+    private static boolean moveToElement(XMLStreamReader reader, String elementId) throws XMLStreamException {
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT
+                    && elementId.equals(reader.getAttributeValue(XMLConstants.XML_NS_URI, "id"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void closeQuietly(XMLStreamReader reader) {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                LOG.trace("Unable to close the xml stream", e);
+            }
+        }
+    }
+
+    private javax.xml.validation.Validator borrowValidator() {
+        javax.xml.validation.Validator validator = validatorPool.poll();
+        return validator != null ? validator : schema.newValidator();
+    }
+
+    private void releaseValidator(javax.xml.validation.Validator validator) {
+        try {
+            validator.reset();
+            validator.setErrorHandler(null);
+            // when the pool is full the validator is simply dropped
+            validatorPool.offer(validator);
+        } catch (Exception e) {
+            LOG.warn("Unable to reset the xsd validator, it is not reused", e);
+        }
+    }
+
+    private static XMLInputFactory createStaxInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        return factory;
+    }
+
     public class XsdErrorHandler implements ErrorHandler {
         private List<ErrorVO> result;
         private String key;
@@ -17,26 +17,68 @@ import eu.europa.ec.leos.domain.vo.DocumentVO;
 import eu.europa.ec.leos.domain.vo.ErrorVO;
 import eu.europa.ec.leos.services.validation.ValidatorFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
 
+/**
+ * Validates the child documents with their own chain. Child documents are independent from each other, so they are
+ * validated in parallel; the errors are reported in the order of the children whatever the order they are found in.
+ */
 @Component
 public class ChildrenValidator implements Validator {
 
     @Autowired
     private ApplicationContext applicationContext;
 
+    @Value("${leos.validation.parallelism:0}")
+    private int parallelism;
+
+    // work stealing pool, a child validating its own children waits for them without blocking a worker
+    private ForkJoinPool validationPool;
+
+    @PostConstruct
+    void initPool() {
+        validationPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdownPool() {
+        validationPool.shutdownNow();
+    }
+
     @Override
     public void validate(DocumentVO documentVO, final List<ErrorVO> result) {
         ValidatorFactory validatorFactory = applicationContext.getBean(ValidatorFactory.class);
-        if (documentVO.getChildDocuments() != null) {
-            for (DocumentVO child : documentVO.getChildDocuments()) {
-                validatorFactory
-                        .getValidationChain(child)
-                        .validate(child, result);
-            }
+        if (documentVO.getChildDocuments() == null || documentVO.getChildDocuments().isEmpty()) {
+            return;
+        }
+        List<ForkJoinTask<List<ErrorVO>>> tasks = documentVO.getChildDocuments().stream()
+                .map(child -> ForkJoinTask.adapt(new DelegatingSecurityContextCallable<>(() -> {
+                    List<ErrorVO> childResult = new ArrayList<>();
+                    validatorFactory
+                            .getValidationChain(child)
+                            .validate(child, childResult);
+                    return childResult;
+                })))
+                .collect(Collectors.toList());
+
+        if (ForkJoinTask.getPool() == validationPool) {
+            ForkJoinTask.invokeAll(tasks);
+        } else {
+            validationPool.invoke(ForkJoinTask.adapt(() -> {
+                ForkJoinTask.invokeAll(tasks);
+            }));
         }
+        tasks.forEach(task -> result.addAll(task.join()));
     }
 }
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.services.collection;
+
+import eu.europa.ec.leos.domain.cmis.LeosPackage;
+import eu.europa.ec.leos.domain.cmis.common.VersionType;
+import eu.europa.ec.leos.domain.cmis.document.Annex;
+import eu.europa.ec.leos.domain.cmis.document.Bill;
+import eu.europa.ec.leos.domain.cmis.document.Proposal;
+import eu.europa.ec.leos.domain.cmis.metadata.BillMetadata;
+import eu.europa.ec.leos.domain.cmis.metadata.ProposalMetadata;
+import eu.europa.ec.leos.services.document.AnnexService;
+import eu.europa.ec.leos.services.document.BillService;
+import eu.europa.ec.leos.services.document.MemorandumService;
+import eu.europa.ec.leos.services.document.ProposalService;
+import eu.europa.ec.leos.services.store.PackageService;
+import io.atlassian.fugue.Option;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ProposalMetadataUpdateServiceImplTest {
+
+    private static final String PACKAGE_PATH = "/package";
+
+    @Mock
+    private PackageService packageService;
+    @Mock
+    private ProposalService proposalService;
+    @Mock
+    private MemorandumService memorandumService;
+    @Mock
+    private BillService billService;
+    @Mock
+    private AnnexService annexService;
+
+    private ProposalMetadataUpdateService metadataUpdateService;
+
+    private Proposal proposal;
+    private Bill bill;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        metadataUpdateService = new ProposalMetadataUpdateServiceImpl(packageService, proposalService, memorandumService,
+                billService, annexService, Runnable::run, 2);
+
+        proposal = createProposal("proposal", "old purpose");
+        bill = createBill("bill", "old purpose");
+        when(packageService.findPackageByDocumentId("proposal")).thenReturn(new LeosPackage("package", "package", PACKAGE_PATH));
+        when(packageService.findDocumentsByPackagePath(PACKAGE_PATH, Annex.class, false)).thenReturn(Collections.emptyList());
+        when(memorandumService.findMemorandumByPackagePath(PACKAGE_PATH)).thenReturn(null);
+        when(billService.findBillByPackagePath(PACKAGE_PATH)).thenReturn(bill);
+    }
+
+    @Test
+    public void test_updatePurpose_updatesAllDocuments() throws Exception {
+        Proposal updatedProposal = createProposal("proposal", "new purpose");
+        when(proposalService.updateProposal(eq(proposal), any(), eq(VersionType.MINOR), eq("proposal comment"))).thenReturn(updatedProposal);
+        when(billService.updateBill(eq(bill), any(), eq(VersionType.MINOR), eq("document comment"))).thenReturn(createBill("bill", "new purpose"));
+        List<Integer> progress = new ArrayList<>();
+
+        CompletableFuture<Proposal> result = metadataUpdateService.updatePurpose(proposal, "new purpose", "proposal comment",
+                "document comment", "restore comment", (completed, total) -> progress.add(completed * 10 + total));
+
+        assertSame(updatedProposal, result.get());
+        ArgumentCaptor<ProposalMetadata> proposalMetadata = ArgumentCaptor.forClass(ProposalMetadata.class);
+        verify(proposalService).updateProposal(eq(proposal), proposalMetadata.capture(), eq(VersionType.MINOR), eq("proposal comment"));
+        assertEquals("new purpose", proposalMetadata.getValue().getPurpose());
+        ArgumentCaptor<BillMetadata> billMetadata = ArgumentCaptor.forClass(BillMetadata.class);
+        verify(billService).updateBill(eq(bill), billMetadata.capture(), eq(VersionType.MINOR), eq("document comment"));
+        assertEquals("new purpose", billMetadata.getValue().getPurpose());
+        assertEquals("[12, 22]", progress.toString());
+    }
+
+    @Test
+    public void test_updatePurpose_restoresUpdatedDocumentsOnFailure() throws Exception {
+        Proposal updatedProposal = createProposal("proposal", "new purpose");
+        Proposal latestProposal = createProposal("proposal", "new purpose");
+        when(proposalService.updateProposal(eq(proposal), any(), eq(VersionType.MINOR), eq("proposal comment"))).thenReturn(updatedProposal);
+        when(proposalService.findProposal("proposal")).thenReturn(latestProposal);
+        when(billService.updateBill(eq(bill), any(), eq(VersionType.MINOR), eq("document comment"))).thenThrow(new IllegalStateException("repository error"));
+
+        CompletableFuture<Proposal> result = metadataUpdateService.updatePurpose(proposal, "new purpose", "proposal comment",
+                "document comment", "restore comment", null);
+
+        try {
+            result.get();
+            fail("The update should have failed");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        ArgumentCaptor<ProposalMetadata> restoredMetadata = ArgumentCaptor.forClass(ProposalMetadata.class);
+        verify(proposalService).updateProposal(eq(latestProposal), restoredMetadata.capture(), eq(VersionType.MINOR), eq("restore comment"));
+        assertEquals("old purpose", restoredMetadata.getValue().getPurpose());
+    }
+
+    @Test
+    public void test_updatePurpose_nothingUpdatedWhenLoadingFails() {
+        when(billService.findBillByPackagePath(PACKAGE_PATH)).thenThrow(new IllegalStateException("repository error"));
+
+        CompletableFuture<Proposal> result = metadataUpdateService.updatePurpose(proposal, "new purpose", "proposal comment",
+                "document comment", "restore comment", null);
+
+        assertTrue(result.isCompletedExceptionally());
+        verify(proposalService, never()).updateProposal(any(), any(), any(), any());
+        verify(billService, never()).updateBill(any(), any(), any(), any());
+    }
+
+    private Proposal createProposal(String id, String purpose) {
+        ProposalMetadata metadata = new ProposalMetadata("", "REGULATION", purpose, "PR-00.xml", "EN", "", "proposal-ref", "", "0.1.0");
+        return new Proposal(id, "Proposal", "login", Instant.now(), "login", Instant.now(),
+                "", "", "", "", VersionType.MINOR, true,
+                "title", Collections.emptyList(), Collections.emptyList(), "login", Instant.now(),
+                Option.none(), Option.some(metadata), false, "", "", "");
+    }
+
+    private Bill createBill(String id, String purpose) {
+        BillMetadata metadata = new BillMetadata("", "REGULATION", purpose, "BL-000.xml", "EN", "", "bill-ref", "", "0.1.0");
+        return new Bill(id, "Legaltext", "login", Instant.now(), "login", Instant.now(),
+                "", "", "", "", VersionType.MINOR, true, "title",
+                Collections.emptyList(), Collections.emptyList(), Option.none(), Option.some(metadata));
+    }
+}
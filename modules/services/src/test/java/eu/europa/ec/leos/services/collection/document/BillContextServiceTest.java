@@ -0,0 +1,147 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.services.collection.document;
+
+import eu.europa.ec.leos.domain.cmis.Content;
+import eu.europa.ec.leos.domain.cmis.LeosCategory;
+import eu.europa.ec.leos.domain.cmis.LeosPackage;
+import eu.europa.ec.leos.domain.cmis.common.VersionType;
+import eu.europa.ec.leos.domain.cmis.document.Bill;
+import eu.europa.ec.leos.domain.cmis.metadata.BillMetadata;
+import eu.europa.ec.leos.domain.vo.DocumentVO;
+import eu.europa.ec.leos.i18n.MessageHelper;
+import eu.europa.ec.leos.services.document.AnnexService;
+import eu.europa.ec.leos.services.document.BillService;
+import eu.europa.ec.leos.services.document.ProposalService;
+import eu.europa.ec.leos.services.store.PackageService;
+import eu.europa.ec.leos.services.store.TemplateService;
+import eu.europa.ec.leos.services.support.url.CollectionUrlBuilder;
+import eu.europa.ec.leos.services.support.xml.XPathCatalog;
+import eu.europa.ec.leos.services.support.xml.XmlContentProcessor;
+import eu.europa.ec.leos.services.support.xml.XmlNodeConfigHelper;
+import eu.europa.ec.leos.services.support.xml.XmlNodeProcessor;
+import io.atlassian.fugue.Option;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Collections;
+
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BillContextServiceTest {
+
+    private static final String PACKAGE_PATH = "/package";
+    private static final byte[] IMPORTED_BYTES = "<akomaNtoso>imported</akomaNtoso>".getBytes();
+
+    @Mock
+    private BillService billService;
+    @Mock
+    private PackageService packageService;
+    @Mock
+    private ProposalService proposalService;
+    @Mock
+    private AnnexService annexService;
+    @Mock
+    private TemplateService templateService;
+    @Mock
+    private XmlContentProcessor xmlContentProcessor;
+    @Mock
+    private XmlNodeProcessor xmlNodeProcessor;
+    @Mock
+    private XmlNodeConfigHelper xmlNodeConfigHelper;
+    @Mock
+    private MessageHelper messageHelper;
+    @Mock
+    private CollectionUrlBuilder urlBuilder;
+    @Mock
+    private XPathCatalog xPathCatalog;
+
+    private BillContextService billContextService;
+
+    private Bill importedBill;
+    private Bill versionedBill;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        billContextService = new BillContextService(billService, packageService, proposalService, annexService, templateService,
+                xmlContentProcessor, xmlNodeProcessor, xmlNodeConfigHelper, messageHelper, urlBuilder, () -> null);
+        ReflectionTestUtils.setField(billContextService, "xPathCatalog", xPathCatalog);
+
+        BillMetadata metadata = new BillMetadata("", "REGULATION", "purpose", "BL-000.xml", "EN", "", "bill-ref", "", "0.1.0");
+        Bill template = createBill("template", metadata, Option.none());
+        importedBill = createBill("bill", metadata, Option.some(createContent(IMPORTED_BYTES)));
+        versionedBill = createBill("bill", metadata, Option.none());
+
+        DocumentVO billDocument = new DocumentVO(LeosCategory.BILL);
+        billDocument.setSource(IMPORTED_BYTES);
+
+        billContextService.usePackage(new LeosPackage("package", "package", PACKAGE_PATH));
+        billContextService.useTemplate(template);
+        billContextService.usePurpose("purpose");
+        billContextService.useDocument(billDocument);
+
+        when(xmlNodeProcessor.setValuesInXml(any(), any(), any())).thenReturn(IMPORTED_BYTES);
+        when(xmlContentProcessor.updateRefsWithRefOrigin(any(), any(), any())).thenReturn(IMPORTED_BYTES);
+        when(messageHelper.getMessage("internal.ref.updatedOnImport")).thenReturn("refs updated");
+        when(billService.createBillFromContent(eq(PACKAGE_PATH), any(), any(), any(), anyString())).thenReturn(importedBill);
+        when(billService.createVersion(eq("bill"), eq(VersionType.INTERMEDIATE), any())).thenReturn(versionedBill);
+    }
+
+    @Test
+    public void test_executeImportBill_skipsUpdateWhenPostProcessingKeepsContent() {
+        when(xmlContentProcessor.doXMLPostProcessing(IMPORTED_BYTES)).thenReturn(IMPORTED_BYTES.clone());
+
+        Bill result = billContextService.executeImportBill();
+
+        assertSame(versionedBill, result);
+        verify(billService, never()).updateBill(any(Bill.class), any(byte[].class), anyString());
+    }
+
+    @Test
+    public void test_executeImportBill_updatesWhenPostProcessingChangesContent() {
+        byte[] updatedBytes = "<akomaNtoso>updated</akomaNtoso>".getBytes();
+        when(xmlContentProcessor.doXMLPostProcessing(IMPORTED_BYTES)).thenReturn(updatedBytes);
+
+        Bill result = billContextService.executeImportBill();
+
+        assertSame(versionedBill, result);
+        verify(billService).updateBill(importedBill, updatedBytes, "refs updated");
+    }
+
+    private static Bill createBill(String id, BillMetadata metadata, Option<Content> content) {
+        return new Bill(id, "Legaltext", "login", Instant.now(), "login", Instant.now(),
+                "", "", "", "", VersionType.MINOR, true, "title",
+                Collections.emptyList(), Collections.emptyList(), content, Option.some(metadata));
+    }
+
+    private static Content createContent(byte[] bytes) {
+        Content.Source source = mock(Content.Source.class);
+        when(source.getBytes()).thenReturn(bytes);
+        Content content = mock(Content.class);
+        when(content.getSource()).thenReturn(source);
+        return content;
+    }
+}
@@ -24,6 +24,7 @@ import eu.europa.ec.leos.services.content.TemplateStructureService;
 import eu.europa.ec.leos.services.support.xml.XmlContentProcessor;
 import eu.europa.ec.leos.services.toc.StructureContext;
 import eu.europa.ec.leos.services.toc.StructureServiceImpl;
+import eu.europa.ec.leos.services.validation.ElementSaveValidator;
 import eu.europa.ec.leos.test.support.LeosTest;
 import eu.europa.ec.leos.vo.toc.TocItem;
 import io.atlassian.fugue.Option;
@@ -60,6 +61,9 @@ public class ElementProcessorImplTest extends LeosTest {
     @Mock
     private XmlContentProcessor xmlContentProcessor;
 
+    @Mock
+    private ElementSaveValidator elementSaveValidator;
+
     @InjectMocks
     private StructureServiceImpl structureServiceImpl;
 
@@ -13,6 +13,7 @@
  */
 package eu.europa.ec.leos.services.content.processor;
 
+import eu.europa.ec.leos.services.rendition.RenditionCache;
 import eu.europa.ec.leos.services.util.TestUtils;
 import eu.europa.ec.leos.test.support.LeosTest;
 import freemarker.template.Configuration;
@@ -32,8 +33,10 @@ public class TransformationServiceTest extends LeosTest {
     private Configuration freemarkerConfiguration = new Configuration();
     @Mock
     private TemplateHashModel enumModels;
+    @Mock
+    private RenditionCache renditionCache;
     @InjectMocks
-    private TransformationServiceImpl transformationService = new TransformationServiceImpl(freemarkerConfiguration, enumModels);
+    private TransformationServiceImpl transformationService = new TransformationServiceImpl(freemarkerConfiguration, enumModels, renditionCache);
 
     private final String FILE_PREFIX = "/transformation/";
 
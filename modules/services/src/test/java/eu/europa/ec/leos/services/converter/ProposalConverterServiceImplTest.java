@@ -0,0 +1,138 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.services.converter;
+
+import eu.europa.ec.leos.domain.cmis.LeosCategory;
+import eu.europa.ec.leos.domain.vo.DocumentVO;
+import eu.europa.ec.leos.services.store.TemplateService;
+import eu.europa.ec.leos.services.support.xml.XmlContentProcessor;
+import eu.europa.ec.leos.services.support.xml.XmlNodeConfigHelper;
+import eu.europa.ec.leos.services.support.xml.XmlNodeProcessor;
+import eu.europa.ec.leos.test.support.LeosTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+public class ProposalConverterServiceImplTest extends LeosTest {
+
+    @Mock
+    private XmlNodeProcessor xmlNodeProcessor;
+    @Mock
+    private XmlNodeConfigHelper xmlNodeConfigHelper;
+    @Mock
+    private XmlContentProcessor xmlContentProcessor;
+    @Mock
+    private TemplateService templateService;
+
+    private ProposalConverterServiceImpl proposalConverterService;
+
+    @Before
+    public void init() throws Exception {
+        when(templateService.getTemplatesCatalog()).thenReturn(Collections.emptyList());
+        when(xmlNodeProcessor.getValuesFromXml(any(), any(), any())).thenReturn(Collections.emptyMap());
+        proposalConverterService = new ProposalConverterServiceForProposalImpl(xmlNodeProcessor, xmlNodeConfigHelper,
+                xmlContentProcessor, templateService);
+    }
+
+    @Test
+    public void test_createProposalFromLegFile_readsOnlyTheImportedEntries() throws Exception {
+        File legFile = createLegFile();
+
+        DocumentVO proposal = proposalConverterService.createProposalFromLegFile(legFile, new DocumentVO(LeosCategory.PROPOSAL), false);
+
+        assertEquals("<main/>", new String(proposal.getSource(), UTF_8));
+        List<DocumentVO> children = proposal.getChildDocuments();
+        assertEquals(2, children.size());
+        DocumentVO memorandum = children.get(0);
+        assertEquals(LeosCategory.MEMORANDUM, memorandum.getCategory());
+        assertEquals("memorandum_1", memorandum.getId());
+        assertEquals("<memorandum/>", new String(memorandum.getSource(), UTF_8));
+        DocumentVO bill = children.get(1);
+        assertEquals(LeosCategory.BILL, bill.getCategory());
+        assertEquals("<bill/>", new String(bill.getSource(), UTF_8));
+        assertEquals(1, bill.getChildDocuments().size());
+        assertEquals("annex_1", bill.getChildDocuments().get(0).getId());
+        assertEquals("<annex/>", new String(bill.getChildDocuments().get(0).getSource(), UTF_8));
+        assertFalse(legFile.exists());
+    }
+
+    @Test
+    public void test_createProposalFromLegFile_withoutProposal() throws Exception {
+        File legFile = File.createTempFile("leg_", ".leg");
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(legFile))) {
+            addEntry(zip, "bill_1.xml", "<bill/>");
+        }
+
+        DocumentVO proposal = proposalConverterService.createProposalFromLegFile(legFile, new DocumentVO(LeosCategory.PROPOSAL), false);
+
+        assertNull(proposal.getSource());
+        assertFalse(legFile.exists());
+    }
+
+    @Test
+    public void test_openProposalFromLegFile_readsTheSourcesOnDemand() throws Exception {
+        File legFile = createLegFile();
+        try {
+            DocumentVO proposal = proposalConverterService.openProposalFromLegFile(legFile, new DocumentVO(LeosCategory.PROPOSAL), false);
+
+            assertTrue(legFile.exists());
+            DocumentVO annex = proposal.getChildDocuments().get(1).getChildDocuments().get(0);
+            assertEquals("<annex/>", new String(annex.getSource(), UTF_8));
+            annex.updateSource(source -> new String(source, UTF_8).replace("annex", "updated").getBytes(UTF_8));
+            assertEquals("<updated/>", new String(annex.getSource(), UTF_8));
+
+            // the sources are not kept, they are read again from the leg file
+            assertTrue(legFile.delete());
+            assertNull(proposal.getSource());
+            assertNull(annex.getSource());
+        } finally {
+            legFile.delete();
+        }
+    }
+
+    private File createLegFile() throws IOException {
+        File legFile = File.createTempFile("leg_", ".leg");
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(legFile))) {
+            zip.putNextEntry(new ZipEntry("media/"));
+            zip.closeEntry();
+            addEntry(zip, "media/image.png", "not a document");
+            addEntry(zip, "main.xml", "<main/>");
+            addEntry(zip, "memorandum_1.xml", "<memorandum/>");
+            addEntry(zip, "annex_1.xml", "<annex/>");
+            addEntry(zip, "bill_1.xml", "<bill/>");
+        }
+        return legFile;
+    }
+
+    private void addEntry(ZipOutputStream zip, String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(UTF_8));
+        zip.closeEntry();
+    }
+}
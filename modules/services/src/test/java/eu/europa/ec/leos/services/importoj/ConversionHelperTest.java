@@ -0,0 +1,114 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.services.importoj;
+
+import eu.europa.ec.leos.test.support.LeosTest;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ConversionHelperTest extends LeosTest {
+
+    private static final String STYLESHEET = "importoj/fmx2akn_test.xslt";
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void test_convertFormexToAKN_concurrentConversionsMatchSingleTransformer() throws Exception {
+        ConversionHelper conversionHelper = new ConversionHelper(createTransformer(), STYLESHEET, "");
+        conversionHelper.compileStylesheet();
+
+        List<Callable<String[]>> conversions = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String formex = createFormex(i % 20 + 1);
+            conversions.add(() -> new String[]{convertWithSingleTransformer(formex), conversionHelper.convertFormexToAKN(formex)});
+        }
+
+        for (Future<String[]> result : executor.invokeAll(conversions)) {
+            assertEquals(result.get()[0], result.get()[1]);
+        }
+    }
+
+    @Test
+    public void test_convertFormexToAKN_fallsBackToConfiguredTransformer() throws Exception {
+        ConversionHelper conversionHelper = new ConversionHelper(createTransformer(), STYLESHEET, "eu.europa.ec.leos.UnknownTransformerFactory");
+        conversionHelper.compileStylesheet();
+
+        List<Callable<String[]>> conversions = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String formex = createFormex(i % 5 + 1);
+            conversions.add(() -> new String[]{convertWithSingleTransformer(formex), conversionHelper.convertFormexToAKN(formex)});
+        }
+
+        for (Future<String[]> result : executor.invokeAll(conversions)) {
+            assertEquals(result.get()[0], result.get()[1]);
+        }
+    }
+
+    @Test
+    public void test_convertFormexToAKN_nullDocument() {
+        ConversionHelper conversionHelper = new ConversionHelper(createTransformer(), STYLESHEET, "");
+        conversionHelper.compileStylesheet();
+
+        assertNull(conversionHelper.convertFormexToAKN(null));
+    }
+
+    // conversion as it was done before the stylesheet was compiled once, with a transformer created for the conversion
+    private static String convertWithSingleTransformer(String formex) throws Exception {
+        StringWriter writer = new StringWriter();
+        createTransformer().transform(new StreamSource(new StringReader(formex)), new StreamResult(writer));
+        return writer.toString();
+    }
+
+    private static Transformer createTransformer() {
+        try {
+            String stylesheetUrl = ConversionHelperTest.class.getClassLoader().getResource(STYLESHEET).toExternalForm();
+            return TransformerFactory.newInstance().newTransformer(new StreamSource(stylesheetUrl));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String createFormex(int articles) {
+        StringBuilder formex = new StringBuilder("<ACT><ENACTING.TERMS>");
+        for (int i = 1; i <= articles; i++) {
+            formex.append("<ARTICLE><TI.ART>Article ").append(i).append("</TI.ART>");
+            for (int j = 1; j <= i % 3 + 1; j++) {
+                formex.append("<PARAG><ALINEA>Paragraph ").append(j).append(" of article ").append(i).append("</ALINEA></PARAG>");
+            }
+            formex.append("</ARTICLE>");
+        }
+        return formex.append("</ENACTING.TERMS></ACT>").toString();
+    }
+}
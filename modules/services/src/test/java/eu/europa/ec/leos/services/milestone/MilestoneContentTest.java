@@ -0,0 +1,104 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.services.milestone;
+
+import eu.europa.ec.leos.test.support.LeosTest;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class MilestoneContentTest extends LeosTest {
+
+    private static final String BILL_XML = "<akomaNtoso xmlns:leos=\"urn:eu:europa:ec:leos\"><bill><meta><proprietary>" +
+            "<leos:docVersion xml:id=\"_v\">1.2.0</leos:docVersion></proprietary></meta><body/></bill></akomaNtoso>";
+
+    @Test
+    public void test_fileNames_areFilteredAndSortedAsExtracted() throws Exception {
+        MilestoneContent content = new MilestoneContent(createLeg());
+
+        assertEquals(Arrays.asList("memorandum_123.html", "bill_456.html", "annex_789.html"), content.getFileNames(".html"));
+        assertEquals(Arrays.asList("memorandum_123_toc.js", "bill_456_toc.js"), content.getFileNames("_toc.js"));
+        assertEquals(Arrays.asList("proposal.pdf"), content.getFileNames(".pdf"));
+    }
+
+    @Test
+    public void test_docVersion_isReadFromTheXmlFiles() throws Exception {
+        MilestoneContent content = new MilestoneContent(createLeg());
+
+        assertEquals("1.2.0", content.getDocVersion("bill_456"));
+        assertNull(content.getDocVersion("memorandum_123"));
+        assertNull(content.getDocVersion("annex_789"));
+    }
+
+    @Test
+    public void test_content_isReadFromThePackage() throws Exception {
+        MilestoneContent content = new MilestoneContent(createLeg());
+
+        assertEquals("<p>bill</p>", content.getContentAsString("bill_456.html"));
+        assertEquals("var toc = [{}];", content.getContentAsString("bill_456_toc.js"));
+        assertArrayEquals(largeContent(), content.getContentAsBytes("proposal.pdf"));
+    }
+
+    @Test(expected = IOException.class)
+    public void test_content_unknownFile() throws Exception {
+        new MilestoneContent(createLeg()).getContentAsString("unknown.html");
+    }
+
+    private byte[] createLeg() throws IOException {
+        ByteArrayOutputStream leg = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(leg)) {
+            addEntry(zip, "bill_456.xml", BILL_XML.getBytes(UTF_8), ZipEntry.DEFLATED);
+            addEntry(zip, "memorandum_123.xml", "<akomaNtoso/>".getBytes(UTF_8), ZipEntry.DEFLATED);
+            addEntry(zip, "renditions/html/bill_456.html", "<p>bill</p>".getBytes(UTF_8), ZipEntry.STORED);
+            addEntry(zip, "renditions/html/bill_456_toc.html", "<ul/>".getBytes(UTF_8), ZipEntry.DEFLATED);
+            addEntry(zip, "renditions/html/js/bill_456_toc.js", "var toc = [{}];".getBytes(UTF_8), ZipEntry.DEFLATED);
+            addEntry(zip, "renditions/html/memorandum_123.html", "<p>memorandum</p>".getBytes(UTF_8), ZipEntry.DEFLATED);
+            addEntry(zip, "renditions/html/js/memorandum_123_toc.js", "var toc = [];".getBytes(UTF_8), ZipEntry.DEFLATED);
+            addEntry(zip, "renditions/html/annex_789.html", "<p>annex</p>".getBytes(UTF_8), ZipEntry.DEFLATED);
+            addEntry(zip, "renditions/pdf/proposal.pdf", largeContent(), ZipEntry.DEFLATED);
+        }
+        return leg.toByteArray();
+    }
+
+    private void addEntry(ZipOutputStream zip, String name, byte[] content, int method) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        entry.setMethod(method);
+        if (method == ZipEntry.STORED) {
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            entry.setSize(content.length);
+            entry.setCrc(crc.getValue());
+        }
+        zip.putNextEntry(entry);
+        zip.write(content);
+        zip.closeEntry();
+    }
+
+    private byte[] largeContent() {
+        byte[] content = new byte[100_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i % 251);
+        }
+        return content;
+    }
+}
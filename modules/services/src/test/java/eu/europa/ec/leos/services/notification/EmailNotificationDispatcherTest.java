@@ -0,0 +1,155 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.services.notification;
+
+import eu.europa.ec.leos.integration.NotificationProvider;
+import eu.europa.ec.leos.model.notification.EmailNotification;
+import eu.europa.ec.leos.model.notification.cloneProposal.ClonedProposalNotification;
+import eu.europa.ec.leos.services.messaging.EmailNotificationProducer;
+import eu.europa.ec.leos.test.support.LeosTest;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class EmailNotificationDispatcherTest extends LeosTest {
+
+    private static final String AUTH_CONTEXT = "authcontext";
+
+    @Mock
+    private EmailNotificationProcessorFactory emailNotificationProcessorFactory;
+
+    @Mock
+    private EmailNotificationProcessor<EmailNotification> emailNotificationProcessor;
+
+    @Mock
+    private EmailNotificationProducer emailNotificationProducer;
+
+    private final MailServerStandIn mailServer = new MailServerStandIn();
+
+    @Test
+    public void test_dispatch_sendsOnFlush() {
+        when(emailNotificationProcessorFactory.getEmailNotificationProcessor(any())).thenReturn(emailNotificationProcessor);
+        EmailNotificationDispatcher dispatcher = createDispatcher(3);
+        EmailNotification notification = notification("user1@leos.eu", "body");
+
+        dispatcher.dispatch(notification, 0, AUTH_CONTEXT);
+
+        verify(emailNotificationProcessor).process(notification);
+        assertTrue(mailServer.sent.isEmpty());
+        dispatcher.flush();
+        assertEquals(1, mailServer.sent.size());
+        dispatcher.flush();
+        assertEquals(1, mailServer.sent.size());
+    }
+
+    @Test
+    public void test_flush_identicalMailsToSameRecipientsAreSentOnce() {
+        when(emailNotificationProcessorFactory.getEmailNotificationProcessor(any())).thenReturn(emailNotificationProcessor);
+        EmailNotificationDispatcher dispatcher = createDispatcher(3);
+
+        dispatcher.dispatch(notification("user1@leos.eu", "body"), 0, AUTH_CONTEXT);
+        dispatcher.dispatch(notification("user1@leos.eu", "body"), 0, AUTH_CONTEXT);
+        dispatcher.dispatch(notification("user1@leos.eu", "other body"), 0, AUTH_CONTEXT);
+        dispatcher.dispatch(notification("user2@leos.eu", "body"), 0, AUTH_CONTEXT);
+        dispatcher.flush();
+
+        assertEquals(3, mailServer.sent.size());
+    }
+
+    @Test
+    public void test_flush_failedMailIsRetried() {
+        when(emailNotificationProcessorFactory.getEmailNotificationProcessor(any())).thenReturn(emailNotificationProcessor);
+        mailServer.available = false;
+        EmailNotificationDispatcher dispatcher = createDispatcher(3);
+        EmailNotification notification = notification("user1@leos.eu", "body");
+
+        dispatcher.dispatch(notification, 1, AUTH_CONTEXT);
+        dispatcher.flush();
+
+        verify(emailNotificationProducer).send(notification, 2, 2000L, AUTH_CONTEXT);
+        verify(emailNotificationProducer, never()).sendToDeadLetter(any(), anyInt(), anyString());
+    }
+
+    @Test
+    public void test_dispatch_lastAttemptGoesToDeadLetterQueue() {
+        when(emailNotificationProcessorFactory.getEmailNotificationProcessor(any())).thenReturn(emailNotificationProcessor);
+        EmailNotification notification = notification("user1@leos.eu", "body");
+        doThrow(new IllegalStateException("Proposal not found")).when(emailNotificationProcessor).process(notification);
+        EmailNotificationDispatcher dispatcher = createDispatcher(3);
+
+        dispatcher.dispatch(notification, 2, AUTH_CONTEXT);
+        dispatcher.flush();
+
+        assertTrue(mailServer.sent.isEmpty());
+        verify(emailNotificationProducer).sendToDeadLetter(notification, 3, AUTH_CONTEXT);
+        verify(emailNotificationProducer, never()).send(any(), anyInt(), anyLong(), anyString());
+    }
+
+    @Test
+    public void test_dispatch_notificationWithoutProcessorIsNotSent() {
+        EmailNotificationDispatcher dispatcher = createDispatcher(1);
+        EmailNotification notification = notification("user1@leos.eu", "body");
+
+        dispatcher.dispatch(notification, 0, AUTH_CONTEXT);
+        dispatcher.flush();
+
+        assertTrue(mailServer.sent.isEmpty());
+        verify(emailNotificationProducer).sendToDeadLetter(eq(notification), eq(1), eq(AUTH_CONTEXT));
+    }
+
+    private EmailNotificationDispatcher createDispatcher(int maxAttempts) {
+        return new EmailNotificationDispatcher(mailServer, emailNotificationProcessorFactory, emailNotificationProducer, maxAttempts, 1000L);
+    }
+
+    private static EmailNotification notification(String recipient, String body) {
+        ClonedProposalNotification notification = new ClonedProposalNotification(recipient, "title", "proposal.leg", "proposalUrl", "iscRef");
+        notification.setEmailSubject("subject");
+        notification.setEmailBody(body);
+        return notification;
+    }
+
+    /**
+     * Records the mails instead of sending them, and fails while it is not available.
+     */
+    private static class MailServerStandIn implements NotificationProvider {
+        private final List<EmailNotification> sent = new ArrayList<>();
+        private boolean available = true;
+
+        @Override
+        public void sendNotification(EmailNotification emailNotification) {
+            if (!available) {
+                throw new IllegalStateException("Mail server not available");
+            }
+            sent.add(emailNotification);
+        }
+
+        @Override
+        public void sendNotification(String proposalRef, String exportPackageId) {
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.services.rendition;
+
+import eu.europa.ec.leos.security.LeosPermission;
+import eu.europa.ec.leos.services.rendition.RenditionCache.RenditionKey;
+import eu.europa.ec.leos.test.support.LeosTest;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+public class RenditionCacheTest extends LeosTest {
+
+    @Rule
+    public TemporaryFolder spillFolder = new TemporaryFolder();
+
+    @Test
+    public void test_get_shouldRenderOnlyOncePerKey() {
+        RenditionCache renditionCache = new RenditionCache(1000, "");
+        AtomicInteger renderings = new AtomicInteger();
+        RenditionKey key = RenditionKey.of("version_1", "template.ftl", Arrays.asList(LeosPermission.CAN_READ), "/leos");
+
+        String first = renditionCache.get(key, () -> "<html>" + renderings.incrementAndGet() + "</html>");
+        String second = renditionCache.get(key, () -> "<html>" + renderings.incrementAndGet() + "</html>");
+
+        assertEquals("<html>1</html>", first);
+        assertEquals(first, second);
+        assertEquals(1, renderings.get());
+    }
+
+    @Test
+    public void test_get_withoutKey_shouldAlwaysRender() {
+        RenditionCache renditionCache = new RenditionCache(1000, "");
+        AtomicInteger renderings = new AtomicInteger();
+
+        renditionCache.get(null, () -> "<html>" + renderings.incrementAndGet() + "</html>");
+        renditionCache.get(null, () -> "<html>" + renderings.incrementAndGet() + "</html>");
+
+        assertEquals(2, renderings.get());
+        assertEquals(0, renditionCache.size());
+    }
+
+    @Test
+    public void test_key_shouldDependOnPermissionsButNotOnTheirOrder() {
+        RenditionKey readUpdate = RenditionKey.of("version_1", "template.ftl", Arrays.asList(LeosPermission.CAN_READ, LeosPermission.CAN_UPDATE), "/leos");
+        RenditionKey updateRead = RenditionKey.of("version_1", "template.ftl", Arrays.asList(LeosPermission.CAN_UPDATE, LeosPermission.CAN_READ), "/leos");
+        RenditionKey read = RenditionKey.of("version_1", "template.ftl", Arrays.asList(LeosPermission.CAN_READ), "/leos");
+
+        assertEquals(readUpdate, updateRead);
+        assertNotEquals(readUpdate, read);
+        assertNull(RenditionKey.of(null, "template.ftl", null));
+    }
+
+    @Test
+    public void test_get_evictedEntry_shouldBeReadBackFromSpillDirectory() throws Exception {
+        RenditionCache renditionCache = new RenditionCache(20, spillFolder.getRoot().getAbsolutePath());
+        AtomicInteger renderings = new AtomicInteger();
+        RenditionKey first = RenditionKey.of("version_1", "template.ftl", null);
+        RenditionKey second = RenditionKey.of("version_2", "template.ftl", null);
+
+        renditionCache.get(first, () -> "<p>first " + renderings.incrementAndGet() + "</p>");
+        renditionCache.get(second, () -> "<p>second " + renderings.incrementAndGet() + "</p>");
+        String firstAgain = renditionCache.get(first, () -> "<p>first " + renderings.incrementAndGet() + "</p>");
+
+        assertEquals("<p>first 1</p>", firstAgain);
+        assertEquals(2, renderings.get());
+    }
+}
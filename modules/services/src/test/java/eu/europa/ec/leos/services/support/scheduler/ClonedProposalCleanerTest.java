@@ -0,0 +1,103 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.services.support.scheduler;
+
+import eu.europa.ec.leos.domain.cmis.LeosPackage;
+import eu.europa.ec.leos.services.store.PackageService;
+import eu.europa.ec.leos.test.support.LeosTest;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ClonedProposalCleanerTest extends LeosTest {
+
+    @Mock
+    private PackageService packageService;
+
+    private ClonedProposalCleaner cleaner;
+
+    @After
+    public void tearDown() {
+        if (cleaner != null) {
+            cleaner.shutdown();
+        }
+    }
+
+    @Test
+    public void test_submit_deletesThePackagesOfTheProposals() {
+        LeosPackage package1 = mock(LeosPackage.class);
+        LeosPackage package2 = mock(LeosPackage.class);
+        when(packageService.findPackageByDocumentId("proposal_1")).thenReturn(package1);
+        when(packageService.findPackageByDocumentId("proposal_2")).thenReturn(package2);
+        cleaner = new ClonedProposalCleaner(packageService, 2, 10, 1000);
+
+        int submitted = cleaner.submit(Arrays.asList("proposal_1", "proposal_2"), 15);
+
+        assertEquals(2, submitted);
+        verify(packageService, timeout(5000)).deletePackage(package1);
+        verify(packageService, timeout(5000)).deletePackage(package2);
+        assertEquals(2, cleaner.getLastScanCount());
+        assertEquals(15, cleaner.getLastScanMillis());
+    }
+
+    @Test
+    public void test_submit_skipsQueuedProposalsAndFullQueue() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(packageService).deletePackage(any());
+        cleaner = new ClonedProposalCleaner(packageService, 1, 1, 1000);
+
+        // the first one is taken by the worker, the second one waits in the queue
+        assertEquals(1, cleaner.submit(Arrays.asList("proposal_1"), 0));
+        verify(packageService, timeout(5000)).deletePackage(any());
+        assertEquals(1, cleaner.submit(Arrays.asList("proposal_1", "proposal_2", "proposal_3"), 0));
+        assertEquals(2, cleaner.getBacklog());
+
+        release.countDown();
+        verify(packageService, timeout(5000).times(2)).deletePackage(any());
+    }
+
+    @Test
+    public void test_submit_countsFailedDeletions() throws Exception {
+        doThrow(new IllegalStateException("not found")).when(packageService).findPackageByDocumentId("proposal_1");
+        cleaner = new ClonedProposalCleaner(packageService, 1, 10, 1000);
+
+        cleaner.submit(Arrays.asList("proposal_1"), 0);
+
+        assertEquals(1, awaitFailedCount(1, 5000));
+        assertEquals(0, cleaner.getDeletedCount());
+    }
+
+    private long awaitFailedCount(long expected, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (cleaner.getFailedCount() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return cleaner.getFailedCount();
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.services.support.xml.freemarker;
+
+import eu.europa.ec.leos.security.LeosPermission;
+import eu.europa.ec.leos.services.content.processor.TransformationServiceImpl;
+import eu.europa.ec.leos.services.rendition.RenditionCache;
+import eu.europa.ec.leos.test.support.LeosTest;
+import freemarker.ext.beans.BeansWrapper;
+import freemarker.template.Configuration;
+import org.apache.commons.io.IOUtils;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.w3c.dom.Node;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class XmlNodeModelHandlerTest extends LeosTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(XmlNodeModelHandlerTest.class);
+
+    private static final String AKN_START = "<akomaNtoso xmlns=\"http://docs.oasis-open.org/legaldocml/ns/akn/3.0\" " +
+            "xmlns:leos=\"urn:eu:europa:ec:leos\"><bill name=\"regulation\">";
+    private static final String AKN_END = "</bill></akomaNtoso>";
+
+    private static final String TEMPLATE_PATH = "/src/main/resources/eu/europa/ec/leos/freemarker/templates/";
+    private static final String[] LEG_FILES = {"/integration/proposal_3Articles.leg", "/integration/proposal_with_part_chapter_section_3Articles.leg"};
+
+    @Test
+    public void test_stax_simpleArticle() throws Exception {
+        assertSameNodeModel(AKN_START + "<body><article xml:id=\"art_1\" leos:editable=\"true\"><num>Article 1</num>" +
+                "<paragraph xml:id=\"art_1_par_1\"><content><p>Text of the paragraph</p></content></paragraph></article></body>" + AKN_END);
+    }
+
+    @Test
+    public void test_stax_commentsAndProcessingInstructionsAreDropped() throws Exception {
+        assertSameNodeModel("<?xml version=\"1.0\" encoding=\"UTF-8\"?><?xml-stylesheet href=\"bill.css\"?>" + AKN_START +
+                "<!-- comment --><body><article xml:id=\"art_1\"><num>Article <!-- inline -->1</num><?leos pi?></article></body>" + AKN_END);
+    }
+
+    @Test
+    public void test_stax_textCdataAndEntitiesAreMerged() throws Exception {
+        assertSameNodeModel(AKN_START + "<body><article xml:id=\"art_1\"><heading>A &amp; B <![CDATA[<C>]]> &#233;</heading></article></body>" + AKN_END);
+    }
+
+    @Test
+    public void test_stax_whitespaceAndMixedContentArePreserved() throws Exception {
+        assertSameNodeModel(AKN_START + "\n    <body>\n        <article xml:id=\"art_1\">\n            <p>Text <i>italic</i> and <authorialNote marker=\"1\" " +
+                "xml:id=\"an_1\"><p>note</p></authorialNote> tail</p>\n        </article>\n    </body>\n" + AKN_END);
+    }
+
+    @Test
+    public void test_stax_prefixedAndRedeclaredNamespaces() throws Exception {
+        assertSameNodeModel("<akn:akomaNtoso xmlns:akn=\"http://docs.oasis-open.org/legaldocml/ns/akn/3.0\"><akn:bill>" +
+                "<meta xmlns=\"urn:eu:europa:ec:leos\" xmlns:leos=\"urn:eu:europa:ec:leos\"><leos:ref leos:id=\"1\">ref</leos:ref></meta>" +
+                "<akn:body/></akn:bill></akn:akomaNtoso>");
+    }
+
+    @Test
+    public void test_stax_sameNodeModelForLegFileDocuments() throws Exception {
+        for (String legFile : LEG_FILES) {
+            for (Map.Entry<String, byte[]> document : readDocuments(legFile).entrySet()) {
+                Node expected = XmlNodeModelHandler.parseXmlStream(new ByteArrayInputStream(document.getValue())).getNode();
+                Node actual = XmlNodeModelHandler.parseXmlStream(new ByteArrayInputStream(document.getValue()), true).getNode();
+                assertTrue("StAX node model differs from the DOM node model for " + document.getKey(), expected.isEqualNode(actual));
+            }
+        }
+    }
+
+    @Test
+    public void test_stax_sameTemplateOutputForLegFileDocuments() throws Exception {
+        TransformationServiceImpl domTransformation = createTransformationService(false);
+        TransformationServiceImpl staxTransformation = createTransformationService(true);
+        List<LeosPermission> permissions = Arrays.asList(LeosPermission.values());
+
+        for (String legFile : LEG_FILES) {
+            for (Map.Entry<String, byte[]> document : readDocuments(legFile).entrySet()) {
+                byte[] content = document.getValue();
+                assertEquals("Document view differs for " + document.getKey(),
+                        domTransformation.formatToHtml(new ByteArrayInputStream(content), "", permissions),
+                        staxTransformation.formatToHtml(new ByteArrayInputStream(content), "", permissions));
+                assertEquals("Fragment wrapper differs for " + document.getKey(),
+                        domTransformation.toXmlFragmentWrapper(new ByteArrayInputStream(content), "", permissions),
+                        staxTransformation.toXmlFragmentWrapper(new ByteArrayInputStream(content), "", permissions));
+                assertEquals("Import view differs for " + document.getKey(),
+                        domTransformation.toImportXml(new ByteArrayInputStream(content), "", permissions),
+                        staxTransformation.toImportXml(new ByteArrayInputStream(content), "", permissions));
+            }
+        }
+    }
+
+    @Ignore("Throughput benchmark, to be run manually")
+    @Test
+    public void benchmark_domVersusStax() throws Exception {
+        StringBuilder xml = new StringBuilder(AKN_START).append("<body>");
+        for (int i = 0; i < 5000; i++) {
+            xml.append("<article xml:id=\"art_").append(i).append("\" leos:editable=\"true\"><num>Article ").append(i).append("</num>")
+                    .append("<paragraph xml:id=\"art_").append(i).append("_par_1\"><content><p>Lorem ipsum dolor sit amet, <i>consectetur</i> adipiscing elit.</p></content></paragraph>")
+                    .append("</article>");
+        }
+        byte[] content = xml.append("</body>").append(AKN_END).toString().getBytes(UTF_8);
+        int iterations = 20;
+
+        for (int warmUp = 0; warmUp < 5; warmUp++) {
+            XmlNodeModelHandler.parseXmlStream(new ByteArrayInputStream(content), false);
+            XmlNodeModelHandler.parseXmlStream(new ByteArrayInputStream(content), true);
+        }
+        long dom = 0;
+        long stax = 0;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            XmlNodeModelHandler.parseXmlStream(new ByteArrayInputStream(content), false);
+            dom += System.nanoTime() - start;
+            start = System.nanoTime();
+            XmlNodeModelHandler.parseXmlStream(new ByteArrayInputStream(content), true);
+            stax += System.nanoTime() - start;
+        }
+        LOG.info("Node model of {} bytes: dom {} ms/doc, stax {} ms/doc", content.length,
+                TimeUnit.NANOSECONDS.toMillis(dom / iterations), TimeUnit.NANOSECONDS.toMillis(stax / iterations));
+    }
+
+    private void assertSameNodeModel(String xml) throws Exception {
+        Node expected = XmlNodeModelHandler.parseXmlStream(new ByteArrayInputStream(xml.getBytes(UTF_8))).getNode();
+        Node actual = XmlNodeModelHandler.parseXmlStream(new ByteArrayInputStream(xml.getBytes(UTF_8)), true).getNode();
+        assertTrue("StAX node model differs from the DOM node model for " + xml, expected.isEqualNode(actual));
+    }
+
+    private TransformationServiceImpl createTransformationService(boolean stax) {
+        TransformationServiceImpl transformationService = new TransformationServiceImpl(new Configuration(),
+                BeansWrapper.getDefaultInstance().getEnumModels(), mock(RenditionCache.class));
+        ReflectionTestUtils.setField(transformationService, "editableXHtmlTemplate", TEMPLATE_PATH + "akn_document_view.ftl");
+        ReflectionTestUtils.setField(transformationService, "nonEditableFragmentTemplate", TEMPLATE_PATH + "legalText/akn_fragment_xml_wrapper.ftl");
+        ReflectionTestUtils.setField(transformationService, "importXHtmlTemplate", TEMPLATE_PATH + "import/akn_import_xml.ftl");
+        ReflectionTestUtils.setField(transformationService, "staxParser", stax);
+        return transformationService;
+    }
+
+    private Map<String, byte[]> readDocuments(String legFile) throws Exception {
+        Map<String, byte[]> documents = new LinkedHashMap<>();
+        try (ZipFile zipFile = new ZipFile(new File(getClass().getResource(legFile).toURI()))) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (!entry.isDirectory() && !entry.getName().contains("/") && entry.getName().endsWith(".xml")) {
+                    try (InputStream inputStream = zipFile.getInputStream(entry)) {
+                        documents.put(legFile + "!" + entry.getName(), IOUtils.toByteArray(inputStream));
+                    }
+                }
+            }
+        }
+        assertFalse("No document found in " + legFile, documents.isEmpty());
+        return documents;
+    }
+}
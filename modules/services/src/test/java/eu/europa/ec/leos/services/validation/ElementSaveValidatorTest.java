@@ -0,0 +1,97 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.services.validation;
+
+import eu.europa.ec.leos.domain.common.ErrorCode;
+import eu.europa.ec.leos.domain.vo.ErrorVO;
+import eu.europa.ec.leos.services.validation.handlers.AkomantosoXsdValidator;
+import eu.europa.ec.leos.test.support.LeosTest;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+public class ElementSaveValidatorTest extends LeosTest {
+
+    private static final byte[] CONTENT = "<akomaNtoso/>".getBytes(UTF_8);
+
+    @Mock
+    private AkomantosoXsdValidator akomantosoXsdValidator;
+
+    @Test
+    public void test_validate_modeOff_shouldNotValidate() {
+        ElementSaveValidator elementSaveValidator = new ElementSaveValidator(akomantosoXsdValidator, "off", 1000, 1000);
+
+        elementSaveValidator.validate(CONTENT, "art_1", 10);
+
+        verifyZeroInteractions(akomantosoXsdValidator);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_validate_modeReject_invalidElement_shouldFail() {
+        reportError();
+        ElementSaveValidator elementSaveValidator = new ElementSaveValidator(akomantosoXsdValidator, "reject", 5000, 1000);
+
+        elementSaveValidator.validate(CONTENT, "art_1", 10);
+    }
+
+    @Test
+    public void test_validate_modeLog_invalidElement_shouldNotFail() {
+        reportError();
+        ElementSaveValidator elementSaveValidator = new ElementSaveValidator(akomantosoXsdValidator, "log", 5000, 1000);
+
+        elementSaveValidator.validate(CONTENT, "art_1", 10);
+
+        verify(akomantosoXsdValidator).validateElement(eq(CONTENT), eq("art_1"), anyList());
+    }
+
+    @Test
+    public void test_validate_bigFragment_shouldValidateInTheBackground() {
+        reportError();
+        ElementSaveValidator elementSaveValidator = new ElementSaveValidator(akomantosoXsdValidator, "reject", 5000, 1000);
+
+        elementSaveValidator.validate(CONTENT, "art_1", 2000);
+
+        verify(akomantosoXsdValidator, timeout(5000)).validateElement(eq(CONTENT), eq("art_1"), anyList());
+    }
+
+    @Test
+    public void test_validate_budgetExceeded_shouldNotWait() {
+        doAnswer(invocation -> {
+            Thread.sleep(2000);
+            return true;
+        }).when(akomantosoXsdValidator).validateElement(any(), any(), anyList());
+        ElementSaveValidator elementSaveValidator = new ElementSaveValidator(akomantosoXsdValidator, "reject", 50, 1000);
+
+        elementSaveValidator.validate(CONTENT, "art_1", 10);
+
+        elementSaveValidator.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void reportError() {
+        doAnswer(invocation -> {
+            ((List<ErrorVO>) invocation.getArgument(2)).add(new ErrorVO(ErrorCode.DOCUMENT_XSD_VALIDATION_FAILED, "art_1", "invalid"));
+            return true;
+        }).when(akomantosoXsdValidator).validateElement(any(), any(), anyList());
+    }
+}
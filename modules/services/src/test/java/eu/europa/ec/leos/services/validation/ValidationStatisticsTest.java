@@ -0,0 +1,67 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.services.validation;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class ValidationStatisticsTest {
+
+    private final ValidationStatistics validationStatistics = new ValidationStatistics();
+
+    @Before
+    public void setUp() {
+        validationStatistics.register();
+    }
+
+    @After
+    public void tearDown() {
+        validationStatistics.unregister();
+    }
+
+    @Test
+    public void test_handlers_exposedThroughJmx() throws Exception {
+        validationStatistics.record("XsdValidator", TimeUnit.MILLISECONDS.toNanos(30));
+        validationStatistics.record("XsdValidator", TimeUnit.MILLISECONDS.toNanos(10));
+        validationStatistics.record("AnnexValidator", TimeUnit.MILLISECONDS.toNanos(5));
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        String[] handlers = (String[]) server.getAttribute(new ObjectName(ValidationStatistics.OBJECT_NAME), "Handlers");
+
+        assertArrayEquals(new String[]{
+                "AnnexValidator: count=1, total=5ms, avg=5ms, max=5ms",
+                "XsdValidator: count=2, total=40ms, avg=20ms, max=30ms"}, handlers);
+    }
+
+    @Test
+    public void test_reset_clearsTheHandlers() throws Exception {
+        validationStatistics.record("XsdValidator", TimeUnit.MILLISECONDS.toNanos(30));
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        server.invoke(new ObjectName(ValidationStatistics.OBJECT_NAME), "reset", null, null);
+
+        assertEquals(0, validationStatistics.getHandlers().length);
+        assertFalse(validationStatistics.getHandlerStatistics().containsKey("XsdValidator"));
+    }
+}
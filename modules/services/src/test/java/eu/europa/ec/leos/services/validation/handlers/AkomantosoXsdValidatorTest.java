@@ -32,8 +32,13 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
@@ -134,6 +139,70 @@ public class AkomantosoXsdValidatorTest extends LeosTest {
         assertThat(result.get(0).getErrorCode(), Matchers.equalTo(ErrorCode.DOCUMENT_XSD_VALIDATION_FAILED));
     }
 
+    @Test
+    public void test_validate_concurrently_shouldReuseValidatorsWithoutMixingResults() throws Exception {
+        byte[] valid = TestUtils.getFileContent("/bill_big.xml");
+        byte[] invalid = "<akomaNtoso xmlns=\"http://docs.oasis-open.org/legaldocml/ns/akn/3.0\"><unknown/></akomaNtoso>".getBytes(UTF_8);
+        List<ErrorVO> expectedForValid = new ArrayList<>();
+        DocumentVO validDocument = new DocumentVO(LeosCategory.BILL);
+        validDocument.setSource(valid);
+        akomantosoXsdValidator.validate(validDocument, expectedForValid);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<ErrorVO>>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                final byte[] source = i % 2 == 0 ? valid : invalid;
+                results.add(executor.submit(() -> {
+                    DocumentVO documentVO = new DocumentVO(LeosCategory.BILL);
+                    documentVO.setSource(source);
+                    List<ErrorVO> result = new ArrayList<>();
+                    akomantosoXsdValidator.validate(documentVO, result);
+                    return result;
+                }));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                List<ErrorVO> result = results.get(i).get(30, TimeUnit.SECONDS);
+                if (i % 2 == 0) {
+                    assertEquals(expectedForValid.size(), result.size());
+                } else {
+                    assertTrue(result.size() > 0);
+                    result.forEach(errorVO -> assertThat(errorVO.getErrorCode(), Matchers.equalTo(ErrorCode.DOCUMENT_XSD_VALIDATION_FAILED)));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void test_validateElement_shouldOnlyValidateTheElementSubtree() {
+        byte[] xmlContent = ("<akomaNtoso xmlns=\"http://docs.oasis-open.org/legaldocml/ns/akn/3.0\"><bill name=\"x\"><body>" +
+                "<article xml:id=\"art_1\"><num>Article 1</num></article>" +
+                "<article xml:id=\"art_2\"><num>Article 2</num><unknown/></article>" +
+                "</body></bill></akomaNtoso>").getBytes(UTF_8);
+        List<ErrorVO> validElementErrors = new ArrayList<>();
+        List<ErrorVO> invalidElementErrors = new ArrayList<>();
+
+        boolean validated = akomantosoXsdValidator.validateElement(xmlContent, "art_1", validElementErrors);
+        akomantosoXsdValidator.validateElement(xmlContent, "art_2", invalidElementErrors);
+
+        assertTrue(validated);
+        assertThat(validElementErrors, Matchers.equalTo(Collections.emptyList()));
+        assertTrue(invalidElementErrors.size() > 0);
+        assertThat(invalidElementErrors.get(0).getErrorCode(), Matchers.equalTo(ErrorCode.DOCUMENT_XSD_VALIDATION_FAILED));
+    }
+
+    @Test
+    public void test_validateElement_unknownElement_shouldNotValidate() {
+        byte[] xmlContent = ("<akomaNtoso xmlns=\"http://docs.oasis-open.org/legaldocml/ns/akn/3.0\"><bill name=\"x\"><body>" +
+                "<article xml:id=\"art_1\"><num>Article 1</num></article></body></bill></akomaNtoso>").getBytes(UTF_8);
+        List<ErrorVO> result = new ArrayList<>();
+
+        assertFalse(akomantosoXsdValidator.validateElement(xmlContent, "art_9", result));
+        assertTrue(result.isEmpty());
+    }
+
     @Test
     public void test_validate_with_bigFile() {
         // setup
@@ -13,17 +13,26 @@
  */
 package eu.europa.ec.leos.ui.component;
 
+import eu.europa.ec.leos.ui.extension.ContentFragmentExtension;
+import eu.europa.ec.leos.ui.support.HtmlFragmentDiff;
 import org.apache.commons.lang3.StringEscapeUtils;
+import com.vaadin.data.HasValue;
 import com.vaadin.shared.ui.ContentMode;
 import com.vaadin.ui.Component;
 import com.vaadin.ui.CustomField;
 import com.vaadin.ui.Label;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+
 public class LeosDisplayField extends CustomField<String> {
 
     private static final long serialVersionUID = 1L;
 
-    private final Label content = new Label();
+    private final ContentLabel content = new ContentLabel();
+    private ContentFragmentExtension fragmentExtension;
+    private String replacedValue;
 
     @Override
     protected Component initContent() {
@@ -37,8 +46,63 @@ public class LeosDisplayField extends CustomField<String> {
         content.setValue(text);
     }
 
+    /**
+     * Enables the replacement of the changed elements only, on the client side, when the value is refreshed
+     * with {@link #refreshValue(String, String)}.
+     */
+    public void enableFragmentRefresh() {
+        if (fragmentExtension == null) {
+            fragmentExtension = new ContentFragmentExtension(content, this::refreshContent, this::fireContentChange);
+        }
+    }
+
+    /**
+     * Sets the new value, sending only the elements that changed since the displayed value when possible.
+     * @param text the new value
+     * @param changedElementId the element known to be changed, sent even if its markup is the same
+     */
+    public void refreshValue(String text, String changedElementId) {
+        Optional<Map<String, String>> fragments = fragmentExtension == null || changedElementId == null
+                ? Optional.empty()
+                : HtmlFragmentDiff.diff(content.getValue(), text, Collections.singleton(changedElementId));
+        if (fragments.isPresent()) {
+            replacedValue = getValue();
+            content.setValueSilently(text);
+            fragmentExtension.replaceFragments(fragments.get());
+        } else {
+            setValue(text);
+        }
+    }
+
+    private void refreshContent() {
+        content.markAsDirty();
+        fireContentChange();
+    }
+
+    /**
+     * The content is changed without {@link #setValue(Object)} when fragments are replaced, the value change is
+     * fired here so that the extensions of this field process the displayed content again.
+     */
+    private void fireContentChange() {
+        String oldValue = replacedValue;
+        replacedValue = null;
+        fireEvent(new HasValue.ValueChangeEvent<>(this, oldValue, false));
+    }
+
     @Override
     public String getValue() {
         return StringEscapeUtils.escapeHtml4(content.getValue());
     }
-}
+
+    private static class ContentLabel extends Label {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Updates the value kept on the server side without sending it to the client side.
+         */
+        void setValueSilently(String text) {
+            getState(false).text = text;
+        }
+    }
+}
\ No newline at end of file
@@ -75,6 +75,7 @@ import eu.europa.ec.leos.ui.event.toc.SaveTocRequestEvent;
 import eu.europa.ec.leos.ui.event.toc.TocChangedEvent;
 import eu.europa.ec.leos.ui.event.toc.TocResizedEvent;
 import eu.europa.ec.leos.ui.extension.dndscroll.TreeGridScrollDropTargetExtension;
+import eu.europa.ec.leos.ui.support.UiScheduler;
 import eu.europa.ec.leos.ui.window.toc.MultiSelectTreeGrid;
 import eu.europa.ec.leos.ui.window.toc.TocEditor;
 import eu.europa.ec.leos.vo.coedition.CoEditionVO;
@@ -111,8 +112,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -171,7 +171,8 @@ public class TableOfContentComponent extends VerticalLayout implements ContentPa
     private TreeDataProvider<TableOfContentItemVO> dataProvider;
     private Registration dataProviderRegistration;
 
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    private UiScheduler uiScheduler;
+    private ScheduledFuture<?> statusResetTask;
     private Set<CheckinElement> tocChangedElements = new HashSet<>();
     private Set<String> expandedNodes;
 
@@ -192,7 +193,8 @@ public class TableOfContentComponent extends VerticalLayout implements ContentPa
 
     @Autowired
     public TableOfContentComponent(final MessageHelper messageHelper, final EventBus eventBus, final SecurityContext securityContext,
-                                   final ConfigurationHelper cfgHelper, final TocEditor tocEditor, Provider<StructureContext> structureContextProvider) {
+                                   final ConfigurationHelper cfgHelper, final TocEditor tocEditor, Provider<StructureContext> structureContextProvider,
+                                   final UiScheduler uiScheduler) {
         LOG.trace("Initializing table of content...");
         Validate.notNull(messageHelper, "MessageHelper must not be null!");
         this.messageHelper = messageHelper;
@@ -207,6 +209,8 @@ public class TableOfContentComponent extends VerticalLayout implements ContentPa
         this.tocEditor = tocEditor;
         this.cfgHelper = cfgHelper;
         this.structureContextProvider = structureContextProvider;
+        Validate.notNull(uiScheduler, "UiScheduler must not be null!");
+        this.uiScheduler = uiScheduler;
 
         Design.read(this);
         buildToc();
@@ -222,6 +226,7 @@ public class TableOfContentComponent extends VerticalLayout implements ContentPa
     @Override
     public void detach() {
         eventBus.unregister(this);
+        cancelStatusReset();
         super.detach();
     }
 
@@ -572,17 +577,23 @@ public class TableOfContentComponent extends VerticalLayout implements ContentPa
         saveCloseButton.setDisableOnClick(enable);
     }
 
+    private void cancelStatusReset() {
+        if (statusResetTask != null) {
+            statusResetTask.cancel(false);
+            statusResetTask = null;
+        }
+    }
+
     @Subscribe
     public void handleTocChange(TocChangedEvent event) {
         statusLabel.setValue(messageHelper.getMessage(event.getMessage()));
         StringBuffer styleName = new StringBuffer(STATUS_STYLE)
                      .append(" ").append(event.getResult().toString().toLowerCase());
         statusLabel.setStyleName(styleName.toString());
-        scheduler.schedule(new Runnable() {
-            public void run() {
-                statusLabel.setValue("&nbsp;");
-                statusLabel.setStyleName(STATUS_STYLE);
-            }
+        cancelStatusReset();
+        statusResetTask = uiScheduler.schedule(getUI(), () -> {
+            statusLabel.setValue("&nbsp;");
+            statusLabel.setStyleName(STATUS_STYLE);
         }, 3, TimeUnit.SECONDS);
         
         if(TocChangedEvent.Result.SUCCESSFUL.equals(event.getResult())) {
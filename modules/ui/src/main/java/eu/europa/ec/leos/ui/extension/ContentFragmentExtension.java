@@ -0,0 +1,78 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.ui.extension;
+
+import com.vaadin.annotations.JavaScript;
+import com.vaadin.ui.JavaScriptFunction;
+import com.vaadin.ui.Label;
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import eu.europa.ec.leos.web.support.LeosCacheToken;
+
+import java.util.Map;
+
+/**
+ * Replaces elements of the displayed content on the client side instead of sending the whole content again.
+ * When one of the elements cannot be found in the displayed content, the client asks for a full refresh.
+ * Once the elements are replaced the client acknowledges it, so that the extensions processing the displayed
+ * content can run again on the new elements.
+ */
+@JavaScript({"vaadin://../js/ui/extension/contentFragmentConnector.js" + LeosCacheToken.TOKEN})
+public class ContentFragmentExtension extends LeosJavaScriptExtension {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Runnable fullRefresh;
+    private final Runnable fragmentsReplaced;
+
+    /**
+     * @param target the label displaying the content
+     * @param fullRefresh called when the whole content has to be sent again
+     * @param fragmentsReplaced called once the elements are replaced in the displayed content
+     */
+    public ContentFragmentExtension(Label target, Runnable fullRefresh, Runnable fragmentsReplaced) {
+        super();
+        this.fullRefresh = fullRefresh;
+        this.fragmentsReplaced = fragmentsReplaced;
+        extend(target);
+        registerServerSideAPI();
+    }
+
+    /**
+     * @param fragments the markup of the elements to replace by element id
+     */
+    public void replaceFragments(Map<String, String> fragments) {
+        JsonObject data = Json.createObject();
+        fragments.forEach(data::put);
+        callFunction("replaceFragments", data);
+    }
+
+    private void registerServerSideAPI() {
+        addFunction("requestFullRefresh", new JavaScriptFunction() {
+            @Override
+            public void call(JsonArray arguments) {
+                LOG.debug("Fragments could not be replaced on the client side, refreshing the whole content...");
+                fullRefresh.run();
+            }
+        });
+        addFunction("fragmentsReplaced", new JavaScriptFunction() {
+            @Override
+            public void call(JsonArray arguments) {
+                LOG.trace("Fragments replaced on the client side...");
+                fragmentsReplaced.run();
+            }
+        });
+    }
+}
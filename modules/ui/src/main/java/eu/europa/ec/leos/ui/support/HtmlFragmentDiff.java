@@ -0,0 +1,143 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.ui.support;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Computes the smallest set of elements, identified by their id, to replace in the displayed document
+ * to go from one rendered version of a document to the next one.
+ * <p>
+ * Elements are compared top-down: an element whose own markup (everything except its identified descendants) or whose
+ * list of identified children changed is replaced as a whole, otherwise only its changed children are replaced.
+ * When the document skeleton itself changed, ids are not unique, or the fragments would not be significantly smaller
+ * than the document, no fragments are returned and the whole content has to be refreshed.
+ */
+public class HtmlFragmentDiff {
+
+    // seed added to the content on every update to force the refresh on the client side, it is not part of the document
+    private static final Pattern SEED = Pattern.compile("<div style='display:none' >\\d*</div>\\s*$");
+    private static final String FRAGMENT_MARKER = "leos-fragment";
+
+    private HtmlFragmentDiff() {
+    }
+
+    /**
+     * @param previousHtml the content currently displayed
+     * @param currentHtml the new content
+     * @param changedElementIds elements that must be sent even if their markup did not change (e.g. the element whose editor was closed)
+     * @return the fragments to replace by id, in document order, or empty when the whole content has to be refreshed
+     */
+    public static Optional<Map<String, String>> diff(String previousHtml, String currentHtml, Collection<String> changedElementIds) {
+        if (previousHtml == null || currentHtml == null) {
+            return Optional.empty();
+        }
+        final Element previousRoot = parse(previousHtml);
+        final Element currentRoot = parse(currentHtml);
+        final Set<String> forcedIds = new HashSet<>(changedElementIds);
+
+        if (!hasUniqueIds(currentRoot) || !forcedIds.stream().allMatch(id -> currentRoot.getElementById(id) != null)) {
+            return Optional.empty();
+        }
+        final Map<String, String> fragments = new LinkedHashMap<>();
+        if (!collect(previousRoot, currentRoot, forcedIds, fragments)) {
+            return Optional.empty();
+        }
+        int fragmentsLength = fragments.values().stream().mapToInt(String::length).sum();
+        if (fragmentsLength * 2 > currentHtml.length()) {
+            return Optional.empty();
+        }
+        return Optional.of(fragments);
+    }
+
+    private static Element parse(String html) {
+        final Document document = Jsoup.parseBodyFragment(SEED.matcher(html).replaceFirst(""));
+        // the fragments are inserted as they are, whitespace must be kept
+        document.outputSettings().prettyPrint(false);
+        return document.body();
+    }
+
+    private static boolean collect(Element previous, Element current, Set<String> forcedIds, Map<String, String> fragments) {
+        final List<Element> previousChildren = identifiedChildren(previous);
+        final List<Element> currentChildren = identifiedChildren(current);
+        if (!ids(previousChildren).equals(ids(currentChildren)) || !skeleton(previous).equals(skeleton(current))) {
+            return false;
+        }
+        for (int i = 0; i < currentChildren.size(); i++) {
+            final Element previousChild = previousChildren.get(i);
+            final Element currentChild = currentChildren.get(i);
+            if (forcedIds.contains(currentChild.id())) {
+                fragments.put(currentChild.id(), currentChild.outerHtml());
+            } else if (!previousChild.outerHtml().equals(currentChild.outerHtml()) || containsAny(currentChild, forcedIds)) {
+                if (!collect(previousChild, currentChild, forcedIds, fragments)) {
+                    fragments.put(currentChild.id(), currentChild.outerHtml());
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the closest descendants having an id, without going below them.
+     */
+    private static List<Element> identifiedChildren(Element element) {
+        final List<Element> identified = new ArrayList<>();
+        for (Element child : element.children()) {
+            if (!child.id().isEmpty()) {
+                identified.add(child);
+            } else {
+                identified.addAll(identifiedChildren(child));
+            }
+        }
+        return identified;
+    }
+
+    private static List<String> ids(List<Element> elements) {
+        return elements.stream().map(Element::id).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the markup of the element in which the identified descendants are replaced by a marker.
+     */
+    private static String skeleton(Element element) {
+        final Element copy = element.clone();
+        identifiedChildren(copy).forEach(child -> child.replaceWith(new Element(FRAGMENT_MARKER)));
+        return copy.outerHtml();
+    }
+
+    private static boolean containsAny(Element element, Set<String> ids) {
+        return !ids.isEmpty() && element.getAllElements().stream().anyMatch(descendant -> ids.contains(descendant.id()));
+    }
+
+    private static boolean hasUniqueIds(Element root) {
+        final Set<String> ids = new HashSet<>();
+        return root.getAllElements().stream()
+                .map(Element::id)
+                .filter(id -> !id.isEmpty())
+                .allMatch(ids::add);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.ui.support;
+
+import javax.servlet.http.HttpSession;
+import java.io.ByteArrayOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Unsaved content of a document kept in the HTTP session between the replace operations of the search bar and the save.
+ * <p>
+ * Only the content is kept, compressed, and not a copy of the whole document: the document and its metadata are
+ * resolved again from the repository when the working copy is used, so an open search bar costs a fraction of the
+ * size of the document in the session instead of a full copy of it.
+ */
+public final class SessionWorkingCopy implements Serializable {
+
+    private static final long serialVersionUID = 2431676534210871905L;
+
+    private final byte[] compressedContent;
+    private final int length;
+
+    public SessionWorkingCopy(byte[] content) {
+        this.compressedContent = compress(content);
+        this.length = content.length;
+    }
+
+    public static void store(HttpSession session, String key, byte[] content) {
+        session.setAttribute(key, new SessionWorkingCopy(content));
+    }
+
+    /**
+     * @return the content stored under the given key, or null if there is no working copy
+     */
+    public static byte[] load(HttpSession session, String key) {
+        Object workingCopy = session.getAttribute(key);
+        return workingCopy instanceof SessionWorkingCopy ? ((SessionWorkingCopy) workingCopy).decompress() : null;
+    }
+
+    public static boolean exists(HttpSession session, String key) {
+        return session.getAttribute(key) instanceof SessionWorkingCopy;
+    }
+
+    private static byte[] compress(byte[] content) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(content);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, content.length / 4));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] decompress() {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressedContent);
+            byte[] content = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished() && !inflater.needsInput()) {
+                read += inflater.inflate(content, read, length - read);
+            }
+            return read == length ? content : Arrays.copyOf(content, read);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Working copy of the document is corrupted", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.ui.support;
+
+import com.vaadin.ui.UI;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the delayed UI updates (status messages to clear, labels to reset...) of all the sessions on a small
+ * pool of daemon threads, instead of every component creating and leaking its own executor.
+ * The tasks are executed under the lock of the UI they belong to and are dropped when that UI is gone.
+ */
+@Component
+public class UiScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UiScheduler.class);
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    public UiScheduler(@Value("${leos.ui.scheduler.threads:2}") int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "leos-ui-scheduler-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = new ScheduledThreadPoolExecutor(Math.max(1, threads), threadFactory);
+        // cancelled tasks of detached components must not stay referenced until their delay elapses
+        this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Schedules the given task to be run in the given UI after the delay.
+     *
+     * @return the future of the task, to be cancelled when the component is detached before the delay elapsed
+     */
+    public ScheduledFuture<?> schedule(UI ui, Runnable task, long delay, TimeUnit unit) {
+        return executor.schedule(() -> {
+            if (ui != null && ui.isAttached()) {
+                ui.access(task);
+            } else {
+                LOG.trace("UI is detached, scheduled task dropped");
+            }
+        }, delay, unit);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
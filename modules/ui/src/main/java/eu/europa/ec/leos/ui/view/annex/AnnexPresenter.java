@@ -106,6 +106,7 @@ import eu.europa.ec.leos.ui.event.view.DownloadXmlFilesRequestEvent;
 import eu.europa.ec.leos.ui.model.AnnotateMetadata;
 import eu.europa.ec.leos.ui.support.CoEditionHelper;
 import eu.europa.ec.leos.ui.support.DownloadExportRequest;
+import eu.europa.ec.leos.ui.support.SessionWorkingCopy;
 import eu.europa.ec.leos.ui.view.AbstractLeosPresenter;
 import eu.europa.ec.leos.ui.view.CommonDelegate;
 import eu.europa.ec.leos.ui.view.ComparisonDelegate;
@@ -353,6 +354,10 @@ class AnnexPresenter extends AbstractLeosPresenter {
     }
 
     private void populateViewData(TocMode mode) {
+        populateViewData(mode, null);
+    }
+
+    private void populateViewData(TocMode mode, String changedElementId) {
         try{
             Annex annex = getDocument();
             Option<AnnexMetadata> annexMetadata = annex.getMetadata();
@@ -360,7 +365,11 @@ class AnnexPresenter extends AbstractLeosPresenter {
                 annexScreen.setTitle(annexMetadata.get().getTitle(), annexMetadata.get().getNumber());
             }
             annexScreen.setDocumentVersionInfo(getVersionInfo(annex));
-            annexScreen.setContent(getEditableXml(annex));
+            if (changedElementId != null) {
+                annexScreen.setContent(getEditableXml(annex), changedElementId);
+            } else {
+                annexScreen.setContent(getEditableXml(annex));
+            }
             annexScreen.setToc(getTableOfContent(annex, mode));
             annexScreen.setStructureChangeMenuItem();
             DocumentVO annexVO = createAnnexVO(annex);
@@ -746,11 +755,12 @@ class AnnexPresenter extends AbstractLeosPresenter {
     }
 
     private boolean isAnnexUnsaved(){
-        return getAnnexFromSession() != null;
+        return SessionWorkingCopy.exists(httpSession, "annex#" + getDocumentRef());
     }
 
     private Annex getAnnexFromSession() {
-        return (Annex) httpSession.getAttribute("annex#" + getDocumentRef());
+        byte[] content = SessionWorkingCopy.load(httpSession, "annex#" + getDocumentRef());
+        return content != null ? copyIntoNew(getDocument(), content) : null;
     }
 
     @Subscribe
@@ -770,7 +780,7 @@ class AnnexPresenter extends AbstractLeosPresenter {
 
     @Subscribe
     void refreshDocument(RefreshDocumentEvent event) {
-        populateViewData(event.getTocMode());
+        populateViewData(event.getTocMode(), event.getElementId());
     }
     
     @Subscribe
@@ -996,7 +1006,7 @@ class AnnexPresenter extends AbstractLeosPresenter {
         String elementId = event.getElementId();
         coEditionHelper.removeUserEditInfo(id, strDocumentVersionSeriesId, elementId, InfoType.ELEMENT_INFO);
         LOG.debug("User edit information removed");
-        eventBus.post(new RefreshDocumentEvent());
+        eventBus.post(new RefreshDocumentEvent(TocMode.SIMPLIFIED, elementId));
         if (elementToEditAfterClose != null) {
             annexScreen.scrollTo(elementToEditAfterClose.getElementId());
             eventBus.post(new EditElementRequestEvent(elementToEditAfterClose.getElementId(), elementToEditAfterClose.getElementTagName()));
@@ -1323,7 +1333,7 @@ class AnnexPresenter extends AbstractLeosPresenter {
 
     @Subscribe
     void searchTextInDocument(SearchTextRequestEvent event) {
-        Annex annex = (Annex) httpSession.getAttribute("annex#" + getDocumentRef());
+        Annex annex = getAnnexFromSession();
         if (annex == null) {
             annex = getDocument();
         }
@@ -1343,7 +1353,7 @@ class AnnexPresenter extends AbstractLeosPresenter {
         // save document into repository
         Annex annex = getDocument();
 
-        Annex annexFromSession = (Annex) httpSession.getAttribute("annex#" + getDocumentRef());
+        Annex annexFromSession = getAnnexFromSession();
         httpSession.removeAttribute("annex#" + getDocumentRef());
 
         annex = annexService.updateAnnex(annex, annexFromSession.getContent().get().getSource().getBytes(),
@@ -1370,7 +1380,7 @@ class AnnexPresenter extends AbstractLeosPresenter {
                 event.getSearchMatchVOs());
 
         Annex annexUpdated = copyIntoNew(annexFromSession, updatedContent);
-        httpSession.setAttribute("annex#" + getDocumentRef(), annexUpdated);
+        SessionWorkingCopy.store(httpSession, "annex#" + getDocumentRef(), updatedContent);
         annexScreen.setContent(getEditableXml(annexUpdated));
         eventBus.post(new ReplaceAllMatchResponseEvent(true));
     }
@@ -1411,12 +1421,12 @@ class AnnexPresenter extends AbstractLeosPresenter {
         // save document into repository
         Annex annex = getDocument();
 
-        Annex annexFromSession = (Annex) httpSession.getAttribute("annex#" + getDocumentRef());
+        Annex annexFromSession = getAnnexFromSession();
 
         annex = annexService.updateAnnex(annex, annexFromSession.getContent().get().getSource().getBytes(),
                 VersionType.MINOR, messageHelper.getMessage("operation.search.replace.updated"));
         if (annex != null) {
-            httpSession.setAttribute("annex#"+getDocumentRef(), annex);
+            SessionWorkingCopy.store(httpSession, "annex#" + getDocumentRef(), getContent(annex));
             eventBus.post(new DocumentUpdatedEvent());
             leosApplicationEventBus.post(new DocumentUpdatedByCoEditorEvent(user, strDocumentVersionSeriesId, id));
             eventBus.post(new NotificationEvent(Type.INFO, "document.replace.success"));
@@ -1438,7 +1448,7 @@ class AnnexPresenter extends AbstractLeosPresenter {
                     Arrays.asList(event.getSearchMatchVO()));
 
             Annex annexUpdated = copyIntoNew(annexFromSession, updatedContent);
-            httpSession.setAttribute("annex#" + getDocumentRef(), annexUpdated);
+            SessionWorkingCopy.store(httpSession, "annex#" + getDocumentRef(), updatedContent);
             annexScreen.setContent(getEditableXml(annexUpdated));
             annexScreen.refineSearch(event.getSearchId(), event.getMatchIndex(), true);
         } else {
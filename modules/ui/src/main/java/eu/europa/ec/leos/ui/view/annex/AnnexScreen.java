@@ -43,6 +43,8 @@ interface AnnexScreen {
 
     void setContent(String content);
 
+    void setContent(String content, String changedElementId);
+
     void refreshElementEditor(String elementId, String elementTagName, String elementContent);
 
     void showElementEditor(String elementId, String elementTagName, String element, LevelItemVO levelItemVO);
@@ -34,8 +34,10 @@ import com.vaadin.ui.Component;
 import com.vaadin.ui.TabSheet;
 import eu.europa.ec.leos.domain.common.InstanceType;
 import eu.europa.ec.leos.domain.vo.SearchMatchVO;
+import eu.europa.ec.leos.services.milestone.MilestoneContentService;
 import eu.europa.ec.leos.ui.event.search.ReplaceMatchResponseEvent;
 import eu.europa.ec.leos.ui.event.search.SearchTextResponseEvent;
+import eu.europa.ec.leos.ui.support.UiScheduler;
 import eu.europa.ec.leos.web.ui.component.SearchDelegate;
 import org.apache.commons.lang3.StringEscapeUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -198,6 +200,7 @@ abstract class AnnexScreenImpl extends VerticalLayout implements AnnexScreen {
     private AnnotateExtension<LeosDisplayField, String> annotateExtension;
 
     protected Provider<StructureContext> structureContextProvider;
+    protected UiScheduler uiScheduler;
     private PackageService packageService;
     private SearchDelegate searchDelegate;
 
@@ -210,10 +213,13 @@ abstract class AnnexScreenImpl extends VerticalLayout implements AnnexScreen {
     @Autowired
     LeosPermissionAuthorityMapHelper authorityMapHelper;
 
+    @Autowired
+    MilestoneContentService milestoneContentService;
+
     @Autowired
     AnnexScreenImpl(MessageHelper messageHelper, EventBus eventBus, SecurityContext securityContext, UserHelper userHelper,
             ConfigurationHelper cfgHelper, TocEditor tocEditor, InstanceTypeResolver instanceTypeResolver, VersionsTab<Annex> versionsTab,
-            Provider<StructureContext> structureContextProvider, PackageService packageService) {
+            Provider<StructureContext> structureContextProvider, PackageService packageService, UiScheduler uiScheduler) {
         LOG.trace("Initializing annex screen...");
         Validate.notNull(messageHelper, "MessageHelper must not be null!");
         this.messageHelper = messageHelper;
@@ -233,6 +239,8 @@ abstract class AnnexScreenImpl extends VerticalLayout implements AnnexScreen {
         this.versionsTab = versionsTab;
         Validate.notNull(structureContextProvider, "structureContextProvider must not be null!");
         this.structureContextProvider = structureContextProvider;
+        Validate.notNull(uiScheduler, "uiScheduler must not be null!");
+        this.uiScheduler = uiScheduler;
         Validate.notNull(structureContextProvider, "packageService must not be null!");
         this.packageService = packageService;
 
@@ -261,9 +269,15 @@ abstract class AnnexScreenImpl extends VerticalLayout implements AnnexScreen {
         annexContent.setValue(addTimestamp(content));
         refreshNoteButton.setVisible(false);
     }
+
+    @Override
+    public void setContent(String content, String changedElementId) {
+        annexContent.refreshValue(addTimestamp(content), changedElementId);
+        refreshNoteButton.setVisible(false);
+    }
     
     void init() {
-        tableOfContentComponent = new TableOfContentComponent(messageHelper, eventBus, securityContext, cfgHelper, tocEditor, structureContextProvider);
+        tableOfContentComponent = new TableOfContentComponent(messageHelper, eventBus, securityContext, cfgHelper, tocEditor, structureContextProvider, uiScheduler);
         accordion.addTab(tableOfContentComponent, messageHelper.getMessage("toc.title"), VaadinIcons.CHEVRON_DOWN);
         accordion.addTab(versionsTab, messageHelper.getMessage("document.accordion.versions"), VaadinIcons.CHEVRON_RIGHT);
         
@@ -293,6 +307,9 @@ abstract class AnnexScreenImpl extends VerticalLayout implements AnnexScreen {
         new MathJaxExtension<>(annexContent);
         new RefToLinkExtension<>(annexContent);
         userCoEditionExtension = new UserCoEditionExtension<>(annexContent, messageHelper, securityContext, cfgHelper);
+        if (Boolean.parseBoolean(cfgHelper.getProperty("leos.document.view.fragmentRefresh.enabled"))) {
+            annexContent.enableFragmentRefresh();
+        }
 
         refreshNoteButton();
         refreshButton();
@@ -689,7 +706,7 @@ abstract class AnnexScreenImpl extends VerticalLayout implements AnnexScreen {
     
     @Override
     public void showMilestoneExplorer(LegDocument legDocument, String milestoneTitle, String proposalRef) {
-        MilestoneExplorer milestoneExplorer = new MilestoneExplorer(legDocument, milestoneTitle, proposalRef, messageHelper, eventBus, cfgHelper, securityContext, userHelper);
+        MilestoneExplorer milestoneExplorer = new MilestoneExplorer(legDocument, milestoneTitle, proposalRef, messageHelper, eventBus, cfgHelper, securityContext, userHelper, milestoneContentService);
         UI.getCurrent().addWindow(milestoneExplorer);
         milestoneExplorer.center();
         milestoneExplorer.focus();
@@ -44,6 +44,7 @@ import eu.europa.ec.leos.ui.component.toc.TableOfContentItemConverter;
 import eu.europa.ec.leos.ui.component.versions.VersionsTab;
 import eu.europa.ec.leos.ui.event.view.AddStructureChangeMenuEvent;
 import eu.europa.ec.leos.ui.extension.SoftActionsExtension;
+import eu.europa.ec.leos.ui.support.UiScheduler;
 import eu.europa.ec.leos.ui.window.toc.TocEditor;
 import eu.europa.ec.leos.vo.toc.TableOfContentItemVO;
 import eu.europa.ec.leos.web.event.component.LayoutChangeRequestEvent;
@@ -64,8 +65,8 @@ public class MandateAnnexScreenImpl extends AnnexScreenImpl {
     MandateAnnexScreenImpl(MessageHelper messageHelper, EventBus eventBus, SecurityContext securityContext, UserHelper userHelper,
                            ConfigurationHelper cfgHelper, TocEditor numberEditor, InstanceTypeResolver instanceTypeResolver,
                            VersionsTab<Annex> versionsTab, Provider<StructureContext> structureContextProvider,
-                           PackageService packageService) {
-        super(messageHelper, eventBus, securityContext, userHelper, cfgHelper, numberEditor, instanceTypeResolver, versionsTab, structureContextProvider, packageService);
+                           PackageService packageService, UiScheduler uiScheduler) {
+        super(messageHelper, eventBus, securityContext, userHelper, cfgHelper, numberEditor, instanceTypeResolver, versionsTab, structureContextProvider, packageService, uiScheduler);
         ExportOptions exportOptions = new ExportDW(ExportOptions.Output.WORD, Annex.class, false);
         doubleComparisonComponent = new DoubleComparisonComponent<>(exportOptions, eventBus, messageHelper, securityContext);
     }
@@ -36,6 +36,7 @@ import eu.europa.ec.leos.ui.component.markedText.MarkedTextComponent;
 import eu.europa.ec.leos.ui.component.toc.TableOfContentItemConverter;
 import eu.europa.ec.leos.ui.component.versions.VersionsTab;
 import eu.europa.ec.leos.ui.event.view.AddStructureChangeMenuEvent;
+import eu.europa.ec.leos.ui.support.UiScheduler;
 import eu.europa.ec.leos.ui.window.toc.TocEditor;
 import eu.europa.ec.leos.vo.toc.TableOfContentItemVO;
 import eu.europa.ec.leos.web.event.component.LayoutChangeRequestEvent;
@@ -61,8 +62,8 @@ public class ProposalAnnexScreenImpl extends AnnexScreenImpl {
     ProposalAnnexScreenImpl(MessageHelper messageHelper, EventBus eventBus, SecurityContext securityContext, UserHelper userHelper,
             ConfigurationHelper cfgHelper, TocEditor numberEditor, InstanceTypeResolver instanceTypeResolver,
             VersionsTab<Annex> versionsTab, Provider<StructureContext> structureContextProvider, PackageService packageService,
-            MarkedTextComponent<Annex> markedTextComponent) {
-        super(messageHelper, eventBus, securityContext, userHelper, cfgHelper, numberEditor, instanceTypeResolver, versionsTab, structureContextProvider, packageService);
+            MarkedTextComponent<Annex> markedTextComponent, UiScheduler uiScheduler) {
+        super(messageHelper, eventBus, securityContext, userHelper, cfgHelper, numberEditor, instanceTypeResolver, versionsTab, structureContextProvider, packageService, uiScheduler);
         ExportOptions exportOptions = new ExportDW(ExportOptions.Output.WORD, Annex.class, false);
         markedTextComponent.setExportOptions(exportOptions);
         this.markedTextComponent = markedTextComponent;
@@ -33,6 +33,7 @@ import eu.europa.ec.leos.model.event.ExportPackageDeletedEvent;
 import eu.europa.ec.leos.model.event.ExportPackageUpdatedEvent;
 import eu.europa.ec.leos.model.event.MilestoneCreatedEvent;
 import eu.europa.ec.leos.model.event.MilestoneUpdatedEvent;
+import eu.europa.ec.leos.model.event.ProposalDeletedEvent;
 import eu.europa.ec.leos.model.event.UpdateUserInfoEvent;
 import eu.europa.ec.leos.model.messaging.UpdateInternalReferencesMessage;
 import eu.europa.ec.leos.model.notification.collaborators.AddCollaborator;
@@ -588,12 +589,28 @@ class CollectionPresenter extends AbstractLeosPresenter {
         String comment = messageHelper.getMessage("operation.metadata.updated");
         context.useActionMessage(ContextAction.METADATA_UPDATED, comment);
         context.useActionComment(comment);
-        context.executeUpdateProposal();
-        eventBus.post(new NotificationEvent(NotificationEvent.Type.INFO, "metadata.edit.saved"));
+        context.useActionMessage(ContextAction.METADATA_RESTORED, messageHelper.getMessage("operation.metadata.restored"));
+        context.executeUpdateProposalMetadata(this::notifyMetadataProgress)
+                .whenComplete((proposal, error) -> {
+                    if (error != null) {
+                        LOG.error("Unable to save the proposal metadata", error);
+                        eventBus.post(new NotificationEvent(leosUI, NotificationEvent.Type.ERROR, "metadata.edit.saved.error"));
+                    } else {
+                        eventBus.post(new NotificationEvent(leosUI, NotificationEvent.Type.INFO, "metadata.edit.saved"));
+                    }
+                });
         // TODO optimize refresh of data on the screen
         // populateData();
     }
 
+    private void notifyMetadataProgress(int completed, int total) {
+        // the documents are updated in the background, the progress is shown every quarter of the package
+        int step = Math.max(1, total / 4);
+        if (completed < total && completed % step == 0) {
+            eventBus.post(new NotificationEvent(leosUI, "metadata.edit.caption", "metadata.edit.progress", NotificationEvent.Type.TRAY, completed, total));
+        }
+    }
+
     @Subscribe
     void saveAnnexMetaData(SaveAnnexMetaDataRequest event) {
         // 1. get Annex
@@ -912,6 +929,7 @@ class CollectionPresenter extends AbstractLeosPresenter {
         CollectionContext context = proposalContextProvider.get();
         context.useProposal(proposalId);
         context.executeDeleteProposal();
+        leosApplicationEventBus.post(new ProposalDeletedEvent(proposalRef));
         if(cloneProposalMetadataVO != null && cloneProposalMetadataVO.isClonedProposal()) {
             String originalProposalId = cloneProposalMetadataVO.getClonedFromObjectId();
             proposalService.removeClonedProposalMetadata(originalProposalId, proposalRef, cloneProposalMetadataVO);
@@ -52,6 +52,7 @@ import eu.europa.ec.leos.model.user.User;
 import eu.europa.ec.leos.security.LeosPermission;
 import eu.europa.ec.leos.security.LeosPermissionAuthorityMapHelper;
 import eu.europa.ec.leos.security.SecurityContext;
+import eu.europa.ec.leos.services.milestone.MilestoneContentService;
 import eu.europa.ec.leos.ui.component.export.ExportPackageComponent;
 import eu.europa.ec.leos.ui.component.milestones.MilestonesComponent;
 import eu.europa.ec.leos.ui.event.CloseScreenRequestEvent;
@@ -203,6 +204,9 @@ abstract class CollectionScreenImpl extends VerticalLayout implements Collection
     @Value("${leos.coedition.sip.domain}")
     private String coEditionSipDomain;
 
+    @Autowired
+    MilestoneContentService milestoneContentService;
+
     @Autowired
     CollectionScreenImpl(UserHelper userHelper, MessageHelper messageHelper, EventBus eventBus, LanguageHelper langHelper,
                                     ConfigurationHelper cfgHelper, WebApplicationContext webApplicationContext,
@@ -631,7 +635,7 @@ abstract class CollectionScreenImpl extends VerticalLayout implements Collection
     
     @Override
     public void showMilestoneExplorer(LegDocument legDocument, String milestoneTitle, String proposalRef){
-        MilestoneExplorer milestoneExplorer = new MilestoneExplorer(legDocument, milestoneTitle, proposalRef, messageHelper, eventBus, cfgHelper, securityContext, userHelper);
+        MilestoneExplorer milestoneExplorer = new MilestoneExplorer(legDocument, milestoneTitle, proposalRef, messageHelper, eventBus, cfgHelper, securityContext, userHelper, milestoneContentService);
         UI.getCurrent().addWindow(milestoneExplorer);
         milestoneExplorer.center();
         milestoneExplorer.focus();
@@ -107,6 +107,7 @@ import eu.europa.ec.leos.ui.event.view.DownloadXmlFilesRequestEvent;
 import eu.europa.ec.leos.ui.model.AnnotateMetadata;
 import eu.europa.ec.leos.ui.support.CoEditionHelper;
 import eu.europa.ec.leos.ui.support.DownloadExportRequest;
+import eu.europa.ec.leos.ui.support.SessionWorkingCopy;
 import eu.europa.ec.leos.ui.view.AbstractLeosPresenter;
 import eu.europa.ec.leos.ui.view.CommonDelegate;
 import eu.europa.ec.leos.ui.view.ComparisonDelegate;
@@ -397,7 +398,7 @@ class DocumentPresenter extends AbstractLeosPresenter {
         eventBus.post(new NavigationRequestEvent(Target.PREVIOUS));
     }
     private boolean isBillUnsaved(){
-        return getBillFromSession() != null;
+        return SessionWorkingCopy.exists(httpSession, "bill#" + getDocumentRef());
     }
 
     @Subscribe
@@ -417,7 +418,7 @@ class DocumentPresenter extends AbstractLeosPresenter {
 
     @Subscribe
     void refreshDocument(RefreshDocumentEvent event) {
-        populateViewWithDocumentDetails(event.getTocMode());
+        populateViewWithDocumentDetails(event.getTocMode(), event.getElementId());
     }
     
     @Subscribe
@@ -548,7 +549,7 @@ class DocumentPresenter extends AbstractLeosPresenter {
         String elementId = event.getElementId();
         coEditionHelper.removeUserEditInfo(id, strDocumentVersionSeriesId, elementId, InfoType.ELEMENT_INFO);
         LOG.debug("User edit information removed");
-        eventBus.post(new RefreshDocumentEvent());
+        eventBus.post(new RefreshDocumentEvent(TocMode.SIMPLIFIED, elementId));
         if (elementToEditAfterClose != null) {
             documentScreen.scrollTo(elementToEditAfterClose.getElementId());
             eventBus.post(new EditElementRequestEvent(elementToEditAfterClose.getElementId(), elementToEditAfterClose.getElementTagName()));
@@ -571,7 +572,8 @@ class DocumentPresenter extends AbstractLeosPresenter {
     }
 
     private Bill getBillFromSession() {
-        return (Bill) httpSession.getAttribute("bill#" + getDocumentRef());
+        byte[] content = SessionWorkingCopy.load(httpSession, "bill#" + getDocumentRef());
+        return content != null ? copyIntoNew(getDocument(), content) : null;
     }
 
     @Subscribe
@@ -798,11 +800,19 @@ class DocumentPresenter extends AbstractLeosPresenter {
     }
 
     private void populateViewWithDocumentDetails(TocMode mode) {
+        populateViewWithDocumentDetails(mode, null);
+    }
+
+    private void populateViewWithDocumentDetails(TocMode mode, String changedElementId) {
         Bill bill = getDocument();
         if (bill != null) {
             documentScreen.setDocumentTitle(bill.getTitle());
             documentScreen.setDocumentVersionInfo(getVersionInfo(bill));
-            documentScreen.refreshContent(getEditableXml(bill));
+            if (changedElementId != null) {
+                documentScreen.refreshContent(getEditableXml(bill), changedElementId);
+            } else {
+                documentScreen.refreshContent(getEditableXml(bill));
+            }
             documentScreen.setToc(getListOfTableOfContent(bill, mode));
             DocumentVO billVO = createLegalTextVO(bill);
             documentScreen.updateUserCoEditionInfo(coEditionHelper.getCurrentEditInfo(bill.getVersionSeriesId()), id);
@@ -905,7 +915,7 @@ class DocumentPresenter extends AbstractLeosPresenter {
                 event.getSearchText(), event.getReplaceText(), event.getSearchMatchVOs());
 
         Bill billUpdated = copyIntoNew(billFromSession, updatedContent);
-        httpSession.setAttribute("bill#" + getDocumentRef(), billUpdated);
+        SessionWorkingCopy.store(httpSession, "bill#" + getDocumentRef(), updatedContent);
         documentScreen.refreshContent(getEditableXml(billUpdated));
         eventBus.post(new ReplaceAllMatchResponseEvent(true));
     }
@@ -992,7 +1002,7 @@ class DocumentPresenter extends AbstractLeosPresenter {
                     event.getSearchText(), event.getReplaceText(), Arrays.asList(event.getSearchMatchVO()));
 
             Bill billUpdated = copyIntoNew(billFromSession, updatedContent);
-            httpSession.setAttribute("bill#" + getDocumentRef(), billUpdated);
+            SessionWorkingCopy.store(httpSession, "bill#" + getDocumentRef(), updatedContent);
             documentScreen.refreshContent(getEditableXml(billUpdated));
             documentScreen.refineSearch(event.getSearchId(), event.getMatchIndex(), true);
         } else {
@@ -45,6 +45,8 @@ interface DocumentScreen {
 
     void refreshContent(final String documentContent);
 
+    void refreshContent(final String documentContent, String changedElementId);
+
     void populateMarkedContent(String comparedContent, String comparedInfo, Bill original, Bill current);
 
     void populateDoubleComparisonContent(String comparedContent, String comparedInfo, Bill original, Bill intermediate, Bill current);
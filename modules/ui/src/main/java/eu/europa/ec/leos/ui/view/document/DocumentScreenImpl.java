@@ -38,6 +38,7 @@ import eu.europa.ec.leos.model.user.User;
 import eu.europa.ec.leos.security.LeosPermission;
 import eu.europa.ec.leos.security.LeosPermissionAuthorityMapHelper;
 import eu.europa.ec.leos.security.SecurityContext;
+import eu.europa.ec.leos.services.milestone.MilestoneContentService;
 import eu.europa.ec.leos.services.store.PackageService;
 import eu.europa.ec.leos.services.toc.StructureContext;
 import eu.europa.ec.leos.ui.component.AccordionPane;
@@ -50,6 +51,7 @@ import eu.europa.ec.leos.ui.event.search.ReplaceMatchResponseEvent;
 import eu.europa.ec.leos.ui.event.search.SearchTextResponseEvent;
 import eu.europa.ec.leos.ui.event.security.SecurityTokenRequest;
 import eu.europa.ec.leos.ui.event.security.SecurityTokenResponse;
+import eu.europa.ec.leos.ui.support.UiScheduler;
 import eu.europa.ec.leos.ui.view.ComparisonDisplayMode;
 import eu.europa.ec.leos.ui.view.TriFunction;
 import eu.europa.ec.leos.ui.window.milestone.MilestoneExplorer;
@@ -136,6 +138,7 @@ abstract class DocumentScreenImpl extends VerticalLayout implements DocumentScre
     protected LeosPermissionAuthorityMapHelper authorityMapHelper;
     protected ComparisonComponent<Bill> comparisonComponent;
     protected Provider<StructureContext> structureContextProvider;
+    protected UiScheduler uiScheduler;
     private PackageService packageService;
 
     @Value("${leos.coedition.sip.enabled}")
@@ -144,13 +147,16 @@ abstract class DocumentScreenImpl extends VerticalLayout implements DocumentScre
     @Value("${leos.coedition.sip.domain}")
     private String coEditionSipDomain;
 
+    @Autowired
+    MilestoneContentService milestoneContentService;
+
     @Autowired
     DocumentScreenImpl(UserHelper userHelper, SecurityContext securityContext, EventBus eventBus, ConfigurationHelper cfgHelper,
                        MessageHelper messageHelper, TocEditor tocEditor, InstanceTypeResolver instanceTypeResolver,
                        MenuBarComponent menuBarComponent, LeosPermissionAuthorityMapHelper authorityMapHelper,
                        LegalTextActionsMenuBar legalTextActionMenuBar, ComparisonComponent<Bill> comparisonComponent,
                        VersionsTab<Bill> versionsTab, Provider<StructureContext> structureContextProvider,
-                       PackageService packageService) {
+                       PackageService packageService, UiScheduler uiScheduler) {
         LOG.trace("Initializing document screen...");
         Validate.notNull(userHelper, "UserHelper must not be null!");
         this.userHelper = userHelper;
@@ -178,6 +184,8 @@ abstract class DocumentScreenImpl extends VerticalLayout implements DocumentScre
         this.versionsTab = versionsTab;
         Validate.notNull(structureContextProvider, "structureContextProvider must not be null!");
         this.structureContextProvider = structureContextProvider;
+        Validate.notNull(uiScheduler, "uiScheduler must not be null!");
+        this.uiScheduler = uiScheduler;
         Validate.notNull(structureContextProvider, "packageService must not be null!");
         this.packageService = packageService;
         init();
@@ -238,7 +246,7 @@ abstract class DocumentScreenImpl extends VerticalLayout implements DocumentScre
     protected void buildDocumentPane() {
         LOG.debug("Building document pane...");
         // Add Legal Text Pane and add content and toc in it
-        legalTextPaneComponent = new LegalTextPaneComponent(eventBus, messageHelper, cfgHelper, securityContext, legalTextActionMenuBar, tocEditor, versionsTab, structureContextProvider, packageService, userHelper);
+        legalTextPaneComponent = new LegalTextPaneComponent(eventBus, messageHelper, cfgHelper, securityContext, legalTextActionMenuBar, tocEditor, versionsTab, structureContextProvider, packageService, userHelper, uiScheduler);
         addComponent(legalTextPaneComponent);
         setExpandRatio(legalTextPaneComponent, 1.0f);
     }
@@ -258,6 +266,11 @@ abstract class DocumentScreenImpl extends VerticalLayout implements DocumentScre
         legalTextPaneComponent.populateContent(documentContent);
     }
 
+    @Override
+    public void refreshContent(final String documentContent, String changedElementId) {
+        legalTextPaneComponent.populateContent(documentContent, changedElementId);
+    }
+
     public abstract void showVersion(String content, String versionInfo);
 
     public abstract void populateMarkedContent(String comparedContent, String versionInfo, Bill original, Bill current);
@@ -511,7 +524,7 @@ abstract class DocumentScreenImpl extends VerticalLayout implements DocumentScre
     @Override
     public void showMilestoneExplorer(LegDocument legDocument, String milestoneTitle, String proposalRef) {
         legalTextPaneComponent.removeAnnotateExtension();
-        MilestoneExplorer milestoneExplorer = new MilestoneExplorer(legDocument, milestoneTitle, proposalRef, messageHelper, eventBus, cfgHelper, securityContext, userHelper);
+        MilestoneExplorer milestoneExplorer = new MilestoneExplorer(legDocument, milestoneTitle, proposalRef, messageHelper, eventBus, cfgHelper, securityContext, userHelper, milestoneContentService);
         UI.getCurrent().addWindow(milestoneExplorer);
         milestoneExplorer.center();
         milestoneExplorer.focus();
@@ -50,6 +50,7 @@ import eu.europa.ec.leos.ui.component.ComparisonComponent;
 import eu.europa.ec.leos.ui.component.doubleCompare.DoubleComparisonComponent;
 import eu.europa.ec.leos.ui.component.versions.VersionsTab;
 import eu.europa.ec.leos.ui.extension.SoftActionsExtension;
+import eu.europa.ec.leos.ui.support.UiScheduler;
 import eu.europa.ec.leos.ui.window.toc.TocEditor;
 import eu.europa.ec.leos.vo.toc.TableOfContentItemVO;
 import eu.europa.ec.leos.web.event.component.LayoutChangeRequestEvent;
@@ -77,9 +78,9 @@ public class MandateDocumentScreenImpl extends DocumentScreenImpl {
     MandateDocumentScreenImpl(UserHelper userHelper, SecurityContext securityContext, EventBus eventBus, ConfigurationHelper cfgHelper,
             MessageHelper messageHelper, TocEditor tocEditor, InstanceTypeResolver instanceTypeResolver,
             MenuBarComponent menuBarComponent, LeosPermissionAuthorityMapHelper authorityMapHelper, LegalTextActionsMenuBar legalTextActionMenuBar, ComparisonComponent<Bill> comparisonComponent,
-            VersionsTab<Bill> versionsTab, Provider<StructureContext> structureContextProvider, PackageService packageService) {
+            VersionsTab<Bill> versionsTab, Provider<StructureContext> structureContextProvider, PackageService packageService, UiScheduler uiScheduler) {
         super(userHelper, securityContext, eventBus, cfgHelper, messageHelper, tocEditor, instanceTypeResolver, menuBarComponent, authorityMapHelper,
-                legalTextActionMenuBar, comparisonComponent, versionsTab, structureContextProvider, packageService);
+                legalTextActionMenuBar, comparisonComponent, versionsTab, structureContextProvider, packageService, uiScheduler);
 
         ExportOptions exportOptions = new ExportDW(ExportOptions.Output.WORD, Bill.class, false);
         doubleComparisonComponent = new DoubleComparisonComponent<>(exportOptions, eventBus, messageHelper, securityContext);
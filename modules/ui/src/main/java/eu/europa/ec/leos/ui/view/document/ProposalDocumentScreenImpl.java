@@ -36,6 +36,7 @@ import eu.europa.ec.leos.ui.component.ComparisonComponent;
 import eu.europa.ec.leos.ui.component.markedText.MarkedTextComponent;
 import eu.europa.ec.leos.ui.component.versions.VersionsTab;
 import eu.europa.ec.leos.ui.extension.SoftActionsExtension;
+import eu.europa.ec.leos.ui.support.UiScheduler;
 import eu.europa.ec.leos.ui.window.toc.TocEditor;
 import eu.europa.ec.leos.vo.toc.TableOfContentItemVO;
 import eu.europa.ec.leos.web.event.component.LayoutChangeRequestEvent;
@@ -66,9 +67,9 @@ public class ProposalDocumentScreenImpl extends DocumentScreenImpl {
                                MessageHelper messageHelper, TocEditor tocEditor, InstanceTypeResolver instanceTypeResolver,
                                MenuBarComponent menuBarComponent, LeosPermissionAuthorityMapHelper authorityMapHelper, LegalTextActionsMenuBar legalTextActionMenuBar,
                                ComparisonComponent<Bill> comparisonComponent, VersionsTab<Bill> versionsTab, Provider<StructureContext> structureContextProvider,
-                               PackageService packageService, MarkedTextComponent<Bill> markedTextComponent) {
+                               PackageService packageService, MarkedTextComponent<Bill> markedTextComponent, UiScheduler uiScheduler) {
         super(userHelper, securityContext, eventBus, cfgHelper, messageHelper, tocEditor, instanceTypeResolver, menuBarComponent, authorityMapHelper,
-                legalTextActionMenuBar, comparisonComponent, versionsTab, structureContextProvider, packageService);
+                legalTextActionMenuBar, comparisonComponent, versionsTab, structureContextProvider, packageService, uiScheduler);
         ExportOptions exportOptions = new ExportDW(ExportOptions.Output.WORD, Bill.class, false);
         markedTextComponent.setExportOptions(exportOptions);
         this.markedTextComponent = markedTextComponent;
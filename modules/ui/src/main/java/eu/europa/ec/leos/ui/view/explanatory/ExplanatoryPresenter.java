@@ -74,6 +74,7 @@ import eu.europa.ec.leos.ui.event.toc.*;
 import eu.europa.ec.leos.ui.event.view.DownloadXmlFilesRequestEvent;
 import eu.europa.ec.leos.ui.model.AnnotateMetadata;
 import eu.europa.ec.leos.ui.support.CoEditionHelper;
+import eu.europa.ec.leos.ui.support.SessionWorkingCopy;
 import eu.europa.ec.leos.ui.view.AbstractLeosPresenter;
 import eu.europa.ec.leos.ui.view.CommonDelegate;
 import eu.europa.ec.leos.ui.view.ComparisonDelegate;
@@ -272,6 +273,10 @@ class ExplanatoryPresenter extends AbstractLeosPresenter {
     }
 
     private void populateViewData(TocMode mode) {
+        populateViewData(mode, null);
+    }
+
+    private void populateViewData(TocMode mode, String changedElementId) {
         try{
             Explanatory explanatory = getDocument();
             Option<ExplanatoryMetadata> explanatoryMetadata = explanatory.getMetadata();
@@ -279,7 +284,11 @@ class ExplanatoryPresenter extends AbstractLeosPresenter {
                 explanatoryScreen.setTitle(messageHelper.getMessage("document.explanatory.title.default"));
             }
             explanatoryScreen.setDocumentVersionInfo(getVersionInfo(explanatory));
-            explanatoryScreen.setContent(getEditableXml(explanatory));
+            if (changedElementId != null) {
+                explanatoryScreen.setContent(getEditableXml(explanatory), changedElementId);
+            } else {
+                explanatoryScreen.setContent(getEditableXml(explanatory));
+            }
             explanatoryScreen.setToc(getTableOfContent(explanatory, mode));
             DocumentVO explanatoryVO = createExplanatoryVO(explanatory);
             explanatoryScreen.updateUserCoEditionInfo(coEditionHelper.getCurrentEditInfo(explanatory.getVersionSeriesId()), id);
@@ -603,11 +612,12 @@ class ExplanatoryPresenter extends AbstractLeosPresenter {
     }
 
     private boolean isExplanatoryUnsaved(){
-        return getExplanatoryFromSession() != null;
+        return SessionWorkingCopy.exists(httpSession, "explanatory#" + getDocumentRef());
     }
 
     private Explanatory getExplanatoryFromSession() {
-        return (Explanatory) httpSession.getAttribute("explanatory#" + getDocumentRef());
+        byte[] content = SessionWorkingCopy.load(httpSession, "explanatory#" + getDocumentRef());
+        return content != null ? copyIntoNew(getDocument(), content) : null;
     }
 
     @Subscribe
@@ -627,7 +637,7 @@ class ExplanatoryPresenter extends AbstractLeosPresenter {
 
     @Subscribe
     void refreshDocument(RefreshDocumentEvent event) {
-        populateViewData(event.getTocMode());
+        populateViewData(event.getTocMode(), event.getElementId());
     }
 
     @Subscribe
@@ -848,7 +858,7 @@ class ExplanatoryPresenter extends AbstractLeosPresenter {
         String elementId = event.getElementId();
         coEditionHelper.removeUserEditInfo(id, strDocumentVersionSeriesId, elementId, InfoType.ELEMENT_INFO);
         LOG.debug("User edit information removed");
-        eventBus.post(new RefreshDocumentEvent());
+        eventBus.post(new RefreshDocumentEvent(TocMode.SIMPLIFIED, elementId));
         if (elementToEditAfterClose != null) {
             explanatoryScreen.scrollTo(elementToEditAfterClose.getElementId());
             eventBus.post(new EditElementRequestEvent(elementToEditAfterClose.getElementId(), elementToEditAfterClose.getElementTagName()));
@@ -1152,7 +1162,7 @@ class ExplanatoryPresenter extends AbstractLeosPresenter {
 
     @Subscribe
     void searchTextInDocument(SearchTextRequestEvent event) {
-        Explanatory explanatory = (Explanatory) httpSession.getAttribute("explanatory#" + getDocumentRef());
+        Explanatory explanatory = getExplanatoryFromSession();
         if (explanatory == null) {
             explanatory = getDocument();
         }
@@ -1172,7 +1182,7 @@ class ExplanatoryPresenter extends AbstractLeosPresenter {
         // save document into repository
         Explanatory explanatory = getDocument();
 
-        Explanatory explanatoryFromSession = (Explanatory) httpSession.getAttribute("explanatory#" + getDocumentRef());
+        Explanatory explanatoryFromSession = getExplanatoryFromSession();
         httpSession.removeAttribute("explanatory#" + getDocumentRef());
 
         explanatory = explanatoryService.updateExplanatory(explanatory, explanatoryFromSession.getContent().get().getSource().getBytes(),
@@ -1199,7 +1209,7 @@ class ExplanatoryPresenter extends AbstractLeosPresenter {
                 event.getSearchMatchVOs());
 
         Explanatory explanatoryUpdated = copyIntoNew(explanatoryFromSession, updatedContent);
-        httpSession.setAttribute("explanatory#" + getDocumentRef(), explanatoryUpdated);
+        SessionWorkingCopy.store(httpSession, "explanatory#" + getDocumentRef(), updatedContent);
         explanatoryScreen.setContent(getEditableXml(explanatoryUpdated));
         eventBus.post(new ReplaceAllMatchResponseEvent(true));
     }
@@ -1240,12 +1250,12 @@ class ExplanatoryPresenter extends AbstractLeosPresenter {
         // save document into repository
         Explanatory explanatory = getDocument();
 
-        Explanatory explanatoryFromSession = (Explanatory) httpSession.getAttribute("explanatory#" + getDocumentRef());
+        Explanatory explanatoryFromSession = getExplanatoryFromSession();
 
         explanatory = explanatoryService.updateExplanatory(explanatory, explanatoryFromSession.getContent().get().getSource().getBytes(),
                 VersionType.MINOR, messageHelper.getMessage("operation.search.replace.updated"));
         if (explanatory != null) {
-            httpSession.setAttribute("explanatory#"+getDocumentRef(), explanatory);
+            SessionWorkingCopy.store(httpSession, "explanatory#" + getDocumentRef(), getContent(explanatory));
             eventBus.post(new DocumentUpdatedEvent());
             leosApplicationEventBus.post(new DocumentUpdatedByCoEditorEvent(user, strDocumentVersionSeriesId, id));
             eventBus.post(new NotificationEvent(Type.INFO, "document.replace.success"));
@@ -1267,7 +1277,7 @@ class ExplanatoryPresenter extends AbstractLeosPresenter {
                     Arrays.asList(event.getSearchMatchVO()));
 
             Explanatory explanatoryUpdated = copyIntoNew(explanatoryFromSession, updatedContent);
-            httpSession.setAttribute("explanatory#" + getDocumentRef(), explanatoryUpdated);
+            SessionWorkingCopy.store(httpSession, "explanatory#" + getDocumentRef(), updatedContent);
             explanatoryScreen.setContent(getEditableXml(explanatoryUpdated));
             explanatoryScreen.refineSearch(event.getSearchId(), event.getMatchIndex(), true);
         } else {
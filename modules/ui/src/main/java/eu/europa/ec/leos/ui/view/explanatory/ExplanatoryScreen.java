@@ -42,6 +42,8 @@ interface ExplanatoryScreen {
 
     void setContent(String content);
 
+    void setContent(String content, String changedElementId);
+
     void refreshElementEditor(String elementId, String elementTagName, String elementContent);
 
     void showElementEditor(String elementId, String elementTagName, String element);
@@ -44,6 +44,7 @@ import eu.europa.ec.leos.model.user.User;
 import eu.europa.ec.leos.security.LeosPermission;
 import eu.europa.ec.leos.security.LeosPermissionAuthorityMapHelper;
 import eu.europa.ec.leos.security.SecurityContext;
+import eu.europa.ec.leos.services.milestone.MilestoneContentService;
 import eu.europa.ec.leos.services.store.PackageService;
 import eu.europa.ec.leos.services.support.TableOfContentHelper;
 import eu.europa.ec.leos.services.toc.StructureContext;
@@ -64,6 +65,7 @@ import eu.europa.ec.leos.ui.event.toc.DisableEditTocEvent;
 import eu.europa.ec.leos.ui.event.toc.ExpandTocSliderPanel;
 import eu.europa.ec.leos.ui.event.toc.InlineTocCloseRequestEvent;
 import eu.europa.ec.leos.ui.extension.*;
+import eu.europa.ec.leos.ui.support.UiScheduler;
 import eu.europa.ec.leos.ui.view.ComparisonDisplayMode;
 import eu.europa.ec.leos.ui.view.ScreenLayoutHelper;
 import eu.europa.ec.leos.ui.view.TriFunction;
@@ -166,6 +168,7 @@ abstract class ExplanatoryScreenImpl extends VerticalLayout implements Explanato
     private AnnotateExtension<LeosDisplayField, String> annotateExtension;
 
     protected Provider<StructureContext> structureContextProvider;
+    protected UiScheduler uiScheduler;
     private PackageService packageService;
     private SearchDelegate searchDelegate;
 
@@ -178,10 +181,13 @@ abstract class ExplanatoryScreenImpl extends VerticalLayout implements Explanato
     @Autowired
     LeosPermissionAuthorityMapHelper authorityMapHelper;
 
+    @Autowired
+    MilestoneContentService milestoneContentService;
+
     @Autowired
     ExplanatoryScreenImpl(MessageHelper messageHelper, EventBus eventBus, SecurityContext securityContext, UserHelper userHelper,
             ConfigurationHelper cfgHelper, TocEditor tocEditor, InstanceTypeResolver instanceTypeResolver, VersionsTab<Explanatory> versionsTab,
-            Provider<StructureContext> structureContextProvider, PackageService packageService) {
+            Provider<StructureContext> structureContextProvider, PackageService packageService, UiScheduler uiScheduler) {
         LOG.trace("Initializing explanatory screen...");
         Validate.notNull(messageHelper, "MessageHelper must not be null!");
         this.messageHelper = messageHelper;
@@ -201,6 +207,8 @@ abstract class ExplanatoryScreenImpl extends VerticalLayout implements Explanato
         this.versionsTab = versionsTab;
         Validate.notNull(structureContextProvider, "structureContextProvider must not be null!");
         this.structureContextProvider = structureContextProvider;
+        Validate.notNull(uiScheduler, "uiScheduler must not be null!");
+        this.uiScheduler = uiScheduler;
         Validate.notNull(structureContextProvider, "packageService must not be null!");
         this.packageService = packageService;
 
@@ -223,9 +231,15 @@ abstract class ExplanatoryScreenImpl extends VerticalLayout implements Explanato
         explanatoryContent.setValue(addTimestamp(content));
         refreshNoteButton.setVisible(false);
     }
+
+    @Override
+    public void setContent(String content, String changedElementId) {
+        explanatoryContent.refreshValue(addTimestamp(content), changedElementId);
+        refreshNoteButton.setVisible(false);
+    }
     
     void init() {
-        tableOfContentComponent = new TableOfContentComponent(messageHelper, eventBus, securityContext, cfgHelper, tocEditor, structureContextProvider);
+        tableOfContentComponent = new TableOfContentComponent(messageHelper, eventBus, securityContext, cfgHelper, tocEditor, structureContextProvider, uiScheduler);
         accordion.addTab(tableOfContentComponent, messageHelper.getMessage("toc.title"), VaadinIcons.CHEVRON_DOWN);
         accordion.addTab(versionsTab, messageHelper.getMessage("document.accordion.versions"), VaadinIcons.CHEVRON_RIGHT);
         
@@ -254,6 +268,9 @@ abstract class ExplanatoryScreenImpl extends VerticalLayout implements Explanato
         new MathJaxExtension<>(explanatoryContent);
         new RefToLinkExtension<>(explanatoryContent);
         userCoEditionExtension = new UserCoEditionExtension<>(explanatoryContent, messageHelper, securityContext, cfgHelper);
+        if (Boolean.parseBoolean(cfgHelper.getProperty("leos.document.view.fragmentRefresh.enabled"))) {
+            explanatoryContent.enableFragmentRefresh();
+        }
 
         refreshNoteButton();
         refreshButton();
@@ -639,7 +656,7 @@ abstract class ExplanatoryScreenImpl extends VerticalLayout implements Explanato
     
     @Override
     public void showMilestoneExplorer(LegDocument legDocument, String milestoneTitle, String proposalRef) {
-        MilestoneExplorer milestoneExplorer = new MilestoneExplorer(legDocument, milestoneTitle, proposalRef, messageHelper, eventBus, cfgHelper, securityContext, userHelper);
+        MilestoneExplorer milestoneExplorer = new MilestoneExplorer(legDocument, milestoneTitle, proposalRef, messageHelper, eventBus, cfgHelper, securityContext, userHelper, milestoneContentService);
         UI.getCurrent().addWindow(milestoneExplorer);
         milestoneExplorer.center();
         milestoneExplorer.focus();
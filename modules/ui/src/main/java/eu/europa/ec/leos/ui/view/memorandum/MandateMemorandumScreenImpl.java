@@ -29,6 +29,7 @@ import eu.europa.ec.leos.services.store.PackageService;
 import eu.europa.ec.leos.services.toc.StructureContext;
 import eu.europa.ec.leos.ui.component.versions.VersionComparator;
 import eu.europa.ec.leos.ui.component.versions.VersionsTab;
+import eu.europa.ec.leos.ui.support.UiScheduler;
 import eu.europa.ec.leos.ui.window.toc.TocEditor;
 import eu.europa.ec.leos.web.event.component.LayoutChangeRequestEvent;
 import eu.europa.ec.leos.web.event.view.document.FetchUserPermissionsResponse;
@@ -53,9 +54,9 @@ class MandateMemorandumScreenImpl extends MemorandumScreenImpl {
     MandateMemorandumScreenImpl(SecurityContext securityContext, EventBus eventBus, MessageHelper messageHelper, ConfigurationHelper cfgHelper,
             UserHelper userHelper, TocEditor tocEditor, InstanceTypeResolver instanceTypeResolver, VersionsTab versionsTab,
             Provider<StructureContext> structureContext, PackageService packageService, VersionComparator versionComparator,
-            MarkedTextComponent<Memorandum> markedTextComponent) {
+            MarkedTextComponent<Memorandum> markedTextComponent, UiScheduler uiScheduler) {
         super(securityContext, eventBus, messageHelper, cfgHelper, userHelper, tocEditor, instanceTypeResolver,
-                versionsTab, structureContext, packageService, versionComparator, markedTextComponent);
+                versionsTab, structureContext, packageService, versionComparator, markedTextComponent, uiScheduler);
     }
     
     @Override
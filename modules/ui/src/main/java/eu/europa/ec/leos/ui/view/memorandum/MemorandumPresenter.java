@@ -75,6 +75,7 @@ import eu.europa.ec.leos.ui.event.view.DownloadLRRequestEvent;
 import eu.europa.ec.leos.ui.event.view.DownloadPRequestEvent;
 import eu.europa.ec.leos.ui.model.AnnotateMetadata;
 import eu.europa.ec.leos.ui.support.CoEditionHelper;
+import eu.europa.ec.leos.ui.support.SessionWorkingCopy;
 import eu.europa.ec.leos.ui.view.AbstractLeosPresenter;
 import eu.europa.ec.leos.ui.view.CommonDelegate;
 import eu.europa.ec.leos.ui.view.ComparisonDelegate;
@@ -292,12 +293,20 @@ class MemorandumPresenter extends AbstractLeosPresenter {
     }
 
     private void populateViewData() {
+        populateViewData(null);
+    }
+
+    private void populateViewData(String changedElementId) {
         try{
             Memorandum memorandum = getDocument();
             memorandumScreen.setTitle("Explanatory Memorandum"); //FIXME Temporary implementation waiting for Memorandum title feature development
             memorandumScreen.setDocumentVersionInfo(getVersionInfo(memorandum));
             String content = getEditableXml(memorandum);
-            memorandumScreen.setContent(content);
+            if (changedElementId != null) {
+                memorandumScreen.setContent(content, changedElementId);
+            } else {
+                memorandumScreen.setContent(content);
+            }
             memorandumScreen.setToc(getTableOfContent(memorandum));
             DocumentVO memorandumVO = createMemorandumVO(memorandum);
             memorandumScreen.setPermissions(memorandumVO);
@@ -381,10 +390,11 @@ class MemorandumPresenter extends AbstractLeosPresenter {
     }
 
     private boolean isMemorandumUnsaved(){
-        return getMemorandumFromSession() != null;
+        return SessionWorkingCopy.exists(httpSession, "memorandum#" + getDocumentRef());
     }
     private Memorandum getMemorandumFromSession() {
-        return (Memorandum) httpSession.getAttribute("memorandum#" + getDocumentRef());
+        byte[] content = SessionWorkingCopy.load(httpSession, "memorandum#" + getDocumentRef());
+        return content != null ? copyIntoNew(getDocument(), content) : null;
     }
 
     @Subscribe
@@ -404,7 +414,7 @@ class MemorandumPresenter extends AbstractLeosPresenter {
 
     @Subscribe
     void refreshDocument(RefreshDocumentEvent event){
-        populateViewData();
+        populateViewData(event.getElementId());
     }
 
     @Subscribe
@@ -490,7 +500,7 @@ class MemorandumPresenter extends AbstractLeosPresenter {
         String elementId = event.getElementId();
         coEditionHelper.removeUserEditInfo(id, strDocumentVersionSeriesId, elementId, InfoType.ELEMENT_INFO);
         LOG.debug("User edit information removed");
-        eventBus.post(new RefreshDocumentEvent());
+        eventBus.post(new RefreshDocumentEvent(TocMode.SIMPLIFIED, elementId));
     }
 
     @Subscribe
@@ -872,7 +882,7 @@ class MemorandumPresenter extends AbstractLeosPresenter {
 
     @Subscribe
     void searchTextInDocument(SearchTextRequestEvent event) {
-        Memorandum memorandum = (Memorandum) httpSession.getAttribute("memorandum#" + getDocumentRef());
+        Memorandum memorandum = getMemorandumFromSession();
         if (memorandum == null) {
             memorandum = getDocument();
         }
@@ -900,7 +910,7 @@ class MemorandumPresenter extends AbstractLeosPresenter {
                 event.getSearchMatchVOs());
 
         Memorandum memorandumUpdated = copyIntoNew(memorandumFromSession, updatedContent);
-        httpSession.setAttribute("memorandum#" + getDocumentRef(), memorandumUpdated);
+        SessionWorkingCopy.store(httpSession, "memorandum#" + getDocumentRef(), updatedContent);
         memorandumScreen.setContent(getEditableXml(memorandumUpdated));
         eventBus.post(new ReplaceAllMatchResponseEvent(true));
     }
@@ -941,7 +951,7 @@ class MemorandumPresenter extends AbstractLeosPresenter {
         // save document into repository
         Memorandum memorandum = getDocument();
 
-        Memorandum memorandumFromSession = (Memorandum) httpSession.getAttribute("memorandum#" + getDocumentRef());
+        Memorandum memorandumFromSession = getMemorandumFromSession();
         httpSession.removeAttribute("memorandum#" + getDocumentRef());
 
         memorandum = memorandumService.updateMemorandum(memorandum, memorandumFromSession.getContent().get().getSource().getBytes(),
@@ -959,12 +969,12 @@ class MemorandumPresenter extends AbstractLeosPresenter {
         // save document into repository
         Memorandum memorandum = getDocument();
 
-        Memorandum memorandumFromSession = (Memorandum) httpSession.getAttribute("memorandum#" + getDocumentRef());
+        Memorandum memorandumFromSession = getMemorandumFromSession();
 
         memorandum = memorandumService.updateMemorandum(memorandum, memorandumFromSession.getContent().get().getSource().getBytes(),
                 VersionType.MINOR, messageHelper.getMessage("operation.search.replace.updated"));
         if (memorandum != null) {
-            httpSession.setAttribute("memorandum#"+getDocumentRef(), memorandum);
+            SessionWorkingCopy.store(httpSession, "memorandum#" + getDocumentRef(), getContent(memorandum));
             eventBus.post(new DocumentUpdatedEvent());
             leosApplicationEventBus.post(new DocumentUpdatedByCoEditorEvent(user, strDocumentVersionSeriesId, id));
             eventBus.post(new NotificationEvent(Type.INFO, "document.replace.success"));
@@ -986,7 +996,7 @@ class MemorandumPresenter extends AbstractLeosPresenter {
                     Arrays.asList(event.getSearchMatchVO()));
 
             Memorandum memorandumUpdated = copyIntoNew(memorandumFromSession, updatedContent);
-            httpSession.setAttribute("memorandum#" + getDocumentRef(), memorandumUpdated);
+            SessionWorkingCopy.store(httpSession, "memorandum#" + getDocumentRef(), updatedContent);
             memorandumScreen.setContent(getEditableXml(memorandumUpdated));
             memorandumScreen.refineSearch(event.getSearchId(), event.getMatchIndex(), true);
         } else {
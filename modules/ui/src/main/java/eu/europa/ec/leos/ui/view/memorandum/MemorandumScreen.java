@@ -41,6 +41,8 @@ interface MemorandumScreen {
 
     void setContent(String content);
 
+    void setContent(String content, String changedElementId);
+
     void refreshElementEditor(String elementId, String elementTagName, String elementContent);
 
     void showElementEditor(String elementId, String elementTagName, String element);
@@ -44,6 +44,7 @@ import eu.europa.ec.leos.security.LeosPermissionAuthorityMapHelper;
 import eu.europa.ec.leos.security.SecurityContext;
 import eu.europa.ec.leos.services.export.ExportDW;
 import eu.europa.ec.leos.services.export.ExportOptions;
+import eu.europa.ec.leos.services.milestone.MilestoneContentService;
 import eu.europa.ec.leos.services.store.PackageService;
 import eu.europa.ec.leos.services.toc.StructureContext;
 import eu.europa.ec.leos.ui.component.AccordionPane;
@@ -64,6 +65,7 @@ import eu.europa.ec.leos.ui.extension.AnnotateExtension;
 import eu.europa.ec.leos.ui.extension.RefToLinkExtension;
 import eu.europa.ec.leos.ui.extension.UserCoEditionExtension;
 import eu.europa.ec.leos.ui.extension.UserGuidanceExtension;
+import eu.europa.ec.leos.ui.support.UiScheduler;
 import eu.europa.ec.leos.ui.view.ComparisonDisplayMode;
 import eu.europa.ec.leos.ui.view.ScreenLayoutHelper;
 import eu.europa.ec.leos.ui.view.TriFunction;
@@ -157,6 +159,7 @@ abstract class MemorandumScreenImpl extends VerticalLayout implements Memorandum
 
     protected UserCoEditionExtension<LeosDisplayField, String> userCoEditionExtension;
     protected Provider<StructureContext> structureContextProvider;
+    protected UiScheduler uiScheduler;
     protected PackageService packageService;
     protected VersionComparator versionComparator;
     protected MarkedTextComponent<Memorandum> markedTextComponent;
@@ -171,10 +174,13 @@ abstract class MemorandumScreenImpl extends VerticalLayout implements Memorandum
     @Autowired
     LeosPermissionAuthorityMapHelper authorityMapHelper;
 
+    @Autowired
+    MilestoneContentService milestoneContentService;
+
     MemorandumScreenImpl(SecurityContext securityContext, EventBus eventBus, MessageHelper messageHelper, ConfigurationHelper cfgHelper,
                          UserHelper userHelper, TocEditor tocEditor, InstanceTypeResolver instanceTypeResolver, VersionsTab<Memorandum> versionsTab,
                          Provider<StructureContext> structureContextProvider, PackageService packageService, VersionComparator versionComparator,
-                         MarkedTextComponent<Memorandum> markedTextComponent) {
+                         MarkedTextComponent<Memorandum> markedTextComponent, UiScheduler uiScheduler) {
         LOG.trace("Initializing memorandum screen...");
         Validate.notNull(securityContext, "SecurityContext must not be null!");
         this.securityContext = securityContext;
@@ -193,6 +199,8 @@ abstract class MemorandumScreenImpl extends VerticalLayout implements Memorandum
         this.versionsTab = versionsTab;
         Validate.notNull(structureContextProvider, "structureContextProvider must not be null!");
         this.structureContextProvider = structureContextProvider;
+        Validate.notNull(uiScheduler, "uiScheduler must not be null!");
+        this.uiScheduler = uiScheduler;
         Validate.notNull(structureContextProvider, "packageService must not be null!");
         this.packageService = packageService;
         Validate.notNull(structureContextProvider, "versionComparator must not be null!");
@@ -233,8 +241,14 @@ abstract class MemorandumScreenImpl extends VerticalLayout implements Memorandum
         refreshNoteButton.setVisible(false);
     }
 
+    @Override
+    public void setContent(String content, String changedElementId) {
+        memorandumContent.refreshValue(addTimestamp(content), changedElementId);
+        refreshNoteButton.setVisible(false);
+    }
+
     void init() {
-        tableOfContentComponent = new TableOfContentComponent(messageHelper, eventBus, securityContext, cfgHelper, tocEditor, structureContextProvider);
+        tableOfContentComponent = new TableOfContentComponent(messageHelper, eventBus, securityContext, cfgHelper, tocEditor, structureContextProvider, uiScheduler);
         accordion.addTab(tableOfContentComponent, messageHelper.getMessage("toc.title"), VaadinIcons.CHEVRON_DOWN);
         accordion.addTab(versionsTab, messageHelper.getMessage("document.accordion.versions"), VaadinIcons.CHEVRON_RIGHT);
         
@@ -260,6 +274,9 @@ abstract class MemorandumScreenImpl extends VerticalLayout implements Memorandum
         new UserGuidanceExtension<>(memorandumContent, eventBus);
         new RefToLinkExtension<>(memorandumContent);
         userCoEditionExtension = new UserCoEditionExtension<>(memorandumContent, messageHelper, securityContext, cfgHelper);
+        if (Boolean.parseBoolean(cfgHelper.getProperty("leos.document.view.fragmentRefresh.enabled"))) {
+            memorandumContent.enableFragmentRefresh();
+        }
 
         refreshNoteButton();
         refreshButton();
@@ -500,7 +517,7 @@ abstract class MemorandumScreenImpl extends VerticalLayout implements Memorandum
     
     @Override
     public void showMilestoneExplorer(LegDocument legDocument, String milestoneTitle, String proposalRef) {
-        MilestoneExplorer milestoneExplorer = new MilestoneExplorer(legDocument, milestoneTitle, proposalRef, messageHelper, eventBus, cfgHelper, securityContext, userHelper);
+        MilestoneExplorer milestoneExplorer = new MilestoneExplorer(legDocument, milestoneTitle, proposalRef, messageHelper, eventBus, cfgHelper, securityContext, userHelper, milestoneContentService);
         UI.getCurrent().addWindow(milestoneExplorer);
         milestoneExplorer.center();
         milestoneExplorer.focus();
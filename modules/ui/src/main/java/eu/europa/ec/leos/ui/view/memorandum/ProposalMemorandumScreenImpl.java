@@ -41,6 +41,7 @@ import eu.europa.ec.leos.ui.component.versions.VersionComparator;
 import eu.europa.ec.leos.ui.component.versions.VersionsTab;
 import eu.europa.ec.leos.ui.extension.ActionManagerExtension;
 import eu.europa.ec.leos.ui.extension.LeosEditorExtension;
+import eu.europa.ec.leos.ui.support.UiScheduler;
 import eu.europa.ec.leos.ui.window.toc.TocEditor;
 import eu.europa.ec.leos.web.event.component.LayoutChangeRequestEvent;
 import eu.europa.ec.leos.web.event.view.document.FetchUserPermissionsResponse;
@@ -67,9 +68,9 @@ class ProposalMemorandumScreenImpl extends MemorandumScreenImpl {
     ProposalMemorandumScreenImpl(SecurityContext securityContext, EventBus eventBus, MessageHelper messageHelper, ConfigurationHelper cfgHelper,
                                  UserHelper userHelper, TocEditor tocEditor, InstanceTypeResolver editElementResponseEventCreator, VersionsTab<Memorandum> versionsTab,
                                  Provider<StructureContext> structureContextProvider, PackageService packageService,
-                                 VersionComparator versionComparator, MarkedTextComponent<Memorandum> markedTextComponent) {
+                                 VersionComparator versionComparator, MarkedTextComponent<Memorandum> markedTextComponent, UiScheduler uiScheduler) {
         super(securityContext, eventBus, messageHelper, cfgHelper, userHelper, tocEditor, editElementResponseEventCreator, versionsTab,
-                structureContextProvider, packageService, versionComparator, markedTextComponent);
+                structureContextProvider, packageService, versionComparator, markedTextComponent, uiScheduler);
     }
     
     @Override
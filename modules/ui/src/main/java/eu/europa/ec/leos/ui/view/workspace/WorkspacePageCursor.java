@@ -0,0 +1,89 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.ui.view.workspace;
+
+import eu.europa.ec.leos.domain.cmis.document.Proposal;
+import eu.europa.ec.leos.model.filter.QueryFilter;
+import eu.europa.ec.leos.model.filter.QueryFilter.Filter;
+import eu.europa.ec.leos.model.filter.QueryFilter.FilterType;
+import eu.europa.ec.leos.model.filter.QueryFilter.SortOrder;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Position reached in the workspace listing, used to query the next page from the last listed proposal
+ * (keyset pagination) instead of skipping all the proposals already listed.
+ * <p>
+ * The listing is ordered by last modification date only, so the proposals modified at the same instant as the last
+ * listed one are told apart by their id. A page requested at another index (e.g. the user dragged the scrollbar) is
+ * queried by offset and the position restarts from that page.
+ */
+class WorkspacePageCursor {
+
+    private static final DateTimeFormatter CMIS_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX")
+            .withZone(ZoneOffset.UTC);
+
+    private QueryFilter queryFilter;
+    private int nextIndex = -1;
+    private Instant lastModification;
+    private final Set<String> lastModificationIds = new LinkedHashSet<>();
+    private boolean lastModificationIdsComplete;
+
+    /**
+     * @return the filter selecting the proposals listed from the given index, or empty if the page has to be queried by offset
+     */
+    Optional<QueryFilter> seek(int startIndex, QueryFilter workspaceFilter) {
+        if (startIndex == 0 || startIndex != nextIndex || !lastModificationIdsComplete || !workspaceFilter.equals(queryFilter)) {
+            return Optional.empty();
+        }
+        List<SortOrder> sortOrders = workspaceFilter.getSortOrders();
+        if (sortOrders.size() != 1 || !FilterType.lastModificationDate.name().equals(sortOrders.get(0).key)) {
+            return Optional.empty();
+        }
+        String operator = QueryFilter.SORT_ASCENDING.equalsIgnoreCase(sortOrders.get(0).direction) ? ">=" : "<=";
+        QueryFilter seekFilter = new QueryFilter(workspaceFilter);
+        seekFilter.addFilter(new Filter(FilterType.lastModificationDate.name(), operator, false, CMIS_TIMESTAMP.format(lastModification)));
+        seekFilter.addFilter(new Filter(FilterType.objectId.name(), "NOT IN", false, lastModificationIds.toArray(new String[0])));
+        return Optional.of(seekFilter);
+    }
+
+    /**
+     * Moves the position after the given page of proposals listed from the given index.
+     */
+    void moveAfter(int startIndex, QueryFilter workspaceFilter, List<Proposal> page) {
+        if (startIndex != nextIndex || !workspaceFilter.equals(queryFilter)) {
+            queryFilter = new QueryFilter(workspaceFilter);
+            lastModification = null;
+            lastModificationIds.clear();
+            lastModificationIdsComplete = false;
+        }
+        for (Proposal proposal : page) {
+            Instant modification = proposal.getLastModificationInstant();
+            if (!modification.equals(lastModification)) {
+                // a page queried by offset may start after proposals modified at the same instant, their ids are unknown
+                lastModificationIdsComplete = lastModification != null || startIndex == 0;
+                lastModification = modification;
+                lastModificationIds.clear();
+            }
+            lastModificationIds.add(proposal.getId());
+        }
+        nextIndex = startIndex + page.size();
+    }
+}
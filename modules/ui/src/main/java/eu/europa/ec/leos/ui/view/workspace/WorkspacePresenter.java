@@ -14,6 +14,8 @@
 package eu.europa.ec.leos.ui.view.workspace;
 
 import com.google.common.base.Stopwatch;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.eventbus.EventBus;
 import com.google.common.eventbus.Subscribe;
 import eu.europa.ec.leos.domain.cmis.LeosCategory;
@@ -23,6 +25,8 @@ import eu.europa.ec.leos.domain.common.Result;
 import eu.europa.ec.leos.domain.vo.DocumentVO;
 import eu.europa.ec.leos.domain.vo.ValidationVO;
 import eu.europa.ec.leos.i18n.MessageHelper;
+import eu.europa.ec.leos.model.event.ProposalCreatedEvent;
+import eu.europa.ec.leos.model.event.ProposalDeletedEvent;
 import eu.europa.ec.leos.model.filter.QueryFilter;
 import eu.europa.ec.leos.security.SecurityContext;
 import eu.europa.ec.leos.services.converter.ProposalConverterService;
@@ -45,6 +49,7 @@ import eu.europa.ec.leos.web.ui.navigation.Target;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
@@ -53,7 +58,9 @@ import javax.servlet.http.HttpSession;
 import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Component
@@ -70,6 +77,11 @@ class WorkspacePresenter extends AbstractLeosPresenter {
     private final ValidationService validationService;
     private final ProposalConverterService proposalConverterService;
     private final PostProcessingDocumentService postProcessingDocumentService;
+    private final WorkspacePageCursor pageCursor = new WorkspacePageCursor();
+    private Cache<QueryFilter, Integer> countCache;
+
+    @Value("${leos.workspace.count.cache.ttl:30}")
+    private long countCacheTtl;
 
     @Autowired
     WorkspacePresenter(SecurityContext securityContext,
@@ -105,6 +117,10 @@ class WorkspacePresenter extends AbstractLeosPresenter {
     }
 
     private void initialize() {
+        // the grid asks for the count on every scroll and filter change
+        countCache = CacheBuilder.newBuilder()
+                .expireAfterWrite(countCacheTtl, TimeUnit.SECONDS)
+                .build();
         workspaceScreen.setDataFunctions(this::dataFn, this::countFn);
         try {
             workspaceScreen.intializeFiltersWithData(templateService.getTemplatesCatalog());
@@ -114,11 +130,39 @@ class WorkspacePresenter extends AbstractLeosPresenter {
     }
 
     private Stream<Proposal> dataFn(int startIndex, int maxResults, QueryFilter workspaceFilter) {
-        return workspaceService.findDocuments(Proposal.class, false, startIndex, maxResults, workspaceFilter);
+        Optional<QueryFilter> seekFilter = pageCursor.seek(startIndex, workspaceFilter);
+        Stream<Proposal> proposals = seekFilter.isPresent()
+                ? workspaceService.findDocuments(Proposal.class, false, 0, maxResults, seekFilter.get())
+                : workspaceService.findDocuments(Proposal.class, false, startIndex, maxResults, workspaceFilter);
+        List<Proposal> page = proposals.collect(Collectors.toList());
+        pageCursor.moveAfter(startIndex, workspaceFilter, page);
+        return page.stream();
     }
 
     private Integer countFn(QueryFilter workspaceFilter) {
-        return workspaceService.findDocumentCount(Proposal.class, workspaceFilter);
+        try {
+            return countCache.get(new QueryFilter(workspaceFilter),
+                    () -> workspaceService.findDocumentCount(Proposal.class, workspaceFilter));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Unable to count the proposals of the workspace", e.getCause());
+        }
+    }
+
+    // posted on the application event bus, proposals created or deleted by any user change the counts
+    @Subscribe
+    void proposalCreated(ProposalCreatedEvent event) {
+        invalidateCounts();
+    }
+
+    @Subscribe
+    void proposalDeleted(ProposalDeletedEvent event) {
+        invalidateCounts();
+    }
+
+    private void invalidateCounts() {
+        if (countCache != null) {
+            countCache.invalidateAll();
+        }
     }
 
     @Subscribe
@@ -152,6 +196,7 @@ class WorkspacePresenter extends AbstractLeosPresenter {
             context.useActionMessage(ContextAction.EXPLANATORY_ADDED, messageHelper.getMessage("collection.block.explanatory.added"));
             context.useActionMessage(ContextAction.DOCUMENT_CREATED, messageHelper.getMessage("operation.document.created"));
             context.executeImportProposal();
+            leosApplicationEventBus.post(new ProposalCreatedEvent());
             LOG.info("New document of type {} imported in {} milliseconds ({} sec)", event.getDocument().getCategory(), stopwatch.elapsed(TimeUnit.MILLISECONDS), stopwatch.elapsed(TimeUnit.SECONDS));
         } else if (LeosCategory.PROPOSAL.equals(event.getDocument().getCategory())) {
             CollectionContext context = proposalContextProvider.get();
@@ -164,6 +209,7 @@ class WorkspacePresenter extends AbstractLeosPresenter {
             context.useActionMessage(ContextAction.METADATA_UPDATED, messageHelper.getMessage("operation.metadata.updated"));
             context.useActionMessage(ContextAction.DOCUMENT_CREATED, messageHelper.getMessage("operation.document.created"));
             context.executeCreateProposal();
+            leosApplicationEventBus.post(new ProposalCreatedEvent());
             LOG.info("New document of type {} created in {} milliseconds ({} sec)", event.getDocument().getCategory(), stopwatch.elapsed(TimeUnit.MILLISECONDS), stopwatch.elapsed(TimeUnit.SECONDS));
         } else {
             eventBus.post(new NotificationEvent(NotificationEvent.Type.INFO, "leos.not.implemented", event.getDocument().getCategory()));
@@ -28,13 +28,13 @@ import com.vaadin.ui.HorizontalSplitPanel;
 import com.vaadin.ui.Label;
 import com.vaadin.ui.TabSheet;
 import com.vaadin.ui.VerticalLayout;
-import eu.europa.ec.leos.domain.cmis.Content;
 import eu.europa.ec.leos.domain.cmis.LeosCategory;
 import eu.europa.ec.leos.domain.cmis.document.LegDocument;
 import eu.europa.ec.leos.i18n.MessageHelper;
 import eu.europa.ec.leos.model.user.User;
 import eu.europa.ec.leos.security.SecurityContext;
-import eu.europa.ec.leos.services.export.ZipPackageUtil;
+import eu.europa.ec.leos.services.milestone.MilestoneContent;
+import eu.europa.ec.leos.services.milestone.MilestoneContentService;
 import eu.europa.ec.leos.ui.component.LeosDisplayField;
 import eu.europa.ec.leos.ui.event.metadata.DocumentMetadataRequest;
 import eu.europa.ec.leos.ui.event.metadata.DocumentMetadataResponse;
@@ -54,30 +54,19 @@ import eu.europa.ec.leos.web.support.user.UserHelper;
 import eu.europa.ec.leos.web.support.xml.DownloadStreamResource;
 import eu.europa.ec.leos.web.ui.themes.LeosTheme;
 import eu.europa.ec.leos.web.ui.window.AbstractWindow;
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 public class MilestoneExplorer extends AbstractWindow {
 
@@ -89,28 +78,19 @@ public class MilestoneExplorer extends AbstractWindow {
     private final ConfigurationHelper cfgHelper;
     private final SecurityContext securityContext;
     private final UserHelper userHelper;
+    private final MilestoneContentService milestoneContentService;
     
     private static final String HTML = ".html";
-    private static final String TOC_HTML = "_toc.html";
     private static final String TOC_JS = "_toc.js";
-    private static final String XML = ".xml";
     private static final String PDF = ".pdf";
     
-    private static final String DOC_VERSION_START_TAG_REG = "<leos:docVersion\\b[^>]*>";
-    private static final String DOC_VERSION_END_TAG = "</leos:docVersion>";
-    
-    private static final String TMP_DIR = "java.io.tmpdir";
-    private static final String MILESTONE_DIR = "/milestone/";
-    
     private TabSheet tabsheet;
     private LegDocument legDocument;
     private String milestoneTitle;
-    private File legFileTemp;
-    private Map<String, Object> contentFiles;
-    private Map<String, Object> jsFiles;
-    private Map<String, String> docVersionMap;
-    private Map<String, Object> pdfRenditions;
-    private String milestoneDir;
+    private MilestoneContent milestoneContent;
+    private List<String> contentFiles = Collections.emptyList();
+    private List<String> jsFiles = Collections.emptyList();
+    private List<String> pdfRenditions = Collections.emptyList();
     private String selectedDocument;
     private Button export;
     protected FileDownloader fileDownloader;
@@ -119,7 +99,7 @@ public class MilestoneExplorer extends AbstractWindow {
     private AnnotateExtension<LeosDisplayField, String> annotateExtension;
     
     public MilestoneExplorer(LegDocument legDocument, String milestoneTitle, String proposalRef, MessageHelper messageHelper, EventBus eventBus,
-            ConfigurationHelper cfgHelper, SecurityContext securityContext, UserHelper userHelper) {
+            ConfigurationHelper cfgHelper, SecurityContext securityContext, UserHelper userHelper, MilestoneContentService milestoneContentService) {
         super(messageHelper, eventBus);
         this.cfgHelper = cfgHelper;
         this.securityContext = securityContext;
@@ -127,6 +107,7 @@ public class MilestoneExplorer extends AbstractWindow {
         this.milestoneTitle = milestoneTitle;
         this.userHelper = userHelper;
         this.proposalRef = proposalRef;
+        this.milestoneContentService = milestoneContentService;
         init();
     }
     
@@ -157,52 +138,19 @@ public class MilestoneExplorer extends AbstractWindow {
 
     private void filterFilesToDisplay() {
         try {
-            legFileTemp = File.createTempFile("milestone", ".leg");
-            Content content = legDocument.getContent().getOrError(() -> "Document content is required!");
-            InputStream is = content.getSource().getInputStream();
-            FileUtils.copyInputStreamToFile(is, legFileTemp);
-            Map<String, Object> unzippedFiles = ZipPackageUtil.unzipFiles(legFileTemp, MILESTONE_DIR);
-            milestoneDir = getMilestoneDir();
-            contentFiles = filterAndSortFiles(unzippedFiles, HTML);
-            jsFiles = filterAndSortFiles(unzippedFiles, TOC_JS);
-            docVersionMap = populateVersionMap(unzippedFiles);
-            pdfRenditions = filterAndSortFiles(unzippedFiles, PDF);
+            // files are read from the package when displayed, nothing is extracted
+            milestoneContent = milestoneContentService.getMilestoneContent(legDocument);
+            contentFiles = milestoneContent.getFileNames(HTML);
+            jsFiles = milestoneContent.getFileNames(TOC_JS);
+            pdfRenditions = milestoneContent.getFileNames(PDF);
         } catch (IOException e) {
             LOG.error("Exception occurred while reading the .leg file " + e);
             eventBus.post(new NotificationEvent(Type.ERROR, "generic.error.message"));
         }
     }
 
-    private Map<String, Object> filterAndSortFiles(Map<String, Object> files, String fileFilter) {
-        Map<String, Object> sortedFiles = files.entrySet().stream().
-                filter(e -> (!e.getKey().contains(TOC_HTML) && e.getKey().contains(fileFilter))).
-        sorted(Collections.reverseOrder(Map.Entry.comparingByKey())).
-        collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue,
-                (e1, e2) -> e2, LinkedHashMap::new));
-        
-        return sortedFiles;
-    }
-    
-    private Map<String, String> populateVersionMap(Map<String, Object> files) {
-        Map<String, String> docVersionMap = new HashMap<>();
-        Map<String, Object> xmlFiles = filterAndSortFiles(files, XML);
-        xmlFiles.forEach((key, value) -> {
-            try {
-                String xmlContent = readFileToString(((File) value));
-                Pattern pattern = Pattern.compile(DOC_VERSION_START_TAG_REG);
-                Matcher matcher = pattern.matcher(xmlContent);
-                while (matcher.find()) {
-                    int endIndex = xmlContent.indexOf(DOC_VERSION_END_TAG);
-                    String docVersion = xmlContent.substring(matcher.end(), endIndex);
-                    String selectedKey = key.substring(0, key.indexOf(XML));
-                    docVersionMap.put(selectedKey, docVersion);
-                }
-            } catch (IOException e) {
-                LOG.error("Exception occurred while reading the .leg file " + e);
-            }
-
-        });
-        return docVersionMap;
+    private String getDocVersion(String documentName) {
+        return milestoneContent != null ? milestoneContent.getDocVersion(documentName) : null;
     }
     
     private VerticalLayout buildLayout() {
@@ -263,10 +211,10 @@ public class MilestoneExplorer extends AbstractWindow {
     
     private void addDocumentTabs() {
         int annexNumber = contentFiles.size() - 2; //Get the number of annexes in the package (-2 for memo and bill)
-        for(Map.Entry<String, Object> entry : contentFiles.entrySet()) {
-            int index = entry.getKey().contains("_") ? entry.getKey().indexOf("_") : entry.getKey().indexOf(".");
-            String version = docVersionMap.get(entry.getKey().substring(0, entry.getKey().indexOf(HTML)));
-            String docName = entry.getKey().substring(0, index);
+        for(String fileName : contentFiles) {
+            int index = fileName.contains("_") ? fileName.indexOf("_") : fileName.indexOf(".");
+            String version = getDocVersion(fileName.substring(0, fileName.indexOf(HTML)));
+            String docName = fileName.substring(0, index);
             String tabName = getTabName(LeosCategory.valueOf(docName.toUpperCase()), annexNumber, version);
             annexNumber = LeosCategory.ANNEX.toString().equalsIgnoreCase(docName) ? --annexNumber : annexNumber;
             HorizontalSplitPanel tocSplitter = new HorizontalSplitPanel();
@@ -278,28 +226,24 @@ public class MilestoneExplorer extends AbstractWindow {
         }
     }
 
-    private static String readFileToString(File file) throws IOException {
-        return new String(Files.readAllBytes(file.toPath()), "UTF-8");
-    }
-    
     private void registerTabChangeListener() {
         tabsheet.addSelectedTabChangeListener(event -> {
             TabSheet tabsheet = event.getTabSheet();
             HorizontalSplitPanel splitPanel = (HorizontalSplitPanel) tabsheet.getSelectedTab();
             String caption = tabsheet.getTab(splitPanel).getCaption();
             int annexNumber = jsFiles.size() - 2;
-            for(Map.Entry<String, Object> entry : jsFiles.entrySet()) {
-                selectedDocument = entry.getKey().substring(0, entry.getKey().indexOf(TOC_JS));
-                String version = docVersionMap.get(selectedDocument);
-                String docName = entry.getKey().substring(0, entry.getKey().indexOf("_"));
+            for(String fileName : jsFiles) {
+                selectedDocument = fileName.substring(0, fileName.indexOf(TOC_JS));
+                String version = getDocVersion(selectedDocument);
+                String docName = fileName.substring(0, fileName.indexOf("_"));
                 String selectedTab = getTabName(LeosCategory.valueOf(docName.toUpperCase()), annexNumber, version);
                 annexNumber = LeosCategory.ANNEX.toString().equalsIgnoreCase(docName) ? --annexNumber : annexNumber;
                 if (caption.equalsIgnoreCase(selectedTab)) {
-                    VerticalLayout tocLayout = buildTocLayout((File) entry.getValue());
+                    VerticalLayout tocLayout = buildTocLayout(fileName);
                     splitPanel.setFirstComponent(tocLayout);
                     String content = "";
                     try {
-                        content = readFileToString(((File) contentFiles.get(selectedDocument + HTML)));
+                        content = milestoneContent.getContentAsString(selectedDocument + HTML);
                     } catch (IOException e) {
                         LOG.error("Exception occurred while reading the file " + e);
                         eventBus.post(new NotificationEvent(Type.ERROR, "generic.error.message"));
@@ -335,13 +279,13 @@ public class MilestoneExplorer extends AbstractWindow {
         annotateExtension = new AnnotateExtension<>(docContent, eventBus, cfgHelper, docContent.getId(), AnnotateExtension.OperationMode.READ_ONLY,true, false, proposalRef, null);
     }
 
-    private VerticalLayout buildTocLayout(File file) {
+    private VerticalLayout buildTocLayout(String fileName) {
         VerticalLayout tocLayout = new VerticalLayout();
         tocLayout.setMargin(false);
         tocLayout.setSpacing(false);
         
         HorizontalLayout toolbar = buildTocToolbar();
-        MilestoneTocComponent treeLayout = buildTocTree(file);
+        MilestoneTocComponent treeLayout = buildTocTree(fileName);
         treeLayout.setSizeFull();
         
         tocLayout.addComponent(toolbar);
@@ -362,12 +306,12 @@ public class MilestoneExplorer extends AbstractWindow {
         return toolbar;
     }
     
-    private MilestoneTocComponent buildTocTree(File file) {
+    private MilestoneTocComponent buildTocTree(String fileName) {
         MilestoneTocComponent milestoneToc = new MilestoneTocComponent();
         milestoneToc.setSizeFull();
         milestoneToc.setId("treeContainer");
         try {
-            String fileData = readFileToString(file);
+            String fileData = milestoneContent.getContentAsString(fileName);
             fileData = fileData.substring(fileData.indexOf("["), fileData.length() - 1);
             milestoneToc.setTocData(fileData);
         } catch (IOException e) {
@@ -396,27 +340,12 @@ public class MilestoneExplorer extends AbstractWindow {
         statusList.add(AnnotationStatus.ALL.name());
         metadata.setStatus(statusList);
         String criteria = cfgHelper.getProperty("leos.milestone.annotation.criteria");
-        metadata.setVersion(criteria + docVersionMap.get(selectedDocument)); 
+        metadata.setVersion(criteria + getDocVersion(selectedDocument)); 
         metadataList.add(metadata);
         LOG.info("Sending SearchMetadataResponse event to Annotation with the status " + metadata.getStatus().get(0));
         eventBus.post(new SearchMetadataResponse(metadataList));
     }
     
-    private String getMilestoneDir() {
-        String tempDir = System.getProperty(TMP_DIR);
-        String rootDir = tempDir + MILESTONE_DIR;
-        File folder = new File(rootDir);
-        if (folder.exists()) {
-            File[] files = folder.listFiles();
-            for (File file : files) {
-                if (file.getName().contains(legFileTemp.getName())) {
-                    return file.getPath();
-                }
-            }
-        }
-        return "";
-    }
-    
     public void setDownloadStreamResource(Resource downloadResource) {
         fileDownloader.setFileDownloadResource(downloadResource);
     }
@@ -430,8 +359,7 @@ public class MilestoneExplorer extends AbstractWindow {
             public boolean handleConnectorRequest(VaadinRequest request, VaadinResponse response, String path) throws IOException {
                 boolean result = false;
                 try {
-                    Entry<String, Object> entry = pdfRenditions.entrySet().iterator().next();
-                    prepareDownloadPackage((File)entry.getValue());
+                    prepareDownloadPackage(pdfRenditions.get(0));
                     result = super.handleConnectorRequest(request, response, path);
                 } catch (Exception exception) {
                     LOG.error("Error occured in export to pdf", exception.getMessage());
@@ -442,12 +370,12 @@ public class MilestoneExplorer extends AbstractWindow {
         fileDownloader.extend(export);
     }
     
-    private void prepareDownloadPackage(File packageFile) {
-        if (packageFile != null) {
+    private void prepareDownloadPackage(String fileName) {
+        if (fileName != null) {
             DownloadStreamResource downloadStreamResource;
             try {
-                final byte[] fileBytes = FileUtils.readFileToByteArray(packageFile);
-                downloadStreamResource = new DownloadStreamResource(packageFile.getName(), new ByteArrayInputStream(fileBytes));
+                final byte[] fileBytes = milestoneContent.getContentAsBytes(fileName);
+                downloadStreamResource = new DownloadStreamResource(fileName, new ByteArrayInputStream(fileBytes));
                 setDownloadStreamResource(downloadStreamResource);
                 eventBus.post(new NotificationEvent("menu.download.caption", "milestone.explorer.export.pdf", NotificationEvent.Type.TRAY));
                 LOG.trace("Successfully prepared milestone to export as pdf");
@@ -461,41 +389,7 @@ public class MilestoneExplorer extends AbstractWindow {
     @Override
     protected void handleCloseButton() {
         LOG.info("Closing milestone explorer window....");
-        deleteTempFilesIfExists();
         eventBus.post(new WindowClosedEvent<>(this));
         super.handleCloseButton();
     }
-
-    private void deleteTempFilesIfExists() {
-        LOG.info("deleting temp files from milestone explorer window....");
-            try {
-                if (legFileTemp != null && legFileTemp.exists()) {
-                    File folder = new File(milestoneDir);
-                    Files.delete(legFileTemp.toPath());
-                    legFileTemp = null;
-                    recursiveDelete(folder);
-                }
-            } catch (IOException e) {
-                LOG.error("Exception occurred while deleting the file " + e);
-            } finally {
-                LOG.info("Closing milestone explorer window ...");
-                super.handleCloseButton();
-            }
-    }
-    
-    private void recursiveDelete(File rootDir) throws IOException {
-        File[] files = rootDir.listFiles();
-        for (File file : files) {
-            if (file.isDirectory()) {
-                recursiveDelete(file);
-            } else {
-                if (!file.delete()) {
-                    throw new IOException("Could not delete: " + file.getAbsolutePath());
-                }
-            }
-        }
-        if (!rootDir.delete()) {
-            throw new IOException("Could not delete: " + rootDir.getAbsolutePath());
-        }
-    }
 }
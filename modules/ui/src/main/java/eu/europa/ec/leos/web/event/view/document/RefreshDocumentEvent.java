@@ -17,6 +17,7 @@ import eu.europa.ec.leos.domain.common.TocMode;
 
 public class RefreshDocumentEvent {
     private TocMode mode;
+    private String elementId;
 
     public RefreshDocumentEvent() {
         this.mode = TocMode.SIMPLIFIED;
@@ -26,7 +27,19 @@ public class RefreshDocumentEvent {
         this.mode = mode;
     }
 
+    /**
+     * @param elementId the element changed since the last refresh, only this part of the content is refreshed when possible
+     */
+    public RefreshDocumentEvent(TocMode mode, String elementId) {
+        this.mode = mode;
+        this.elementId = elementId;
+    }
+
     public TocMode getTocMode() {
         return this.mode;
     }
+
+    public String getElementId() {
+        return elementId;
+    }
 }
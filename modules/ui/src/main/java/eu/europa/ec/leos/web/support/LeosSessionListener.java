@@ -51,6 +51,12 @@ public class LeosSessionListener implements HttpSessionListener {
         coEditionHelper.removeUserEditInfo(event.getSession().getId());
     }
 
+    static Set<HttpSession> getSessions() {
+        synchronized (sessionInstances) {
+            return new HashSet<>(sessionInstances);
+        }
+    }
+
     @Scheduled(cron = "${maintenance.session.invalid.cron}")
     public void invalidateAllSessions() {
         LOG.info("Invalidating all http sessions");
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.web.support;
+
+import com.vaadin.server.VaadinSession;
+import eu.europa.ec.leos.services.support.PlatformMBeanRegistration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Exposes under {@value #OBJECT_NAME} an estimate of the memory retained by each HTTP session, to follow the number
+ * of concurrent editors a node can serve.
+ * <p>
+ * The size of a session attribute is the length of its serialized form, which includes the whole component tree
+ * for the Vaadin session. It is only computed when requested through JMX: the Vaadin session is locked while it is
+ * measured, so the request of the user is delayed for that time. Attributes that cannot be serialized are reported
+ * with a size of -1 and are not part of the totals.
+ */
+@Component
+public class SessionFootprintMonitor implements SessionFootprintMonitorMBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SessionFootprintMonitor.class);
+
+    static final String OBJECT_NAME = "eu.europa.ec.leos:type=SessionFootprint";
+
+    private final PlatformMBeanRegistration registration = new PlatformMBeanRegistration(this, OBJECT_NAME);
+
+    @PostConstruct
+    public void register() {
+        registration.register();
+    }
+
+    @PreDestroy
+    public void unregister() {
+        registration.unregister();
+    }
+
+    @Override
+    public int getSessionCount() {
+        return LeosSessionListener.getSessions().size();
+    }
+
+    @Override
+    public long estimateTotalRetainedBytes() {
+        return LeosSessionListener.getSessions().stream()
+                .mapToLong(session -> total(measure(session)))
+                .sum();
+    }
+
+    /**
+     * @return the given number of largest sessions, one line per session with its total size and the size of its attributes
+     */
+    @Override
+    public String[] estimateLargestSessions(int count) {
+        List<Map.Entry<String, Map<String, Long>>> sessions = new ArrayList<>();
+        for (HttpSession session : LeosSessionListener.getSessions()) {
+            sessions.add(new AbstractMap.SimpleEntry<>(session.getId(), measure(session)));
+        }
+        return sessions.stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Map<String, Long>> entry) -> total(entry.getValue())).reversed())
+                .limit(Math.max(0, count))
+                .map(entry -> entry.getKey() + ": " + total(entry.getValue()) + " bytes " + entry.getValue())
+                .toArray(String[]::new);
+    }
+
+    private static long total(Map<String, Long> attributeSizes) {
+        return attributeSizes.values().stream().mapToLong(Long::longValue).filter(size -> size > 0).sum();
+    }
+
+    private static Map<String, Long> measure(HttpSession session) {
+        Map<String, Long> sizes = new LinkedHashMap<>();
+        try {
+            for (String name : Collections.list(session.getAttributeNames())) {
+                sizes.put(name, sizeOf(session.getAttribute(name)));
+            }
+        } catch (IllegalStateException e) {
+            // invalidated while being measured
+            return Collections.emptyMap();
+        }
+        return sizes.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (first, second) -> first, LinkedHashMap::new));
+    }
+
+    private static long sizeOf(Object attribute) {
+        if (attribute == null) {
+            return 0;
+        }
+        VaadinSession vaadinSession = attribute instanceof VaadinSession ? (VaadinSession) attribute : null;
+        if (vaadinSession != null) {
+            vaadinSession.lock();
+        }
+        CountingOutputStream counter = new CountingOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(counter)) {
+            out.writeObject(attribute);
+        } catch (IOException | RuntimeException e) {
+            LOG.trace("Unable to measure session attribute of type {}", attribute.getClass().getName(), e);
+            return -1;
+        } finally {
+            if (vaadinSession != null) {
+                vaadinSession.unlock();
+            }
+        }
+        return counter.count;
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -402,6 +402,9 @@ public class LegalTextComponent extends CustomComponent implements ContentPane {
         new UserGuidanceExtension<>(docContent, eventBus);
         new RefToLinkExtension<>(docContent);
         userCoEditionExtension = new UserCoEditionExtension<>(docContent, messageHelper, securityContext, cfgHelper);
+        if (Boolean.parseBoolean(cfgHelper.getProperty("leos.document.view.fragmentRefresh.enabled"))) {
+            docContent.enableFragmentRefresh();
+        }
 
         return docContent;
     }
@@ -412,13 +415,21 @@ public class LegalTextComponent extends CustomComponent implements ContentPane {
     }
 
     public void populateContent(String docContentText) {
+        populateContent(docContentText, null);
+    }
+
+    /**
+     * @param changedElementId the element changed since the last update, when the fragment refresh is enabled
+     *                         only the changed elements are sent to the client side
+     */
+    public void populateContent(String docContentText, String changedElementId) {
         /* KLUGE: In order to force the update of the docContent on the client side
          * the unique seed is added on every docContent update, please note markDirty
          * method did not work, this was the only solution worked.*/
         String seed = "<div style='display:none' >" +
                 new Date().getTime() +
                 "</div>";
-        docContent.setValue(docContentText + seed);
+        docContent.refreshValue(docContentText + seed, changedElementId);
 
         textRefreshNote.setVisible(false);
     }
@@ -37,6 +37,7 @@ import eu.europa.ec.leos.ui.component.toc.TableOfContentComponent;
 import eu.europa.ec.leos.ui.component.toc.TableOfContentItemConverter;
 import eu.europa.ec.leos.ui.component.versions.VersionsTab;
 import eu.europa.ec.leos.ui.extension.UserCoEditionExtension;
+import eu.europa.ec.leos.ui.support.UiScheduler;
 import eu.europa.ec.leos.ui.view.ScreenLayoutHelper;
 import eu.europa.ec.leos.ui.view.TriFunction;
 import eu.europa.ec.leos.ui.window.toc.TocEditor;
@@ -85,6 +86,7 @@ public class LegalTextPaneComponent extends CustomComponent {
     private Provider<StructureContext> structureContextProvider;
     private PackageService packageService;
     private UserHelper userHelper;
+    private UiScheduler uiScheduler;
 
     private LegalTextComponent legalTextComponent;
     private TableOfContentComponent tableOfContentComponent;
@@ -101,7 +103,8 @@ public class LegalTextPaneComponent extends CustomComponent {
 
     public LegalTextPaneComponent(EventBus eventBus, MessageHelper messageHelper, ConfigurationHelper cfgHelper, SecurityContext securityContext,
                                   LegalTextActionsMenuBar legalTextActionsMenuBar, TocEditor tocEditor, VersionsTab<Bill> versionsTab,
-                                  Provider<StructureContext> structureContextProvider, PackageService packageService, UserHelper userHelper) {
+                                  Provider<StructureContext> structureContextProvider, PackageService packageService, UserHelper userHelper,
+                                  UiScheduler uiScheduler) {
         this.eventBus = eventBus;
         this.messageHelper = messageHelper;
         this.cfgHelper = cfgHelper;
@@ -115,6 +118,7 @@ public class LegalTextPaneComponent extends CustomComponent {
         this.structureContextProvider = structureContextProvider;
         this.packageService = packageService;
         this.userHelper = userHelper;
+        this.uiScheduler = uiScheduler;
         buildLegalTextPane();
     }
 
@@ -154,6 +158,10 @@ public class LegalTextPaneComponent extends CustomComponent {
         legalTextComponent.populateContent(docContent);
     }
 
+    public void populateContent(final String docContent, String changedElementId) {
+        legalTextComponent.populateContent(docContent, changedElementId);
+    }
+
     public LeosDisplayField getContent() {
         return legalTextComponent.getContent();
     }
@@ -190,7 +198,7 @@ public class LegalTextPaneComponent extends CustomComponent {
         accordion = new Accordion();
         accordion.setSizeFull();
         accordion.setId("leosAccordion");
-        tableOfContentComponent = new TableOfContentComponent(messageHelper, eventBus, securityContext, cfgHelper, tocEditor, structureContextProvider);
+        tableOfContentComponent = new TableOfContentComponent(messageHelper, eventBus, securityContext, cfgHelper, tocEditor, structureContextProvider, uiScheduler);
         accordion.addTab(tableOfContentComponent, messageHelper.getMessage("toc.title"), VaadinIcons.CHEVRON_DOWN);
         accordion.addTab(versionsTab, messageHelper.getMessage("document.accordion.versions"), VaadinIcons.CHEVRON_RIGHT);
         accordionPane.addComponent(accordion);
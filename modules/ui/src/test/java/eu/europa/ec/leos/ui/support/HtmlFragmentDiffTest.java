@@ -0,0 +1,118 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.ui.support;
+
+import eu.europa.ec.leos.test.support.LeosTest;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HtmlFragmentDiffTest extends LeosTest {
+
+    private static final String SEED = "<div style='display:none' >1600000000000</div>";
+    private static final String OTHER_SEED = "<div style='display:none' >1600000001234</div>";
+
+    @Test
+    public void test_diff_changedArticle_shouldReturnOnlyTheArticle() {
+        String previous = document(article("art_1", "First"), article("art_2", "Second"), article("art_3", "Third")) + SEED;
+        String current = document(article("art_1", "First"), article("art_2", "Second updated"), article("art_3", "Third")) + OTHER_SEED;
+
+        Optional<Map<String, String>> fragments = HtmlFragmentDiff.diff(previous, current, Collections.singleton("art_2"));
+
+        assertTrue(fragments.isPresent());
+        assertEquals(Collections.singletonList("art_2"), Arrays.asList(fragments.get().keySet().toArray()));
+        assertTrue(fragments.get().get("art_2").contains("Second updated"));
+    }
+
+    @Test
+    public void test_diff_changedParagraph_shouldReturnTheDeepestIdentifiedElement() {
+        String previous = document(article("art_1", "First"), article("art_2", "Second"), article("art_3", "Third"));
+        String current = document(article("art_1", "First"), article("art_2", "Second"), article("art_3", "Third updated"));
+
+        Optional<Map<String, String>> fragments = HtmlFragmentDiff.diff(previous, current, Collections.emptyList());
+
+        assertTrue(fragments.isPresent());
+        assertEquals(1, fragments.get().size());
+        assertTrue(fragments.get().containsKey("art_3_par_1"));
+    }
+
+    @Test
+    public void test_diff_unchangedElementToForce_shouldBeReturned() {
+        String previous = document(article("art_1", "First"), article("art_2", "Second"), article("art_3", "Third"));
+
+        Optional<Map<String, String>> fragments = HtmlFragmentDiff.diff(previous, previous, Collections.singleton("art_1"));
+
+        assertTrue(fragments.isPresent());
+        assertEquals(Collections.singleton("art_1"), fragments.get().keySet());
+    }
+
+    @Test
+    public void test_diff_changedNumbering_shouldReturnAllChangedElements() {
+        String previous = document(article("art_1", "First"), article("art_2", "Second"), article("art_3", "Third"), article("art_4", "Fourth"));
+        String current = document(article("art_1", "First"), article("art_2", "Second").replace("Article art_2", "Article 2a"),
+                article("art_3", "Third"), article("art_4", "Fourth"));
+
+        Optional<Map<String, String>> fragments = HtmlFragmentDiff.diff(previous, current, Collections.singleton("art_2"));
+
+        assertTrue(fragments.isPresent());
+        assertTrue(fragments.get().get("art_2").contains("Article 2a"));
+    }
+
+    @Test
+    public void test_diff_addedArticle_shouldReturnEmpty() {
+        String previous = document(article("art_1", "First"), article("art_2", "Second"), article("art_3", "Third"));
+        String current = document(article("art_1", "First"), article("art_new", "New"), article("art_2", "Second"), article("art_3", "Third"));
+
+        assertFalse(HtmlFragmentDiff.diff(previous, current, Collections.singleton("art_new")).isPresent());
+    }
+
+    @Test
+    public void test_diff_missingElementToForce_shouldReturnEmpty() {
+        String previous = document(article("art_1", "First"), article("art_2", "Second"), article("art_3", "Third"));
+
+        assertFalse(HtmlFragmentDiff.diff(previous, previous, Collections.singleton("art_9")).isPresent());
+    }
+
+    @Test
+    public void test_diff_duplicatedIds_shouldReturnEmpty() {
+        String previous = document(article("art_1", "First"), article("art_2", "Second"), article("art_3", "Third"));
+        String current = document(article("art_1", "First"), article("art_1", "Second"), article("art_3", "Third"));
+
+        assertFalse(HtmlFragmentDiff.diff(previous, current, Collections.singleton("art_1")).isPresent());
+    }
+
+    @Test
+    public void test_diff_mostOfTheDocumentChanged_shouldReturnEmpty() {
+        String previous = document(article("art_1", "First"), article("art_2", "Second"));
+        String current = document(article("art_1", "First"), article("art_2", "Second")).replace("Heading", "New heading");
+
+        assertFalse(HtmlFragmentDiff.diff(previous, current, Collections.emptyList()).isPresent());
+    }
+
+    private static String document(String... articles) {
+        return "<akomantoso id=\"akn\"><bill><body id=\"body\">" + String.join("", articles) + "</body></bill></akomantoso>";
+    }
+
+    private static String article(String id, String text) {
+        return "<article id=\"" + id + "\"><num>Article " + id + "</num><heading>Heading of the article</heading>" +
+                "<paragraph id=\"" + id + "_par_1\"><content><p>" + text + "</p></content></paragraph></article>";
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.ui.support;
+
+import eu.europa.ec.leos.test.support.LeosTest;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import javax.servlet.http.HttpSession;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SessionWorkingCopyTest extends LeosTest {
+
+    private static final String KEY = "bill#bill_test.xml";
+
+    @Test
+    public void test_store_shouldKeepTheContentCompressed() throws Exception {
+        byte[] content = document(2000);
+        HttpSession session = mock(HttpSession.class);
+
+        SessionWorkingCopy.store(session, KEY, content);
+
+        ArgumentCaptor<Object> workingCopy = ArgumentCaptor.forClass(Object.class);
+        verify(session).setAttribute(eq(KEY), workingCopy.capture());
+        assertTrue(serializedSize(workingCopy.getValue()) * 4 < content.length);
+
+        when(session.getAttribute(KEY)).thenReturn(workingCopy.getValue());
+        assertTrue(SessionWorkingCopy.exists(session, KEY));
+        assertArrayEquals(content, SessionWorkingCopy.load(session, KEY));
+    }
+
+    @Test
+    public void test_load_shouldSurviveSessionSerialization() throws Exception {
+        byte[] content = document(10);
+        HttpSession session = mock(HttpSession.class);
+        when(session.getAttribute(KEY)).thenReturn(deserialize(new SessionWorkingCopy(content)));
+
+        assertArrayEquals(content, SessionWorkingCopy.load(session, KEY));
+    }
+
+    @Test
+    public void test_load_withoutWorkingCopy_shouldReturnNull() {
+        HttpSession session = mock(HttpSession.class);
+
+        assertFalse(SessionWorkingCopy.exists(session, KEY));
+        assertNull(SessionWorkingCopy.load(session, KEY));
+    }
+
+    private static byte[] document(int articles) {
+        StringBuilder xml = new StringBuilder("<akomaNtoso><bill><body>");
+        for (int i = 0; i < articles; i++) {
+            xml.append("<article xml:id=\"art_").append(i).append("\"><num>Article ").append(i)
+                    .append("</num><paragraph><content><p>Text of the paragraph</p></content></paragraph></article>");
+        }
+        return xml.append("</body></bill></akomaNtoso>").toString().getBytes(UTF_8);
+    }
+
+    private static int serializedSize(Object object) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.size();
+    }
+
+    private static Object deserialize(Object object) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return in.readObject();
+        }
+    }
+}
@@ -46,6 +46,7 @@ import eu.europa.ec.leos.test.support.model.ModelHelper;
 import eu.europa.ec.leos.test.support.web.presenter.LeosPresenterTest;
 import eu.europa.ec.leos.ui.event.search.ShowConfirmDialogEvent;
 import eu.europa.ec.leos.ui.support.CoEditionHelper;
+import eu.europa.ec.leos.ui.support.SessionWorkingCopy;
 import eu.europa.ec.leos.vo.coedition.CoEditionActionInfo;
 import eu.europa.ec.leos.vo.coedition.CoEditionActionInfo.Operation;
 import eu.europa.ec.leos.vo.coedition.CoEditionVO;
@@ -367,10 +368,7 @@ public class AnnexPresenterTest extends LeosPresenterTest {
 
     @Test
     public void testCloseDocumentUnsavedAnnexInSession() {
-        AnnexMetadata annexMetadata = new AnnexMetadata("", "REGULATION", "", "AN-000.xml", "EN", docTemplate, "annex-id", 1, "Annex 1", docTitle, "", "0.0.1");
-
-        Annex annex = getMockedAnnex(mock(Content.class), "0.0.1", annexMetadata);
-        when(httpSession.getAttribute(eq("annex#" + docRef))).thenReturn(annex);
+        when(httpSession.getAttribute(eq("annex#" + docRef))).thenReturn(new SessionWorkingCopy(byteContent));
 
         // DO THE ACTUAL CALL
         annexPresenter.handleCloseDocument(new CloseDocumentEvent());
@@ -542,7 +540,7 @@ public class AnnexPresenterTest extends LeosPresenterTest {
         when(annexService.findAnnexByRef(docRef)).thenReturn(document);
         when(elementProcessor.getElement(document, elementTag, elementId)).thenReturn(contentString);
         when(coEditionHelper.getCurrentEditInfo("test")).thenReturn(actionInfo.getCoEditionVos());
-        when(httpSession.getAttribute(eq("annex#" + docRef))).thenReturn(document);
+        when(httpSession.getAttribute(eq("annex#" + docRef))).thenReturn(new SessionWorkingCopy(byteContent));
 
         // DO THE ACTUAL CALL
         annexPresenter.editElement(new EditElementRequestEvent(elementId, elementTag));
@@ -51,6 +51,7 @@ import eu.europa.ec.leos.test.support.web.presenter.LeosPresenterTest;
 import eu.europa.ec.leos.ui.event.search.ShowConfirmDialogEvent;
 import eu.europa.ec.leos.ui.event.toc.InlineTocEditRequestEvent;
 import eu.europa.ec.leos.ui.support.CoEditionHelper;
+import eu.europa.ec.leos.ui.support.SessionWorkingCopy;
 import eu.europa.ec.leos.vo.coedition.CoEditionActionInfo;
 import eu.europa.ec.leos.vo.coedition.CoEditionActionInfo.Operation;
 import eu.europa.ec.leos.vo.coedition.CoEditionVO;
@@ -490,18 +491,9 @@ public class DocumentPresenterTest extends LeosPresenterTest {
     @Test
     public void testCloseDocumentUnsavedBillInSession() {
 
-        Content content = mock(Content.class);
-
         String docRef = "bill_test.xml";
-        String docId = "555";
-        String documentVersion="1.0.0";
-        List<Collaborator> collaborators = new ArrayList<>();
-        collaborators.add(new Collaborator("login", "OWNER", "SG"));
-
-        BillMetadata billMetadata =new BillMetadata("", "REGULATION", "", "BL-000.xml", "EN", "", "bill-id", "", "0.0.1");
-        final Bill document = getMockedBill(content, docId, "title", documentVersion, billMetadata, collaborators);
 
-        when(httpSession.getAttribute(eq("bill#" + docRef))).thenReturn(document);
+        when(httpSession.getAttribute(eq("bill#" + docRef))).thenReturn(new SessionWorkingCopy(new byte[]{1, 2, 3}));
         when(httpSession.getAttribute(eq(documentPresenter.getId() + "." + SessionAttribute.BILL_REF.name()))).thenReturn(docRef);
 
         // DO THE ACTUAL CALL
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.leos.ui.view.workspace;
+
+import eu.europa.ec.leos.domain.cmis.common.VersionType;
+import eu.europa.ec.leos.domain.cmis.document.Proposal;
+import eu.europa.ec.leos.model.filter.QueryFilter;
+import eu.europa.ec.leos.model.filter.QueryFilter.Filter;
+import eu.europa.ec.leos.model.filter.QueryFilter.FilterType;
+import eu.europa.ec.leos.model.filter.QueryFilter.SortOrder;
+import eu.europa.ec.leos.test.support.LeosTest;
+import io.atlassian.fugue.Option;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WorkspacePageCursorTest extends LeosTest {
+
+    private static final Instant T1 = Instant.parse("2021-03-01T10:15:30.125Z");
+    private static final Instant T2 = Instant.parse("2021-03-01T09:00:00Z");
+
+    @Test
+    public void test_seek_nextPageIsQueriedFromTheLastListedProposal() {
+        WorkspacePageCursor cursor = new WorkspacePageCursor();
+        QueryFilter workspaceFilter = createFilter(QueryFilter.SORT_DESCENDING);
+        cursor.moveAfter(0, workspaceFilter, Arrays.asList(proposal("p1", T1), proposal("p2", T2), proposal("p3", T2)));
+
+        Optional<QueryFilter> seekFilter = cursor.seek(3, workspaceFilter);
+
+        assertTrue(seekFilter.isPresent());
+        List<Filter> filters = seekFilter.get().getFilters();
+        assertEquals(3, filters.size());
+        assertEquals(FilterType.lastModificationDate.name(), filters.get(1).key);
+        assertEquals("<=", filters.get(1).operator);
+        assertEquals("2021-03-01T09:00:00.000Z", filters.get(1).getValue());
+        assertEquals("NOT IN", filters.get(2).operator);
+        assertArrayEquals(new String[]{"p2", "p3"}, filters.get(2).value);
+        assertEquals(1, workspaceFilter.getFilters().size());
+    }
+
+    @Test
+    public void test_seek_ascendingOrder() {
+        WorkspacePageCursor cursor = new WorkspacePageCursor();
+        QueryFilter workspaceFilter = createFilter(QueryFilter.SORT_ASCENDING);
+        cursor.moveAfter(0, workspaceFilter, Arrays.asList(proposal("p2", T2), proposal("p1", T1)));
+
+        Optional<QueryFilter> seekFilter = cursor.seek(2, workspaceFilter);
+
+        assertEquals(">=", seekFilter.get().getFilters().get(1).operator);
+        assertEquals("2021-03-01T10:15:30.125Z", seekFilter.get().getFilters().get(1).getValue());
+    }
+
+    @Test
+    public void test_seek_otherIndexOrFilterIsQueriedByOffset() {
+        WorkspacePageCursor cursor = new WorkspacePageCursor();
+        QueryFilter workspaceFilter = createFilter(QueryFilter.SORT_DESCENDING);
+        cursor.moveAfter(0, workspaceFilter, Arrays.asList(proposal("p1", T1), proposal("p2", T2)));
+
+        assertFalse(cursor.seek(0, workspaceFilter).isPresent());
+        assertFalse(cursor.seek(40, workspaceFilter).isPresent());
+        assertFalse(cursor.seek(2, createFilter(QueryFilter.SORT_ASCENDING)).isPresent());
+        assertTrue(cursor.seek(2, createFilter(QueryFilter.SORT_DESCENDING)).isPresent());
+    }
+
+    @Test
+    public void test_seek_pageOfEqualDatesQueriedByOffsetCannotBeContinued() {
+        WorkspacePageCursor cursor = new WorkspacePageCursor();
+        QueryFilter workspaceFilter = createFilter(QueryFilter.SORT_DESCENDING);
+        cursor.moveAfter(40, workspaceFilter, Arrays.asList(proposal("p41", T2), proposal("p42", T2)));
+
+        assertFalse(cursor.seek(42, workspaceFilter).isPresent());
+
+        cursor.moveAfter(42, workspaceFilter, Collections.singletonList(proposal("p43", T1)));
+        assertTrue(cursor.seek(43, workspaceFilter).isPresent());
+    }
+
+    private QueryFilter createFilter(String direction) {
+        QueryFilter workspaceFilter = new QueryFilter();
+        workspaceFilter.addFilter(new Filter(FilterType.language.name(), "IN", false, "EN", "FR"));
+        workspaceFilter.addSortOrder(new SortOrder(FilterType.lastModificationDate.name(), direction));
+        return workspaceFilter;
+    }
+
+    private Proposal proposal(String id, Instant lastModification) {
+        return new Proposal(id, "Proposal", "login", lastModification, "login", lastModification,
+                "", "", "", "", VersionType.MAJOR, true,
+                "title", Collections.emptyList(), Collections.emptyList(), "login", lastModification,
+                Option.none(), Option.none(), false, "", "", "");
+    }
+}
@@ -44,6 +44,7 @@ import org.springframework.stereotype.Component;
 import javax.inject.Provider;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -226,8 +227,11 @@ public class BillContext {
         }
     
         final String updateRefsComment = messageHelper.getMessage("internal.ref.updatedOnImport");
-        final byte[] updatedBytes = xmlContentProcessor.doXMLPostProcessing(bill.getContent().get().getSource().getBytes()); //updateRefs
-        billService.updateBill(bill, updatedBytes, updateRefsComment);
+        final byte[] importedBytes = bill.getContent().get().getSource().getBytes();
+        final byte[] updatedBytes = xmlContentProcessor.doXMLPostProcessing(importedBytes); //updateRefs
+        if (!Arrays.equals(importedBytes, updatedBytes)) {
+            billService.updateBill(bill, updatedBytes, updateRefsComment);
+        }
         for (Annex annex : annexes) {
             DocumentVO docChild = billDocument.getChildDocuments().stream()
                     .filter(p -> Integer.parseInt(p.getMetadata().getIndex()) == annex.getMetadata().get().getIndex())
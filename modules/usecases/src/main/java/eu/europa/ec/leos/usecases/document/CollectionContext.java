@@ -16,6 +16,8 @@ package eu.europa.ec.leos.usecases.document;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import javax.inject.Provider;
 
@@ -33,6 +35,7 @@ import eu.europa.ec.leos.domain.cmis.LeosPackage;
 import eu.europa.ec.leos.domain.cmis.common.VersionType;
 import eu.europa.ec.leos.domain.cmis.metadata.ProposalMetadata;
 import eu.europa.ec.leos.domain.vo.DocumentVO;
+import eu.europa.ec.leos.services.collection.ProposalMetadataUpdateService;
 import eu.europa.ec.leos.services.document.ProposalService;
 import eu.europa.ec.leos.services.store.PackageService;
 import eu.europa.ec.leos.services.store.TemplateService;
@@ -52,6 +55,7 @@ public abstract class CollectionContext {
 
     protected final Provider<MemorandumContext> memorandumContextProvider;
     protected final Provider<BillContext> billContextProvider;
+    protected final ProposalMetadataUpdateService metadataUpdateService;
 
     protected final Map<LeosCategory, XmlDocument> categoryTemplateMap;
 
@@ -72,12 +76,14 @@ public abstract class CollectionContext {
             PackageService packageService,
             ProposalService proposalService,
             Provider<MemorandumContext> memorandumContextProvider,
-            Provider<BillContext> billContextProvider) {
+            Provider<BillContext> billContextProvider,
+            ProposalMetadataUpdateService metadataUpdateService) {
         this.templateService = templateService;
         this.packageService = packageService;
         this.proposalService = proposalService;
         this.memorandumContextProvider = memorandumContextProvider;
         this.billContextProvider = billContextProvider;
+        this.metadataUpdateService = metadataUpdateService;
         this.categoryTemplateMap = new HashMap<>();
         this.actionMsgMap = new HashMap<>();
     }
@@ -236,31 +242,27 @@ public abstract class CollectionContext {
 
     public void executeUpdateProposal() {
         LOG.trace("Executing 'Update Proposal' use case...");
+        try {
+            proposal = executeUpdateProposalMetadata(null).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Updates the purpose of the proposal and of all the documents of its package in the background.
+     * The documents already updated are restored if the update of one of them fails.
+     */
+    public CompletableFuture<Proposal> executeUpdateProposalMetadata(ProposalMetadataUpdateService.ProgressListener listener) {
+        LOG.trace("Executing 'Update Proposal Metadata' use case...");
 
         Validate.notNull(proposal, "Proposal is required!");
         Validate.notNull(proposalComment, "Proposal comment is required!");
-
-        Option<ProposalMetadata> metadataOption = proposal.getMetadata();
-        Validate.isTrue(metadataOption.isDefined(), "Proposal metadata is required!");
-
+        Validate.isTrue(proposal.getMetadata().isDefined(), "Proposal metadata is required!");
         Validate.notNull(purpose, "Proposal purpose is required!");
-        ProposalMetadata metadata = metadataOption.get().withPurpose(purpose);
 
-        proposal = proposalService.updateProposal(proposal, metadata, VersionType.MINOR, proposalComment);
-
-        LeosPackage leosPackage = packageService.findPackageByDocumentId(proposal.getId());
-
-        MemorandumContext memorandumContext = memorandumContextProvider.get();
-        memorandumContext.usePackage(leosPackage);
-        memorandumContext.usePurpose(purpose);
-        memorandumContext.useActionMessageMap(actionMsgMap);
-        memorandumContext.executeUpdateMemorandum();
-
-        BillContext billContext = billContextProvider.get();
-        billContext.usePackage(leosPackage);
-        billContext.usePurpose(purpose);
-        billContext.useActionMessageMap(actionMsgMap);
-        billContext.executeUpdateBill();
+        return metadataUpdateService.updatePurpose(proposal, purpose, proposalComment,
+                actionMsgMap.get(ContextAction.METADATA_UPDATED), actionMsgMap.get(ContextAction.METADATA_RESTORED), listener);
     }
 
     public void executeDeleteProposal() {
@@ -21,6 +21,7 @@ import eu.europa.ec.leos.domain.cmis.metadata.ProposalMetadata;
 import eu.europa.ec.leos.domain.common.InstanceType;
 import eu.europa.ec.leos.i18n.MessageHelper;
 import eu.europa.ec.leos.instance.Instance;
+import eu.europa.ec.leos.services.collection.ProposalMetadataUpdateService;
 import eu.europa.ec.leos.services.document.ExplanatoryService;
 import eu.europa.ec.leos.services.document.ProposalService;
 import eu.europa.ec.leos.services.store.PackageService;
@@ -57,8 +58,9 @@ public class CollectionContextMandate extends CollectionContext {
                              PackageService packageService,
                              ProposalService proposalService, Provider<ExplanatoryContext> explanatoryContextProvider,
                              Provider<MemorandumContext> memorandumContextProvider,
-                             Provider<BillContext> billContextProvider, ExplanatoryService explanatoryService, MessageHelper messageHelper) {
-        super(templateService, packageService, proposalService, memorandumContextProvider, billContextProvider);
+                             Provider<BillContext> billContextProvider, ExplanatoryService explanatoryService, MessageHelper messageHelper,
+                             ProposalMetadataUpdateService metadataUpdateService) {
+        super(templateService, packageService, proposalService, memorandumContextProvider, billContextProvider, metadataUpdateService);
         this.explanatoryContextProvider = explanatoryContextProvider;
         this.explanatoryService = explanatoryService;
         this.messageHelper = messageHelper;
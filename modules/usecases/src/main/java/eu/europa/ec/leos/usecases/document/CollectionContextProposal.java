@@ -17,6 +17,7 @@ import eu.europa.ec.leos.domain.cmis.LeosPackage;
 import eu.europa.ec.leos.domain.cmis.metadata.ProposalMetadata;
 import eu.europa.ec.leos.domain.common.InstanceType;
 import eu.europa.ec.leos.instance.Instance;
+import eu.europa.ec.leos.services.collection.ProposalMetadataUpdateService;
 import eu.europa.ec.leos.services.document.ProposalService;
 import eu.europa.ec.leos.services.store.PackageService;
 import eu.europa.ec.leos.services.store.TemplateService;
@@ -38,8 +39,9 @@ public class CollectionContextProposal extends CollectionContext {
                               PackageService packageService,
                               ProposalService proposalService,
                               Provider<MemorandumContext> memorandumContextProvider,
-                              Provider<BillContext> billContextProvider) {
-        super(templateService, packageService, proposalService, memorandumContextProvider, billContextProvider);
+                              Provider<BillContext> billContextProvider,
+                              ProposalMetadataUpdateService metadataUpdateService) {
+        super(templateService, packageService, proposalService, memorandumContextProvider, billContextProvider, metadataUpdateService);
     }
 
     protected void createDefaultExplanatories(LeosPackage leosPackage, ProposalMetadata metadata) {
@@ -16,6 +16,7 @@ package eu.europa.ec.leos.usecases.document;
 public enum ContextAction {
     DOCUMENT_CREATED,
     METADATA_UPDATED,
+    METADATA_RESTORED,
     EXPLANATORY_ADDED,
     EXPLANATORY_DELETED,
     EXPLANATORY_UPDATED,
@@ -19,6 +19,7 @@ import org.apache.chemistry.opencmis.commons.enums.BaseTypeId;
 import org.apache.chemistry.opencmis.commons.enums.IncludeRelationships;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisObjectNotFoundException;
 import org.apache.chemistry.opencmis.commons.impl.Constants;
+import org.apache.chemistry.opencmis.commons.impl.IOUtils;
 import org.apache.chemistry.opencmis.commons.impl.dataobjects.ContentStreamImpl;
 import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertiesImpl;
 import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyIdImpl;
@@ -172,6 +173,13 @@ public class LeosInMemoryServiceFactory extends InMemoryServiceFactoryImpl {
         Map<String, String> optionalProps = processOptionalProperties(documentKey, parameters);
         List<String> secondaryTypeIds = processOptionalSecondaryTypes(documentKey, parameters);
         String folderId = createFolder(repositoryId, path);
+        String documentPath = (path.endsWith(Filing.PATH_SEPARATOR) ? path : path + Filing.PATH_SEPARATOR) + name;
+        if (findObjectId(repositoryId, documentPath) != null) {
+            // already restored from the persistence directory
+            LOG.trace("Document exists: {}", documentPath);
+            IOUtils.closeQuietly(inStream);
+            return;
+        }
         createDocument(repositoryId, folderId, name, fileName, mimeType, inStream, primaryTypeId, category, optionalProps, secondaryTypeIds);
     }
 
@@ -49,6 +49,22 @@ public final class ConfigConstants {
     public static final String DEPLOYMENT_TIME = "InMemoryServer.DeploymentTime";
     public static final String PARSER_MODE = "InMemoryServer.ParserMode";
 
+    // persistence of the repository on the local disk, disabled when no
+    // directory is configured
+    public static final String PERSISTENCE_DIR = "InMemoryServer.PersistenceDir";
+    public static final String PERSISTENCE_SYNC_WRITES = "InMemoryServer.PersistenceSyncWrites";
+    public static final String PERSISTENCE_LOADER_THREADS = "InMemoryServer.PersistenceLoaderThreads";
+    public static final String PERSISTENCE_SNAPSHOT_INTERVAL = "InMemoryServer.SnapshotIntervalMinutes";
+
+    // store of the content bytes: "heap" (default) or "file" for content
+    // addressed files read through memory mappings
+    public static final String CONTENT_STORE = "InMemoryServer.ContentStore";
+    public static final String CONTENT_STORE_DIR = "InMemoryServer.ContentStoreDir";
+    // interval in minutes between two releases of the unreferenced content
+    // files of a repository without persistence, persistent repositories
+    // release them after each snapshot
+    public static final String CONTENT_STORE_RELEASE_INTERVAL = "InMemoryServer.ContentStoreReleaseIntervalMinutes";
+
     private ConfigConstants() {
     }
 
@@ -19,7 +19,10 @@
 package org.apache.chemistry.opencmis.inmemory.server;
 
 import java.math.BigInteger;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.chemistry.opencmis.commons.data.Acl;
 import org.apache.chemistry.opencmis.commons.data.AllowableActions;
@@ -46,7 +49,9 @@ import org.apache.chemistry.opencmis.commons.enums.VersioningState;
 import org.apache.chemistry.opencmis.commons.impl.server.AbstractCmisService;
 import org.apache.chemistry.opencmis.commons.server.CallContext;
 import org.apache.chemistry.opencmis.commons.spi.Holder;
+import org.apache.chemistry.opencmis.inmemory.storedobj.api.ObjectStore;
 import org.apache.chemistry.opencmis.inmemory.storedobj.api.StoreManager;
+import org.apache.chemistry.opencmis.inmemory.storedobj.impl.ObjectStoreImpl;
 
 public class InMemoryService extends AbstractCmisService {
 
@@ -84,6 +89,46 @@ public class InMemoryService extends AbstractCmisService {
         return callContext;
     }
 
+    // --- persistence ---
+    // objects changed by a write operation are written to the journal of a
+    // persistent repository once the operation is done, even if it failed
+    // half way
+
+    private ObjectStoreImpl getPersistentStore(String repositoryId) {
+        ObjectStore store = storeManager.getObjectStore(repositoryId);
+        if (store instanceof ObjectStoreImpl && ((ObjectStoreImpl) store).isPersistent()) {
+            return (ObjectStoreImpl) store;
+        }
+        return null;
+    }
+
+    private Set<String> journalScope(String repositoryId, String... ids) {
+        ObjectStoreImpl store = getPersistentStore(repositoryId);
+        return null == store ? Collections.<String> emptySet() : store.getJournalScope(ids);
+    }
+
+    private Set<String> journalScopeOfTree(String repositoryId, String folderId) {
+        ObjectStoreImpl store = getPersistentStore(repositoryId);
+        return null == store ? Collections.<String> emptySet() : store.getJournalScopeOfTree(folderId);
+    }
+
+    private void journal(String repositoryId, Set<String> scope, String... changedIds) {
+        ObjectStoreImpl store = getPersistentStore(repositoryId);
+        if (null != store) {
+            Set<String> ids = new LinkedHashSet<String>(scope);
+            for (String id : changedIds) {
+                if (null != id) {
+                    ids.add(id);
+                }
+            }
+            store.journal(ids);
+        }
+    }
+
+    private static String valueOf(Holder<String> holder) {
+        return null == holder ? null : holder.getValue();
+    }
+
     // --- repository service ---
 
     @Override
@@ -187,9 +232,14 @@ public class InMemoryService extends AbstractCmisService {
     @Override
     public String create(String repositoryId, Properties properties, String folderId, ContentStream contentStream,
             VersioningState versioningState, List<String> policies, ExtensionsData extension) {
-        String id = fObjSvc.create(getCallContext(), repositoryId, properties, folderId, contentStream,
-                versioningState, policies, extension, this);
-        return id;
+        String id = null;
+        try {
+            id = fObjSvc.create(getCallContext(), repositoryId, properties, folderId, contentStream,
+                    versioningState, policies, extension, this);
+            return id;
+        } finally {
+            journal(repositoryId, Collections.<String> emptySet(), id);
+        }
 
     }
 
@@ -197,68 +247,124 @@ public class InMemoryService extends AbstractCmisService {
     public String createDocument(String repositoryId, Properties properties, String folderId,
             ContentStream contentStream, VersioningState versioningState, List<String> policies, Acl addAces,
             Acl removeAces, ExtensionsData extension) {
-        return fObjSvc.createDocument(getCallContext(), repositoryId, properties, folderId, contentStream,
-                versioningState, policies, addAces, removeAces, extension);
+        String id = null;
+        try {
+            id = fObjSvc.createDocument(getCallContext(), repositoryId, properties, folderId, contentStream,
+                    versioningState, policies, addAces, removeAces, extension);
+            return id;
+        } finally {
+            journal(repositoryId, Collections.<String> emptySet(), id);
+        }
     }
 
     @Override
     public String createDocumentFromSource(String repositoryId, String sourceId, Properties properties,
             String folderId, VersioningState versioningState, List<String> policies, Acl addAces, Acl removeAces,
             ExtensionsData extension) {
-        return fObjSvc.createDocumentFromSource(getCallContext(), repositoryId, sourceId, properties, folderId,
-                versioningState, policies, addAces, removeAces, extension);
+        String id = null;
+        try {
+            id = fObjSvc.createDocumentFromSource(getCallContext(), repositoryId, sourceId, properties, folderId,
+                    versioningState, policies, addAces, removeAces, extension);
+            return id;
+        } finally {
+            journal(repositoryId, Collections.<String> emptySet(), id);
+        }
     }
 
     @Override
     public String createFolder(String repositoryId, Properties properties, String folderId, List<String> policies,
             Acl addAces, Acl removeAces, ExtensionsData extension) {
-        return fObjSvc.createFolder(getCallContext(), repositoryId, properties, folderId, policies, addAces,
-                removeAces, extension);
+        String id = null;
+        try {
+            id = fObjSvc.createFolder(getCallContext(), repositoryId, properties, folderId, policies, addAces,
+                    removeAces, extension);
+            return id;
+        } finally {
+            journal(repositoryId, Collections.<String> emptySet(), id);
+        }
     }
 
     @Override
     public String createPolicy(String repositoryId, Properties properties, String folderId, List<String> policies,
             Acl addAces, Acl removeAces, ExtensionsData extension) {
-        return fObjSvc.createPolicy(getCallContext(), repositoryId, properties, folderId, policies, addAces,
-                removeAces, extension);
+        String id = null;
+        try {
+            id = fObjSvc.createPolicy(getCallContext(), repositoryId, properties, folderId, policies, addAces,
+                    removeAces, extension);
+            return id;
+        } finally {
+            journal(repositoryId, Collections.<String> emptySet(), id);
+        }
     }
 
     @Override
     public String createRelationship(String repositoryId, Properties properties, List<String> policies, Acl addAces,
             Acl removeAces, ExtensionsData extension) {
-        return fObjSvc.createRelationship(getCallContext(), repositoryId, properties, policies, addAces, removeAces,
-                extension);
+        String id = null;
+        try {
+            id = fObjSvc.createRelationship(getCallContext(), repositoryId, properties, policies, addAces, removeAces,
+                    extension);
+            return id;
+        } finally {
+            journal(repositoryId, Collections.<String> emptySet(), id);
+        }
     }
 
     @Override
     public String createItem(String repositoryId, Properties properties, String folderId, List<String> policies,
             Acl addAces, Acl removeAces, ExtensionsData extension) {
-        return fObjSvc.createItem(getCallContext(), repositoryId, properties, folderId, policies, addAces, removeAces,
-                extension);
+        String id = null;
+        try {
+            id = fObjSvc.createItem(getCallContext(), repositoryId, properties, folderId, policies, addAces, removeAces,
+                    extension);
+            return id;
+        } finally {
+            journal(repositoryId, Collections.<String> emptySet(), id);
+        }
     }
 
     @Override
     public void deleteContentStream(String repositoryId, Holder<String> objectId, Holder<String> changeToken,
             ExtensionsData extension) {
-        fObjSvc.deleteContentStream(getCallContext(), repositoryId, objectId, changeToken, extension);
+        Set<String> scope = journalScope(repositoryId, valueOf(objectId));
+        try {
+            fObjSvc.deleteContentStream(getCallContext(), repositoryId, objectId, changeToken, extension);
+        } finally {
+            journal(repositoryId, scope, valueOf(objectId));
+        }
     }
 
     @Override
     public void deleteObject(String repositoryId, String objectId, Boolean allVersions, ExtensionsData extension) {
-        fObjSvc.deleteObject(getCallContext(), repositoryId, objectId, allVersions, extension);
+        Set<String> scope = journalScope(repositoryId, objectId);
+        try {
+            fObjSvc.deleteObject(getCallContext(), repositoryId, objectId, allVersions, extension);
+        } finally {
+            journal(repositoryId, scope);
+        }
     }
 
     @Override
     public void deleteObjectOrCancelCheckOut(String repositoryId, String objectId, Boolean allVersions,
             ExtensionsData extension) {
-        fObjSvc.deleteObject(getCallContext(), repositoryId, objectId, allVersions, extension);
+        Set<String> scope = journalScope(repositoryId, objectId);
+        try {
+            fObjSvc.deleteObject(getCallContext(), repositoryId, objectId, allVersions, extension);
+        } finally {
+            journal(repositoryId, scope);
+        }
     }
 
     @Override
     public FailedToDeleteData deleteTree(String repositoryId, String folderId, Boolean allVersions,
             UnfileObject unfileObjects, Boolean continueOnFailure, ExtensionsData extension) {
-        return fObjSvc.deleteTree(getCallContext(), repositoryId, folderId, allVersions, unfileObjects,
-                continueOnFailure, extension);
+        Set<String> scope = journalScopeOfTree(repositoryId, folderId);
+        try {
+            return fObjSvc.deleteTree(getCallContext(), repositoryId, folderId, allVersions, unfileObjects,
+                    continueOnFailure, extension);
+        } finally {
+            journal(repositoryId, scope);
+        }
     }
 
     @Override
@@ -303,28 +409,50 @@ public class InMemoryService extends AbstractCmisService {
     @Override
     public void moveObject(String repositoryId, Holder<String> objectId, String targetFolderId, String sourceFolderId,
             ExtensionsData extension) {
-        fObjSvc.moveObject(getCallContext(), repositoryId, objectId, targetFolderId, sourceFolderId, extension, this);
+        Set<String> scope = journalScope(repositoryId, valueOf(objectId));
+        try {
+            fObjSvc.moveObject(getCallContext(), repositoryId, objectId, targetFolderId, sourceFolderId, extension,
+                    this);
+        } finally {
+            journal(repositoryId, scope, valueOf(objectId));
+        }
     }
 
     @Override
     public void setContentStream(String repositoryId, Holder<String> objectId, Boolean overwriteFlag,
             Holder<String> changeToken, ContentStream contentStream, ExtensionsData extension) {
-        fObjSvc.setContentStream(getCallContext(), repositoryId, objectId, overwriteFlag, changeToken, contentStream,
-                extension);
+        Set<String> scope = journalScope(repositoryId, valueOf(objectId));
+        try {
+            fObjSvc.setContentStream(getCallContext(), repositoryId, objectId, overwriteFlag, changeToken,
+                    contentStream, extension);
+        } finally {
+            journal(repositoryId, scope, valueOf(objectId));
+        }
     }
 
     @Override
     public void updateProperties(String repositoryId, Holder<String> objectId, Holder<String> changeToken,
             Properties properties, ExtensionsData extension) {
-        fObjSvc.updateProperties(getCallContext(), repositoryId, objectId, changeToken, properties, null, extension,
-                this);
+        Set<String> scope = journalScope(repositoryId, valueOf(objectId));
+        try {
+            fObjSvc.updateProperties(getCallContext(), repositoryId, objectId, changeToken, properties, null,
+                    extension, this);
+        } finally {
+            journal(repositoryId, scope, valueOf(objectId));
+        }
     }
 
     // CMIS 1.1
     @Override
     public void appendContentStream(String repositoryId, Holder<String> objectId, Holder<String> changeToken,
             ContentStream contentStream, boolean isLastChunk, ExtensionsData extension) {
-        fObjSvc.appendContentStream(getCallContext(), repositoryId, objectId, changeToken, contentStream, extension);
+        Set<String> scope = journalScope(repositoryId, valueOf(objectId));
+        try {
+            fObjSvc.appendContentStream(getCallContext(), repositoryId, objectId, changeToken, contentStream,
+                    extension);
+        } finally {
+            journal(repositoryId, scope, valueOf(objectId));
+        }
     }
 
     // CMIS 1.1
@@ -332,29 +460,61 @@ public class InMemoryService extends AbstractCmisService {
     public List<BulkUpdateObjectIdAndChangeToken> bulkUpdateProperties(String repositoryId,
             List<BulkUpdateObjectIdAndChangeToken> objectIdAndChangeToken, Properties properties,
             List<String> addSecondaryTypeIds, List<String> removeSecondaryTypeIds, ExtensionsData extension) {
-        return fObjSvc.bulkUpdateProperties(getCallContext(), repositoryId, objectIdAndChangeToken, properties,
-                addSecondaryTypeIds, removeSecondaryTypeIds, extension, this);
+        Set<String> scope = new LinkedHashSet<String>();
+        if (null != objectIdAndChangeToken) {
+            for (BulkUpdateObjectIdAndChangeToken idAndToken : objectIdAndChangeToken) {
+                scope.addAll(journalScope(repositoryId, idAndToken.getId()));
+            }
+        }
+        List<BulkUpdateObjectIdAndChangeToken> result = null;
+        try {
+            result = fObjSvc.bulkUpdateProperties(getCallContext(), repositoryId, objectIdAndChangeToken,
+                    properties, addSecondaryTypeIds, removeSecondaryTypeIds, extension, this);
+            return result;
+        } finally {
+            if (null != result) {
+                for (BulkUpdateObjectIdAndChangeToken idAndToken : result) {
+                    scope.add(idAndToken.getNewId());
+                }
+            }
+            journal(repositoryId, scope);
+        }
     }
 
     // --- versioning service ---
 
     @Override
     public void cancelCheckOut(String repositoryId, String objectId, ExtensionsData extension) {
-        fVerSvc.cancelCheckOut(getCallContext(), repositoryId, objectId, extension);
+        Set<String> scope = journalScope(repositoryId, objectId);
+        try {
+            fVerSvc.cancelCheckOut(getCallContext(), repositoryId, objectId, extension);
+        } finally {
+            journal(repositoryId, scope);
+        }
     }
 
     @Override
     public void checkIn(String repositoryId, Holder<String> objectId, Boolean major, Properties properties,
             ContentStream contentStream, String checkinComment, List<String> policies, Acl addAces, Acl removeAces,
             ExtensionsData extension) {
-        fVerSvc.checkIn(getCallContext(), repositoryId, objectId, major, properties, contentStream, checkinComment,
-                policies, addAces, removeAces, extension, this);
+        Set<String> scope = journalScope(repositoryId, valueOf(objectId));
+        try {
+            fVerSvc.checkIn(getCallContext(), repositoryId, objectId, major, properties, contentStream,
+                    checkinComment, policies, addAces, removeAces, extension, this);
+        } finally {
+            journal(repositoryId, scope, valueOf(objectId));
+        }
     }
 
     @Override
     public void checkOut(String repositoryId, Holder<String> objectId, ExtensionsData extension,
             Holder<Boolean> contentCopied) {
-        fVerSvc.checkOut(getCallContext(), repositoryId, objectId, extension, contentCopied, this);
+        Set<String> scope = journalScope(repositoryId, valueOf(objectId));
+        try {
+            fVerSvc.checkOut(getCallContext(), repositoryId, objectId, extension, contentCopied, this);
+        } finally {
+            journal(repositoryId, scope, valueOf(objectId));
+        }
     }
 
     @Override
@@ -403,13 +563,24 @@ public class InMemoryService extends AbstractCmisService {
     @Override
     public void addObjectToFolder(String repositoryId, String objectId, String folderId, Boolean allVersions,
             ExtensionsData extension) {
-        fMultiSvc.addObjectToFolder(getCallContext(), repositoryId, objectId, folderId, allVersions, extension, this);
+        Set<String> scope = journalScope(repositoryId, objectId);
+        try {
+            fMultiSvc.addObjectToFolder(getCallContext(), repositoryId, objectId, folderId, allVersions, extension,
+                    this);
+        } finally {
+            journal(repositoryId, scope);
+        }
     }
 
     @Override
     public void removeObjectFromFolder(String repositoryId, String objectId, String folderId, 
             ExtensionsData extension) {
-        fMultiSvc.removeObjectFromFolder(getCallContext(), repositoryId, objectId, folderId, extension, this);
+        Set<String> scope = journalScope(repositoryId, objectId);
+        try {
+            fMultiSvc.removeObjectFromFolder(getCallContext(), repositoryId, objectId, folderId, extension, this);
+        } finally {
+            journal(repositoryId, scope);
+        }
     }
 
     // --- relationship service ---
@@ -426,14 +597,24 @@ public class InMemoryService extends AbstractCmisService {
 
     @Override
     public Acl applyAcl(String repositoryId, String objectId, Acl aces, AclPropagation aclPropagation) {
-        return fAclSvc.applyAcl(getCallContext(), repositoryId, objectId, aces, aclPropagation);
+        Set<String> scope = journalScopeOfTree(repositoryId, objectId);
+        try {
+            return fAclSvc.applyAcl(getCallContext(), repositoryId, objectId, aces, aclPropagation);
+        } finally {
+            journal(repositoryId, scope);
+        }
     }
 
     @Override
     public Acl applyAcl(String repositoryId, String objectId, Acl addAces, Acl removeAces,
             AclPropagation aclPropagation, ExtensionsData extension) {
-        return fAclSvc.applyAcl(getCallContext(), repositoryId, objectId, addAces, removeAces, aclPropagation,
-                extension, this);
+        Set<String> scope = journalScopeOfTree(repositoryId, objectId);
+        try {
+            return fAclSvc.applyAcl(getCallContext(), repositoryId, objectId, addAces, removeAces, aclPropagation,
+                    extension, this);
+        } finally {
+            journal(repositoryId, scope);
+        }
     }
 
     @Override
@@ -445,7 +626,12 @@ public class InMemoryService extends AbstractCmisService {
 
     @Override
     public void applyPolicy(String repositoryId, String policyId, String objectId, ExtensionsData extension) {
-        fPolSvc.applyPolicy(getCallContext(), repositoryId, policyId, objectId, extension);
+        Set<String> scope = journalScope(repositoryId, objectId);
+        try {
+            fPolSvc.applyPolicy(getCallContext(), repositoryId, policyId, objectId, extension);
+        } finally {
+            journal(repositoryId, scope);
+        }
     }
 
     @Override
@@ -456,7 +642,12 @@ public class InMemoryService extends AbstractCmisService {
 
     @Override
     public void removePolicy(String repositoryId, String policyId, String objectId, ExtensionsData extension) {
-        fPolSvc.removePolicy(getCallContext(), repositoryId, policyId, objectId, extension);
+        Set<String> scope = journalScope(repositoryId, objectId);
+        try {
+            fPolSvc.removePolicy(getCallContext(), repositoryId, policyId, objectId, extension);
+        } finally {
+            journal(repositoryId, scope);
+        }
     }
 
     // /////////////
@@ -27,6 +27,7 @@ import java.io.InputStream;
 import java.math.BigInteger;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -59,6 +60,9 @@ import org.apache.chemistry.opencmis.inmemory.ConfigurationSettings;
 import org.apache.chemistry.opencmis.inmemory.content.ObjectGenerator;
 import org.apache.chemistry.opencmis.inmemory.storedobj.api.ObjectStore;
 import org.apache.chemistry.opencmis.inmemory.storedobj.api.StoreManager;
+import org.apache.chemistry.opencmis.inmemory.storedobj.impl.ContentStore.StoredContent;
+import org.apache.chemistry.opencmis.inmemory.storedobj.impl.FileContentStore;
+import org.apache.chemistry.opencmis.inmemory.storedobj.impl.ObjectStoreImpl;
 import org.apache.chemistry.opencmis.inmemory.storedobj.impl.StoreManagerFactory;
 import org.apache.chemistry.opencmis.inmemory.storedobj.impl.StoreManagerImpl;
 import org.apache.chemistry.opencmis.server.async.impl.AbstractAsyncServiceFactory;
@@ -74,11 +78,16 @@ public class InMemoryServiceFactoryImpl extends AbstractAsyncServiceFactory {
     private static final BigInteger DEFAULT_MAX_ITEMS_TYPES = BigInteger.valueOf(100);
     private static final BigInteger DEFAULT_DEPTH_OBJECTS = BigInteger.valueOf(2);
     private static final BigInteger DEFAULT_DEPTH_TYPES = BigInteger.valueOf(-1);
+    private static final long DEFAULT_SNAPSHOT_INTERVAL_MINUTES = 60;
+    private static final String HEAP_CONTENT_STORE = "heap";
+    private static final String FILE_CONTENT_STORE = "file";
+    private static final String CONTENT_DIRECTORY = "content";
     private static CallContext overrideCtx;
 
     private boolean fUseOverrideCtx = false;
     private StoreManager storeManager; // singleton root of everything
     private CleanManager cleanManager = null;
+    private ContentReleaseManager contentReleaseManager = null;
 
     private File tempDir;
     private int memoryThreshold;
@@ -127,8 +136,10 @@ public class InMemoryServiceFactoryImpl extends AbstractAsyncServiceFactory {
         parameters.put(ConfigConstants.DEPLOYMENT_TIME, strDate);
 
         boolean created = initStorageManager(parameters);
+        initContentStores(parameters);
+        boolean restored = enablePersistenceIfConfigured(parameters);
 
-        if (created) {
+        if (created && !restored) {
             fillRepositoryIfConfigured(parameters);
         }
 
@@ -190,6 +201,17 @@ public class InMemoryServiceFactoryImpl extends AbstractAsyncServiceFactory {
         if (null != cleanManager) {
             cleanManager.stopCleanRepositoryJob();
         }
+        if (null != contentReleaseManager) {
+            contentReleaseManager.stopContentReleaseJob();
+        }
+        if (null != storeManager) {
+            for (String repositoryId : storeManager.getAllRepositoryIds()) {
+                ObjectStore store = storeManager.getObjectStore(repositoryId);
+                if (store instanceof ObjectStoreImpl) {
+                    ((ObjectStoreImpl) store).closePersistence();
+                }
+            }
+        }
 
         super.destroy();
     }
@@ -249,6 +271,87 @@ public class InMemoryServiceFactoryImpl extends AbstractAsyncServiceFactory {
         return created;
     }
 
+    /**
+     * Keeps the contents of the repositories in files when configured, in the
+     * configured directory or next to the persistence files of each
+     * repository.
+     */
+    private void initContentStores(Map<String, String> parameters) {
+        String contentStore = parameters.get(ConfigConstants.CONTENT_STORE);
+        if (null == contentStore || HEAP_CONTENT_STORE.equalsIgnoreCase(contentStore.trim())) {
+            return;
+        }
+        if (!FILE_CONTENT_STORE.equalsIgnoreCase(contentStore.trim())) {
+            LOG.warn("Unknown content store " + contentStore + ", contents are kept on the heap.");
+            return;
+        }
+        String contentStoreDir = parameters.get(ConfigConstants.CONTENT_STORE_DIR);
+        String persistenceDir = parameters.get(ConfigConstants.PERSISTENCE_DIR);
+        boolean persistent = null != persistenceDir && !persistenceDir.trim().isEmpty();
+
+        List<ObjectStoreImpl> fileStores = new ArrayList<ObjectStoreImpl>();
+        for (String repositoryId : storeManager.getAllRepositoryIds()) {
+            ObjectStore store = storeManager.getObjectStore(repositoryId);
+            if (store instanceof ObjectStoreImpl) {
+                File directory;
+                if (null != contentStoreDir && !contentStoreDir.trim().isEmpty()) {
+                    directory = new File(contentStoreDir.trim(), repositoryId);
+                } else if (persistent) {
+                    directory = new File(new File(persistenceDir.trim(), repositoryId), CONTENT_DIRECTORY);
+                } else {
+                    directory = new File(new File(tempDir, "inmemory-content"), repositoryId);
+                }
+                LOG.info("Contents of repository " + repositoryId + " are stored in " + directory.getAbsolutePath());
+                // without persistence no object references the existing files
+                ((ObjectStoreImpl) store).setContentStore(new FileContentStore(directory, persistent));
+                fileStores.add((ObjectStoreImpl) store);
+            }
+        }
+
+        // without the snapshots nothing else removes the files of the deleted
+        // documents, versions and replaced contents
+        if (!persistent && !fileStores.isEmpty()) {
+            String releaseIntervalStr = parameters.get(ConfigConstants.CONTENT_STORE_RELEASE_INTERVAL);
+            long releaseInterval = releaseIntervalStr == null ? DEFAULT_SNAPSHOT_INTERVAL_MINUTES : Long
+                    .parseLong(releaseIntervalStr);
+            if (releaseInterval > 0) {
+                contentReleaseManager = new ContentReleaseManager(fileStores);
+                contentReleaseManager.startContentReleaseJob(releaseInterval);
+            }
+        }
+    }
+
+    /**
+     * Restores the repositories from their persistence directory and keeps
+     * them on disk from now on when a directory is configured.
+     * 
+     * @return true if content was restored
+     */
+    private boolean enablePersistenceIfConfigured(Map<String, String> parameters) {
+        String persistenceDir = parameters.get(ConfigConstants.PERSISTENCE_DIR);
+        if (null == persistenceDir || persistenceDir.trim().isEmpty()) {
+            return false;
+        }
+        boolean syncWrites = Boolean.parseBoolean(parameters.get(ConfigConstants.PERSISTENCE_SYNC_WRITES));
+        String loaderThreadsStr = parameters.get(ConfigConstants.PERSISTENCE_LOADER_THREADS);
+        int loaderThreads = loaderThreadsStr == null ? 0 : Integer.parseInt(loaderThreadsStr);
+        String snapshotIntervalStr = parameters.get(ConfigConstants.PERSISTENCE_SNAPSHOT_INTERVAL);
+        long snapshotInterval = snapshotIntervalStr == null ? DEFAULT_SNAPSHOT_INTERVAL_MINUTES : Long
+                .parseLong(snapshotIntervalStr);
+
+        boolean restored = false;
+        for (String repositoryId : storeManager.getAllRepositoryIds()) {
+            ObjectStore store = storeManager.getObjectStore(repositoryId);
+            if (store instanceof ObjectStoreImpl) {
+                File directory = new File(persistenceDir.trim(), repositoryId);
+                LOG.info("Repository " + repositoryId + " is persisted in " + directory.getAbsolutePath());
+                restored |= ((ObjectStoreImpl) store).enablePersistence(directory, syncWrites, loaderThreads,
+                        snapshotInterval);
+            }
+        }
+        return restored;
+    }
+
     private void importTypesFromFile(TypeManager tmc, String typeDefsFileName) {
 
         BufferedInputStream stream = null;
@@ -550,6 +653,52 @@ public class InMemoryServiceFactoryImpl extends AbstractAsyncServiceFactory {
         }
     }
 
+    /**
+     * Releases the unreferenced content files of the repositories kept without
+     * persistence. A run only releases the contents stored before the previous
+     * run started, the newer ones may belong to objects being created.
+     */
+    static class ContentReleaseManager {
+
+        private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+        private final List<ObjectStoreImpl> stores;
+        private long lastRunStart = System.currentTimeMillis();
+
+        ContentReleaseManager(List<ObjectStoreImpl> stores) {
+            this.stores = stores;
+        }
+
+        void startContentReleaseJob(long intervalInMinutes) {
+            LOG.info("Content release job starting, interval " + intervalInMinutes + " min");
+            scheduler.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    releaseContent();
+                }
+            }, intervalInMinutes, intervalInMinutes, TimeUnit.MINUTES);
+        }
+
+        void releaseContent() {
+            long start = System.currentTimeMillis();
+            for (ObjectStoreImpl store : stores) {
+                try {
+                    int released = store.releaseContent(Collections.<StoredContent> emptySet(), lastRunStart);
+                    if (released > 0) {
+                        LOG.info("Released " + released + " unreferenced contents of repository "
+                                + store.getRepositoryId() + ".");
+                    }
+                } catch (RuntimeException e) {
+                    LOG.error("Content release of repository " + store.getRepositoryId() + " failed.", e);
+                }
+            }
+            lastRunStart = start;
+        }
+
+        void stopContentReleaseJob() {
+            scheduler.shutdownNow();
+        }
+    }
+
     private void scheduleCleanRepositoryJob(long minutes) {
         cleanManager = new CleanManager();
         cleanManager.startCleanRepositoryJob(minutes);
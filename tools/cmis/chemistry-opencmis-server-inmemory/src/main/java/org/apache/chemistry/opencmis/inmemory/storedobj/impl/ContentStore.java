@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.inmemory.storedobj.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.util.Set;
+
+/**
+ * Keeps the bytes of the content streams of the stored objects of a
+ * repository. {@link ContentStreamDataImpl} only holds the metadata of a
+ * content and the {@link StoredContent} returned by the store.
+ */
+public interface ContentStore {
+
+    /**
+     * Reads the stream to its end and stores its bytes. The stream is not
+     * closed.
+     * 
+     * @param in
+     *            stream to store
+     * @param maxLength
+     *            maximum number of bytes accepted, 0 for no limit
+     * @return the stored content
+     * @throws org.apache.chemistry.opencmis.commons.exceptions.CmisInvalidArgumentException
+     *             if the stream is longer than the maximum length
+     */
+    StoredContent store(InputStream in, long maxLength) throws IOException;
+
+    /**
+     * Releases the stored contents that are not referenced any more.
+     * 
+     * @param referenced
+     *            contents still used by the objects of the repositories
+     * @param storedBefore
+     *            only contents stored before this time (in milliseconds) are
+     *            released, newer ones may be referenced by objects not yet
+     *            visible to the caller
+     * @return number of released contents
+     */
+    int retainAll(Set<StoredContent> referenced, long storedBefore);
+
+    /**
+     * Binds a content read back from the persistence files of the repository
+     * to this store.
+     * 
+     * @return the content to use
+     * @throws org.apache.chemistry.opencmis.commons.exceptions.CmisStorageException
+     *             if this store cannot read the content
+     */
+    StoredContent restore(StoredContent content);
+
+    /**
+     * Content kept by a {@link ContentStore}. Stored contents are immutable and
+     * can be shared by several objects.
+     */
+    interface StoredContent extends Serializable {
+
+        long getLength();
+
+        /**
+         * @param offset
+         *            first byte returned
+         * @param length
+         *            maximum number of bytes returned
+         */
+        InputStream getStream(long offset, long length);
+
+        byte[] getBytes();
+    }
+}
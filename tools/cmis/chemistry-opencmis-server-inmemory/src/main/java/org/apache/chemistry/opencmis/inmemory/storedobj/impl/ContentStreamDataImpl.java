@@ -22,9 +22,10 @@ package org.apache.chemistry.opencmis.inmemory.storedobj.impl;
  */
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.Serializable;
 import java.math.BigInteger;
 import java.util.GregorianCalendar;
 import java.util.List;
@@ -33,15 +34,20 @@ import org.apache.chemistry.opencmis.commons.data.CmisExtensionElement;
 import org.apache.chemistry.opencmis.commons.data.ContentStream;
 import org.apache.chemistry.opencmis.commons.data.LastModifiedContentStream;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisInvalidArgumentException;
+import org.apache.chemistry.opencmis.inmemory.storedobj.impl.ContentStore.StoredContent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class ContentStreamDataImpl implements LastModifiedContentStream {
+public class ContentStreamDataImpl implements LastModifiedContentStream, Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private static final int SIZE_KB = 1024;
 
     private static final int BUFFER_SIZE = 0xFFFF;
 
+    private static final ContentStore HEAP_STORE = new HeapContentStore();
+
     private static final Logger LOG = LoggerFactory.getLogger(ContentStreamDataImpl.class.getName());
 
     private static long totalLength = 0L;
@@ -53,7 +59,7 @@ public class ContentStreamDataImpl implements LastModifiedContentStream {
 
     private String fFileName;
 
-    private byte[] fContent;
+    private StoredContent fContent;
 
     private GregorianCalendar fLastModified;
 
@@ -65,6 +71,9 @@ public class ContentStreamDataImpl implements LastModifiedContentStream {
     
     private final boolean doNotStoreContent;
 
+    // not serialized, set again when the repository is restored
+    private transient ContentStore fStore;
+
     private static synchronized long getTotalLength() {
         return totalLength;
     }
@@ -86,15 +95,22 @@ public class ContentStreamDataImpl implements LastModifiedContentStream {
     }
 
     public ContentStreamDataImpl(long maxAllowedContentSizeKB) {
-        sizeLimitKB = maxAllowedContentSizeKB;
-        fLength = 0;
-        doNotStoreContent = false;
+        this(maxAllowedContentSizeKB, false, HEAP_STORE);
     }
 
     public ContentStreamDataImpl(long maxAllowedContentSizeKB, boolean doNotStore) {
+        this(maxAllowedContentSizeKB, doNotStore, HEAP_STORE);
+    }
+
+    /**
+     * @param store
+     *            store keeping the bytes of the content
+     */
+    public ContentStreamDataImpl(long maxAllowedContentSizeKB, boolean doNotStore, ContentStore store) {
         sizeLimitKB = maxAllowedContentSizeKB;
         fLength = 0;
         doNotStoreContent = doNotStore;
+        fStore = store;
     }
 
     public void setContent(InputStream in) throws IOException {
@@ -104,26 +120,16 @@ public class ContentStreamDataImpl implements LastModifiedContentStream {
             fContent = null; // delete content
             fLength = 0;
         } else {
-            byte[] buffer = new byte[BUFFER_SIZE];
-            ByteArrayOutputStream contentStream = new ByteArrayOutputStream();
-            int len = in.read(buffer);
-            while (len != -1) {
-                if (!doNotStoreContent) {
-                    contentStream.write(buffer, 0, len);
+            try {
+                if (doNotStoreContent) {
+                    fLength = countBytes(in, fLength);
+                } else {
+                    fContent = getStore().store(in, sizeLimitKB * SIZE_KB);
+                    fLength = fContent.getLength();
                 }
-                fLength += len;
-                if (sizeLimitKB > 0 && fLength > sizeLimitKB * SIZE_KB) {
-                    throw new CmisInvalidArgumentException("Content size exceeds max. allowed size of " + sizeLimitKB
-                            + "KB.");
-                }
-                len = in.read(buffer);
-            }
-            if (!doNotStoreContent) {
-                fContent = contentStream.toByteArray();
-                fLength = contentStream.size();
+            } finally {
+                in.close();
             }
-            contentStream.close();
-            in.close();
         }
         increaseTotalLength(fLength);
         increaseTotalCalls();
@@ -131,37 +137,53 @@ public class ContentStreamDataImpl implements LastModifiedContentStream {
         LOG.debug("setting content stream, new size total " + (getTotalLength() / (SIZE_KB * SIZE_KB)) + "MB.");
     }
 
+    /**
+     * Uses the stored content of another content stream of this server instead
+     * of reading and storing its stream again, e.g. when a document is checked
+     * out.
+     * 
+     * @return false if the content has to be set from the stream of the source
+     */
+    public boolean shareContent(ContentStream source) {
+        if (doNotStoreContent || !(source instanceof ContentStreamDataImpl)) {
+            return false;
+        }
+        ContentStreamDataImpl other = (ContentStreamDataImpl) source;
+        if (other.doNotStoreContent || other.getStore() != getStore() || null == other.fContent
+                || other.fStreamLimitOffset > 0
+                || (other.fStreamLimitLength >= 0 && other.fStreamLimitLength != other.fContent.getLength())
+                || (sizeLimitKB > 0 && other.fContent.getLength() > sizeLimitKB * SIZE_KB)) {
+            return false;
+        }
+        fStreamLimitOffset = -1;
+        fStreamLimitLength = -1;
+        fContent = other.fContent;
+        fLength = fContent.getLength();
+        increaseTotalLength(fLength);
+        increaseTotalCalls();
+        return true;
+    }
+
     public void appendContent(InputStream is) throws IOException {
 
         if (null == is) {
             return; // nothing to do
         } else {
-            byte[] buffer = new byte[BUFFER_SIZE];
-            ByteArrayOutputStream contentStream = new ByteArrayOutputStream();
-
-            // first read existing stream
-            if (!doNotStoreContent) {
-                contentStream.write(fContent);
-            }
             decreaseTotalLength(fLength);
-
-            // then append new content
-            int len = is.read(buffer);
-            while (len != -1) {
-                contentStream.write(buffer, 0, len);
-                fLength += len;
-                if (sizeLimitKB > 0 && fLength > sizeLimitKB * SIZE_KB) {
-                    throw new CmisInvalidArgumentException("Content size exceeds max. allowed size of " + sizeLimitKB
-                            + "KB.");
+            try {
+                if (doNotStoreContent) {
+                    fLength = countBytes(is, fLength);
+                } else {
+                    // stored contents are immutable, the concatenation is
+                    // stored as a new content
+                    InputStream existing = null == fContent ? new ByteArrayInputStream(new byte[0]) : fContent
+                            .getStream(0, fContent.getLength());
+                    fContent = getStore().store(new SequenceInputStream(existing, is), sizeLimitKB * SIZE_KB);
+                    fLength = fContent.getLength();
                 }
-                len = is.read(buffer);
-            }
-            if (!doNotStoreContent) {
-                fContent = contentStream.toByteArray();
+            } finally {
+                is.close();
             }
-            fLength = contentStream.size();
-            contentStream.close();
-            is.close();
         }
         increaseTotalLength(fLength);
         increaseTotalCalls();
@@ -169,6 +191,35 @@ public class ContentStreamDataImpl implements LastModifiedContentStream {
         LOG.debug("setting content stream, new size total " + (getTotalLength() / (SIZE_KB * SIZE_KB)) + "MB.");
     }
 
+    private long countBytes(InputStream in, long length) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int len = in.read(buffer);
+        while (len != -1) {
+            length += len;
+            if (sizeLimitKB > 0 && length > sizeLimitKB * SIZE_KB) {
+                throw new CmisInvalidArgumentException("Content size exceeds max. allowed size of " + sizeLimitKB
+                        + "KB.");
+            }
+            len = in.read(buffer);
+        }
+        return length;
+    }
+
+    private ContentStore getStore() {
+        return null == fStore ? HEAP_STORE : fStore;
+    }
+
+    /**
+     * Binds a content read back from the persistence files to the store of
+     * its repository.
+     */
+    void restore(ContentStore store) {
+        fStore = store;
+        if (null != fContent) {
+            fContent = store.restore(fContent);
+        }
+    }
+
     @Override
     public long getLength() {
         return fLength;
@@ -209,11 +260,9 @@ public class ContentStreamDataImpl implements LastModifiedContentStream {
         
         if (null == fContent) {
             return null;
-        } else if (fStreamLimitOffset <= 0 && fStreamLimitLength < 0) {
-                return new ByteArrayInputStream(fContent);
-        } else {            
-            return new ByteArrayInputStream(fContent, (int) (fStreamLimitOffset < 0 ? 0 : fStreamLimitOffset),
-                    (int) (fStreamLimitLength < 0 ? fLength : fStreamLimitLength));
+        } else {
+            return fContent.getStream(fStreamLimitOffset < 0 ? 0 : fStreamLimitOffset,
+                    fStreamLimitLength < 0 ? fLength : fStreamLimitLength);
         }
     }
 
@@ -227,7 +276,7 @@ public class ContentStreamDataImpl implements LastModifiedContentStream {
     }
 
     public ContentStream getCloneWithLimits(long offset, long length) {
-        ContentStreamDataImpl clone = new ContentStreamDataImpl(0, doNotStoreContent);
+        ContentStreamDataImpl clone = new ContentStreamDataImpl(0, doNotStoreContent, fStore);
         clone.fFileName = fFileName;
         clone.fLength = length < 0 ? fLength - offset : Math.min(fLength - offset, length);
         clone.fContent = fContent;
@@ -239,6 +288,10 @@ public class ContentStreamDataImpl implements LastModifiedContentStream {
     }
 
     public final byte[] getBytes() {
+        return null == fContent ? null : fContent.getBytes();
+    }
+
+    StoredContent getStoredContent() {
         return fContent;
     }
 
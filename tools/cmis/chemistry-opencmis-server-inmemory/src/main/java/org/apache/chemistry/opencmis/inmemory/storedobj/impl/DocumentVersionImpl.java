@@ -44,7 +44,9 @@ public class DocumentVersionImpl extends StoredObjectImpl implements DocumentVer
             .getConfigurationValueAsLong(ConfigConstants.MAX_CONTENT_SIZE_KB);
 
     private ContentStream fContent;
-    private final VersionedDocumentImpl fContainer; // the document this version
+    // the container is linked again by id when the version is read back from
+    // the persistence files
+    private transient VersionedDocumentImpl fContainer; // the document this version
                                                     // belongs to
     private String fComment; // checkin comment
     private boolean fIsMajor;
@@ -130,37 +132,17 @@ public class DocumentVersionImpl extends StoredObjectImpl implements DocumentVer
         return fContainer;
     }
 
-    private boolean isLatestVersion() {
-        List<DocumentVersion> allVers = fContainer.getAllVersions();
-        boolean hasPwc = null != fContainer.getPwc();
-        boolean isLatestVersion;
-
-        if (hasPwc) {
-            // CMIS 1.1 forbids it for PWC
-            isLatestVersion = allVers.size() > 1 && allVers.get(allVers.size() - 2) == this;
-        } else {
-            isLatestVersion = allVers.get(allVers.size() - 1) == this;
-        }
+    void setParentDocument(VersionedDocumentImpl container) {
+        fContainer = container;
+    }
 
-        return isLatestVersion;
+    private boolean isLatestVersion() {
+        // CMIS 1.1 forbids it for PWC
+        return fContainer.getLatestVersion(false) == this;
     }
 
     private boolean isLatestMajorVersion() {
-        if (!fIsMajor) {
-            return false;
-        }
-
-        List<DocumentVersion> allVersions = fContainer.getAllVersions();
-        DocumentVersion latestMajor = null;
-
-        for (DocumentVersion ver : allVersions) {
-            if (ver.isMajor() && !ver.isPwc()) {
-                latestMajor = ver;
-            }
-        }
-
-        boolean isLatestMajorVersion = latestMajor == this;
-        return isLatestMajorVersion;
+        return fIsMajor && fContainer.getLatestVersion(true) == this;
     }
 
     @Override
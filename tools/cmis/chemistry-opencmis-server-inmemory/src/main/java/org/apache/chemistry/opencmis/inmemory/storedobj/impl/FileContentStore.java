@@ -0,0 +1,311 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.inmemory.storedobj.impl;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.chemistry.opencmis.commons.exceptions.CmisInvalidArgumentException;
+import org.apache.chemistry.opencmis.commons.exceptions.CmisStorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the contents in files named after the SHA-256 digest of their bytes,
+ * so identical contents (e.g. the versions of a document that did not change
+ * its content) are stored once. Only the digest and the length of a content
+ * stay on the heap, the streams read the files through a read-only memory
+ * mapping without copying them.
+ * <p>
+ * Unreferenced files are only removed by {@link #retainAll(Set, long)}, which
+ * is called after each snapshot of a persistent repository and periodically
+ * for a repository without persistence. A store is used by a single
+ * repository.
+ */
+public class FileContentStore implements ContentStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FileContentStore.class.getName());
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final String TEMP_PREFIX = "content-";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final File fDirectory;
+
+    /**
+     * @param directory
+     *            directory of the content files, created if needed
+     * @param keepContent
+     *            false if the existing files must be removed because nothing
+     *            references them any more
+     */
+    public FileContentStore(File directory, boolean keepContent) {
+        fDirectory = directory;
+        if (!fDirectory.isDirectory() && !fDirectory.mkdirs()) {
+            throw new CmisStorageException("Cannot create content directory " + fDirectory.getAbsolutePath());
+        }
+        File[] files = fDirectory.listFiles();
+        if (null != files) {
+            for (File file : files) {
+                // temporary files are left over by a stopped server
+                if (!keepContent || file.getName().endsWith(TEMP_SUFFIX)) {
+                    delete(file);
+                }
+            }
+        }
+    }
+
+    public File getDirectory() {
+        return fDirectory;
+    }
+
+    @Override
+    public StoredContent store(InputStream in, long maxLength) throws IOException {
+        MessageDigest digest = newDigest();
+        File tempFile = File.createTempFile(TEMP_PREFIX, TEMP_SUFFIX, fDirectory);
+        try {
+            long length;
+            OutputStream out = new DigestOutputStream(new FileOutputStream(tempFile), digest);
+            try {
+                length = HeapContentStore.copy(in, out, maxLength);
+            } finally {
+                out.close();
+            }
+            if (length > Integer.MAX_VALUE) {
+                throw new CmisInvalidArgumentException("Content size exceeds max. size of a mapped content.");
+            }
+            String key = toHex(digest.digest());
+            File file = getFile(key);
+            synchronized (this) {
+                if (file.exists()) {
+                    // keeps the file from being removed by a cleanup running
+                    // before the new reference is visible
+                    file.setLastModified(System.currentTimeMillis());
+                } else {
+                    file.getParentFile().mkdirs();
+                    Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+            return new MappedContent(this, key, length);
+        } finally {
+            tempFile.delete();
+        }
+    }
+
+    @Override
+    public int retainAll(Set<StoredContent> referenced, long storedBefore) {
+        Set<String> keys = new HashSet<String>();
+        for (StoredContent content : referenced) {
+            if (content instanceof MappedContent) {
+                keys.add(((MappedContent) content).fKey);
+            }
+        }
+        int count = 0;
+        File[] dirs = fDirectory.listFiles();
+        if (null == dirs) {
+            return 0;
+        }
+        for (File dir : dirs) {
+            File[] files = dir.listFiles();
+            if (null == files) {
+                continue;
+            }
+            for (File file : files) {
+                if (!keys.contains(file.getName())) {
+                    synchronized (this) {
+                        if (file.lastModified() < storedBefore && file.delete()) {
+                            count++;
+                        }
+                    }
+                }
+            }
+        }
+        LOG.debug("Removed " + count + " unreferenced contents from " + fDirectory.getAbsolutePath());
+        return count;
+    }
+
+    @Override
+    public StoredContent restore(StoredContent content) {
+        if (!(content instanceof MappedContent)) {
+            // contents stored on the heap before the store was changed stay
+            // there
+            return content;
+        }
+        MappedContent mappedContent = (MappedContent) content;
+        if (!getFile(mappedContent.fKey).isFile()) {
+            LOG.warn("Content file " + getFile(mappedContent.fKey).getAbsolutePath() + " is missing.");
+        }
+        return new MappedContent(this, mappedContent.fKey, mappedContent.fLength);
+    }
+
+    File getFile(String key) {
+        return new File(new File(fDirectory, key.substring(0, 2)), key);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new CmisStorageException("Digest algorithm " + DIGEST_ALGORITHM + " is not available", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0x0F];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0x0F];
+        }
+        return new String(chars);
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (null != children) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    /**
+     * Content identified by its digest. Equal contents are equal whatever
+     * object they were stored for.
+     */
+    private static final class MappedContent implements StoredContent {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String fKey;
+        private final long fLength;
+        // set again by restore() after deserialization
+        private transient FileContentStore fStore;
+
+        MappedContent(FileContentStore store, String key, long length) {
+            fStore = store;
+            fKey = key;
+            fLength = length;
+        }
+
+        @Override
+        public long getLength() {
+            return fLength;
+        }
+
+        @Override
+        public InputStream getStream(long offset, long length) {
+            // the mapping is not kept, it is released with the stream and
+            // does not count against the heap
+            ByteBuffer buffer = map();
+            int start = (int) Math.min(offset, fLength);
+            buffer.position(start);
+            buffer.limit(start + (int) Math.min(fLength - start, length));
+            return new ByteBufferInputStream(buffer);
+        }
+
+        @Override
+        public byte[] getBytes() {
+            ByteBuffer buffer = map();
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return bytes;
+        }
+
+        private ByteBuffer map() {
+            if (null == fStore) {
+                throw new CmisStorageException("Content " + fKey + " is not bound to a content store.");
+            }
+            File file = fStore.getFile(fKey);
+            try {
+                FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+                try {
+                    return channel.map(FileChannel.MapMode.READ_ONLY, 0, fLength);
+                } finally {
+                    channel.close();
+                }
+            } catch (IOException e) {
+                throw new CmisStorageException("Cannot read content " + file.getAbsolutePath(), e);
+            }
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof MappedContent && fKey.equals(((MappedContent) obj).fKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return fKey.hashCode();
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer fBuffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            fBuffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return fBuffer.hasRemaining() ? fBuffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!fBuffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(len, fBuffer.remaining());
+            fBuffer.get(bytes, off, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long n) {
+            int count = (int) Math.max(0, Math.min(n, fBuffer.remaining()));
+            fBuffer.position(fBuffer.position() + count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return fBuffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.inmemory.storedobj.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Set;
+
+import org.apache.chemistry.opencmis.commons.exceptions.CmisInvalidArgumentException;
+import org.apache.chemistry.opencmis.commons.exceptions.CmisStorageException;
+
+/**
+ * Keeps the contents as byte arrays on the heap. This is the default store.
+ */
+public class HeapContentStore implements ContentStore {
+
+    private static final int SIZE_KB = 1024;
+    private static final int BUFFER_SIZE = 0xFFFF;
+
+    @Override
+    public StoredContent store(InputStream in, long maxLength) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        copy(in, out, maxLength);
+        return new HeapContent(out.toByteArray());
+    }
+
+    @Override
+    public int retainAll(Set<StoredContent> referenced, long storedBefore) {
+        // unreferenced contents are garbage collected
+        return 0;
+    }
+
+    @Override
+    public StoredContent restore(StoredContent content) {
+        if (!(content instanceof HeapContent)) {
+            throw new CmisStorageException("Content was not stored on the heap, the content store of the repository "
+                    + "has to be configured as when the content was stored.");
+        }
+        return content;
+    }
+
+    /**
+     * Copies the stream and fails as soon as more than maxLength bytes are
+     * read.
+     * 
+     * @return number of bytes copied
+     */
+    static long copy(InputStream in, OutputStream out, long maxLength) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long length = 0;
+        int len = in.read(buffer);
+        while (len != -1) {
+            length += len;
+            if (maxLength > 0 && length > maxLength) {
+                throw new CmisInvalidArgumentException("Content size exceeds max. allowed size of "
+                        + (maxLength / SIZE_KB) + "KB.");
+            }
+            out.write(buffer, 0, len);
+            len = in.read(buffer);
+        }
+        return length;
+    }
+
+    private static final class HeapContent implements StoredContent {
+
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] fContent;
+
+        HeapContent(byte[] content) {
+            fContent = content;
+        }
+
+        @Override
+        public long getLength() {
+            return fContent.length;
+        }
+
+        @Override
+        public InputStream getStream(long offset, long length) {
+            int start = (int) Math.min(offset, fContent.length);
+            return new ByteArrayInputStream(fContent, start, (int) Math.min(length, fContent.length - start));
+        }
+
+        @Override
+        public byte[] getBytes() {
+            return fContent;
+        }
+    }
+}
@@ -18,6 +18,7 @@ x * Licensed to the Apache Software Foundation (ASF) under one
  */
 package org.apache.chemistry.opencmis.inmemory.storedobj.impl;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -27,7 +28,9 @@ import org.apache.chemistry.opencmis.commons.data.Ace;
 import org.apache.chemistry.opencmis.commons.data.Acl;
 import org.apache.chemistry.opencmis.commons.impl.dataobjects.AccessControlListImpl;
 
-public class InMemoryAcl implements Cloneable {
+public class InMemoryAcl implements Cloneable, Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private List<InMemoryAce> acl;
     private int id;
@@ -18,11 +18,16 @@
  */
 package org.apache.chemistry.opencmis.inmemory.storedobj.impl;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -61,6 +66,7 @@ import org.apache.chemistry.opencmis.inmemory.storedobj.api.ObjectStore;
 import org.apache.chemistry.opencmis.inmemory.storedobj.api.Relationship;
 import org.apache.chemistry.opencmis.inmemory.storedobj.api.StoredObject;
 import org.apache.chemistry.opencmis.inmemory.storedobj.api.VersionedDocument;
+import org.apache.chemistry.opencmis.inmemory.storedobj.impl.ContentStore.StoredContent;
 import org.apache.chemistry.opencmis.inmemory.types.DefaultTypeSystemCreator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -119,6 +125,14 @@ public class ObjectStoreImpl implements ObjectStore {
      */
     private final Map<String, StoredObject> fStoredObjectMap = new ConcurrentHashMap<String, StoredObject>();
 
+    /**
+     * Index of folder paths (without trailing separator) to folder ids, filled
+     * when a path is resolved. An entry is checked against the parent chain of
+     * the folder before being used, so renamed, moved or deleted folders are
+     * never returned for an outdated path.
+     */
+    private final Map<String, String> fFolderPathIndex = new ConcurrentHashMap<String, String>();
+
     /**
      * A concurrent HashMap to hold all Acls in the repository.
      */
@@ -131,6 +145,17 @@ public class ObjectStoreImpl implements ObjectStore {
     private final String fRepositoryId;
     private FolderImpl fRootFolder = null;
 
+    /**
+     * Journal and snapshots on disk, null if the repository is only kept in
+     * memory.
+     */
+    private ObjectStorePersistence fPersistence = null;
+
+    /**
+     * Store keeping the bytes of the contents.
+     */
+    private ContentStore fContentStore = new HeapContentStore();
+
     public ObjectStoreImpl(String repositoryId) {
         fRepositoryId = repositoryId;
         createRootFolder();
@@ -140,6 +165,12 @@ public class ObjectStoreImpl implements ObjectStore {
         return nextUnusedId++;
     }
 
+    private static synchronized void reserveIds(int maxUsedId) {
+        if (nextUnusedId <= maxUsedId) {
+            nextUnusedId = maxUsedId + 1;
+        }
+    }
+
     private synchronized Integer getNextAclId() {
         return nextUnusedAclId++;
     }
@@ -159,10 +190,72 @@ public class ObjectStoreImpl implements ObjectStore {
 
     @Override
     public StoredObject getObjectByPath(String path, String user) {
-        StoredObject so = findObjectWithPathInDescendents(path, user, Filing.PATH_SEPARATOR, fRootFolder);
+        String normalizedPath = normalizePath(path);
+        Folder indexedFolder = getIndexedFolder(normalizedPath);
+        if (null != indexedFolder) {
+            return indexedFolder;
+        }
+
+        // search from the closest indexed ancestor instead of the root folder
+        Fileable start = fRootFolder;
+        String startPath = Filing.PATH_SEPARATOR;
+        int separatorIndex = normalizedPath.lastIndexOf(Filing.PATH_SEPARATOR);
+        while (separatorIndex > 0) {
+            String ancestorPath = normalizedPath.substring(0, separatorIndex);
+            Folder ancestor = getIndexedFolder(ancestorPath);
+            if (null != ancestor) {
+                start = ancestor;
+                startPath = ancestorPath;
+                break;
+            }
+            separatorIndex = normalizedPath.lastIndexOf(Filing.PATH_SEPARATOR, separatorIndex - 1);
+        }
+
+        Fileable so = findObjectWithPathInDescendents(normalizedPath, user, startPath, start);
+        if (so instanceof Folder) {
+            fFolderPathIndex.put(normalizedPath, so.getId());
+        }
         return so;
     }
 
+    private Folder getIndexedFolder(String path) {
+        String folderId = fFolderPathIndex.get(path);
+        if (null == folderId) {
+            return null;
+        }
+        StoredObject so = fStoredObjectMap.get(folderId);
+        if (so instanceof Folder && path.equals(getCurrentFolderPath((Folder) so))) {
+            return (Folder) so;
+        }
+        fFolderPathIndex.remove(path, folderId);
+        return null;
+    }
+
+    /**
+     * Returns the path of the folder or null if one of its ancestors does not exist any more.
+     */
+    private String getCurrentFolderPath(Folder folder) {
+        StringBuilder sb = new StringBuilder();
+        Folder current = folder;
+        while (null != current.getParentId()) {
+            sb.insert(0, current.getName());
+            sb.insert(0, Filing.PATH_SEPARATOR);
+            StoredObject parent = fStoredObjectMap.get(current.getParentId());
+            if (!(parent instanceof Folder)) {
+                return null;
+            }
+            current = (Folder) parent;
+        }
+        return sb.length() == 0 ? Filing.PATH_SEPARATOR : sb.toString();
+    }
+
+    private static String normalizePath(String path) {
+        if (path.length() > 1 && path.endsWith(Filing.PATH_SEPARATOR)) {
+            return path.substring(0, path.length() - 1);
+        }
+        return path;
+    }
+
     private Fileable findObjectWithPathInDescendents(String path, String user, String prefix, Fileable fo) {
         if (path.equals(prefix)) {
             return fo;
@@ -254,9 +347,12 @@ public class ObjectStoreImpl implements ObjectStore {
     @Override
     public void clear() {
         lock();
+        Set<String> removedIds = new LinkedHashSet<String>(fStoredObjectMap.keySet());
         fStoredObjectMap.clear();
+        fFolderPathIndex.clear();
         storeObject(fRootFolder);
         unlock();
+        journal(removedIds);
     }
 
     @Override
@@ -264,6 +360,237 @@ public class ObjectStoreImpl implements ObjectStore {
         return fStoredObjectMap.size();
     }
 
+    public String getRepositoryId() {
+        return fRepositoryId;
+    }
+
+    // /////////////////////////////////////////
+    // persistence
+
+    /**
+     * Keeps the repository on disk from now on, the content previously stored
+     * in the directory is restored first.
+     * 
+     * @param directory
+     *            directory of the journal and snapshot files of this
+     *            repository
+     * @param syncWrites
+     *            true to force each journal write to the disk
+     * @param loaderThreads
+     *            number of threads reading the objects, 0 for one per
+     *            processor
+     * @param snapshotIntervalMinutes
+     *            interval between two compacted snapshots, 0 to only write
+     *            one when the repository is closed
+     * @return true if content was restored from the directory
+     */
+    public boolean enablePersistence(File directory, boolean syncWrites, int loaderThreads,
+            long snapshotIntervalMinutes) {
+        ObjectStorePersistence persistence = new ObjectStorePersistence(this, directory, syncWrites);
+        boolean restored = persistence.open(loaderThreads);
+        fPersistence = persistence;
+        if (snapshotIntervalMinutes > 0) {
+            persistence.scheduleSnapshots(snapshotIntervalMinutes);
+        }
+        return restored;
+    }
+
+    public ContentStore getContentStore() {
+        return fContentStore;
+    }
+
+    /**
+     * Sets the store keeping the bytes of the contents set from now on. It has
+     * to be set before the persistence is enabled, the restored contents are
+     * bound to it.
+     */
+    public void setContentStore(ContentStore contentStore) {
+        fContentStore = contentStore;
+    }
+
+    /**
+     * Releases the contents of the content store referenced neither by the
+     * given contents nor by the current objects.
+     * 
+     * @param referencedContent
+     *            contents to keep in addition to the ones of the current
+     *            objects, e.g. the ones of the snapshot just written
+     * @param storedBefore
+     *            only contents stored before this time (in milliseconds) are
+     *            released, newer ones may belong to objects not yet added to
+     *            the store
+     * @return number of released contents
+     */
+    public int releaseContent(Set<StoredContent> referencedContent, long storedBefore) {
+        if (fContentStore instanceof HeapContentStore) {
+            return 0;
+        }
+        Set<StoredContent> referenced = new HashSet<StoredContent>(referencedContent);
+        for (String id : getIds()) {
+            addStoredContent(getObject(id), referenced);
+        }
+        return fContentStore.retainAll(referenced, storedBefore);
+    }
+
+    static void addStoredContent(StoredObject so, Set<StoredContent> referencedContent) {
+        if (so instanceof Content) {
+            ContentStream content = ((Content) so).getContent();
+            if (content instanceof ContentStreamDataImpl) {
+                StoredContent storedContent = ((ContentStreamDataImpl) content).getStoredContent();
+                if (null != storedContent) {
+                    referencedContent.add(storedContent);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a last snapshot and closes the journal.
+     */
+    public void closePersistence() {
+        if (null != fPersistence) {
+            fPersistence.close();
+            fPersistence = null;
+        }
+    }
+
+    public boolean isPersistent() {
+        return null != fPersistence;
+    }
+
+    /**
+     * Returns the ids to write to the journal when the given objects are
+     * changed. It has to be called before the change when the change can
+     * delete objects, a version is no longer linked to its version series once
+     * deleted.
+     */
+    public Set<String> getJournalScope(String... ids) {
+        if (null == fPersistence) {
+            return Collections.emptySet();
+        }
+        Set<String> scope = new LinkedHashSet<String>();
+        for (String id : ids) {
+            if (null != id) {
+                scope.add(id);
+                StoredObject so = fStoredObjectMap.get(id);
+                if (so instanceof DocumentVersion) {
+                    scope.add(((DocumentVersion) so).getParentDocument().getId());
+                }
+            }
+        }
+        return scope;
+    }
+
+    /**
+     * Returns the ids to write to the journal when the folder is deleted with
+     * its content.
+     */
+    public Set<String> getJournalScopeOfTree(String folderId) {
+        if (null == fPersistence) {
+            return Collections.emptySet();
+        }
+        Map<String, List<String>> childIds = new HashMap<String, List<String>>();
+        for (StoredObject so : fStoredObjectMap.values()) {
+            if (so instanceof Fileable && !(so instanceof DocumentVersion)) {
+                for (String parentId : ((Fileable) so).getParentIds()) {
+                    List<String> ids = childIds.get(parentId);
+                    if (null == ids) {
+                        ids = new ArrayList<String>();
+                        childIds.put(parentId, ids);
+                    }
+                    ids.add(so.getId());
+                }
+            }
+        }
+        Set<String> scope = new LinkedHashSet<String>();
+        List<String> pending = new ArrayList<String>();
+        pending.add(folderId);
+        while (!pending.isEmpty()) {
+            String id = pending.remove(pending.size() - 1);
+            if (scope.add(id) && childIds.containsKey(id)) {
+                pending.addAll(childIds.get(id));
+            }
+        }
+        return scope;
+    }
+
+    /**
+     * Writes the current state of the objects to the journal. The version
+     * series of a changed version is written as well as the working copy and
+     * latest version of a changed series.
+     */
+    public void journal(Collection<String> ids) {
+        ObjectStorePersistence persistence = fPersistence;
+        if (null == persistence || ids.isEmpty()) {
+            return;
+        }
+        Set<String> scope = new LinkedHashSet<String>();
+        for (String id : ids) {
+            scope.add(id);
+            StoredObject so = fStoredObjectMap.get(id);
+            if (so instanceof DocumentVersion) {
+                so = ((DocumentVersion) so).getParentDocument();
+                scope.add(so.getId());
+            }
+            if (so instanceof VersionedDocument) {
+                VersionedDocument document = (VersionedDocument) so;
+                DocumentVersion pwc = document.getPwc();
+                DocumentVersion latest = document.getLatestVersion(false);
+                if (null != pwc) {
+                    scope.add(pwc.getId());
+                }
+                if (null != latest) {
+                    scope.add(latest.getId());
+                }
+            }
+        }
+        persistence.writeObjects(scope);
+    }
+
+    /**
+     * Replaces the content of the store with the objects read from disk.
+     */
+    void restore(Collection<StoredObject> objects, Collection<InMemoryAcl> acls) {
+        lock();
+        try {
+            fStoredObjectMap.clear();
+            fFolderPathIndex.clear();
+            int maxId = 0;
+            for (StoredObject so : objects) {
+                fStoredObjectMap.put(so.getId(), so);
+                if (so instanceof FolderImpl && null == ((FolderImpl) so).getParentId()) {
+                    fRootFolder = (FolderImpl) so;
+                }
+                try {
+                    maxId = Math.max(maxId, Integer.parseInt(so.getId()));
+                } catch (NumberFormatException e) {
+                    // not generated by this store
+                }
+            }
+            reserveIds(maxId);
+            fAcls.clear();
+            int maxAclId = -1;
+            for (InMemoryAcl acl : acls) {
+                fAcls.add(acl);
+                maxAclId = Math.max(maxAclId, acl.getId());
+            }
+            synchronized (this) {
+                nextUnusedAclId = Math.max(nextUnusedAclId, maxAclId + 1);
+            }
+        } finally {
+            unlock();
+        }
+    }
+
+    List<InMemoryAcl> getAcls() {
+        lock();
+        try {
+            return new ArrayList<InMemoryAcl>(fAcls);
+        } finally {
+            unlock();
+        }
+    }
+
     // /////////////////////////////////////////
     // private helper methods
 
@@ -657,6 +984,7 @@ public class ObjectStoreImpl implements ObjectStore {
         }
 
         fStoredObjectMap.remove(folderId);
+        fFolderPathIndex.values().remove(folderId);
     }
 
     @Override
@@ -892,6 +1220,9 @@ public class ObjectStoreImpl implements ObjectStore {
                 aclId = getNextAclId();
                 acl.setId(aclId);
                 fAcls.add(acl);
+                if (null != fPersistence) {
+                    fPersistence.writeAcl(acl);
+                }
             }
         } finally {
             unlock();
@@ -1073,7 +1404,7 @@ public class ObjectStoreImpl implements ObjectStore {
             } else {
                 boolean useFakeContentStore = so.getTypeId().equals(DefaultTypeSystemCreator.BIG_CONTENT_FAKE_TYPE);
                 newContent = new ContentStreamDataImpl(MAX_CONTENT_SIZE_KB == null ? 0 : MAX_CONTENT_SIZE_KB,
-                        useFakeContentStore);
+                        useFakeContentStore, fContentStore);
                 String fileName = contentStream.getFileName();
                 if (null == fileName || fileName.length() <= 0) {
                     fileName = so.getName(); // use name of document as fallback
@@ -1086,7 +1417,11 @@ public class ObjectStoreImpl implements ObjectStore {
                 newContent.setMimeType(mimeType);
                 newContent.setLastModified(new GregorianCalendar());
                 try {
-                    newContent.setContent(contentStream.getStream());
+                    // contents copied within the repository (check out, ...)
+                    // are shared rather than read again
+                    if (!newContent.shareContent(contentStream)) {
+                        newContent.setContent(contentStream.getStream());
+                    }
                 } catch (IOException e) {
                     throw new CmisRuntimeException("Failed to get content from InputStream", e);
                 }
@@ -0,0 +1,645 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.inmemory.storedobj.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import org.apache.chemistry.opencmis.commons.exceptions.CmisStorageException;
+import org.apache.chemistry.opencmis.inmemory.storedobj.api.DocumentVersion;
+import org.apache.chemistry.opencmis.inmemory.storedobj.api.StoredObject;
+import org.apache.chemistry.opencmis.inmemory.storedobj.impl.ContentStore.StoredContent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the content of an {@link ObjectStoreImpl} on the local disk so that it
+ * survives a restart of the server.
+ * <p>
+ * Every change is appended to a journal as the complete new state of the
+ * changed objects (or as a delete marker when the object is gone), so the
+ * journal never depends on how the services mutate the objects in memory.
+ * Periodically a compacted snapshot of the whole store is written and the
+ * journals it covers are removed. A snapshot with sequence number N contains
+ * everything written to the journals before journal N, at startup the latest
+ * complete snapshot is read followed by the journals from N on. The raw
+ * records are read sequentially, only the last record of each object is kept
+ * and the objects are then deserialized in parallel.
+ * <p>
+ * Document versions and their version series are written as separate records
+ * and linked again by id when they are read back.
+ */
+class ObjectStorePersistence {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ObjectStorePersistence.class.getName());
+
+    private static final int MAGIC = 0x434D4953;
+    // 2: the bytes of the contents are kept by the content store
+    private static final int FORMAT_VERSION = 2;
+
+    private static final byte RECORD_OBJECT = 1;
+    private static final byte RECORD_DELETE = 2;
+    private static final byte RECORD_ACL = 3;
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".dat";
+    private static final String JOURNAL_PREFIX = "journal-";
+    private static final String JOURNAL_SUFFIX = ".log";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final Pattern FILE_PATTERN = Pattern.compile("(" + SNAPSHOT_PREFIX + "|" + JOURNAL_PREFIX
+            + ")(\\d+)(\\" + SNAPSHOT_SUFFIX + "|\\" + JOURNAL_SUFFIX + ")");
+
+    private static final int SNAPSHOT_ATTEMPTS = 3;
+    private static final int BUFFER_SIZE = 65536;
+
+    private final ObjectStoreImpl fStore;
+    private final File fDirectory;
+    private final boolean fSyncWrites;
+
+    private long fJournalSequence;
+    private FileOutputStream fJournalFile;
+    private DataOutputStream fJournal;
+    private ScheduledExecutorService fScheduler;
+
+    ObjectStorePersistence(ObjectStoreImpl store, File directory, boolean syncWrites) {
+        fStore = store;
+        fDirectory = directory;
+        fSyncWrites = syncWrites;
+    }
+
+    /**
+     * Restores the store from the files of the persistence directory and opens
+     * a new journal.
+     *
+     * @param loaderThreads
+     *            number of threads deserializing the objects
+     * @return true if objects were restored, false if the directory was empty
+     */
+    boolean open(int loaderThreads) {
+        if (!fDirectory.isDirectory() && !fDirectory.mkdirs()) {
+            throw new CmisStorageException("Cannot create persistence directory " + fDirectory);
+        }
+        long start = System.currentTimeMillis();
+        TreeMap<Long, File> snapshots = new TreeMap<Long, File>();
+        TreeMap<Long, File> journals = new TreeMap<Long, File>();
+        listFiles(snapshots, journals);
+
+        boolean restored = false;
+        long lastSequence = 0;
+        if (!snapshots.isEmpty() || !journals.isEmpty()) {
+            long snapshotSequence = snapshots.isEmpty() ? 0 : snapshots.lastKey();
+            LoadedState state = new LoadedState();
+            if (!snapshots.isEmpty()) {
+                readFile(snapshots.lastEntry().getValue(), state);
+            }
+            for (File journal : journals.tailMap(snapshotSequence).values()) {
+                readFile(journal, state);
+            }
+            List<StoredObject> objects = link(deserialize(state.fObjectRecords.values(), loaderThreads,
+                    fStore.getContentStore()));
+            fStore.restore(objects, state.fAcls.values());
+            restored = true;
+            lastSequence = Math.max(snapshotSequence, journals.isEmpty() ? 0 : journals.lastKey());
+            LOG.info("Restored " + objects.size() + " objects of repository " + fStore.getRepositoryId() + " from "
+                    + fDirectory + " in " + (System.currentTimeMillis() - start) + " ms.");
+        }
+
+        synchronized (this) {
+            openJournal(lastSequence + 1);
+            if (!restored) {
+                // nothing to restore, keep the initial content of the store
+                // (root folder and default ACL)
+                for (InMemoryAcl acl : fStore.getAcls()) {
+                    writeAcl(acl);
+                }
+                writeObjects(fStore.getIds());
+            }
+        }
+        return restored;
+    }
+
+    void scheduleSnapshots(long intervalInMinutes) {
+        fScheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "inmemory-snapshot-" + fStore.getRepositoryId());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        fScheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    snapshot();
+                } catch (RuntimeException e) {
+                    LOG.error("Snapshot of repository " + fStore.getRepositoryId() + " failed.", e);
+                }
+            }
+        }, intervalInMinutes, intervalInMinutes, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Appends the current state of the objects to the journal, objects which
+     * do not exist any more are recorded as deleted.
+     */
+    synchronized void writeObjects(Collection<String> ids) {
+        if (null == fJournal) {
+            return;
+        }
+        try {
+            for (String id : ids) {
+                StoredObject so = fStore.getObject(id);
+                if (null == so) {
+                    writeRecord(fJournal, RECORD_DELETE, deleteRecord(id));
+                } else {
+                    writeRecord(fJournal, RECORD_OBJECT, objectRecord(so));
+                }
+            }
+            flushJournal();
+        } catch (IOException e) {
+            throw new CmisStorageException("Cannot write journal of repository " + fStore.getRepositoryId(), e);
+        }
+    }
+
+    synchronized void writeAcl(InMemoryAcl acl) {
+        if (null == fJournal) {
+            return;
+        }
+        try {
+            writeRecord(fJournal, RECORD_ACL, serialize(acl));
+            flushJournal();
+        } catch (IOException e) {
+            throw new CmisStorageException("Cannot write journal of repository " + fStore.getRepositoryId(), e);
+        }
+    }
+
+    /**
+     * Writes a compacted snapshot of the whole store and removes the files it
+     * replaces. Changes made while the snapshot is written go to the new
+     * journal, they are replayed after the snapshot at startup.
+     */
+    void snapshot() {
+        long start = System.currentTimeMillis();
+        long sequence;
+        synchronized (this) {
+            if (null == fJournal) {
+                return;
+            }
+            sequence = fJournalSequence + 1;
+            closeJournal();
+            openJournal(sequence);
+        }
+
+        File tempFile = new File(fDirectory, SNAPSHOT_PREFIX + sequence + SNAPSHOT_SUFFIX + TEMP_SUFFIX);
+        int count = 0;
+        Set<StoredContent> referencedContent = new HashSet<StoredContent>();
+        FileOutputStream fileOut = null;
+        try {
+            fileOut = new FileOutputStream(tempFile);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut, BUFFER_SIZE));
+            writeHeader(out);
+            for (InMemoryAcl acl : fStore.getAcls()) {
+                writeRecord(out, RECORD_ACL, serialize(acl));
+            }
+            for (String id : fStore.getIds()) {
+                byte[] record = snapshotRecord(id, referencedContent);
+                if (null != record) {
+                    writeRecord(out, RECORD_OBJECT, record);
+                    count++;
+                }
+            }
+            out.flush();
+            fileOut.getFD().sync();
+            out.close();
+            fileOut = null;
+            Files.move(tempFile.toPath(), new File(fDirectory, SNAPSHOT_PREFIX + sequence + SNAPSHOT_SUFFIX).toPath(),
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            closeQuietly(fileOut);
+            tempFile.delete();
+            throw new CmisStorageException("Cannot write snapshot of repository " + fStore.getRepositoryId(), e);
+        }
+
+        TreeMap<Long, File> snapshots = new TreeMap<Long, File>();
+        TreeMap<Long, File> journals = new TreeMap<Long, File>();
+        listFiles(snapshots, journals);
+        for (File file : snapshots.headMap(sequence).values()) {
+            file.delete();
+        }
+        for (File file : journals.headMap(sequence).values()) {
+            file.delete();
+        }
+        releaseContent(referencedContent, start);
+        LOG.info("Snapshot of " + count + " objects of repository " + fStore.getRepositoryId() + " written in "
+                + (System.currentTimeMillis() - start) + " ms.");
+    }
+
+    /**
+     * Releases the contents referenced neither by the snapshot just written
+     * nor by the current objects. Contents stored after the start of the
+     * snapshot are kept, they may belong to changes not yet journaled.
+     */
+    private void releaseContent(Set<StoredContent> referencedContent, long snapshotStart) {
+        int released = fStore.releaseContent(referencedContent, snapshotStart);
+        if (released > 0) {
+            LOG.info("Released " + released + " unreferenced contents after the snapshot of repository "
+                    + fStore.getRepositoryId() + ".");
+        }
+    }
+
+    void close() {
+        if (null != fScheduler) {
+            fScheduler.shutdownNow();
+        }
+        snapshot();
+        synchronized (this) {
+            closeJournal();
+        }
+    }
+
+    // /////////////////////////////////////////
+    // writing
+
+    private byte[] snapshotRecord(String id, Set<StoredContent> referencedContent) throws IOException {
+        // objects can be changed by other threads while the snapshot is
+        // written, the journal written after the change has the final state
+        for (int attempt = 1;; attempt++) {
+            StoredObject so = fStore.getObject(id);
+            if (null == so) {
+                return null;
+            }
+            try {
+                byte[] record = objectRecord(so);
+                ObjectStoreImpl.addStoredContent(so, referencedContent);
+                return record;
+            } catch (ConcurrentModificationException e) {
+                if (attempt == SNAPSHOT_ATTEMPTS) {
+                    LOG.warn("Object " + id + " is changing, it is left to the journal.");
+                    return null;
+                }
+            }
+        }
+    }
+
+    private static byte[] objectRecord(StoredObject so) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeUTF(so.getId());
+        if (so instanceof VersionedDocumentImpl) {
+            List<DocumentVersion> versions = new ArrayList<DocumentVersion>(
+                    ((VersionedDocumentImpl) so).getAllVersions());
+            out.writeInt(versions.size());
+            for (DocumentVersion version : versions) {
+                out.writeUTF(version.getId());
+            }
+        } else {
+            out.writeInt(0);
+        }
+        ObjectOutputStream objectOut = new ObjectOutputStream(out);
+        objectOut.writeObject(so);
+        objectOut.close();
+        return bytes.toByteArray();
+    }
+
+    private static byte[] deleteRecord(String id) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeUTF(id);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    private static byte[] serialize(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(object);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    private static void writeHeader(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+    }
+
+    private static void writeRecord(DataOutputStream out, byte type, byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        out.writeByte(type);
+        out.writeInt(payload.length);
+        out.writeLong(crc.getValue());
+        out.write(payload);
+    }
+
+    private void openJournal(long sequence) {
+        File file = new File(fDirectory, JOURNAL_PREFIX + sequence + JOURNAL_SUFFIX);
+        try {
+            fJournalFile = new FileOutputStream(file, true);
+            fJournal = new DataOutputStream(new BufferedOutputStream(fJournalFile, BUFFER_SIZE));
+            if (file.length() == 0) {
+                writeHeader(fJournal);
+                flushJournal();
+            }
+            fJournalSequence = sequence;
+        } catch (IOException e) {
+            throw new CmisStorageException("Cannot open journal " + file, e);
+        }
+    }
+
+    private void flushJournal() throws IOException {
+        fJournal.flush();
+        if (fSyncWrites) {
+            fJournalFile.getFD().sync();
+        }
+    }
+
+    private void closeJournal() {
+        if (null != fJournal) {
+            try {
+                fJournal.flush();
+                fJournalFile.getFD().sync();
+            } catch (IOException e) {
+                LOG.warn("Cannot flush journal of repository " + fStore.getRepositoryId(), e);
+            }
+            closeQuietly(fJournal);
+            fJournal = null;
+            fJournalFile = null;
+        }
+    }
+
+    // /////////////////////////////////////////
+    // reading
+
+    private void listFiles(Map<Long, File> snapshots, Map<Long, File> journals) {
+        File[] files = fDirectory.listFiles();
+        if (null == files) {
+            return;
+        }
+        for (File file : files) {
+            if (file.getName().endsWith(TEMP_SUFFIX)) {
+                // snapshot not completed before the server stopped
+                file.delete();
+                continue;
+            }
+            Matcher matcher = FILE_PATTERN.matcher(file.getName());
+            if (matcher.matches()) {
+                long sequence = Long.parseLong(matcher.group(2));
+                if (SNAPSHOT_PREFIX.equals(matcher.group(1))) {
+                    snapshots.put(sequence, file);
+                } else {
+                    journals.put(sequence, file);
+                }
+            }
+        }
+    }
+
+    private void readFile(File file, LoadedState state) {
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE));
+            if (file.length() == 0) {
+                return;
+            }
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new CmisStorageException("File " + file + " is not a repository persistence file.");
+            }
+            while (true) {
+                int type = in.read();
+                if (type < 0) {
+                    break;
+                }
+                int length = in.readInt();
+                if (length < 0 || length > file.length()) {
+                    LOG.warn("Corrupted record in " + file + ", the rest of the file is ignored.");
+                    break;
+                }
+                byte[] payload = new byte[length];
+                long checksum = in.readLong();
+                in.readFully(payload);
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if (crc.getValue() != checksum) {
+                    LOG.warn("Corrupted record in " + file + ", the rest of the file is ignored.");
+                    break;
+                }
+                state.apply((byte) type, payload);
+            }
+        } catch (EOFException e) {
+            // the last record was not completely written before the server
+            // stopped
+            LOG.warn("Incomplete record at the end of " + file + ", it is ignored.");
+        } catch (IOException e) {
+            throw new CmisStorageException("Cannot read " + file, e);
+        } catch (ClassNotFoundException e) {
+            throw new CmisStorageException("Cannot read " + file, e);
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    private static List<ObjectRecord> deserialize(Collection<byte[]> records, int loaderThreads,
+            final ContentStore contentStore) {
+        int threads = loaderThreads > 0 ? loaderThreads : Runtime.getRuntime().availableProcessors();
+        List<byte[]> allRecords = new ArrayList<byte[]>(records);
+        int chunkSize = Math.max(1, (allRecords.size() + threads - 1) / threads);
+        List<Callable<List<ObjectRecord>>> tasks = new ArrayList<Callable<List<ObjectRecord>>>();
+        for (int from = 0; from < allRecords.size(); from += chunkSize) {
+            final List<byte[]> chunk = allRecords.subList(from, Math.min(from + chunkSize, allRecords.size()));
+            tasks.add(new Callable<List<ObjectRecord>>() {
+                @Override
+                public List<ObjectRecord> call() throws Exception {
+                    List<ObjectRecord> objects = new ArrayList<ObjectRecord>(chunk.size());
+                    for (byte[] record : chunk) {
+                        objects.add(readObjectRecord(record, contentStore));
+                    }
+                    return objects;
+                }
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, tasks.size())));
+        try {
+            List<ObjectRecord> objects = new ArrayList<ObjectRecord>(allRecords.size());
+            for (Future<List<ObjectRecord>> result : executor.invokeAll(tasks)) {
+                objects.addAll(result.get());
+            }
+            return objects;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CmisStorageException("Loading of the repository was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new CmisStorageException("Cannot read object: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ObjectRecord readObjectRecord(byte[] record, ContentStore contentStore) throws IOException,
+            ClassNotFoundException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        in.readUTF(); // id
+        int versionCount = in.readInt();
+        List<String> versionIds = new ArrayList<String>(versionCount);
+        for (int i = 0; i < versionCount; i++) {
+            versionIds.add(in.readUTF());
+        }
+        StoredObject so = (StoredObject) new ContentRestoringInputStream(in, contentStore).readObject();
+        return new ObjectRecord(so, versionIds);
+    }
+
+    /**
+     * Links the versions with their version series, versions of a deleted
+     * series or not part of the series any more are dropped.
+     */
+    private static List<StoredObject> link(List<ObjectRecord> records) {
+        Map<String, StoredObject> byId = new HashMap<String, StoredObject>(records.size() * 2);
+        for (ObjectRecord record : records) {
+            byId.put(record.fObject.getId(), record.fObject);
+        }
+        for (ObjectRecord record : records) {
+            if (record.fObject instanceof VersionedDocumentImpl) {
+                VersionedDocumentImpl document = (VersionedDocumentImpl) record.fObject;
+                for (String versionId : record.fVersionIds) {
+                    StoredObject version = byId.get(versionId);
+                    if (version instanceof DocumentVersionImpl) {
+                        document.restoreVersion((DocumentVersionImpl) version);
+                    }
+                }
+            }
+        }
+        List<StoredObject> linked = new ArrayList<StoredObject>(records.size());
+        for (ObjectRecord record : records) {
+            StoredObject so = record.fObject;
+            if (!(so instanceof DocumentVersionImpl) || null != ((DocumentVersionImpl) so).getParentDocument()) {
+                linked.add(so);
+            }
+        }
+        return linked;
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (null != closeable) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                LOG.debug("Cannot close stream.", e);
+            }
+        }
+    }
+
+    /**
+     * Binds the contents of the objects read to the content store of the
+     * repository.
+     */
+    private static class ContentRestoringInputStream extends ObjectInputStream {
+        private final ContentStore fContentStore;
+
+        ContentRestoringInputStream(InputStream in, ContentStore contentStore) throws IOException {
+            super(in);
+            fContentStore = contentStore;
+            enableResolveObject(true);
+        }
+
+        @Override
+        protected Object resolveObject(Object obj) throws IOException {
+            if (obj instanceof ContentStreamDataImpl) {
+                ((ContentStreamDataImpl) obj).restore(fContentStore);
+            }
+            return obj;
+        }
+    }
+
+    /**
+     * Object read from a record with the ids of its versions when it is a
+     * version series.
+     */
+    private static class ObjectRecord {
+        private final StoredObject fObject;
+        private final List<String> fVersionIds;
+
+        ObjectRecord(StoredObject object, List<String> versionIds) {
+            fObject = object;
+            fVersionIds = versionIds;
+        }
+    }
+
+    /**
+     * Last record of each object and the ACLs read from the persistence files.
+     */
+    private static class LoadedState {
+        private final Map<String, byte[]> fObjectRecords = new LinkedHashMap<String, byte[]>();
+        private final Map<Integer, InMemoryAcl> fAcls = new TreeMap<Integer, InMemoryAcl>();
+
+        void apply(byte type, byte[] payload) throws IOException, ClassNotFoundException {
+            switch (type) {
+            case RECORD_OBJECT:
+                String id = new DataInputStream(new ByteArrayInputStream(payload)).readUTF();
+                fObjectRecords.remove(id);
+                fObjectRecords.put(id, payload);
+                break;
+            case RECORD_DELETE:
+                fObjectRecords.remove(new DataInputStream(new ByteArrayInputStream(payload)).readUTF());
+                break;
+            case RECORD_ACL:
+                InMemoryAcl acl = (InMemoryAcl) new ObjectInputStream(new ByteArrayInputStream(payload)).readObject();
+                fAcls.put(acl.getId(), acl);
+                break;
+            default:
+                throw new IOException("Unknown record type " + type);
+            }
+        }
+    }
+}
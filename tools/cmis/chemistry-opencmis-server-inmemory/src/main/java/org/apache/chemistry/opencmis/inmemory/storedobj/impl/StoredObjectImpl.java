@@ -22,6 +22,7 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
@@ -48,8 +49,9 @@ import org.apache.chemistry.opencmis.inmemory.storedobj.api.StoredObject;
  * Documents, Folders, Relationships and Policies.
  * 
  */
-public class StoredObjectImpl implements StoredObject {
+public class StoredObjectImpl implements StoredObject, Serializable {
 
+    private static final long serialVersionUID = 1L;
     private static final int BUFFER_SIZE = 65536;
     private static final String UNKNOWN_USER = "unknown";
 
@@ -18,7 +18,10 @@
  */
 package org.apache.chemistry.opencmis.inmemory.storedobj.impl;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -38,16 +41,21 @@ public class VersionedDocumentImpl extends FilingImpl implements VersionedDocume
 
     private boolean fIsCheckedOut;
     private String fCheckedOutUser;
-    private final List<DocumentVersion> fVersions;
+    // versions are stored as separate objects and linked again by id when the
+    // document is read back from the persistence files
+    private transient List<DocumentVersion> fVersions;
+    private transient DocumentVersion fLatestVersion;
+    private transient DocumentVersion fLatestMajorVersion;
+    private transient DocumentVersion fPwc;
 
     public VersionedDocumentImpl() {
         super();
-        fVersions = new ArrayList<DocumentVersion>();
+        initVersions();
         fIsCheckedOut = false;
     }
 
     @Override
-    public DocumentVersion addVersion(VersioningState verState, String user) {
+    public synchronized DocumentVersion addVersion(VersioningState verState, String user) {
 
         if (isCheckedOut()) {
             throw new CmisConstraintException("Cannot add a version to document, document is checked out.");
@@ -56,7 +64,7 @@ public class VersionedDocumentImpl extends FilingImpl implements VersionedDocume
         DocumentVersionImpl ver = new DocumentVersionImpl(fRepositoryId, this, verState);
         ver.setSystemBasePropertiesWhenCreatedDirect(getName(), getTypeId(), user); // copy
         // name and type id from version series.
-        fVersions.add(ver);
+        appendVersion(ver);
         if (verState == VersioningState.CHECKEDOUT) {
             fCheckedOutUser = user;
             fIsCheckedOut = true;
@@ -66,7 +74,7 @@ public class VersionedDocumentImpl extends FilingImpl implements VersionedDocume
     }
 
     @Override
-    public boolean deleteVersion(DocumentVersion version) {
+    public synchronized boolean deleteVersion(DocumentVersion version) {
         if (fIsCheckedOut) {
             // Note: Do not throw an exception here if the document is
             // checked-out. In AtomPub binding cancelCheckout
@@ -78,7 +86,7 @@ public class VersionedDocumentImpl extends FilingImpl implements VersionedDocume
                 return !fVersions.isEmpty();
             }
         }
-        boolean found = fVersions.remove(version);
+        boolean found = removeVersion(version);
         if (!found) {
             throw new CmisInvalidArgumentException("Version is not contained in the document:" + version.getId());
         }
@@ -87,12 +95,12 @@ public class VersionedDocumentImpl extends FilingImpl implements VersionedDocume
     }
 
     @Override
-    public void cancelCheckOut(String user) {
+    public synchronized void cancelCheckOut(String user) {
         cancelCheckOut(true);
     }
 
     @Override
-    public void checkIn(boolean isMajor, Properties properties, ContentStream content, String checkinComment,
+    public synchronized void checkIn(boolean isMajor, Properties properties, ContentStream content, String checkinComment,
             List<String> policyIds, String user) {
         if (fIsCheckedOut) {
             if (fCheckedOutUser.equals(user)) {
@@ -119,13 +127,18 @@ public class VersionedDocumentImpl extends FilingImpl implements VersionedDocume
 
         pwc.setCheckinComment(checkinComment);
         pwc.commit(isMajor);
+        fPwc = null;
+        fLatestVersion = pwc;
+        if (isMajor) {
+            fLatestMajorVersion = pwc;
+        }
         if (policyIds != null && policyIds.size() > 0) {
             ((DocumentVersionImpl) pwc).setAppliedPolicies(policyIds);
         }
     }
 
     @Override
-    public DocumentVersion checkOut(String user) {
+    public synchronized DocumentVersion checkOut(String user) {
         if (fIsCheckedOut) {
             throw new CmisConstraintException("Error: Can't checkout, Document " + getId() 
                     + " is already checked out.");
@@ -139,40 +152,14 @@ public class VersionedDocumentImpl extends FilingImpl implements VersionedDocume
 
     @Override
     public List<DocumentVersion> getAllVersions() {
-        return fVersions;
+        // changes go through the methods of this class to keep the direct
+        // access to the versions up to date
+        return Collections.unmodifiableList(fVersions);
     }
 
     @Override
-    public DocumentVersion getLatestVersion(boolean major) {
-
-        DocumentVersion latest = null;
-        if (fVersions.size() == 0) {
-            return null;
-        }
-
-        if (major) {
-            for (DocumentVersion ver : fVersions) {
-                if (ver.isMajor() && !ver.isPwc()) {
-                    latest = ver;
-                }
-            }
-        } else {
-            if (null == getPwc()) {
-                latest = fVersions.get(fVersions.size() - 1);
-            } else if (fVersions.size() > 1) {
-                latest = fVersions.get(fVersions.size() - 2);
-            } else {
-                latest = null;
-            }
-            if (null == getPwc()) {
-                latest = fVersions.get(fVersions.size() - 1);
-            } else if (fVersions.size() > 1) {
-                latest = fVersions.get(fVersions.size() - 2);
-            } else {
-                latest = null;
-            }
-        }
-        return latest;
+    public synchronized DocumentVersion getLatestVersion(boolean major) {
+        return major ? fLatestMajorVersion : fLatestVersion;
     }
 
     @Override
@@ -186,13 +173,8 @@ public class VersionedDocumentImpl extends FilingImpl implements VersionedDocume
     }
 
     @Override
-    public DocumentVersion getPwc() {
-        for (DocumentVersion ver : fVersions) {
-            if (ver.isPwc()) {
-                return ver;
-            }
-        }
-        return null;
+    public synchronized DocumentVersion getPwc() {
+        return fPwc;
     }
 
     @Override
@@ -230,11 +212,74 @@ public class VersionedDocumentImpl extends FilingImpl implements VersionedDocume
 
     }
 
+    /**
+     * Adds a version read back from the persistence files, the versions are
+     * added in their order.
+     */
+    synchronized void restoreVersion(DocumentVersionImpl version) {
+        version.setParentDocument(this);
+        appendVersion(version);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        initVersions();
+    }
+
+    private void initVersions() {
+        fVersions = new ArrayList<DocumentVersion>();
+        fLatestVersion = null;
+        fLatestMajorVersion = null;
+        fPwc = null;
+    }
+
+    private void appendVersion(DocumentVersion version) {
+        fVersions.add(version);
+        if (version.isPwc()) {
+            fPwc = version;
+        } else {
+            fLatestVersion = version;
+            if (version.isMajor()) {
+                fLatestMajorVersion = version;
+            }
+        }
+    }
+
+    private boolean removeVersion(DocumentVersion version) {
+        // the latest versions are the ones usually removed, search from the
+        // end
+        int index = fVersions.lastIndexOf(version);
+        if (index < 0) {
+            return false;
+        }
+        fVersions.remove(index);
+        if (version == fPwc) {
+            fPwc = null;
+        }
+        if (version == fLatestVersion) {
+            fLatestVersion = findLatestVersion(false);
+        }
+        if (version == fLatestMajorVersion) {
+            fLatestMajorVersion = findLatestVersion(true);
+        }
+        return true;
+    }
+
+    private DocumentVersion findLatestVersion(boolean major) {
+        for (int i = fVersions.size() - 1; i >= 0; i--) {
+            DocumentVersion ver = fVersions.get(i);
+            if (!ver.isPwc() && (!major || ver.isMajor())) {
+                return ver;
+            }
+        }
+        return null;
+    }
+
     private void cancelCheckOut(boolean deleteInObjectStore) {
         DocumentVersion pwc = getPwc();
         fIsCheckedOut = false;
         fCheckedOutUser = null;
-        fVersions.remove(pwc);
+        removeVersion(pwc);
         if (fVersions.size() > 0) {
             String nameLatestVer = getLatestVersion(false).getName();
             if (!getName().equals(nameLatestVer)) {
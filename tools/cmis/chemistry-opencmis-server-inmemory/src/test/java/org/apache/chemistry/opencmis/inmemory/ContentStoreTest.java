@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.inmemory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.apache.chemistry.opencmis.commons.PropertyIds;
+import org.apache.chemistry.opencmis.commons.data.ContentStream;
+import org.apache.chemistry.opencmis.commons.data.PropertyData;
+import org.apache.chemistry.opencmis.commons.enums.BaseTypeId;
+import org.apache.chemistry.opencmis.commons.enums.VersioningState;
+import org.apache.chemistry.opencmis.commons.exceptions.CmisInvalidArgumentException;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.ContentStreamImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyIdImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyStringImpl;
+import org.apache.chemistry.opencmis.inmemory.storedobj.api.DocumentVersion;
+import org.apache.chemistry.opencmis.inmemory.storedobj.api.VersionedDocument;
+import org.apache.chemistry.opencmis.inmemory.storedobj.impl.ContentStore.StoredContent;
+import org.apache.chemistry.opencmis.inmemory.storedobj.impl.ContentStreamDataImpl;
+import org.apache.chemistry.opencmis.inmemory.storedobj.impl.FileContentStore;
+import org.apache.chemistry.opencmis.inmemory.storedobj.impl.ObjectStoreImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the file content store and its use by an object store.
+ */
+public class ContentStoreTest extends TestCase {
+
+    private static final String TEST_REPOSITORY_ID = "TestRepositoryId";
+    private static final String USER = "user";
+
+    private File fDirectory;
+
+    @Override
+    @Before
+    protected void setUp() throws Exception {
+        ConfigurationSettings.init(new HashMap<String, String>());
+        fDirectory = Files.createTempDirectory("inmemory-content").toFile();
+    }
+
+    @Override
+    @After
+    protected void tearDown() throws Exception {
+        delete(fDirectory);
+    }
+
+    @Test
+    public void testIdenticalContentsAreStoredOnce() throws Exception {
+        FileContentStore store = new FileContentStore(new File(fDirectory, "content"), false);
+        StoredContent first = store.store(new ByteArrayInputStream("bill".getBytes()), 0);
+        StoredContent second = store.store(new ByteArrayInputStream("bill".getBytes()), 0);
+        StoredContent other = store.store(new ByteArrayInputStream("annex".getBytes()), 0);
+
+        assertEquals(first, second);
+        assertFalse(first.equals(other));
+        assertEquals(2, countFiles(store.getDirectory()));
+        assertEquals("bill", read(first.getStream(0, first.getLength())));
+        assertEquals("ill", read(first.getStream(1, 10)));
+        assertEquals("nn", read(other.getStream(1, 2)));
+        assertEquals("annex", new String(other.getBytes()));
+    }
+
+    @Test
+    public void testMaxLength() throws Exception {
+        FileContentStore store = new FileContentStore(new File(fDirectory, "content"), false);
+        try {
+            store.store(new ByteArrayInputStream(new byte[2048]), 1024);
+            fail("content larger than the max. length must be rejected");
+        } catch (CmisInvalidArgumentException e) {
+            // expected
+        }
+        assertEquals(0, countFiles(store.getDirectory()));
+    }
+
+    @Test
+    public void testUnreferencedContentsAreReleased() throws Exception {
+        FileContentStore store = new FileContentStore(new File(fDirectory, "content"), false);
+        StoredContent kept = store.store(new ByteArrayInputStream("kept".getBytes()), 0);
+        store.store(new ByteArrayInputStream("released".getBytes()), 0);
+
+        // contents stored after the given time are kept
+        assertEquals(0, store.retainAll(Collections.singleton(kept), 0));
+        assertEquals(1, store.retainAll(Collections.singleton(kept), System.currentTimeMillis() + 1000));
+        assertEquals(1, countFiles(store.getDirectory()));
+        assertEquals("kept", read(kept.getStream(0, kept.getLength())));
+    }
+
+    @Test
+    public void testDocumentContents() throws Exception {
+        ObjectStoreImpl objectStore = new ObjectStoreImpl(TEST_REPOSITORY_ID);
+        FileContentStore contentStore = new FileContentStore(new File(fDirectory, "content"), false);
+        objectStore.setContentStore(contentStore);
+
+        DocumentVersion version = objectStore.createVersionedDocument("bill.xml", createProperties("bill.xml"), USER,
+                objectStore.getRootFolder(), null, null, null, createContent("<bill/>"), VersioningState.MAJOR);
+        assertEquals("<bill/>", read(version.getContent().getStream()));
+        assertEquals("bil", read(objectStore.getContent(version, 1, 3).getStream()));
+
+        // the content copied to the private working copy is shared
+        VersionedDocument document = version.getParentDocument();
+        DocumentVersion pwc = document.checkOut(USER);
+        objectStore.setContent(pwc, objectStore.getContent(version, 0, -1));
+        assertEquals(1, countFiles(contentStore.getDirectory()));
+
+        objectStore.appendContent(pwc, createContent("<annex/>"));
+        assertEquals("<bill/><annex/>", read(pwc.getContent().getStream()));
+        assertEquals("<bill/>", read(version.getContent().getStream()));
+        assertEquals(2, countFiles(contentStore.getDirectory()));
+    }
+
+    @Test
+    public void testReleaseContentWithoutPersistence() throws Exception {
+        ObjectStoreImpl objectStore = new ObjectStoreImpl(TEST_REPOSITORY_ID);
+        FileContentStore contentStore = new FileContentStore(new File(fDirectory, "content"), false);
+        objectStore.setContentStore(contentStore);
+        DocumentVersion version = objectStore.createVersionedDocument("bill.xml", createProperties("bill.xml"), USER,
+                objectStore.getRootFolder(), null, null, null, createContent("<bill/>"), VersioningState.MAJOR);
+        DocumentVersion deleted = objectStore.createVersionedDocument("annex.xml", createProperties("annex.xml"),
+                USER, objectStore.getRootFolder(), null, null, null, createContent("<annex/>"), VersioningState.MAJOR);
+        objectStore.deleteObject(deleted.getParentDocument().getId(), true, USER);
+        assertEquals(2, countFiles(contentStore.getDirectory()));
+
+        // contents stored after the given time are kept
+        assertEquals(0, objectStore.releaseContent(Collections.<StoredContent> emptySet(), 0));
+        Thread.sleep(1100);
+        assertEquals(1, objectStore.releaseContent(Collections.<StoredContent> emptySet(), System.currentTimeMillis()));
+        assertEquals(1, countFiles(contentStore.getDirectory()));
+        assertEquals("<bill/>", read(version.getContent().getStream()));
+    }
+
+    @Test
+    public void testRestoreFileContents() throws Exception {
+        File persistenceDir = new File(fDirectory, "repository");
+        ObjectStoreImpl objectStore = new ObjectStoreImpl(TEST_REPOSITORY_ID);
+        objectStore.setContentStore(new FileContentStore(new File(persistenceDir, "content"), true));
+        assertFalse(objectStore.enablePersistence(persistenceDir, false, 1, 0));
+        DocumentVersion version = objectStore.createVersionedDocument("bill.xml", createProperties("bill.xml"), USER,
+                objectStore.getRootFolder(), null, null, null, createContent("<bill/>"), VersioningState.MAJOR);
+        DocumentVersion deleted = objectStore.createVersionedDocument("annex.xml", createProperties("annex.xml"),
+                USER, objectStore.getRootFolder(), null, null, null, createContent("<annex/>"), VersioningState.MAJOR);
+        objectStore.journal(Arrays.asList(version.getId(), deleted.getId()));
+        objectStore.deleteObject(deleted.getParentDocument().getId(), true, USER);
+        objectStore.journal(Arrays.asList(deleted.getParentDocument().getId()));
+        // the closing snapshot releases the content of the deleted document
+        // once it is older than the snapshot
+        Thread.sleep(1100);
+        objectStore.closePersistence();
+        assertEquals(1, countFiles(new File(persistenceDir, "content")));
+
+        ObjectStoreImpl restoredStore = new ObjectStoreImpl(TEST_REPOSITORY_ID);
+        restoredStore.setContentStore(new FileContentStore(new File(persistenceDir, "content"), true));
+        assertTrue(restoredStore.enablePersistence(persistenceDir, false, 1, 0));
+        DocumentVersion restored = (DocumentVersion) restoredStore.getObjectById(version.getId());
+        assertEquals("<bill/>", read(restored.getContent().getStream()));
+        assertTrue(Arrays.equals("<bill/>".getBytes(), ((ContentStreamDataImpl) restored.getContent()).getBytes()));
+        restoredStore.closePersistence();
+    }
+
+    private static Map<String, PropertyData<?>> createProperties(String name) {
+        Map<String, PropertyData<?>> properties = new HashMap<String, PropertyData<?>>();
+        properties.put(PropertyIds.NAME, new PropertyStringImpl(PropertyIds.NAME, name));
+        properties.put(PropertyIds.OBJECT_TYPE_ID, new PropertyIdImpl(PropertyIds.OBJECT_TYPE_ID,
+                BaseTypeId.CMIS_DOCUMENT.value()));
+        return properties;
+    }
+
+    private static ContentStream createContent(String text) {
+        byte[] bytes = text.getBytes();
+        return new ContentStreamImpl("content.xml", BigInteger.valueOf(bytes.length), "application/xml",
+                new ByteArrayInputStream(bytes));
+    }
+
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int len;
+        while ((len = in.read(buffer)) != -1) {
+            out.write(buffer, 0, len);
+        }
+        in.close();
+        return out.toString();
+    }
+
+    private static int countFiles(File directory) {
+        int count = 0;
+        File[] files = directory.listFiles();
+        if (null != files) {
+            for (File file : files) {
+                count += file.isDirectory() ? countFiles(file) : 1;
+            }
+        }
+        return count;
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (null != children) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -164,6 +164,28 @@ public class FolderTest extends TestCase {
         }
     }
 
+    @Test
+    public void testIndexedPathsFollowRenameMoveAndDelete() {
+        // resolve the paths once so that they are indexed
+        assertEquals(f1, fStore.getObjectByPath("/Folder 1", USER));
+        assertEquals(f11, fStore.getObjectByPath("/Folder 1/Folder 1.1", USER));
+        assertEquals(f11, fStore.getObjectByPath("/Folder 1/Folder 1.1/", USER));
+
+        fStore.rename(f1, "Folder A", USER);
+        assertNull(fStore.getObjectByPath("/Folder 1/Folder 1.1", USER));
+        assertNull(fStore.getObjectByPath("/Folder 1", USER));
+        assertEquals(f11, fStore.getObjectByPath("/Folder A/Folder 1.1", USER));
+
+        fStore.move(f1, fRoot, f3, USER);
+        assertNull(fStore.getObjectByPath("/Folder A/Folder 1.1", USER));
+        assertEquals(f11, fStore.getObjectByPath("/Folder 3/Folder A/Folder 1.1", USER));
+
+        fStore.deleteObject(f11.getId(), true, USER);
+        assertNull(fStore.getObjectByPath("/Folder 3/Folder A/Folder 1.1", USER));
+        Folder recreated = createFolder("Folder 1.1", f1);
+        assertEquals(recreated, fStore.getObjectByPath("/Folder 3/Folder A/Folder 1.1", USER));
+    }
+
     private void createFolders() {
         fRoot = (FolderImpl) fStore.getRootFolder();
         f1 = (FolderImpl) createFolder("Folder 1", fRoot);
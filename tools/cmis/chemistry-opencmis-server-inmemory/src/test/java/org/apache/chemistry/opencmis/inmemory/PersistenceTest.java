@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.inmemory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.apache.chemistry.opencmis.commons.PropertyIds;
+import org.apache.chemistry.opencmis.commons.data.ContentStream;
+import org.apache.chemistry.opencmis.commons.data.PropertyData;
+import org.apache.chemistry.opencmis.commons.enums.BaseTypeId;
+import org.apache.chemistry.opencmis.commons.enums.VersioningState;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.ContentStreamImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyIdImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyStringImpl;
+import org.apache.chemistry.opencmis.inmemory.storedobj.api.DocumentVersion;
+import org.apache.chemistry.opencmis.inmemory.storedobj.api.Folder;
+import org.apache.chemistry.opencmis.inmemory.storedobj.api.StoredObject;
+import org.apache.chemistry.opencmis.inmemory.storedobj.api.VersionedDocument;
+import org.apache.chemistry.opencmis.inmemory.storedobj.impl.ObjectStoreImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the journal and snapshot files of a persistent in-memory object store.
+ */
+public class PersistenceTest extends TestCase {
+
+    private static final String TEST_REPOSITORY_ID = "TestRepositoryId";
+    private static final String USER = "user";
+
+    private File fDirectory;
+
+    @Override
+    @Before
+    protected void setUp() throws Exception {
+        ConfigurationSettings.init(new HashMap<String, String>());
+        fDirectory = Files.createTempDirectory("inmemory-persistence").toFile();
+    }
+
+    @Override
+    @After
+    protected void tearDown() throws Exception {
+        delete(fDirectory);
+    }
+
+    @Test
+    public void testRestoreFromJournal() throws Exception {
+        ObjectStoreImpl store = createStore();
+        Folder folder = store.createFolder("Proposal", null, USER, store.getRootFolder(), null, null, null);
+        store.journal(Arrays.asList(folder.getId()));
+        DocumentVersion version = store.createVersionedDocument("bill.xml", createProperties("bill.xml"), USER,
+                folder, null, null, null, createContent("version 1"), VersioningState.MAJOR);
+        store.journal(Arrays.asList(version.getId()));
+        VersionedDocument document = version.getParentDocument();
+        checkIn(store, document, "version 2", false);
+        checkOut(store, document);
+
+        // no snapshot, the store is restored from the journal only
+        ObjectStoreImpl restoredStore = new ObjectStoreImpl(TEST_REPOSITORY_ID);
+        assertTrue(restoredStore.enablePersistence(fDirectory, false, 2, 0));
+
+        StoredObject restoredFolder = restoredStore.getObjectByPath("/Proposal", USER);
+        assertNotNull(restoredFolder);
+        assertEquals(folder.getId(), restoredFolder.getId());
+        VersionedDocument restoredDocument = (VersionedDocument) restoredStore.getObjectById(document.getId());
+        assertEquals(3, restoredDocument.getAllVersions().size());
+        assertTrue(restoredDocument.isCheckedOut());
+        assertEquals(USER, restoredDocument.getCheckedOutBy());
+        for (DocumentVersion restoredVersion : restoredDocument.getAllVersions()) {
+            assertSame(restoredDocument, restoredVersion.getParentDocument());
+            assertSame(restoredVersion, restoredStore.getObjectById(restoredVersion.getId()));
+        }
+        DocumentVersion latest = restoredDocument.getLatestVersion(false);
+        assertEquals("version 2", read(latest.getContent()));
+        assertEquals("version 2", read(restoredDocument.getPwc().getContent()));
+        assertNotNull(restoredStore.getObjectByPath("/Proposal/bill.xml", USER));
+        restoredStore.closePersistence();
+    }
+
+    @Test
+    public void testRestoreFromSnapshotAndJournal() throws Exception {
+        ObjectStoreImpl store = createStore();
+        Folder folder = store.createFolder("Proposal", null, USER, store.getRootFolder(), null, null, null);
+        Folder annexes = store.createFolder("Annexes", null, USER, folder, null, null, null);
+        store.journal(Arrays.asList(folder.getId(), annexes.getId()));
+        DocumentVersion version = store.createVersionedDocument("annex.xml", createProperties("annex.xml"), USER,
+                annexes, null, null, null, createContent("annex"), VersioningState.MAJOR);
+        store.journal(Arrays.asList(version.getId()));
+        store.closePersistence();
+
+        String[] files = fDirectory.list();
+        Arrays.sort(files);
+        assertEquals("[journal-2.log, snapshot-2.dat]", Arrays.toString(files));
+
+        ObjectStoreImpl restoredStore = new ObjectStoreImpl(TEST_REPOSITORY_ID);
+        assertTrue(restoredStore.enablePersistence(fDirectory, false, 2, 0));
+        assertEquals(store.getObjectCount(), restoredStore.getObjectCount());
+        StoredObject restoredAnnexes = restoredStore.getObjectByPath("/Proposal/Annexes", USER);
+        assertEquals(annexes.getId(), restoredAnnexes.getId());
+
+        Folder folderAfterRestart = restoredStore.createFolder("Other", null, USER, restoredStore.getRootFolder(),
+                null, null, null);
+        restoredStore.journal(Arrays.asList(folderAfterRestart.getId()));
+
+        // deleting the version series deletes its versions
+        restoredStore.deleteObject(version.getParentDocument().getId(), true, USER);
+        restoredStore.journal(Arrays.asList(version.getParentDocument().getId()));
+        restoredStore.closePersistence();
+
+        ObjectStoreImpl secondRestoredStore = new ObjectStoreImpl(TEST_REPOSITORY_ID);
+        assertTrue(secondRestoredStore.enablePersistence(fDirectory, false, 1, 0));
+        assertNull(secondRestoredStore.getObjectById(version.getId()));
+        assertNull(secondRestoredStore.getObjectById(version.getParentDocument().getId()));
+        assertNotNull(secondRestoredStore.getObjectByPath("/Other", USER));
+        assertNotNull(secondRestoredStore.getObjectByPath("/Proposal/Annexes", USER));
+        secondRestoredStore.closePersistence();
+    }
+
+    @Test
+    public void testIncompleteLastRecordIsIgnored() throws Exception {
+        ObjectStoreImpl store = createStore();
+        Folder folder = store.createFolder("Proposal", null, USER, store.getRootFolder(), null, null, null);
+        store.journal(Arrays.asList(folder.getId()));
+        Folder lost = store.createFolder("Lost", null, USER, store.getRootFolder(), null, null, null);
+        store.journal(Arrays.asList(lost.getId()));
+
+        // simulate a server stopped while writing the last record
+        File journal = new File(fDirectory, "journal-1.log");
+        byte[] content = Files.readAllBytes(journal.toPath());
+        Files.write(journal.toPath(), Arrays.copyOf(content, content.length - 10));
+
+        ObjectStoreImpl restoredStore = new ObjectStoreImpl(TEST_REPOSITORY_ID);
+        assertTrue(restoredStore.enablePersistence(fDirectory, false, 2, 0));
+        assertNotNull(restoredStore.getObjectByPath("/Proposal", USER));
+        assertNull(restoredStore.getObjectByPath("/Lost", USER));
+        restoredStore.closePersistence();
+    }
+
+    private ObjectStoreImpl createStore() {
+        ObjectStoreImpl store = new ObjectStoreImpl(TEST_REPOSITORY_ID);
+        assertFalse(store.enablePersistence(fDirectory, false, 2, 0));
+        return store;
+    }
+
+    private void checkIn(ObjectStoreImpl store, VersionedDocument document, String content, boolean major) {
+        DocumentVersion pwc = checkOut(store, document);
+        store.setContent(pwc, createContent(content));
+        document.checkIn(major, null, pwc.getContent(), "comment", null, USER);
+        store.journal(Arrays.asList(pwc.getId()));
+    }
+
+    private DocumentVersion checkOut(ObjectStoreImpl store, VersionedDocument document) {
+        ContentStream content = store.getContent(document.getLatestVersion(false), 0, -1);
+        DocumentVersion pwc = document.checkOut(USER);
+        store.setContent(pwc, content);
+        store.storeVersion(pwc);
+        store.journal(Arrays.asList(pwc.getId()));
+        return pwc;
+    }
+
+    private static Map<String, PropertyData<?>> createProperties(String name) {
+        Map<String, PropertyData<?>> properties = new HashMap<String, PropertyData<?>>();
+        properties.put(PropertyIds.NAME, new PropertyStringImpl(PropertyIds.NAME, name));
+        properties.put(PropertyIds.OBJECT_TYPE_ID, new PropertyIdImpl(PropertyIds.OBJECT_TYPE_ID,
+                BaseTypeId.CMIS_DOCUMENT.value()));
+        return properties;
+    }
+
+    private static ContentStream createContent(String text) {
+        byte[] bytes = text.getBytes();
+        return new ContentStreamImpl("content.xml", BigInteger.valueOf(bytes.length), "application/xml",
+                new ByteArrayInputStream(bytes));
+    }
+
+    private static String read(ContentStream content) throws IOException {
+        InputStream in = content.getStream();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int len;
+        while ((len = in.read(buffer)) != -1) {
+            out.write(buffer, 0, len);
+        }
+        return out.toString();
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (null != children) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.inmemory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.apache.chemistry.opencmis.commons.PropertyIds;
+import org.apache.chemistry.opencmis.commons.data.PropertyData;
+import org.apache.chemistry.opencmis.commons.enums.BaseTypeId;
+import org.apache.chemistry.opencmis.commons.enums.VersioningState;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyIdImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyStringImpl;
+import org.apache.chemistry.opencmis.inmemory.storedobj.api.DocumentVersion;
+import org.apache.chemistry.opencmis.inmemory.storedobj.impl.ObjectStoreImpl;
+import org.apache.chemistry.opencmis.inmemory.storedobj.impl.VersionedDocumentImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the navigation in the versions of a version series.
+ */
+public class VersionNavigationTest extends TestCase {
+
+    private static final String TEST_REPOSITORY_ID = "TestRepositoryId";
+    private static final String USER = "user";
+    private static final int SERIES_VERSIONS = 1000;
+
+    private ObjectStoreImpl fStore;
+
+    @Override
+    @Before
+    protected void setUp() throws Exception {
+        ConfigurationSettings.init(new HashMap<String, String>());
+        fStore = new ObjectStoreImpl(TEST_REPOSITORY_ID);
+    }
+
+    @Test
+    public void testLatestVersionsFollowCheckInCancelAndDelete() {
+        DocumentVersion v10 = createDocument();
+        VersionedDocumentImpl document = (VersionedDocumentImpl) v10.getParentDocument();
+        DocumentVersion v11 = checkIn(document, false);
+        DocumentVersion v20 = checkIn(document, true);
+        DocumentVersion v21 = checkIn(document, false);
+        assertSame(v21, document.getLatestVersion(false));
+        assertSame(v20, document.getLatestVersion(true));
+        assertNull(document.getPwc());
+
+        DocumentVersion pwc = checkOut(document);
+        assertSame(pwc, document.getPwc());
+        assertSame(v21, document.getLatestVersion(false));
+        document.cancelCheckOut(USER);
+        assertNull(document.getPwc());
+        assertSame(v21, document.getLatestVersion(false));
+
+        assertTrue(document.deleteVersion(v21));
+        assertSame(v20, document.getLatestVersion(false));
+        assertTrue(document.deleteVersion(v20));
+        assertSame(v11, document.getLatestVersion(false));
+        assertSame(v10, document.getLatestVersion(true));
+        assertEquals(2, document.getAllVersions().size());
+    }
+
+    @Test
+    public void testDeletingPwcCancelsCheckOut() {
+        DocumentVersion v10 = createDocument();
+        VersionedDocumentImpl document = (VersionedDocumentImpl) v10.getParentDocument();
+        DocumentVersion pwc = checkOut(document);
+        assertTrue(document.isCheckedOut());
+        assertTrue(document.deleteVersion(pwc));
+        assertFalse(document.isCheckedOut());
+        assertNull(document.getPwc());
+        assertSame(v10, document.getLatestVersion(false));
+        assertSame(v10, document.getLatestVersion(true));
+    }
+
+    @Test
+    public void testNavigationInLongSeries() {
+        DocumentVersion first = createDocument();
+        VersionedDocumentImpl document = (VersionedDocumentImpl) first.getParentDocument();
+        DocumentVersion latestMajor = first;
+        DocumentVersion latest = first;
+        int latestMajorIndex = 0;
+        for (int i = 1; i < SERIES_VERSIONS; i++) {
+            boolean major = i % 100 == 0;
+            latest = checkIn(document, major);
+            if (major) {
+                latestMajor = latest;
+                latestMajorIndex = i;
+            }
+            assertSame(latest, document.getLatestVersion(false));
+            assertSame(latestMajor, document.getLatestVersion(true));
+        }
+        DocumentVersion pwc = checkOut(document);
+        assertSame(pwc, document.getPwc());
+        assertSame(latest, document.getLatestVersion(false));
+        assertSame(latestMajor, document.getLatestVersion(true));
+        assertEquals(SERIES_VERSIONS + 1, document.getAllVersions().size());
+
+        // removing the latest versions down to the latest major version
+        // moves the latest version back without changing the major one
+        assertTrue(document.deleteVersion(pwc));
+        while (document.getLatestVersion(false) != latestMajor) {
+            assertTrue(document.deleteVersion(document.getLatestVersion(false)));
+            assertSame(latestMajor, document.getLatestVersion(true));
+        }
+        assertEquals(latestMajorIndex + 1, document.getAllVersions().size());
+    }
+
+    private DocumentVersion createDocument() {
+        Map<String, PropertyData<?>> properties = new HashMap<String, PropertyData<?>>();
+        properties.put(PropertyIds.NAME, new PropertyStringImpl(PropertyIds.NAME, "bill.xml"));
+        properties.put(PropertyIds.OBJECT_TYPE_ID, new PropertyIdImpl(PropertyIds.OBJECT_TYPE_ID,
+                BaseTypeId.CMIS_DOCUMENT.value()));
+        return fStore.createVersionedDocument("bill.xml", properties, USER, fStore.getRootFolder(), null, null, null,
+                null, VersioningState.MAJOR);
+    }
+
+    private DocumentVersion checkOut(VersionedDocumentImpl document) {
+        DocumentVersion pwc = document.checkOut(USER);
+        fStore.storeVersion(pwc);
+        return pwc;
+    }
+
+    private DocumentVersion checkIn(VersionedDocumentImpl document, boolean major) {
+        DocumentVersion pwc = checkOut(document);
+        document.checkIn(major, null, null, "comment", null, USER);
+        return pwc;
+    }
+}
@@ -15,18 +15,22 @@ package eu.europa.ec.digit.userdata.controllers;
 
 import eu.europa.ec.digit.userdata.entities.Entity;
 import eu.europa.ec.digit.userdata.entities.User;
-import eu.europa.ec.digit.userdata.repositories.EntityRepository;
+import eu.europa.ec.digit.userdata.repositories.EntityHierarchy;
 import eu.europa.ec.digit.userdata.repositories.UserRepository;
+import eu.europa.ec.digit.userdata.repositories.UserSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Collection;
-import java.util.stream.Collectors;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 public class UserController {
@@ -37,16 +41,17 @@ public class UserController {
     UserRepository userRepository;
 
     @Autowired
-    EntityRepository entityRepository;
+    UserSearchIndex userSearchIndex;
+
+    @Autowired
+    EntityHierarchy entityHierarchy;
 
     @RequestMapping(method = RequestMethod.GET, path = "/users")
     @Transactional(readOnly = true)
     public Collection<User> searchUsers(
             @RequestParam(value = "searchKey", required = true) String searchKey,
             @RequestParam(value = "searchContext", required = false) String searchContext) {
-        return userRepository
-                .findUsersByKey(searchKey.trim().replace(" ", "%").concat("%"))
-                .limit(MAX_RECORDS).collect(Collectors.toList());
+        return userSearchIndex.findUsers(searchKey.trim().replace(" ", "%").concat("%"), null, MAX_RECORDS);
     }
 
     @RequestMapping(method = RequestMethod.GET, path = "/users/{userId}")
@@ -59,8 +64,7 @@ public class UserController {
     @RequestMapping(method = RequestMethod.GET, path = "/entities")
     @Transactional(readOnly = true)
     public Collection<String> getAllOrganizations() {
-        return entityRepository.findAllOrganizations()
-                .collect(Collectors.toList());
+        return entityHierarchy.findAllOrganizations();
     }
 
     @RequestMapping(method = RequestMethod.GET, path = "/entities/{org}/users")
@@ -68,20 +72,22 @@ public class UserController {
     public Collection<User> searchUsersByOrganizationAndKey(
             @PathVariable(value = "org", required = false) String organization,
             @RequestParam(value = "searchKey", required = true) String searchKey) {
-        return userRepository
-                .findUsersByKeyAndOrganization(
-                        searchKey.trim().replace(" ", "%").concat("%"),
-                        organization)
-                .limit(MAX_RECORDS).collect(Collectors.toList());
+        return userSearchIndex.findUsers(searchKey.trim().replace(" ", "%").concat("%"), organization, MAX_RECORDS);
     }
 
     @RequestMapping(method = RequestMethod.GET, path = "/entities/{userId}")
     @Transactional(readOnly = true)
     public Collection<Entity> getAllFullPathEntitiesForUser(
             @PathVariable(value = "userId", required = true) String userId) {
-        return entityRepository
-                .findAllFullPathEntities(getUser(userId).getEntities().stream()
-                        .map(e -> e.getId()).collect(Collectors.toList()))
-                .collect(Collectors.toList());
+        return entityHierarchy.findAllFullPathEntitiesForUser(userId);
+    }
+
+    @RequestMapping(method = RequestMethod.POST, path = "/entities/users")
+    @Transactional(readOnly = true)
+    public Map<String, Collection<Entity>> getAllFullPathEntitiesForUsers(
+            @RequestBody(required = true) List<String> userIds) {
+        Map<String, Collection<Entity>> entitiesByUser = new LinkedHashMap<>();
+        userIds.forEach(userId -> entitiesByUser.put(userId, entityHierarchy.findAllFullPathEntitiesForUser(userId)));
+        return entitiesByUser;
     }
 }
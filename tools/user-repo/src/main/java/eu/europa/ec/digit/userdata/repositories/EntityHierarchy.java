@@ -0,0 +1,144 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.digit.userdata.repositories;
+
+import eu.europa.ec.digit.userdata.entities.Entity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * In memory copy of the entity tree, with the path from the root of each entity, so the full path entities of users
+ * and the organizations are resolved without walking the tree in the database.
+ * <p>
+ * The tree and the user entities are maintained outside of this service, the copy is rebuilt every
+ * {@code entity.hierarchy.refresh} milliseconds. A copy is never modified once built.
+ */
+@Component
+public class EntityHierarchy {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EntityHierarchy.class);
+    // same order as EntityRepository.findAllFullPathEntities
+    private static final Comparator<Entity> ENTITY_ORDER = Comparator.comparing(Entity::getOrganizationName)
+            .thenComparing(Entity::getName)
+            .thenComparing(Entity::getId);
+
+    private final EntityRepository entityRepository;
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public EntityHierarchy(EntityRepository entityRepository) {
+        this.entityRepository = entityRepository;
+    }
+
+    /**
+     * @return the entities and all their ancestors, ordered by organization and name
+     */
+    public List<Entity> findAllFullPathEntities(Collection<String> entityIds) {
+        return getSnapshot().fullPathEntities(entityIds);
+    }
+
+    /**
+     * @return the entities of the user and all their ancestors, ordered by organization and name, or an empty list for an unknown user
+     */
+    public List<Entity> findAllFullPathEntitiesForUser(String login) {
+        Snapshot current = getSnapshot();
+        return current.fullPathEntities(current.userEntityIds.getOrDefault(login, Collections.emptyList()));
+    }
+
+    public List<String> findAllOrganizations() {
+        return getSnapshot().organizations;
+    }
+
+    @Scheduled(fixedDelayString = "${entity.hierarchy.refresh:600000}", initialDelayString = "${entity.hierarchy.refresh:600000}")
+    public void refresh() {
+        snapshot = load();
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = load();
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Snapshot load() {
+        long start = System.currentTimeMillis();
+        Snapshot loaded = new Snapshot(entityRepository.findAllEntities(), entityRepository.findAllUserEntityIds());
+        LOG.info("Entity hierarchy of {} entities built in {} ms", loaded.paths.size(), System.currentTimeMillis() - start);
+        return loaded;
+    }
+
+    static class Snapshot {
+        // entity id -> the entity and its ancestors, up to the root
+        private final Map<String, Entity[]> paths;
+        private final Map<String, List<String>> userEntityIds;
+        private final List<String> organizations;
+
+        Snapshot(List<Entity> entities, List<Object[]> userEntities) {
+            Map<String, Entity> entitiesById = new HashMap<>();
+            entities.forEach(entity -> entitiesById.put(entity.getId(), entity));
+
+            Map<String, Entity[]> entityPaths = new HashMap<>();
+            Set<String> organizationNames = new TreeSet<>();
+            for (Entity entity : entities) {
+                List<Entity> path = new ArrayList<>();
+                Set<String> visited = new LinkedHashSet<>();
+                for (Entity current = entity; current != null && visited.add(current.getId()); current = entitiesById.get(current.getParentId())) {
+                    path.add(current);
+                }
+                entityPaths.put(entity.getId(), path.toArray(new Entity[0]));
+                organizationNames.add(entity.getOrganizationName());
+            }
+            Map<String, List<String>> entityIdsByUser = new HashMap<>();
+            for (Object[] row : userEntities) {
+                entityIdsByUser.computeIfAbsent((String) row[0], login -> new ArrayList<>()).add((String) row[1]);
+            }
+            paths = Collections.unmodifiableMap(entityPaths);
+            userEntityIds = Collections.unmodifiableMap(entityIdsByUser);
+            organizations = Collections.unmodifiableList(new ArrayList<>(organizationNames));
+        }
+
+        List<Entity> fullPathEntities(Collection<String> entityIds) {
+            Set<Entity> result = new TreeSet<>(ENTITY_ORDER);
+            for (String entityId : entityIds) {
+                Entity[] path = paths.get(entityId);
+                if (path != null) {
+                    Collections.addAll(result, path);
+                }
+            }
+            return new ArrayList<>(result);
+        }
+    }
+}
@@ -33,4 +33,13 @@ public interface EntityRepository extends Repository<Entity, String> {
             + " ) "
             + " SELECT DISTINCT ENTITY_ID, ENTITY_NAME, ENTITY_PARENT_ID, ENTITY_ORG_NAME FROM ANCESTORS ORDER BY ENTITY_ORG_NAME, ENTITY_NAME ", nativeQuery = true)
     Stream<Entity> findAllFullPathEntities(List<String> entitiesIds);
-}
+
+    @Query(value = "SELECT ENTITY_ID, ENTITY_NAME, ENTITY_PARENT_ID, ENTITY_ORG_NAME FROM LEOS_ENTITY", nativeQuery = true)
+    List<Entity> findAllEntities();
+
+    /**
+     * @return login and entity id of all the users' entities
+     */
+    @Query(value = "SELECT USER_LOGIN, ENTITY_ID FROM LEOS_USER_ENTITY", nativeQuery = true)
+    List<Object[]> findAllUserEntityIds();
+}
\ No newline at end of file
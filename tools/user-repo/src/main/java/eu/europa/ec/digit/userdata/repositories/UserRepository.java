@@ -17,29 +17,51 @@ import eu.europa.ec.digit.userdata.entities.User;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.stream.Stream;
 
 public interface UserRepository extends Repository<User, Long> {
 
     User findByLogin(String login);
 
-    // FIXME: shift functions to DB later
+    /**
+     * @param key the search pattern, normalized with {@link UserSearchIndex#normalize(String)}
+     */
     @Query(value = "SELECT * FROM LEOS_USER " + " WHERE "
-            + " deAccent(USER_LASTNAME || ' ' || USER_FIRSTNAME) LIKE deAccent(?1) "
+            + " USER_SEARCH_LAST_FIRST LIKE ?1 "
             + " OR "
-            + " deAccent(USER_FIRSTNAME || ' ' || USER_LASTNAME) LIKE deAccent(?1) "
+            + " USER_SEARCH_FIRST_LAST LIKE ?1 "
             + " ORDER BY USER_LASTNAME, USER_FIRSTNAME ", nativeQuery = true)
     Stream<User> findUsersByKey(String key);
 
-    // FIXME: shift functions to DB later
+    /**
+     * @param key the search pattern, normalized with {@link UserSearchIndex#normalize(String)}
+     * @param organization the organization pattern, normalized with {@link UserSearchIndex#normalize(String)}
+     */
     @Query(value = "SELECT DISTINCT LEOS_USER.* FROM LEOS_USER INNER JOIN LEOS_USER_ENTITY ON LEOS_USER.USER_LOGIN = LEOS_USER_ENTITY.USER_LOGIN "
             + " INNER JOIN LEOS_ENTITY ON LEOS_USER_ENTITY.ENTITY_ID = LEOS_ENTITY.ENTITY_ID "
             + " WHERE "
-            + " (deAccent(USER_LASTNAME || ' ' || USER_FIRSTNAME) LIKE deAccent(?1) "
+            + " (USER_SEARCH_LAST_FIRST LIKE ?1 "
             + " OR "
-            + " deAccent(USER_FIRSTNAME || ' ' || USER_LASTNAME) LIKE deAccent(?1)) "
+            + " USER_SEARCH_FIRST_LAST LIKE ?1) "
             + " AND "
-            + " deAccent(LEOS_ENTITY.ENTITY_ORG_NAME) LIKE deAccent(?2) "
+            + " deAccent(LEOS_ENTITY.ENTITY_ORG_NAME) LIKE ?2 "
             + " ORDER BY USER_LASTNAME, USER_FIRSTNAME ", nativeQuery = true)
     Stream<User> findUsersByKeyAndOrganization(String key, String organization);
-}
\ No newline at end of file
+
+    List<User> findByLoginIn(Collection<String> logins);
+
+    /**
+     * @return login, last name and first name of all the users, in the order of the searches
+     */
+    @Query(value = "SELECT USER_LOGIN, USER_LASTNAME, USER_FIRSTNAME FROM LEOS_USER ORDER BY USER_LASTNAME, USER_FIRSTNAME", nativeQuery = true)
+    List<Object[]> findAllUserNames();
+
+    /**
+     * @return login and organization name of all the users' entities
+     */
+    @Query(value = "SELECT LEOS_USER_ENTITY.USER_LOGIN, LEOS_ENTITY.ENTITY_ORG_NAME FROM LEOS_USER_ENTITY "
+            + " INNER JOIN LEOS_ENTITY ON LEOS_USER_ENTITY.ENTITY_ID = LEOS_ENTITY.ENTITY_ID", nativeQuery = true)
+    List<Object[]> findAllUserOrganizations();
+}
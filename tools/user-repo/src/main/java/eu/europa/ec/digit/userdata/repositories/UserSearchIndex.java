@@ -0,0 +1,202 @@
+/*
+ * Copyright 2021 European Commission
+ *
+ * Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ *     https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+package eu.europa.ec.digit.userdata.repositories;
+
+import eu.europa.ec.digit.userdata.entities.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In memory prefix index of the normalized user names, so the type-ahead searches do not hit the database.
+ * <p>
+ * Each user is indexed under "LASTNAME FIRSTNAME" and "FIRSTNAME LASTNAME" in a sorted array: the literal prefix of
+ * the search pattern selects a range of the array by binary search, the rest of the pattern is then matched on that
+ * range only. Only the users found are loaded from the database. The user data is maintained outside of this service,
+ * the index is rebuilt every {@code user.search.index.refresh} milliseconds.
+ */
+@Component
+public class UserSearchIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserSearchIndex.class);
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}");
+
+    private final UserRepository userRepository;
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public UserSearchIndex(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Removes the accents and upper cases the value, as the deAccent database function does.
+     */
+    public static String normalize(String value) {
+        return DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("").toUpperCase();
+    }
+
+    /**
+     * Finds the users whose normalized names match the key, ordered by last name and first name.
+     *
+     * @param key the search pattern, with the LIKE wildcards
+     * @param organization the organization pattern, with the LIKE wildcards, or null for all the organizations
+     */
+    public List<User> findUsers(String key, String organization, int maxResults) {
+        List<String> logins = getSnapshot().search(normalize(key), organization == null ? null : normalize(organization), maxResults);
+        if (logins.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<String, User> users = userRepository.findByLoginIn(logins).stream()
+                .collect(Collectors.toMap(User::getLogin, user -> user));
+        return logins.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Scheduled(fixedDelayString = "${user.search.index.refresh:600000}", initialDelayString = "${user.search.index.refresh:600000}")
+    public void refresh() {
+        snapshot = load();
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = load();
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Snapshot load() {
+        long start = System.currentTimeMillis();
+        Snapshot loaded = new Snapshot(userRepository.findAllUserNames(), userRepository.findAllUserOrganizations());
+        LOG.info("User search index of {} users built in {} ms", loaded.logins.length, System.currentTimeMillis() - start);
+        return loaded;
+    }
+
+    static class Snapshot {
+        // users in search result order
+        private final String[] logins;
+        // organizations of each user, normalized
+        private final Set<String>[] organizations;
+        // normalized names, sorted, and the user of each name
+        private final String[] names;
+        private final int[] nameUsers;
+
+        @SuppressWarnings("unchecked")
+        Snapshot(List<Object[]> userNames, List<Object[]> userOrganizations) {
+            logins = new String[userNames.size()];
+            organizations = new Set[userNames.size()];
+            Map<String, Integer> userIndexes = new HashMap<>();
+            List<SimpleEntry<String, Integer>> entries = new ArrayList<>(userNames.size() * 2);
+            for (int i = 0; i < userNames.size(); i++) {
+                Object[] row = userNames.get(i);
+                logins[i] = (String) row[0];
+                organizations[i] = new HashSet<>();
+                userIndexes.put(logins[i], i);
+                String lastName = row[1] == null ? "" : (String) row[1];
+                String firstName = row[2] == null ? "" : (String) row[2];
+                entries.add(new SimpleEntry<>(normalize(lastName + " " + firstName), i));
+                entries.add(new SimpleEntry<>(normalize(firstName + " " + lastName), i));
+            }
+            for (Object[] row : userOrganizations) {
+                Integer index = userIndexes.get((String) row[0]);
+                if (index != null && row[1] != null) {
+                    organizations[index].add(normalize((String) row[1]));
+                }
+            }
+            entries.sort(Comparator.comparing(SimpleEntry::getKey));
+            names = new String[entries.size()];
+            nameUsers = new int[entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                names[i] = entries.get(i).getKey();
+                nameUsers[i] = entries.get(i).getValue();
+            }
+        }
+
+        List<String> search(String key, String organization, int maxResults) {
+            String prefix = literalPrefix(key);
+            Pattern keyPattern = likeToRegex(key);
+            Pattern organizationPattern = organization == null ? null : likeToRegex(organization);
+
+            BitSet found = new BitSet(logins.length);
+            int from = Arrays.binarySearch(names, prefix);
+            for (int i = from < 0 ? -from - 1 : from; i < names.length && names[i].startsWith(prefix); i++) {
+                int user = nameUsers[i];
+                if (!found.get(user) && keyPattern.matcher(names[i]).matches()
+                        && (organizationPattern == null || organizations[user].stream().anyMatch(org -> organizationPattern.matcher(org).matches()))) {
+                    found.set(user);
+                }
+            }
+            List<String> result = new ArrayList<>(Math.min(maxResults, found.cardinality()));
+            for (int user = found.nextSetBit(0); user >= 0 && result.size() < maxResults; user = found.nextSetBit(user + 1)) {
+                result.add(logins[user]);
+            }
+            return result;
+        }
+
+        private static String literalPrefix(String like) {
+            int end = 0;
+            while (end < like.length() && like.charAt(end) != '%' && like.charAt(end) != '_') {
+                end++;
+            }
+            return like.substring(0, end);
+        }
+
+        private static Pattern likeToRegex(String like) {
+            StringBuilder regex = new StringBuilder();
+            StringBuilder literal = new StringBuilder();
+            for (char c : like.toCharArray()) {
+                if (c == '%' || c == '_') {
+                    if (literal.length() > 0) {
+                        regex.append(Pattern.quote(literal.toString()));
+                        literal.setLength(0);
+                    }
+                    regex.append(c == '%' ? ".*" : ".");
+                } else {
+                    literal.append(c);
+                }
+            }
+            if (literal.length() > 0) {
+                regex.append(Pattern.quote(literal.toString()));
+            }
+            return Pattern.compile(regex.toString(), Pattern.DOTALL);
+        }
+    }
+}
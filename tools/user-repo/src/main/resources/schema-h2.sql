@@ -1,11 +1,24 @@
+-- normalizes a name for the search: accents removed and upper case, as UserSearchIndex.normalize does
+CREATE ALIAS deAccent AS '
+  String deAccent(String value) throws Exception{
+      return java.text.Normalizer.normalize(value, java.text.Normalizer.Form.NFD).replaceAll("\\p{M}", "").toUpperCase();
+  }
+';
+
 CREATE TABLE LEOS_USER (
     USER_LOGIN              VARCHAR2(50 CHAR),
     USER_PER_ID             NUMBER(8,0) NOT NULL AUTO_INCREMENT,
     USER_LASTNAME           VARCHAR2(50 CHAR),
     USER_FIRSTNAME          VARCHAR2(50 CHAR),
     USER_EMAIL              VARCHAR2(320 CHAR),
+    USER_SEARCH_LAST_FIRST  VARCHAR2(101 CHAR) AS deAccent(USER_LASTNAME || ' ' || USER_FIRSTNAME),
+    USER_SEARCH_FIRST_LAST  VARCHAR2(101 CHAR) AS deAccent(USER_FIRSTNAME || ' ' || USER_LASTNAME),
     CONSTRAINT PK_LEOS_USER PRIMARY KEY(USER_LOGIN));
 
+-- prefix searches on the normalized names use these indexes instead of scanning the table
+CREATE INDEX IDX_LEOS_USER_SEARCH_LAST_FIRST ON LEOS_USER(USER_SEARCH_LAST_FIRST);
+CREATE INDEX IDX_LEOS_USER_SEARCH_FIRST_LAST ON LEOS_USER(USER_SEARCH_FIRST_LAST);
+
 CREATE TABLE LEOS_ENTITY (
     ENTITY_ID               VARCHAR2(20 CHAR),
     ENTITY_NAME             VARCHAR2(50 CHAR) NOT NULL,
@@ -13,6 +26,8 @@ CREATE TABLE LEOS_ENTITY (
     ENTITY_ORG_NAME         VARCHAR2(4000 CHAR) NOT NULL,
     CONSTRAINT PK_LEOS_ENTITY PRIMARY KEY(ENTITY_ID));
 
+CREATE INDEX IDX_LEOS_ENTITY_ORG_NAME ON LEOS_ENTITY(ENTITY_ORG_NAME);
+
 ALTER TABLE LEOS_ENTITY ADD CONSTRAINT FK_ENTITY_PARENT FOREIGN KEY (ENTITY_PARENT_ID)
     REFERENCES LEOS_ENTITY(ENTITY_ID) ON DELETE CASCADE;
 
@@ -42,9 +57,3 @@ ALTER TABLE LEOS_USER_ROLE ADD CONSTRAINT FK_LEOS_USER_ROLE_LEOS_USER FOREIGN KE
 
 ALTER TABLE LEOS_USER_ROLE ADD CONSTRAINT FK_LEOS_USER_ROLE_LEOS_ROLE FOREIGN KEY (ROLE_NAME)
     REFERENCES LEOS_ROLE (ROLE_NAME) ON DELETE CASCADE;
-
-CREATE ALIAS deAccent AS '
-  String deAccent(String value) throws Exception{
-      return value.toUpperCase();
-  }
-';
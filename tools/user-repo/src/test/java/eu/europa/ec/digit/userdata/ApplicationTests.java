@@ -15,8 +15,10 @@ package eu.europa.ec.digit.userdata;
 
 import eu.europa.ec.digit.userdata.entities.Entity;
 import eu.europa.ec.digit.userdata.entities.User;
+import eu.europa.ec.digit.userdata.repositories.EntityHierarchy;
 import eu.europa.ec.digit.userdata.repositories.EntityRepository;
 import eu.europa.ec.digit.userdata.repositories.UserRepository;
+import eu.europa.ec.digit.userdata.repositories.UserSearchIndex;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.slf4j.Logger;
@@ -48,6 +50,12 @@ public class ApplicationTests {
     @Autowired
     private EntityRepository entityRepository;
 
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private EntityHierarchy entityHierarchy;
+
     @Test
     @Transactional(readOnly = true)
     public void test_findUsersByKey() {
@@ -55,6 +63,23 @@ public class ApplicationTests {
         users.forEach(user -> LOG.debug(user.getLogin()));
     }
 
+    @Test
+    @Transactional(readOnly = true)
+    public void test_findUsersByNormalizedKey() {
+        List<String> logins = userRepository.findUsersByKey(UserSearchIndex.normalize("jo%doe%"))
+                .map(User::getLogin).collect(Collectors.toList());
+        assertEquals(Arrays.asList("john"), logins);
+    }
+
+    @Test
+    @Transactional(readOnly = true)
+    public void test_userSearchIndex_findUsers() {
+        assertEquals(Arrays.asList("jane", "john"), logins(userSearchIndex.findUsers("doe%", null, 100)));
+        assertEquals(Arrays.asList("john"), logins(userSearchIndex.findUsers("john%doe%", null, 100)));
+        assertEquals(Arrays.asList("jane"), logins(userSearchIndex.findUsers("doe%", null, 1)));
+        assertEquals(Arrays.asList("jane"), logins(userSearchIndex.findUsers("dôe%", "dgt", 100)));
+    }
+
     @Test
     @Transactional(readOnly = true)
     public void test_findBylogin() {
@@ -81,4 +106,28 @@ public class ApplicationTests {
         List<Entity> test = entities.collect(Collectors.toList());
         assertEquals(test.size(), 8);
     }
+
+    @Test
+    @Transactional(readOnly = true)
+    public void test_entityHierarchy_sameAsRepository() {
+        List<String> expected = entityRepository.findAllFullPathEntities(Arrays.asList("4", "8"))
+                .map(Entity::getId).collect(Collectors.toList());
+        List<String> actual = entityHierarchy.findAllFullPathEntities(Arrays.asList("4", "8")).stream()
+                .map(Entity::getId).collect(Collectors.toList());
+        assertEquals(expected, actual);
+        assertEquals(entityRepository.findAllOrganizations().collect(Collectors.toList()), entityHierarchy.findAllOrganizations());
+    }
+
+    @Test
+    @Transactional(readOnly = true)
+    public void test_entityHierarchy_findAllFullPathEntitiesForUser() {
+        List<String> names = entityHierarchy.findAllFullPathEntitiesForUser("jane").stream()
+                .map(Entity::getName).collect(Collectors.toList());
+        assertEquals(Arrays.asList("DGT", "DGT.R", "DGT.R.3"), names);
+        assertEquals(0, entityHierarchy.findAllFullPathEntitiesForUser("unknown").size());
+    }
+
+    private static List<String> logins(List<User> users) {
+        return users.stream().map(User::getLogin).collect(Collectors.toList());
+    }
 }